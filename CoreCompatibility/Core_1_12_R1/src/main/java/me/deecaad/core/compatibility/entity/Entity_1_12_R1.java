@@ -1,6 +1,7 @@
 package me.deecaad.core.compatibility.entity;
 
 import me.deecaad.core.compatibility.HitBox;
+import me.deecaad.core.compatibility.equipevent.LazyItemStack;
 import me.deecaad.core.compatibility.equipevent.NonNullList_1_12_R1;
 import me.deecaad.core.compatibility.equipevent.TriIntConsumer;
 import me.deecaad.core.utils.LogLevel;
@@ -69,7 +70,7 @@ public class Entity_1_12_R1 implements EntityCompatibility {
     }
 
     @Override
-    public List generateNonNullList(int size, TriIntConsumer<org.bukkit.inventory.ItemStack, org.bukkit.inventory.ItemStack> consumer) {
+    public List generateNonNullList(int size, TriIntConsumer<LazyItemStack, LazyItemStack> consumer) {
         return new NonNullList_1_12_R1(size, consumer);
     }
 
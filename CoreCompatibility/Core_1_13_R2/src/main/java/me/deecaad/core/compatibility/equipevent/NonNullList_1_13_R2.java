@@ -25,9 +25,9 @@ public class NonNullList_1_13_R2 extends NonNullList<ItemStack> {
         }
     }
 
-    private final TriIntConsumer<org.bukkit.inventory.ItemStack, org.bukkit.inventory.ItemStack> consumer;
+    private final TriIntConsumer<LazyItemStack, LazyItemStack> consumer;
 
-    public NonNullList_1_13_R2(int size, TriIntConsumer<org.bukkit.inventory.ItemStack, org.bukkit.inventory.ItemStack> consumer) {
+    public NonNullList_1_13_R2(int size, TriIntConsumer<LazyItemStack, LazyItemStack> consumer) {
         super(generate(size), ItemStack.a);
 
         this.consumer = consumer;
@@ -39,23 +39,37 @@ public class NonNullList_1_13_R2 extends NonNullList<ItemStack> {
 
         if (newItem.getCount() == 0 && ReflectionUtil.invokeField(itemField, newItem) != null) {
             newItem.setCount(1);
-            consumer.accept(CraftItemStack.asBukkitCopy(oldItem), CraftItemStack.asBukkitCopy(newItem), index);
+            consumer.accept(lazy(oldItem), lazy(newItem), index);
             newItem.setCount(0);
         }
 
         else if (oldItem.getCount() == 0 && ReflectionUtil.invokeField(itemField, oldItem) != null) {
             oldItem.setCount(1);
-            consumer.accept(CraftItemStack.asBukkitCopy(oldItem), CraftItemStack.asBukkitCopy(newItem), index);
+            consumer.accept(lazy(oldItem), lazy(newItem), index);
             oldItem.setCount(0);
         }
 
         else if (!ItemStack.matches(oldItem, newItem)) {
-            consumer.accept(CraftItemStack.asBukkitCopy(oldItem), CraftItemStack.asBukkitCopy(newItem), index);
+            consumer.accept(lazy(oldItem), lazy(newItem), index);
         }
 
         return super.set(index, newItem);
     }
 
+    private static LazyItemStack lazy(ItemStack item) {
+        return new LazyItemStack() {
+            @Override
+            public org.bukkit.inventory.ItemStack mirror() {
+                return CraftItemStack.asCraftMirror(item);
+            }
+
+            @Override
+            protected org.bukkit.inventory.ItemStack copy() {
+                return CraftItemStack.asBukkitCopy(item);
+            }
+        };
+    }
+
     private static List<ItemStack> generate(int size) {
         ItemStack[] items = new ItemStack[size];
         Arrays.fill(items, ItemStack.a);
@@ -1,5 +1,6 @@
 package me.deecaad.core.compatibility.entity;
 
+import me.deecaad.core.compatibility.equipevent.LazyItemStack;
 import me.deecaad.core.compatibility.equipevent.NonNullList_1_14_R1;
 import me.deecaad.core.compatibility.equipevent.TriIntConsumer;
 import me.deecaad.core.utils.LogLevel;
@@ -43,7 +44,7 @@ public class Entity_1_14_R1 implements EntityCompatibility {
     }
 
     @Override
-    public List generateNonNullList(int size, TriIntConsumer<org.bukkit.inventory.ItemStack, org.bukkit.inventory.ItemStack> consumer) {
+    public List generateNonNullList(int size, TriIntConsumer<LazyItemStack, LazyItemStack> consumer) {
         return new NonNullList_1_14_R1(size, consumer);
     }
 
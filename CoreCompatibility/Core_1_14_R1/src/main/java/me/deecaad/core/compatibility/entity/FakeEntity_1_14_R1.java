@@ -1,6 +1,5 @@
 package me.deecaad.core.compatibility.entity;
 
-import me.deecaad.core.utils.DistanceUtil;
 import me.deecaad.core.utils.LogLevel;
 import me.deecaad.core.utils.ReflectionUtil;
 import net.minecraft.server.v1_14_R1.*;
@@ -19,9 +18,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import static net.minecraft.server.v1_14_R1.PacketPlayOutEntity.PacketPlayOutEntityLook;
 import static net.minecraft.server.v1_14_R1.PacketPlayOutEntity.PacketPlayOutRelEntityMoveLook;
@@ -41,8 +41,16 @@ public class FakeEntity_1_14_R1 extends FakeEntity {
     // Store this since using Enum#values() is especially slow
     public static final EnumItemSlot[] SLOTS = EnumItemSlot.values();
 
+    // Movement packets are sent once per tick (bundles only exist in 1.19.4+)
+    private static final FakeEntityBatcher<PlayerConnection, Packet<?>> BATCHER = new FakeEntityBatcher<>() {
+        @Override
+        protected void send(@NotNull PlayerConnection connection, @NotNull Packet<?> packet) {
+            connection.sendPacket(packet);
+        }
+    };
+
     private final Entity entity;
-    private final List<PlayerConnection> connections; // store the player connection to avoid type cast
+    private final Set<PlayerConnection> connections; // store the player connection to avoid type cast
 
     // Only 1 of these can be used at a time
     private IBlockData block;
@@ -85,7 +93,7 @@ public class FakeEntity_1_14_R1 extends FakeEntity {
 
         this.setLocation(x, y, z, location.getYaw(), location.getPitch());
         this.cache = entity.getId();
-        this.connections = new LinkedList<>(); // We only need to iterate/remove, so LinkedList is best
+        this.connections = new HashSet<>(); // show() checks every viewer, so use hash lookups
     }
 
     @Override
@@ -143,7 +151,7 @@ public class FakeEntity_1_14_R1 extends FakeEntity {
         motion.setY(dy);
         motion.setZ(dz);
 
-        sendPackets(packet);
+        queuePackets(packet);
     }
 
     @Override
@@ -163,7 +171,7 @@ public class FakeEntity_1_14_R1 extends FakeEntity {
         PacketPlayOutEntityLook packet = new PacketPlayOutEntityLook(cache, byteYaw, convertPitch(pitch), false);
         PacketPlayOutEntityHeadRotation head = new PacketPlayOutEntityHeadRotation(entity, byteYaw);
 
-        sendPackets(packet, head);
+        queuePackets(packet, head);
 
         if (type == EntityType.ARMOR_STAND) updateMeta();
     }
@@ -173,7 +181,7 @@ public class FakeEntity_1_14_R1 extends FakeEntity {
         PacketPlayOutEntityTeleport packet = new PacketPlayOutEntityTeleport(entity);
         PacketPlayOutEntityHeadRotation head = new PacketPlayOutEntityHeadRotation(entity, convertYaw(yaw));
 
-        sendPackets(packet, head);
+        queuePackets(packet, head);
     }
 
     @Override
@@ -181,7 +189,7 @@ public class FakeEntity_1_14_R1 extends FakeEntity {
         PacketPlayOutRelEntityMoveLook packet = new PacketPlayOutRelEntityMoveLook(cache, dx, dy, dz, yaw, pitch, false);
         PacketPlayOutEntityHeadRotation head = new PacketPlayOutEntityHeadRotation(entity, convertYaw(yaw));
 
-        sendPackets(packet, head);
+        queuePackets(packet, head);
     }
 
     public void show() {
@@ -197,7 +205,7 @@ public class FakeEntity_1_14_R1 extends FakeEntity {
         PacketPlayOutEntityVelocity velocity = new PacketPlayOutEntityVelocity(cache, new Vec3D(motion.getX(), motion.getY(), motion.getZ()));
 
 
-        for (Player temp : DistanceUtil.getPlayersInRange(location)) {
+        for (Player temp : FakeEntityViewers.getViewers(location)) {
             PlayerConnection connection = ((CraftPlayer) temp).getHandle().playerConnection;
             if (connections.contains(connection)) {
                 continue;
@@ -327,4 +335,18 @@ public class FakeEntity_1_14_R1 extends FakeEntity {
             }
         }
     }
+
+    private void queuePackets(Packet<?>... packets) {
+        Iterator<PlayerConnection> connectionIterator = connections.iterator();
+        while (connectionIterator.hasNext()) {
+            PlayerConnection connection = connectionIterator.next();
+            if (connection.isDisconnected()) {
+                connectionIterator.remove();
+                continue;
+            }
+            for (Packet<?> packet : packets) {
+                BATCHER.queue(connection, packet);
+            }
+        }
+    }
 }
@@ -2,6 +2,7 @@ package me.deecaad.core.compatibility.entity;
 
 import com.mojang.datafixers.util.Pair;
 import me.deecaad.core.MechanicsCore;
+import me.deecaad.core.compatibility.equipevent.LazyItemStack;
 import me.deecaad.core.compatibility.equipevent.NonNullList_1_18_R2;
 import me.deecaad.core.compatibility.equipevent.TriIntConsumer;
 import me.deecaad.core.utils.LogLevel;
@@ -44,7 +45,7 @@ public class Entity_1_18_R2 implements EntityCompatibility {
     }
 
     @Override
-    public List generateNonNullList(int size, TriIntConsumer<org.bukkit.inventory.ItemStack, org.bukkit.inventory.ItemStack> consumer) {
+    public List generateNonNullList(int size, TriIntConsumer<LazyItemStack, LazyItemStack> consumer) {
         return new NonNullList_1_18_R2(size, consumer);
     }
 
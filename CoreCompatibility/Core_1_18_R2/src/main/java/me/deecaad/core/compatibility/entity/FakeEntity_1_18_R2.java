@@ -1,7 +1,6 @@
 package me.deecaad.core.compatibility.entity;
 
 import com.mojang.datafixers.util.Pair;
-import me.deecaad.core.utils.DistanceUtil;
 import me.deecaad.core.utils.LogLevel;
 import me.deecaad.core.utils.ReflectionUtil;
 import net.minecraft.core.Rotations;
@@ -34,9 +33,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import static net.minecraft.network.protocol.game.ClientboundMoveEntityPacket.PosRot;
 import static net.minecraft.network.protocol.game.ClientboundMoveEntityPacket.Rot;
@@ -56,8 +56,16 @@ public class FakeEntity_1_18_R2 extends FakeEntity {
     // Store this since using Enum#values() is especially slow
     public static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
 
+    // Movement packets are sent once per tick (bundles only exist in 1.19.4+)
+    private static final FakeEntityBatcher<ServerGamePacketListenerImpl, Packet<?>> BATCHER = new FakeEntityBatcher<>() {
+        @Override
+        protected void send(@NotNull ServerGamePacketListenerImpl connection, @NotNull Packet<?> packet) {
+            connection.send(packet);
+        }
+    };
+
     private final Entity entity;
-    private final List<ServerGamePacketListenerImpl> connections; // store the player connection to avoid type cast
+    private final Set<ServerGamePacketListenerImpl> connections; // store the player connection to avoid type cast
 
     // Only 1 of these can be used at a time
     private BlockState block;
@@ -104,7 +112,7 @@ public class FakeEntity_1_18_R2 extends FakeEntity {
 
         this.setLocation(x, y, z, location.getYaw(), location.getPitch());
         this.cache = entity.getId();
-        this.connections = new LinkedList<>(); // We only need to iterate/remove, so LinkedList is best
+        this.connections = new HashSet<>(); // show() checks every viewer, so use hash lookups
     }
 
     @Override
@@ -162,7 +170,7 @@ public class FakeEntity_1_18_R2 extends FakeEntity {
         motion.setY(dy);
         motion.setZ(dz);
 
-        sendPackets(packet);
+        queuePackets(packet);
     }
 
     @Override
@@ -182,7 +190,7 @@ public class FakeEntity_1_18_R2 extends FakeEntity {
         Rot packet = new Rot(cache, byteYaw, convertPitch(pitch), false);
         ClientboundRotateHeadPacket head = new ClientboundRotateHeadPacket(entity, byteYaw);
 
-        sendPackets(packet, head);
+        queuePackets(packet, head);
 
         if (type == EntityType.ARMOR_STAND) updateMeta();
     }
@@ -192,7 +200,7 @@ public class FakeEntity_1_18_R2 extends FakeEntity {
         ClientboundTeleportEntityPacket packet = new ClientboundTeleportEntityPacket(entity);
         ClientboundRotateHeadPacket head = new ClientboundRotateHeadPacket(entity, convertYaw(yaw));
 
-        sendPackets(packet, head);
+        queuePackets(packet, head);
     }
 
     @Override
@@ -200,7 +208,7 @@ public class FakeEntity_1_18_R2 extends FakeEntity {
         PosRot packet = new PosRot(cache, dx, dy, dz, yaw, pitch, false);
         ClientboundRotateHeadPacket head = new ClientboundRotateHeadPacket(entity, convertYaw(yaw));
 
-        sendPackets(packet, head);
+        queuePackets(packet, head);
     }
 
     @Override
@@ -214,7 +222,7 @@ public class FakeEntity_1_18_R2 extends FakeEntity {
         ClientboundSetEntityMotionPacket velocity = new ClientboundSetEntityMotionPacket(cache, new Vec3(motion.getX(), motion.getY(), motion.getZ()));
         ClientboundSetEquipmentPacket equipment = getEquipmentPacket();
 
-        for (Player temp : DistanceUtil.getPlayersInRange(location)) {
+        for (Player temp : FakeEntityViewers.getViewers(location)) {
             ServerGamePacketListenerImpl connection = ((CraftPlayer) temp).getHandle().connection;
             if (connections.contains(connection)) {
                 continue;
@@ -334,4 +342,18 @@ public class FakeEntity_1_18_R2 extends FakeEntity {
             }
         }
     }
+
+    private void queuePackets(Packet<?>... packets) {
+        Iterator<ServerGamePacketListenerImpl> connectionIterator = connections.iterator();
+        while (connectionIterator.hasNext()) {
+            ServerGamePacketListenerImpl connection = connectionIterator.next();
+            if (connection.isDisconnected()) {
+                connectionIterator.remove();
+                continue;
+            }
+            for (Packet<?> packet : packets) {
+                BATCHER.queue(connection, packet);
+            }
+        }
+    }
 }
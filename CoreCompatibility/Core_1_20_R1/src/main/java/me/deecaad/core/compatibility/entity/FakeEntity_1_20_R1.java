@@ -1,7 +1,6 @@
 package me.deecaad.core.compatibility.entity;
 
 import com.mojang.datafixers.util.Pair;
-import me.deecaad.core.utils.DistanceUtil;
 import me.deecaad.core.utils.LogLevel;
 import me.deecaad.core.utils.ReflectionUtil;
 import net.minecraft.core.Rotations;
@@ -35,9 +34,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import static me.deecaad.core.compatibility.entity.Entity_1_20_R1.getEntityData;
 import static net.minecraft.network.protocol.game.ClientboundMoveEntityPacket.PosRot;
@@ -57,9 +57,25 @@ public class FakeEntity_1_20_R1 extends FakeEntity {
 
     // Store this since using Enum#values() is especially slow
     public static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
+    private static final int MAX_BUNDLE_SIZE = 4096;
+
+    // Movement packets are sent once per tick, in 1 bundle per player
+    private static final FakeEntityBatcher<ServerGamePacketListenerImpl, Packet<ClientGamePacketListener>> BATCHER = new FakeEntityBatcher<>() {
+        @Override
+        protected void send(@NotNull ServerGamePacketListenerImpl connection, @NotNull Packet<ClientGamePacketListener> packet) {
+            connection.send(packet);
+        }
+
+        @Override
+        protected void sendAll(@NotNull ServerGamePacketListenerImpl connection, @NotNull List<Packet<ClientGamePacketListener>> packets) {
+            // The client disconnects when a bundle has more than 4096 packets
+            for (int i = 0; i < packets.size(); i += MAX_BUNDLE_SIZE)
+                connection.send(new ClientboundBundlePacket(packets.subList(i, Math.min(packets.size(), i + MAX_BUNDLE_SIZE))));
+        }
+    };
 
     private final Entity entity;
-    private final List<ServerGamePacketListenerImpl> connections; // store the player connection to avoid type cast
+    private final Set<ServerGamePacketListenerImpl> connections; // store the player connection to avoid type cast
 
     // Only 1 of these can be used at a time
     private BlockState block;
@@ -112,7 +128,7 @@ public class FakeEntity_1_20_R1 extends FakeEntity {
 
         this.setLocation(x, y, z, location.getYaw(), location.getPitch());
         this.cache = entity.getId();
-        this.connections = new LinkedList<>(); // We only need to iterate/remove, so LinkedList is best
+        this.connections = new HashSet<>(); // show() checks every viewer, so use hash lookups
     }
 
     @Override
@@ -170,7 +186,7 @@ public class FakeEntity_1_20_R1 extends FakeEntity {
         motion.setY(dy);
         motion.setZ(dz);
 
-        sendPackets(packet);
+        queuePackets(packet);
     }
 
     @Override
@@ -190,7 +206,7 @@ public class FakeEntity_1_20_R1 extends FakeEntity {
         Rot packet = new Rot(cache, byteYaw, convertPitch(pitch), false);
         ClientboundRotateHeadPacket head = new ClientboundRotateHeadPacket(entity, byteYaw);
 
-        sendPackets(packet, head);
+        queuePackets(packet, head);
 
         if (type == EntityType.ARMOR_STAND || entity instanceof Display) updateMeta();
     }
@@ -200,7 +216,7 @@ public class FakeEntity_1_20_R1 extends FakeEntity {
         ClientboundTeleportEntityPacket packet = new ClientboundTeleportEntityPacket(entity);
         ClientboundRotateHeadPacket head = new ClientboundRotateHeadPacket(entity, convertYaw(yaw));
 
-        sendPackets(packet, head);
+        queuePackets(packet, head);
     }
 
     @Override
@@ -208,7 +224,7 @@ public class FakeEntity_1_20_R1 extends FakeEntity {
         PosRot packet = new PosRot(cache, dx, dy, dz, yaw, pitch, false);
         ClientboundRotateHeadPacket head = new ClientboundRotateHeadPacket(entity, convertYaw(yaw));
 
-        sendPackets(packet, head);
+        queuePackets(packet, head);
     }
 
     @Override
@@ -223,7 +239,7 @@ public class FakeEntity_1_20_R1 extends FakeEntity {
         ClientboundSetEntityMotionPacket velocity = new ClientboundSetEntityMotionPacket(cache, new Vec3(motion.getX(), motion.getY(), motion.getZ()));
         ClientboundSetEquipmentPacket equipment = getEquipmentPacket();
 
-        for (Player temp : DistanceUtil.getPlayersInRange(location)) {
+        for (Player temp : FakeEntityViewers.getViewers(location)) {
             ServerGamePacketListenerImpl connection = ((CraftPlayer) temp).getHandle().connection;
             if (connections.contains(connection)) {
                 continue;
@@ -343,4 +359,19 @@ public class FakeEntity_1_20_R1 extends FakeEntity {
             }
         }
     }
+
+    @SafeVarargs
+    private void queuePackets(Packet<ClientGamePacketListener>... packets) {
+        Iterator<ServerGamePacketListenerImpl> connectionIterator = connections.iterator();
+        while (connectionIterator.hasNext()) {
+            ServerGamePacketListenerImpl connection = connectionIterator.next();
+            if (connection.isDisconnected()) {
+                connectionIterator.remove();
+                continue;
+            }
+            for (Packet<ClientGamePacketListener> packet : packets) {
+                BATCHER.queue(connection, packet);
+            }
+        }
+    }
 }
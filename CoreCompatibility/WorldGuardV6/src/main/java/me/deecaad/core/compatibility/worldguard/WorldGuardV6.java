@@ -1,26 +1,36 @@
 package me.deecaad.core.compatibility.worldguard;
 
+import com.sk89q.worldedit.BlockVector;
 import com.sk89q.worldguard.LocalPlayer;
 import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
 import com.sk89q.worldguard.protection.ApplicableRegionSet;
+import com.sk89q.worldguard.protection.RegionResultSet;
 import com.sk89q.worldguard.protection.flags.*;
 import com.sk89q.worldguard.protection.flags.registry.FlagConflictException;
 import com.sk89q.worldguard.protection.flags.registry.FlagRegistry;
 import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 
 public class WorldGuardV6 implements WorldGuardCompatibility {
 
+    private static final String BULK_QUERY_ID = "weaponmechanics_bulk_query";
+
     private final Map<String, Flag<?>> flags;
     private final FlagRegistry registry;
 
@@ -35,6 +45,82 @@ public class WorldGuardV6 implements WorldGuardCompatibility {
         ApplicableRegionSet applicableRegionSet = regionManager.getApplicableRegions(location);
         LocalPlayer local = player == null ? null : WorldGuardPlugin.inst().wrapPlayer(player);
 
+        return applicableRegionSet.testState(local, getStateFlag(flagName));
+    }
+
+    @Override
+    public @NotNull List<Block> filterBlocks(@NotNull List<Block> blocks, @Nullable Player player, @NotNull String flagName) {
+        if (blocks.isEmpty())
+            return blocks;
+
+        StateFlag flag = getStateFlag(flagName);
+        RegionManager regionManager = WorldGuardPlugin.inst().getRegionManager(blocks.get(0).getWorld());
+
+        // Regions are disabled in this world
+        if (regionManager == null)
+            return blocks;
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (Block block : blocks) {
+            minX = Math.min(minX, block.getX());
+            minY = Math.min(minY, block.getY());
+            minZ = Math.min(minZ, block.getZ());
+            maxX = Math.max(maxX, block.getX());
+            maxY = Math.max(maxY, block.getY());
+            maxZ = Math.max(maxZ, block.getZ());
+        }
+
+        // Every region which may contain one of the blocks
+        ProtectedRegion box = new ProtectedCuboidRegion(BULK_QUERY_ID, new BlockVector(minX, minY, minZ), new BlockVector(maxX, maxY, maxZ));
+        List<ProtectedRegion> regions = new ArrayList<>(regionManager.getApplicableRegions(box).getRegions());
+        if (regions.size() > Long.SIZE)
+            return WorldGuardCompatibility.super.filterBlocks(blocks, player, flagName);
+
+        ProtectedRegion global = regionManager.getRegion(ProtectedRegion.GLOBAL_REGION);
+        LocalPlayer local = player == null ? null : WorldGuardPlugin.inst().wrapPlayer(player);
+
+        // Blocks in the same regions have the same result, so the flag is
+        // only tested once for each combination of regions
+        Map<Long, Boolean> results = new HashMap<>();
+        List<Block> allowed = new ArrayList<>(blocks.size());
+        for (Block block : blocks) {
+            int x = block.getX();
+            int y = block.getY();
+            int z = block.getZ();
+
+            long mask = 0L;
+            for (int i = 0; i < regions.size(); i++) {
+                if (regions.get(i).contains(x, y, z))
+                    mask |= 1L << i;
+            }
+
+            Boolean result = results.get(mask);
+            if (result == null) {
+                result = testState(regions, mask, global, local, flag);
+                results.put(mask, result);
+            }
+            if (result)
+                allowed.add(block);
+        }
+
+        return allowed.size() == blocks.size() ? blocks : allowed;
+    }
+
+    private static boolean testState(List<ProtectedRegion> regions, long mask, ProtectedRegion global, LocalPlayer local, StateFlag flag) {
+        // Like a point query, parents apply even if they don't contain the point
+        Set<ProtectedRegion> applicable = new LinkedHashSet<>();
+        for (int i = 0; i < regions.size(); i++) {
+            if ((mask & (1L << i)) == 0)
+                continue;
+            for (ProtectedRegion region = regions.get(i); region != null; region = region.getParent())
+                applicable.add(region);
+        }
+
+        return new RegionResultSet(new ArrayList<>(applicable), global).testState(local, flag);
+    }
+
+    private StateFlag getStateFlag(String flagName) {
         Flag<?> flag = flags.get(flagName);
         if (flag == null) {
             String flagList = "[" + String.join(", ", flags.keySet()) + "]";
@@ -43,9 +129,7 @@ public class WorldGuardV6 implements WorldGuardCompatibility {
             throw new IllegalArgumentException("Flag: " + flagName + " is not a StateFlag");
         }
 
-        StateFlag stateFlag = (StateFlag) flag;
-
-        return applicableRegionSet.testState(local, stateFlag);
+        return (StateFlag) flag;
     }
 
     @Override
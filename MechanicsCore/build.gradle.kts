@@ -2,6 +2,7 @@ plugins {
     `maven-publish`
     signing
     id("io.codearte.nexus-staging") version "0.30.0"
+    id("me.champeau.jmh") version "0.6.8"
     id("me.deecaad.java-conventions")
 }
 
@@ -33,12 +34,22 @@ dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter:5.9.2")
     testImplementation(Dependencies.LATEST_SPIGOT_API)
     testImplementation(Dependencies.ANNOTATIONS)
+
+    "jmh"(Dependencies.LATEST_SPIGOT_API)
 }
 
 tasks.test {
     useJUnitPlatform()
 }
 
+// Micro benchmarks, run with ./gradlew :MechanicsCore:jmh
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
+
 
 // Create javadocJar and sourcesJar tasks
 val javadocJar by tasks.registering(Jar::class) {
@@ -0,0 +1,62 @@
+package me.deecaad.core.compatibility;
+
+import me.deecaad.core.utils.ray.RayTraceResult;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares checking a ray against a grown entity hitbox the old way (copy,
+ * grow, then ray trace) with the new way (allocation free broadphase, and
+ * only copy, grow and ray trace on hits).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HitBoxBenchmark {
+
+    private static final double RAY_SIZE = 0.1;
+
+    @Param({ "hit", "miss" })
+    public String ray;
+
+    private HitBox hitBox;
+    private Vector start;
+    private Vector direction;
+
+    @Setup
+    public void setup() {
+        // Zombie sized hitbox
+        hitBox = new HitBox(9.7, 64.0, 9.7, 10.3, 65.95, 10.3);
+        start = new Vector(0.5, 65.0, 0.5);
+
+        Vector target = ray.equals("hit") ? new Vector(10.0, 65.0, 10.0) : new Vector(10.0, 68.0, 4.0);
+        direction = target.subtract(start).normalize();
+    }
+
+    @Benchmark
+    public RayTraceResult copyAndRayTrace() {
+        return hitBox.copy().grow(RAY_SIZE).rayTrace(start, direction);
+    }
+
+    @Benchmark
+    public RayTraceResult broadphaseThenRayTrace() {
+        if (!hitBox.intersects(start.getX(), start.getY(), start.getZ(), direction.getX(), direction.getY(), direction.getZ(), Double.MAX_VALUE, RAY_SIZE))
+            return null;
+
+        return hitBox.copy().grow(RAY_SIZE).rayTrace(start, direction);
+    }
+
+    @Benchmark
+    public boolean broadphaseOnly() {
+        return hitBox.intersects(start.getX(), start.getY(), start.getZ(), direction.getX(), direction.getY(), direction.getZ(), Double.MAX_VALUE, RAY_SIZE);
+    }
+}
@@ -0,0 +1,48 @@
+package me.deecaad.core.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares getting a random weighted element from a {@link ProbabilityMap}
+ * (tree lookup) with an {@link AliasTable} (constant time). The sizes are
+ * the amount of non-white pixels in small and large spread images.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProbabilityMapBenchmark {
+
+    @Param({ "16", "1024", "65536" })
+    public int size;
+
+    private ProbabilityMap<Integer> map;
+    private AliasTable<Integer> table;
+
+    @Setup
+    public void setup() {
+        map = new ProbabilityMap<>();
+        for (int i = 0; i < size; i++)
+            map.add(i, ThreadLocalRandom.current().nextInt(1, 256) / 255.0);
+        table = AliasTable.of(map);
+    }
+
+    @Benchmark
+    public Integer probabilityMap() {
+        return map.get();
+    }
+
+    @Benchmark
+    public Integer aliasTable() {
+        return table.get();
+    }
+}
@@ -1,5 +1,8 @@
 package me.deecaad.core;
 
+import me.deecaad.core.compatibility.entity.FakeEntityBatcher;
+import me.deecaad.core.compatibility.entity.FakeEntityViewers;
+import me.deecaad.core.compatibility.worldguard.WorldGuardFlagCache;
 import me.deecaad.core.events.QueueSerializerEvent;
 import me.deecaad.core.events.triggers.EquipListener;
 import me.deecaad.core.file.*;
@@ -17,9 +20,11 @@ import me.deecaad.core.mechanics.defaultmechanics.SculkBloomMechanic;
 import me.deecaad.core.mechanics.defaultmechanics.SculkShriekMechanic;
 import me.deecaad.core.mechanics.targeters.Targeter;
 import me.deecaad.core.placeholder.PlaceholderHandler;
+import me.deecaad.core.placeholder.PlaceholderMessage;
 import me.deecaad.core.utils.Debugger;
 import me.deecaad.core.utils.FileUtil;
 import me.deecaad.core.utils.LogLevel;
+import me.deecaad.core.utils.PlayerGrid;
 import me.deecaad.core.utils.ReflectionUtil;
 import net.kyori.adventure.platform.bukkit.BukkitAudiences;
 import net.kyori.adventure.text.minimessage.MiniMessage;
@@ -29,6 +34,11 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -117,6 +127,51 @@ public class MechanicsCore extends JavaPlugin {
         Bukkit.getPluginManager().registerEvents(new ItemCraftListener(), this);
         Bukkit.getPluginManager().registerEvents(new MechanicsCastListener(), this);
 
+        // Player positions (used for range checks) and WorldGuard flags are
+        // cached per tick. Fake entities share viewers and batch their
+        // movement packets, both of which are reset every tick
+        Bukkit.getScheduler().runTaskTimer(this, () -> {
+            FakeEntityBatcher.flushAll();
+            FakeEntityViewers.clearCache();
+            PlayerGrid.clear();
+            WorldGuardFlagCache.clear();
+        }, 0, 1);
+        Bukkit.getPluginManager().registerEvents(new Listener() {
+            @EventHandler
+            public void onJoin(PlayerJoinEvent event) {
+                clearPlayerCaches();
+            }
+
+            @EventHandler
+            public void onQuit(PlayerQuitEvent event) {
+                clearPlayerCaches();
+            }
+
+            @EventHandler
+            public void onChangeWorld(PlayerChangedWorldEvent event) {
+                clearPlayerCaches();
+            }
+
+            private void clearPlayerCaches() {
+                FakeEntityViewers.clearCache();
+                PlayerGrid.clear();
+            }
+        }, this);
+
+        // Placeholder messages cache whether PlaceholderAPI is enabled
+        PlaceholderMessage.invalidateSettings();
+        Bukkit.getPluginManager().registerEvents(new Listener() {
+            @EventHandler
+            public void onPluginEnable(PluginEnableEvent event) {
+                PlaceholderMessage.invalidateSettings();
+            }
+
+            @EventHandler
+            public void onPluginDisable(PluginDisableEvent event) {
+                PlaceholderMessage.invalidateSettings();
+            }
+        }, this);
+
         // Adventure Chat API
         adventure = BukkitAudiences.create(this);
         message = MiniMessage.miniMessage();
@@ -51,6 +51,13 @@ public class HitBox {
         this.block = block;
     }
 
+    /**
+     * @return the block of this hitbox, or null if this is not a block hitbox
+     */
+    public Block getBlock() {
+        return block;
+    }
+
     public void setLivingEntity(LivingEntity livingEntity) {
         if (block != null) throw new IllegalArgumentException("Can't set block for living entity hitbox");
         this.livingEntity = livingEntity;
@@ -245,7 +252,21 @@ public class HitBox {
      * @return the ray trace result or null if there is no hit
      */
     public RayTraceResult rayTrace(Vector location, Vector normalizedMotion) {
-        RayTraceResult mainBoxHit = ray(location, normalizedMotion);
+        return rayTrace(location, normalizedMotion, true);
+    }
+
+    /**
+     * Use <code>captureBlockState = false</code> when ray tracing off the
+     * main thread. The block state of block hits is then captured when it is
+     * first used, see {@link BlockTraceResult#getBlockState()}.
+     *
+     * @param location the start location of ray
+     * @param normalizedMotion the normalized direction
+     * @param captureBlockState whether to capture the block state of block hits immediately
+     * @return the ray trace result or null if there is no hit
+     */
+    public RayTraceResult rayTrace(Vector location, Vector normalizedMotion, boolean captureBlockState) {
+        RayTraceResult mainBoxHit = ray(location, normalizedMotion, captureBlockState);
 
         // Voxel shape not used or didn't hit main hitbox
         if (voxelShape == null || mainBoxHit == null) return mainBoxHit;
@@ -261,7 +282,7 @@ public class HitBox {
                 boxPart.setLivingEntity(entityHit.getEntity());
             }
 
-            RayTraceResult boxPartHit = boxPart.ray(location, normalizedMotion);
+            RayTraceResult boxPartHit = boxPart.ray(location, normalizedMotion, captureBlockState);
             if (boxPartHit == null) continue;
 
             // Only closest hit
@@ -274,11 +295,73 @@ public class HitBox {
         return hit;
     }
 
+    /**
+     * Cheap broadphase test to check if a ray could hit this hitbox, grown
+     * by <code>grow</code> in every direction (so the ray acts like a
+     * sphere/box with radius <code>grow</code>). This method does not
+     * allocate any objects, so use it to reject rays before calling
+     * {@link #rayTrace(Vector, Vector)}, which builds the full result.
+     *
+     * <p>When this method returns false, {@link #rayTrace(Vector, Vector)}
+     * on the grown hitbox is guaranteed to return null. Voxel shape parts
+     * are not checked, since they are always inside the main hitbox.
+     *
+     * @param startX the x coordinate of the start of the ray
+     * @param startY the y coordinate of the start of the ray
+     * @param startZ the z coordinate of the start of the ray
+     * @param dirX the x component of the normalized direction
+     * @param dirY the y component of the normalized direction
+     * @param dirZ the z component of the normalized direction
+     * @param maxDistance the maximum distance the ray travels, or {@link Double#MAX_VALUE}
+     * @param grow the amount to grow this hitbox by
+     * @return true if the ray intersects the grown hitbox
+     */
+    public boolean intersects(double startX, double startY, double startZ, double dirX, double dirY, double dirZ, double maxDistance, double grow) {
+
+        // Same math as ray(), so the results are always the same
+        double divX = 1.0 / dirX;
+        double divY = 1.0 / dirY;
+        double divZ = 1.0 / dirZ;
+
+        double tMin, tMax, tyMin, tyMax, tzMin, tzMax;
+        if (dirX >= 0.0) {
+            tMin = (this.minX - grow - startX) * divX;
+            tMax = (this.maxX + grow - startX) * divX;
+        } else {
+            tMin = (this.maxX + grow - startX) * divX;
+            tMax = (this.minX - grow - startX) * divX;
+        }
+
+        if (dirY >= 0.0) {
+            tyMin = (this.minY - grow - startY) * divY;
+            tyMax = (this.maxY + grow - startY) * divY;
+        } else {
+            tyMin = (this.maxY + grow - startY) * divY;
+            tyMax = (this.minY - grow - startY) * divY;
+        }
+        if ((tMin > tyMax) || (tMax < tyMin)) return false;
+        if (tyMin > tMin) tMin = tyMin;
+        if (tyMax < tMax) tMax = tyMax;
+
+        if (dirZ >= 0.0) {
+            tzMin = (this.minZ - grow - startZ) * divZ;
+            tzMax = (this.maxZ + grow - startZ) * divZ;
+        } else {
+            tzMin = (this.maxZ + grow - startZ) * divZ;
+            tzMax = (this.minZ - grow - startZ) * divZ;
+        }
+        if ((tMin > tzMax) || (tMax < tzMin)) return false;
+        if (tzMin > tMin) tMin = tzMin;
+        if (tzMax < tMax) tMax = tzMax;
+
+        return tMax >= 0.0 && tMin <= maxDistance;
+    }
+
     /**
      * Uses BoundingBox class method rayTrace(Vector, Vector, double) with slight modifications. Easier backwards compatibility this way.
      * <a href="https://hub.spigotmc.org/javadocs/bukkit/org/bukkit/util/BoundingBox.html#rayTrace(org.bukkit.util.Vector,org.bukkit.util.Vector,double)">...</a>
      */
-    private RayTraceResult ray(Vector location, Vector normalizedMotion) {
+    private RayTraceResult ray(Vector location, Vector normalizedMotion, boolean captureBlockState) {
 
         double startX = location.getX();
         double startY = location.getY();
@@ -361,7 +444,7 @@ public class HitBox {
         if (tMax < 0.0) return null;
 
         if (block != null) {
-            return new BlockTraceResult(location, normalizedMotion, this, hitBlockFaceMin, hitBlockFaceMax, tMin, tMax, block);
+            return new BlockTraceResult(location, normalizedMotion, this, hitBlockFaceMin, hitBlockFaceMax, tMin, tMax, block, captureBlockState ? block.getState() : null);
         } else if (livingEntity == null) {
             // When not entity or block hitbox
             return new RayTraceResult(location, normalizedMotion, this, hitBlockFaceMin, hitBlockFaceMax, tMin, tMax);
@@ -411,4 +494,19 @@ public class HitBox {
     public HitBox cloneDimensions() {
         return new HitBox(minX, minY, minZ, maxX, maxY, maxZ);
     }
+
+    /**
+     * Unlike {@link #cloneDimensions()}, this also copies the block/living
+     * entity of this hitbox and its voxel shape parts. The voxel shape parts
+     * themselves are shared with this hitbox.
+     *
+     * @return the copy of this hitbox
+     */
+    public HitBox copy() {
+        HitBox copy = cloneDimensions();
+        copy.block = block;
+        copy.livingEntity = livingEntity;
+        if (voxelShape != null) copy.voxelShape = new ArrayList<>(voxelShape);
+        return copy;
+    }
 }
\ No newline at end of file
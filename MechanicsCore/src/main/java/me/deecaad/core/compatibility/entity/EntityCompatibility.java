@@ -1,6 +1,7 @@
 package me.deecaad.core.compatibility.entity;
 
 import me.deecaad.core.compatibility.HitBox;
+import me.deecaad.core.compatibility.equipevent.LazyItemStack;
 import me.deecaad.core.compatibility.equipevent.TriIntConsumer;
 import me.deecaad.core.utils.ReflectionUtil;
 import org.bukkit.*;
@@ -128,11 +129,14 @@ public interface EntityCompatibility {
      * used internally for the {@link me.deecaad.core.events.EntityEquipmentEvent},
      * and should probably not be used by anything else.
      *
+     * <p>The items given to the consumer are only copied when they are used,
+     * so changes nobody listens to do not copy any items.
+     *
      * @param size     The size of the list.
      * @param consumer The action to execute every item add.
      * @return The fixed size list.
      */
-    List<Object> generateNonNullList(int size, TriIntConsumer<ItemStack, ItemStack> consumer);
+    List<Object> generateNonNullList(int size, TriIntConsumer<LazyItemStack, LazyItemStack> consumer);
 
     /**
      * Generates a {@link FakeEntity} with the given entity type as a disguise.
@@ -24,6 +24,9 @@ import static me.deecaad.core.utils.NumberUtil.square;
  * can control appearances per player. After changing a visual effect (metadata
  * + display name + gravity + etc), a metadata packet must be sent using
  * {@link #updateMeta()}.
+ *
+ * <p>Movement, rotation and velocity packets are not sent immediately. They
+ * are batched per player and sent once per tick, see {@link FakeEntityBatcher}.
  */
 public abstract class FakeEntity {
 
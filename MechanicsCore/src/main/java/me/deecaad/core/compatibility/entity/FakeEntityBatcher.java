@@ -0,0 +1,101 @@
+package me.deecaad.core.compatibility.entity;
+
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects the movement and velocity packets of every {@link FakeEntity}
+ * during a tick, and sends them to each player at once when the batch is
+ * flushed. With many fake entities (like disguised projectiles), this means
+ * each player gets 1 batch per tick instead of a few packets per entity. On
+ * 1.19.4+, the batch is sent as a single bundle packet, so the client applies
+ * every movement of the tick together.
+ *
+ * <p>Batches are flushed every tick by MechanicsCore, and may be flushed
+ * earlier using {@link #flushAll()}. Packets queued off the main thread are
+ * sent immediately.
+ *
+ * @param <C> The player connection type.
+ * @param <P> The packet type.
+ */
+public abstract class FakeEntityBatcher<C, P> {
+
+    private static final List<FakeEntityBatcher<?, ?>> BATCHERS = new CopyOnWriteArrayList<>();
+
+    // Main thread only
+    private final Map<C, List<P>> queued;
+
+    protected FakeEntityBatcher() {
+        this.queued = new HashMap<>();
+        BATCHERS.add(this);
+    }
+
+    /**
+     * Queues the packet to be sent to the given connection when this batch
+     * is flushed.
+     *
+     * @param connection The non-null player connection.
+     * @param packet     The non-null packet to send.
+     */
+    public void queue(@NotNull C connection, @NotNull P packet) {
+        if (!Bukkit.isPrimaryThread()) {
+            send(connection, packet);
+            return;
+        }
+
+        queued.computeIfAbsent(connection, key -> new ArrayList<>(8)).add(packet);
+    }
+
+    /**
+     * Sends every queued packet. Each connection receives all of its packets
+     * at once, in the order they were queued.
+     */
+    public void flush() {
+        if (queued.isEmpty())
+            return;
+
+        // The lists are not reused, since packets may be sent async
+        for (Map.Entry<C, List<P>> entry : queued.entrySet()) {
+            List<P> packets = entry.getValue();
+            if (packets.size() == 1)
+                send(entry.getKey(), packets.get(0));
+            else
+                sendAll(entry.getKey(), packets);
+        }
+        queued.clear();
+    }
+
+    /**
+     * Sends a single packet to the connection.
+     *
+     * @param connection The non-null player connection.
+     * @param packet     The non-null packet to send.
+     */
+    protected abstract void send(@NotNull C connection, @NotNull P packet);
+
+    /**
+     * Sends multiple packets to the connection. Versions which support
+     * bundle packets should override this method.
+     *
+     * @param connection The non-null player connection.
+     * @param packets    The non-null packets to send, in order.
+     */
+    protected void sendAll(@NotNull C connection, @NotNull List<P> packets) {
+        for (P packet : packets)
+            send(connection, packet);
+    }
+
+    /**
+     * Flushes every batcher. Must be called on the main thread.
+     */
+    public static void flushAll() {
+        for (FakeEntityBatcher<?, ?> batcher : BATCHERS)
+            batcher.flush();
+    }
+}
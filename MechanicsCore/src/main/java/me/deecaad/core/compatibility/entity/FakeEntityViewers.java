@@ -0,0 +1,105 @@
+package me.deecaad.core.compatibility.entity;
+
+import me.deecaad.core.utils.DistanceUtil;
+import me.deecaad.core.utils.PlayerGrid;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared per-chunk index of the players who can see a {@link FakeEntity}.
+ * Every fake entity in the same chunk has the same viewers, so the players
+ * of a world are only scanned once per chunk per tick, instead of once per
+ * entity every time {@link FakeEntity#show()} is called.
+ *
+ * <p>A player can see a chunk when the player's chunk is within the view
+ * distance of the world, like vanilla entity tracking. The index is only
+ * used on the main thread, and is cleared every tick by MechanicsCore.
+ */
+public final class FakeEntityViewers {
+
+    private static final double EPSILON = 1.0e-6;
+
+    // Main thread only
+    private static final Map<World, WorldViewers> WORLDS = new HashMap<>();
+
+    // Don't let anyone instantiate this class
+    private FakeEntityViewers() {
+    }
+
+    /**
+     * Returns the players who can see the chunk at the given location. The
+     * returned list is shared with every fake entity in the chunk, and may
+     * not be modified.
+     *
+     * @param location The non-null location of the fake entity.
+     * @return The non-null, unmodifiable list of players.
+     */
+    @NotNull
+    public static List<Player> getViewers(@NotNull Location location) {
+        World world = location.getWorld();
+        if (world == null)
+            throw new IllegalArgumentException("location.world cannot be null");
+
+        if (!Bukkit.isPrimaryThread())
+            return DistanceUtil.getPlayersInRange(location);
+
+        WorldViewers viewers = WORLDS.get(world);
+        if (viewers == null) {
+            viewers = new WorldViewers(world);
+            WORLDS.put(world, viewers);
+        }
+
+        return viewers.get(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Forgets every cached viewer list. Called every tick, since players
+     * move, join and quit.
+     */
+    public static void clearCache() {
+        WORLDS.clear();
+    }
+
+    /**
+     * The viewers of each chunk of a world, found using the
+     * {@link PlayerGrid} of the world.
+     */
+    private static final class WorldViewers {
+
+        private final PlayerGrid grid;
+        private final int range;
+        private final Map<Long, List<Player>> chunks;
+
+        WorldViewers(World world) {
+            this.grid = PlayerGrid.of(world);
+            this.range = DistanceUtil.getRange(world) >> 4;
+            this.chunks = new HashMap<>();
+        }
+
+        List<Player> get(int x, int z) {
+            long key = ((long) x << 32) | (z & 0xFFFFFFFFL);
+            List<Player> viewers = chunks.get(key);
+            if (viewers != null)
+                return viewers;
+
+            // Every block column of every chunk within range. The box is
+            // exclusive, so move the min corner back to include its edge.
+            List<Player> temp = new ArrayList<>();
+            grid.getPlayersInBox(((x - range) << 4) - EPSILON, -Double.MAX_VALUE, ((z - range) << 4) - EPSILON,
+                    (x + range + 1) << 4, Double.MAX_VALUE, (z + range + 1) << 4, temp);
+
+            viewers = Collections.unmodifiableList(temp);
+            chunks.put(key, viewers);
+            return viewers;
+        }
+    }
+}
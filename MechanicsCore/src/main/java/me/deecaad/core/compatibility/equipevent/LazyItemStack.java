@@ -0,0 +1,47 @@
+package me.deecaad.core.compatibility.equipevent;
+
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * An item from a slot change in an inventory, which is only copied to a bukkit
+ * {@link ItemStack} when it is used. Inventory-heavy actions (sorting,
+ * hoppers, kits) change a lot of slots nobody listens to, so copying both
+ * items of every change up front is wasted work.
+ *
+ * <p>The item should only be used while the {@link TriIntConsumer} is
+ * running. After that, the slot may have changed again.
+ */
+public abstract class LazyItemStack implements Supplier<ItemStack> {
+
+    private ItemStack copy;
+
+    /**
+     * Returns a copy of the item, which is only created the first time this
+     * method is called.
+     *
+     * @return The non-null copy of the item.
+     */
+    @NotNull
+    @Override
+    public ItemStack get() {
+        if (copy == null)
+            copy = copy();
+        return copy;
+    }
+
+    /**
+     * Returns a view of the item without copying it. The view must not be
+     * modified or stored, only checked (for example, with
+     * {@link ItemStack#hasItemMeta()}).
+     *
+     * @return The non-null view of the item.
+     */
+    @NotNull
+    public abstract ItemStack mirror();
+
+    @NotNull
+    protected abstract ItemStack copy();
+}
@@ -1,5 +1,10 @@
 package me.deecaad.core.compatibility.equipevent;
 
+/**
+ * Called when a slot of an injected inventory changes. For inventories,
+ * <code>A</code> and <code>B</code> are the old and new {@link LazyItemStack},
+ * and <code>c</code> is the index of the slot.
+ */
 public interface TriIntConsumer<A, B> {
     void accept(A a, B b, int c);
 }
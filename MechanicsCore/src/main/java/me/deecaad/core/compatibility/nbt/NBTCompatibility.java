@@ -320,6 +320,77 @@ public interface NBTCompatibility {
      */
     void remove(@NotNull ItemStack bukkitItem, @NotNull String plugin, @NotNull String key);
 
+    /**
+     * Reads multiple NBT tags from the item at once. The type of each tag is
+     * given by <code>types</code>, which may be {@link String}, {@link Integer},
+     * {@link Double}, <code>int[]</code> or <code>String[]</code>. When a tag
+     * is not used by the item (or has a different type), its value is
+     * <code>null</code>.
+     *
+     * <p>Implementations should override this method to read the item's tag
+     * compound once, instead of once per tag.
+     *
+     * @param bukkitItem The non-null item that has an NBT tag compound.
+     * @param plugin     The non-null owner of the tags, should be your plugin.
+     * @param keys       The non-null names of the tags to read.
+     * @param types      The non-null types of the tags, same length as <code>keys</code>.
+     * @return The non-null values, same length as <code>keys</code>.
+     */
+    default Object[] getAll(@NotNull ItemStack bukkitItem, @NotNull String plugin, @NotNull String[] keys, @NotNull Class<?>[] types) {
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            Class<?> type = types[i];
+            if (type == String.class)
+                values[i] = hasString(bukkitItem, plugin, key) ? getString(bukkitItem, plugin, key) : null;
+            else if (type == Integer.class)
+                values[i] = hasInt(bukkitItem, plugin, key) ? getInt(bukkitItem, plugin, key) : null;
+            else if (type == Double.class)
+                values[i] = hasDouble(bukkitItem, plugin, key) ? getDouble(bukkitItem, plugin, key) : null;
+            else if (type == int[].class)
+                values[i] = hasArray(bukkitItem, plugin, key) ? getArray(bukkitItem, plugin, key) : null;
+            else if (type == String[].class)
+                values[i] = hasStringArray(bukkitItem, plugin, key) ? getStringArray(bukkitItem, plugin, key) : null;
+            else
+                throw new IllegalArgumentException("Unknown tag type " + type);
+        }
+        return values;
+    }
+
+    /**
+     * Sets multiple NBT tags of the item at once. A <code>null</code> value
+     * removes the tag. Supports the same types as
+     * {@link #getAll(ItemStack, String, String[], Class[])}.
+     *
+     * <p>Implementations should override this method to update the item's
+     * tag compound once, instead of once per tag.
+     *
+     * @param bukkitItem The non-null item that has an NBT tag compound.
+     * @param plugin     The non-null owner of the tags, should be your plugin.
+     * @param keys       The non-null names of the tags to set.
+     * @param values     The values to set, same length as <code>keys</code>.
+     */
+    default void setAll(@NotNull ItemStack bukkitItem, @NotNull String plugin, @NotNull String[] keys, @NotNull Object[] values) {
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            Object value = values[i];
+            if (value == null)
+                remove(bukkitItem, plugin, key);
+            else if (value instanceof String string)
+                setString(bukkitItem, plugin, key, string);
+            else if (value instanceof Integer integer)
+                setInt(bukkitItem, plugin, key, integer);
+            else if (value instanceof Double number)
+                setDouble(bukkitItem, plugin, key, number);
+            else if (value instanceof int[] array)
+                setArray(bukkitItem, plugin, key, array);
+            else if (value instanceof String[] array)
+                setStringArray(bukkitItem, plugin, key, array);
+            else
+                throw new IllegalArgumentException("Unknown tag type " + value.getClass());
+        }
+    }
+
 
     default double getAttributeValue(@NotNull ItemStack bukkitItem, @NotNull AttributeType attribute, @Nullable AttributeSlot slot) {
         ItemMeta meta = bukkitItem.getItemMeta();
@@ -1,5 +1,6 @@
 package me.deecaad.core.compatibility.nbt;
 
+import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataContainer;
@@ -116,6 +117,54 @@ public abstract class NBT_Persistent implements NBTCompatibility {
         bukkitItem.setItemMeta(meta);
     }
 
+    @Override
+    public Object[] getAll(@NotNull ItemStack bukkitItem, @NotNull String plugin, @NotNull String[] keys, @NotNull Class<?>[] types) {
+        Object[] values = new Object[keys.length];
+        if (!bukkitItem.hasItemMeta())
+            return values;
+
+        PersistentDataContainer nbt = getCompound(bukkitItem.getItemMeta());
+        for (int i = 0; i < keys.length; i++) {
+            NamespacedKey key = getKey(plugin, keys[i]);
+            PersistentDataType<?, ?> type = getType(types[i]);
+            if (nbt.has(key, type))
+                values[i] = nbt.get(key, type);
+        }
+        return values;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setAll(@NotNull ItemStack bukkitItem, @NotNull String plugin, @NotNull String[] keys, @NotNull Object[] values) {
+        ItemMeta meta = bukkitItem.getItemMeta();
+        PersistentDataContainer nbt = getCompound(meta);
+
+        for (int i = 0; i < keys.length; i++) {
+            NamespacedKey key = getKey(plugin, keys[i]);
+            Object value = values[i];
+            if (value == null)
+                nbt.remove(key);
+            else
+                nbt.set(key, (PersistentDataType<?, Object>) getType(value.getClass()), value);
+        }
+        bukkitItem.setItemMeta(meta);
+    }
+
+    private static PersistentDataType<?, ?> getType(Class<?> type) {
+        if (type == String.class)
+            return PersistentDataType.STRING;
+        else if (type == Integer.class)
+            return PersistentDataType.INTEGER;
+        else if (type == Double.class)
+            return PersistentDataType.DOUBLE;
+        else if (type == int[].class)
+            return PersistentDataType.INTEGER_ARRAY;
+        else if (type == String[].class)
+            return StringPersistentType.INSTANCE;
+        else
+            throw new IllegalArgumentException("Unknown tag type " + type);
+    }
+
     private PersistentDataContainer getCompound(@NotNull ItemMeta meta) {
         return meta.getPersistentDataContainer();
     }
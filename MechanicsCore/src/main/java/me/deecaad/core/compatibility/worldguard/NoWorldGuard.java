@@ -1,11 +1,13 @@
 package me.deecaad.core.compatibility.worldguard;
 
 import org.bukkit.Location;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -18,6 +20,11 @@ public class NoWorldGuard implements WorldGuardCompatibility {
         return true;
     }
 
+    @Override
+    public @NotNull List<Block> filterBlocks(@NotNull List<Block> blocks, @Nullable Player player, @NotNull String flagName) {
+        return blocks;
+    }
+
     @Override
     public Object getValue(@NotNull Location location, @NotNull String flagName) {
         return null;
@@ -1,10 +1,13 @@
 package me.deecaad.core.compatibility.worldguard;
 
 import org.bukkit.Location;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -30,6 +33,31 @@ public interface WorldGuardCompatibility {
      */
     boolean testFlag(@NotNull Location location, @Nullable Player player, @NotNull String flagName);
 
+    /**
+     * Returns the blocks where the state flag with the given
+     * <code>flagName</code> is enabled, in the same order. This is the same
+     * as calling {@link #testFlag(Location, Player, String)} for each block,
+     * but implementations only look up the regions of the blocks' bounding
+     * box once. Used for explosions, which may test thousands of blocks.
+     *
+     * <p>Every block must be in the same world.
+     *
+     * @param blocks   The non-null blocks to test.
+     * @param player   The player involved, or <code>null</code>.
+     * @param flagName The non-null name of the flag.
+     * @return The non-null blocks where the flag is enabled. May be the given list.
+     */
+    @NotNull
+    default List<Block> filterBlocks(@NotNull List<Block> blocks, @Nullable Player player, @NotNull String flagName) {
+        Location temp = new Location(null, 0, 0, 0);
+        List<Block> allowed = new ArrayList<>(blocks.size());
+        for (Block block : blocks) {
+            if (testFlag(block.getLocation(temp), player, flagName))
+                allowed.add(block);
+        }
+        return allowed.size() == blocks.size() ? blocks : allowed;
+    }
+
     /**
      * Returns the value of a flag with the given <code>flagName</code>. The
      * returned value depends on the region that contains the
@@ -0,0 +1,70 @@
+package me.deecaad.core.compatibility.worldguard;
+
+import me.deecaad.core.compatibility.CompatibilityAPI;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caches the results of {@link WorldGuardCompatibility#testFlag(Location, Player, String)}
+ * for the current tick. Flags which are tested for every shot and every hit
+ * (like <code>weapon-shoot</code> and <code>weapon-damage</code>) usually
+ * test the same block for the same player many times per tick, for example
+ * with full auto weapons and shotguns.
+ *
+ * <p>Results are cached per block, since regions can't split a block. The
+ * cache is only used on the main thread, and is cleared every tick by
+ * MechanicsCore.
+ */
+public final class WorldGuardFlagCache {
+
+    // Main thread only
+    private static final Map<Key, Boolean> CACHE = new HashMap<>();
+
+    // Don't let anyone instantiate this class
+    private WorldGuardFlagCache() {
+    }
+
+    /**
+     * Same as {@link WorldGuardCompatibility#testFlag(Location, Player, String)},
+     * but the result is reused for the rest of the tick.
+     *
+     * @param location The non-null coordinates to test for regions.
+     * @param player   The player involved, or <code>null</code>.
+     * @param flagName The non-null name of the flag.
+     * @return <code>true</code> if the flag is enabled.
+     */
+    public static boolean testFlag(@NotNull Location location, @Nullable Player player, @NotNull String flagName) {
+        WorldGuardCompatibility worldGuard = CompatibilityAPI.getWorldGuardCompatibility();
+        World world = location.getWorld();
+        if (!worldGuard.isInstalled() || world == null || !Bukkit.isPrimaryThread())
+            return worldGuard.testFlag(location, player, flagName);
+
+        Key key = new Key(world.getUID(), location.getBlockX(), location.getBlockY(), location.getBlockZ(),
+                player == null ? null : player.getUniqueId(), flagName);
+        Boolean result = CACHE.get(key);
+        if (result == null) {
+            result = worldGuard.testFlag(location, player, flagName);
+            CACHE.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Forgets every cached result. Called every tick, since regions and
+     * flags may change.
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private record Key(UUID world, int x, int y, int z, @Nullable UUID player, String flagName) {
+    }
+}
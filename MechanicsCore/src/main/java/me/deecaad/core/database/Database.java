@@ -116,6 +116,23 @@ public abstract class Database {
      * @param consumer the consumer for result set of query
      */
     public void executeQuery(String sql, Consumer<ResultSet> consumer) {
+        executeQuery(sql, false, consumer);
+    }
+
+    /**
+     * Same as {@link #executeQuery(String, Consumer)}, but the rows are
+     * streamed from the database while the consumer reads them, instead of
+     * all being loaded into memory first. Used for queries that read whole
+     * tables. The consumer should only read the result set forward.
+     *
+     * @param sql the sql query to run
+     * @param consumer the consumer for result set of query
+     */
+    public void executeStreamingQuery(String sql, Consumer<ResultSet> consumer) {
+        executeQuery(sql, true, consumer);
+    }
+
+    private void executeQuery(String sql, boolean stream, Consumer<ResultSet> consumer) {
         if (sql == null || sql.isEmpty() || consumer == null) throw new IllegalArgumentException("Empty statement or null consumer");
         new BukkitRunnable() {
             public void run() {
@@ -124,7 +141,12 @@ public abstract class Database {
                 ResultSet resultSet = null;
                 try {
                     connection = getConnection();
-                    preparedStatement = connection.prepareStatement(sql);
+                    preparedStatement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+                    // MySQL only streams rows with this special fetch size,
+                    // otherwise the whole result is buffered in memory
+                    if (stream)
+                        preparedStatement.setFetchSize(type == DatabaseType.MYSQL ? Integer.MIN_VALUE : 1000);
                     resultSet = preparedStatement.executeQuery();
                     consumer.accept(resultSet);
                 } catch (SQLException e) {
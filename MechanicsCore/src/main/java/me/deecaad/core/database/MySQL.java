@@ -15,6 +15,12 @@ public class MySQL extends HikariBased {
         config.setUsername(username);
         config.setPassword(password);
 
+        // Stats are written as batches of the same few statements
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+
         dataSource = new HikariDataSource(config);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package me.deecaad.core.events;
 
+import me.deecaad.core.compatibility.equipevent.LazyItemStack;
 import org.bukkit.Material;
 import org.bukkit.entity.Entity;
 import org.bukkit.event.HandlerList;
@@ -8,6 +9,9 @@ import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
 /**
  * An event that fires when a {@link org.bukkit.entity.LivingEntity} changes an
  * item in their equipment. An entity's equipment is a structure mapping an
@@ -21,8 +25,10 @@ public class EntityEquipmentEvent extends EntityEvent {
     public static final HandlerList HANDLERS = new HandlerList();
 
     private final EquipmentSlot slot;
-    private final ItemStack dequipped;
-    private final ItemStack equipped;
+    private Supplier<ItemStack> dequippedSupplier;
+    private Supplier<ItemStack> equippedSupplier;
+    private ItemStack dequipped;
+    private ItemStack equipped;
 
     public EntityEquipmentEvent(Entity what, EquipmentSlot slot, ItemStack dequipped, ItemStack equipped) {
         super(what);
@@ -32,6 +38,23 @@ public class EntityEquipmentEvent extends EntityEvent {
         this.equipped = equipped;
     }
 
+    /**
+     * Creates an event where the items are only created when they are used.
+     * Each supplier is called at most once, the first time its item is used.
+     *
+     * @param what      The non-null entity whose equipment changed.
+     * @param slot      The non-null slot that changed.
+     * @param dequipped The non-null supplier of the previous item.
+     * @param equipped  The non-null supplier of the new item.
+     */
+    public EntityEquipmentEvent(Entity what, EquipmentSlot slot, Supplier<ItemStack> dequipped, Supplier<ItemStack> equipped) {
+        super(what);
+
+        this.slot = slot;
+        this.dequippedSupplier = dequipped;
+        this.equippedSupplier = equipped;
+    }
+
     /**
      * Returns the slot that the item is being equipped to. Note that prior to
      * 1.9, {@link EquipmentSlot#OFF_HAND} did not exist.
@@ -51,6 +74,7 @@ public class EntityEquipmentEvent extends EntityEvent {
      * @see #isEquipping()
      */
     public boolean isDequipping() {
+        ItemStack dequipped = getDequipped();
         return dequipped != null && dequipped.getType() != Material.AIR;
     }
 
@@ -62,6 +86,7 @@ public class EntityEquipmentEvent extends EntityEvent {
      * @see #isDequipping()
      */
     public boolean isEquipping() {
+        ItemStack equipped = getEquipped();
         return equipped != null && equipped.getType() != Material.AIR;
     }
 
@@ -71,6 +96,10 @@ public class EntityEquipmentEvent extends EntityEvent {
      * @return The nullable previous item.
      */
     public ItemStack getDequipped() {
+        if (dequippedSupplier != null) {
+            dequipped = dequippedSupplier.get();
+            dequippedSupplier = null;
+        }
         return dequipped;
     }
 
@@ -80,9 +109,35 @@ public class EntityEquipmentEvent extends EntityEvent {
      * @return The nullable currently equipped item.
      */
     public ItemStack getEquipped() {
+        if (equippedSupplier != null) {
+            equipped = equippedSupplier.get();
+            equippedSupplier = null;
+        }
         return equipped;
     }
 
+    /**
+     * Returns <code>true</code> if the given filter accepts the previous or
+     * the new item. Unlike {@link #getDequipped()} and {@link #getEquipped()},
+     * this does not copy lazily created items, so listeners can cheaply skip
+     * changes they don't care about. The filter must not modify or store the
+     * items, and is not given <code>null</code> items.
+     *
+     * @param filter The non-null filter to test the items with.
+     * @return true if either item is accepted by the filter.
+     */
+    public boolean anyItemMatches(@NotNull Predicate<ItemStack> filter) {
+        ItemStack dequipped = peek(dequippedSupplier, this.dequipped);
+        ItemStack equipped = peek(equippedSupplier, this.equipped);
+        return (dequipped != null && filter.test(dequipped)) || (equipped != null && filter.test(equipped));
+    }
+
+    private static ItemStack peek(Supplier<ItemStack> supplier, ItemStack item) {
+        if (supplier instanceof LazyItemStack lazy)
+            return lazy.mirror();
+        return supplier != null ? supplier.get() : item;
+    }
+
     /**
      * Returns <code>true</code> if the slot involved is an armor slot.
      *
@@ -103,8 +158,8 @@ public class EntityEquipmentEvent extends EntityEvent {
     public String toString() {
         return "EquipEvent{" +
                 "slot=" + slot +
-                ", dequipped=" + dequipped +
-                ", equipped=" + equipped +
+                ", dequipped=" + getDequipped() +
+                ", equipped=" + getEquipped() +
                 '}';
     }
 
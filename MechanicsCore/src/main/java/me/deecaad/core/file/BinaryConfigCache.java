@@ -0,0 +1,361 @@
+package me.deecaad.core.file;
+
+import me.deecaad.core.utils.Debugger;
+import me.deecaad.core.utils.LogLevel;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An on disk cache of parsed yml files, so unchanged files do not have to be
+ * parsed by SnakeYAML every time the server starts. Each file is stored with
+ * the hash of its contents, and the whole cache is thrown away when the
+ * version it was written by does not match.
+ *
+ * <p>Only the parsed yml tree (sections, lists, strings, numbers and
+ * booleans) is stored, not the serialized objects. Serializers build
+ * arbitrary objects, which can't be written to a file, so
+ * {@link Serializer#serialize(SerializeData)} still runs for every file.
+ * Files containing other values (like yml timestamps) are not cached.
+ *
+ * <p>The cache file is <code>[int magic][int format][string version][int files]</code>,
+ * followed by <code>[string path][string hash][int length][body]</code> for
+ * every file. Strings are stored as <code>[int length][utf8]</code>. Only the
+ * index is read when the cache is opened, and bodies are decoded when they
+ * are used.
+ *
+ * <p>This class is thread safe, since files are loaded in parallel.
+ */
+public class BinaryConfigCache {
+
+    private static final int MAGIC = 0x4D43_4243; // "MCBC"
+    private static final int FORMAT = 1;
+
+    private static final byte SECTION = 0;
+    private static final byte LIST = 1;
+    private static final byte MAP = 2;
+    private static final byte STRING = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte BOOLEAN = 7;
+    private static final byte BIG_INTEGER = 8;
+    private static final byte NULL = 9;
+
+    private final Path path;
+    private final String version;
+    private final Debugger debug;
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> index;
+
+    // Bodies to write in the next save()
+    private final Map<String, Written> written;
+
+    private BinaryConfigCache(Path path, String version, Debugger debug, ByteBuffer buffer, Map<String, Entry> index) {
+        this.path = path;
+        this.version = version;
+        this.debug = debug;
+        this.buffer = buffer;
+        this.index = index;
+        this.written = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Opens the cache at the given path. When the file does not exist, is
+     * corrupted, or was written by a different version, the cache starts
+     * empty.
+     *
+     * @param path    The non-null path of the cache file.
+     * @param version The non-null version (usually the plugin version).
+     * @param debug   The non-null debugger to log errors to.
+     * @return The non-null cache.
+     */
+    @NotNull
+    public static BinaryConfigCache open(@NotNull Path path, @NotNull String version, @NotNull Debugger debug) {
+        ByteBuffer buffer = ByteBuffer.allocate(0);
+        Map<String, Entry> index = new HashMap<>();
+
+        if (Files.exists(path)) {
+            try {
+                // A single sequential read, instead of a memory mapped file,
+                // so the file can be replaced on save() on every OS
+                buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+                if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT || !readString(buffer).equals(version)) {
+                    debug.debug("Config cache " + path + " is from a different version, ignoring it");
+                } else {
+                    int files = buffer.getInt();
+                    for (int i = 0; i < files; i++) {
+                        String file = readString(buffer);
+                        String hash = readString(buffer);
+                        int length = buffer.getInt();
+                        index.put(file, new Entry(hash, buffer.position(), length));
+                        buffer.position(buffer.position() + length);
+                    }
+                }
+            } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+                debug.log(LogLevel.WARN, "Config cache " + path + " is corrupted, ignoring it", e);
+                index.clear();
+            }
+        }
+
+        return new BinaryConfigCache(path, version, debug, buffer, index);
+    }
+
+    /**
+     * Returns the parsed contents of the given file, only if the contents
+     * have not changed since they were cached.
+     *
+     * @param file The non-null file.
+     * @param hash The hash of the current contents, see {@link FileCache#hash(byte[])}.
+     * @return The parsed yml, or null.
+     */
+    @Nullable
+    public YamlConfiguration get(@NotNull File file, @NotNull String hash) {
+        String key = file.getPath();
+        Entry entry = index.get(key);
+        if (entry == null || !entry.hash.equals(hash))
+            return null;
+
+        // Absolute slice, so multiple threads can decode at once
+        ByteBuffer body = buffer.duplicate();
+        body.position(entry.offset).limit(entry.offset + entry.length);
+
+        try {
+            YamlConfiguration configuration = new YamlConfiguration();
+            readSection(body, configuration);
+
+            byte[] bytes = new byte[entry.length];
+            buffer.duplicate().position(entry.offset).get(bytes);
+            written.put(key, new Written(hash, bytes));
+            return configuration;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            debug.log(LogLevel.WARN, "Config cache entry for " + file + " is corrupted, parsing the file instead", e);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the parsed contents of the given file. The cache file is only
+     * updated by {@link #save()}.
+     *
+     * @param file          The non-null file.
+     * @param hash          The hash of the contents, see {@link FileCache#hash(byte[])}.
+     * @param configuration The non-null parsed yml.
+     */
+    public void put(@NotNull File file, @NotNull String hash, @NotNull YamlConfiguration configuration) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeSection(out, configuration);
+            written.put(file.getPath(), new Written(hash, bytes.toByteArray()));
+        } catch (UnsupportedValueException e) {
+            debug.debug("Not caching " + file + ", found value of " + e.getMessage());
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw IOException
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * Removes every file that is not in the given collection, so deleted
+     * files are not written by {@link #save()}.
+     *
+     * @param keep The non-null files to keep.
+     */
+    public void retainAll(@NotNull Collection<File> keep) {
+        Set<String> paths = new HashSet<>();
+        for (File file : keep)
+            paths.add(file.getPath());
+        written.keySet().retainAll(paths);
+    }
+
+    /**
+     * Writes every file used since this cache was opened ({@link #get(File, String)}
+     * and {@link #put(File, String, YamlConfiguration)}) to the cache file.
+     * Files that were not used are dropped.
+     */
+    public void save() {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            List<Map.Entry<String, Written>> entries = new ArrayList<>(written.entrySet());
+            entries.sort(Map.Entry.comparingByKey());
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            writeString(out, version);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Written> entry : entries) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue().hash);
+                out.writeInt(entry.getValue().body.length);
+                out.write(entry.getValue().body);
+            }
+
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Files.write(temp, bytes.toByteArray());
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            debug.log(LogLevel.WARN, "Failed to save config cache " + path, e);
+        }
+    }
+
+    private static void writeSection(DataOutputStream out, ConfigurationSection section) throws IOException {
+        Set<String> keys = section.getKeys(false);
+        out.writeInt(keys.size());
+        for (String key : keys) {
+            writeString(out, key);
+            Object value = section.get(key);
+            if (value instanceof ConfigurationSection child) {
+                out.writeByte(SECTION);
+                writeSection(out, child);
+            } else {
+                writeValue(out, value);
+            }
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        } else if (value instanceof Integer integer) {
+            out.writeByte(INT);
+            out.writeInt(integer);
+        } else if (value instanceof Long number) {
+            out.writeByte(LONG);
+            out.writeLong(number);
+        } else if (value instanceof Double number) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(number);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof BigInteger number) {
+            out.writeByte(BIG_INTEGER);
+            writeString(out, number.toString());
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object element : list)
+                writeValue(out, element);
+        } else if (value instanceof Map<?, ?> map) {
+            // Maps inside lists are not converted to sections by bukkit
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            throw new UnsupportedValueException(value.getClass().getName());
+        }
+    }
+
+    private static void readSection(ByteBuffer in, ConfigurationSection section) {
+        int size = in.getInt();
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+
+            // Same as YamlConfiguration#convertMapsToSections
+            byte type = in.get();
+            if (type == SECTION)
+                readSection(in, section.createSection(key));
+            else
+                section.set(key, readValue(in, type));
+        }
+    }
+
+    private static Object readValue(ByteBuffer in, byte type) {
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case INT:
+                return in.getInt();
+            case LONG:
+                return in.getLong();
+            case DOUBLE:
+                return in.getDouble();
+            case BOOLEAN:
+                return in.get() != 0;
+            case BIG_INTEGER:
+                return new BigInteger(readString(in));
+            case LIST: {
+                int size = in.getInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++)
+                    list.add(readValue(in, in.get()));
+                return list;
+            }
+            case MAP: {
+                int size = in.getInt();
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++)
+                    map.put(readValue(in, in.get()), readValue(in, in.get()));
+                return map;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown type " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining())
+            throw new IllegalArgumentException("Invalid string length " + length);
+
+        String string = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return string;
+    }
+
+    private record Entry(String hash, int offset, int length) {
+    }
+
+    private record Written(String hash, byte[] body) {
+    }
+
+    private static class UnsupportedValueException extends IOException {
+        UnsupportedValueException(String type) {
+            super(type);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package me.deecaad.core.file;
+
+import me.deecaad.core.file.FileReader.LoadedFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the serialized contents of every file a {@link FileReader} has
+ * loaded, keyed by the hash of the file's contents. When the same cache is
+ * given to the next {@link FileReader} (for example, after a reload), files
+ * whose contents did not change are not parsed or serialized again.
+ *
+ * <p>Serialized objects may depend on more than the file they were read
+ * from (registered serializers, or other folders like ammo types). Files
+ * which those objects depend on should be added with
+ * {@link #setDependencies(Collection)}, and when any of them changes (or the
+ * registered serializers change), the whole cache is cleared.
+ *
+ * <p>This class is thread safe, since files are loaded in parallel.
+ */
+public class FileCache {
+
+    private final Map<File, LoadedFile> files;
+    private List<File> dependencies;
+    private String fingerprint;
+
+    public FileCache() {
+        this.files = new ConcurrentHashMap<>();
+        this.dependencies = List.of();
+    }
+
+    /**
+     * Sets the files and directories (which are walked) the cached files
+     * depend on. When the contents of any of these files changes, the cache
+     * is cleared.
+     *
+     * @param dependencies The non-null files the cached files depend on.
+     */
+    public void setDependencies(@NotNull Collection<File> dependencies) {
+        this.dependencies = List.copyOf(dependencies);
+    }
+
+    /**
+     * Returns the cached contents of the given file, only if the contents
+     * have not changed since they were cached.
+     *
+     * @param file The non-null file.
+     * @param hash The hash of the current contents, see {@link #hash(byte[])}.
+     * @return The cached contents, or null.
+     */
+    @Nullable
+    public LoadedFile get(@NotNull File file, @NotNull String hash) {
+        LoadedFile loaded = files.get(file);
+        return loaded == null || !loaded.hash().equals(hash) ? null : loaded;
+    }
+
+    public void put(@NotNull LoadedFile loaded) {
+        files.put(loaded.file(), loaded);
+    }
+
+    /**
+     * Removes every file that is not in the given collection, so deleted
+     * files do not stay in memory.
+     *
+     * @param keep The non-null files to keep.
+     */
+    public void retainAll(@NotNull Collection<File> keep) {
+        files.keySet().retainAll(new HashSet<>(keep));
+    }
+
+    /**
+     * @return the amount of cached files
+     */
+    public int size() {
+        return files.size();
+    }
+
+    public void clear() {
+        files.clear();
+        fingerprint = null;
+    }
+
+    /**
+     * Clears this cache if the given fingerprint, or the contents of any
+     * dependency, changed since the last call.
+     *
+     * @param serializers A non-null string identifying the registered serializers.
+     * @return true if the cache was cleared.
+     */
+    boolean checkFingerprint(@NotNull String serializers) {
+        StringBuilder builder = new StringBuilder(serializers);
+        List<File> walked = new ArrayList<>();
+        for (File dependency : dependencies)
+            walk(dependency, walked);
+
+        for (File file : walked) {
+            try {
+                builder.append('\n').append(file.getPath()).append('=').append(hash(Files.readAllBytes(file.toPath())));
+            } catch (IOException e) {
+                builder.append('\n').append(file.getPath()).append("=?");
+            }
+        }
+
+        String fingerprint = hash(builder.toString().getBytes(StandardCharsets.UTF_8));
+        if (fingerprint.equals(this.fingerprint))
+            return false;
+
+        boolean wasEmpty = files.isEmpty();
+        files.clear();
+        this.fingerprint = fingerprint;
+        return !wasEmpty;
+    }
+
+    private static void walk(File file, List<File> walked) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null)
+                return;
+
+            Arrays.sort(children, Comparator.comparing(File::getName));
+            for (File child : children)
+                walk(child, walked);
+        } else if (file.exists()) {
+            walked.add(file);
+        }
+    }
+
+    /**
+     * Returns the hex SHA-1 hash of the given bytes. Used to check if the
+     * contents of a file changed.
+     *
+     * @param bytes The non-null bytes to hash.
+     * @return The non-null hash.
+     */
+    @NotNull
+    public static String hash(byte @NotNull [] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every java implementation is required to support SHA-1
+            throw new InternalError(e);
+        }
+    }
+}
@@ -3,13 +3,18 @@ package me.deecaad.core.file;
 import me.deecaad.core.utils.Debugger;
 import me.deecaad.core.utils.LogLevel;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class FileReader {
 
@@ -19,6 +24,9 @@ public class FileReader {
     private final Map<String, Serializer<?>> serializers;
     private final List<ValidatorData> validatorDatas;
     private final Map<String, IValidator> validators;
+    private boolean parallel;
+    private FileCache cache;
+    private BinaryConfigCache binaryCache;
 
     public FileReader(@NotNull Debugger debug, @Nullable List<Serializer<?>> serializers, @Nullable List<IValidator> validators) {
         this.debug = debug;
@@ -112,11 +120,54 @@ public class FileReader {
         this.validators.put(validatorLowerCase, validator);
     }
 
+    /**
+     * Sets whether {@link #fillAllFiles(File, String...)} should parse and
+     * serialize files in parallel. Serializers used by a parallel file reader
+     * must not modify shared state while serializing. Defaults to false.
+     *
+     * @param parallel true to load files in parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Sets the cache used by {@link #fillAllFiles(File, String...)}. Files
+     * whose contents did not change since they were added to the cache are
+     * not parsed or serialized again. The same cache should be given to the
+     * file reader that replaces this one (for example, after a reload).
+     *
+     * <p>Since serializers are not used for cached files, anything that
+     * should happen on every load (like registering weapons) should be done
+     * with the returned configuration, not as a side effect of serializing.
+     *
+     * @param cache the cache to use, or null to always serialize every file
+     */
+    public void setCache(@Nullable FileCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Sets the on disk cache used by {@link #fillAllFiles(File, String...)}.
+     * Files whose contents did not change are read from the cache instead of
+     * being parsed by SnakeYAML, but are still serialized. Files which are
+     * also in the {@link #setCache(FileCache) in memory cache} skip both.
+     *
+     * @param binaryCache the cache to use, or null to always parse every file
+     */
+    public void setBinaryCache(@Nullable BinaryConfigCache binaryCache) {
+        this.binaryCache = binaryCache;
+    }
+
     /**
      * Iterates through all .yml files inside every directory starting from the given directory.
      * It is recommended to give this method plugin's data folder directory.
      * This also takes in account given serializers.
      *
+     * <p>Files are loaded in parallel when {@link #setParallel(boolean)} is
+     * used, but they are always merged in the same (alphabetical) order, so
+     * duplicate keys are always reported for the same file.
+     *
      * @param directory the directory
      * @param ignoreFiles ignored files which name starts with any given string
      * @return the map with all configurations
@@ -125,10 +176,54 @@ public class FileReader {
         if (directory == null || directory.listFiles() == null) {
             throw new IllegalArgumentException("The given file MUST be a directory!");
         }
-        Configuration filledMap = fillAllFilesLoop(directory, ignoreFiles);
 
-        // Only run this once
-        // That's why fillAllFilesLoop method is required
+        // A set to determine if a file should be ignored
+        Set<String> fileBlacklist = ignoreFiles == null ? new HashSet<>() : Arrays.stream(ignoreFiles).collect(Collectors.toSet());
+        List<File> files = new ArrayList<>();
+        collectFiles(directory, fileBlacklist, files);
+
+        if (cache != null && cache.checkFingerprint(getFingerprint()))
+            debug.debug("Serializers or dependencies changed, serializing every file again");
+
+        List<LoadedFile> loadedFiles = (parallel ? files.parallelStream() : files.stream())
+                .map(this::loadFile)
+                .collect(Collectors.toList());
+
+        if (binaryCache != null)
+            binaryCache.retainAll(files);
+        if (cache != null) {
+            cache.retainAll(files);
+            long reused = loadedFiles.stream().filter(loaded -> loaded != null && loaded.cached()).count();
+            debug.debug("Reused " + reused + "/" + files.size() + " unchanged files");
+        }
+
+        Configuration filledMap = new LinkedConfig();
+        for (LoadedFile loaded : loadedFiles) {
+            if (loaded == null)
+                continue;
+
+            pathToSerializers.addAll(loaded.pathToSerializers());
+            nestedPathToSerializers.addAll(loaded.nestedPathToSerializers());
+            validatorDatas.addAll(loaded.validatorDatas());
+
+            // This occurs when the yml file is empty
+            if (loaded.config() == null)
+                continue;
+
+            try {
+                filledMap.add(loaded.config());
+            } catch (DuplicateKeyException ex) {
+                debug.log(LogLevel.ERROR, "Found duplicate keys in configuration!",
+                        "This occurs when you have 2 lines in configuration with the same name",
+                        "This is a huge error and WILL 100% cause issues in your guns.",
+                        "Duplicates Found: " + Arrays.toString(ex.getKeys()),
+                        "Found in file: " + loaded.file().getName());
+
+                debug.log(LogLevel.DEBUG, "Duplicate Key Exception: ", ex);
+            }
+        }
+
+        // Only run this once, after every file is merged
         usePathToSerializersAndValidators(filledMap);
 
         // Filter out anything with a null value... Sometimes validators will
@@ -141,42 +236,75 @@ public class FileReader {
         return filledMap;
     }
 
-    private Configuration fillAllFilesLoop(File directory, @Nullable String... ignoreFiles) {
-        // A set to determine if a file should be ignored
-        Set<String> fileBlacklist = ignoreFiles == null ? new HashSet<>() : Arrays.stream(ignoreFiles).collect(Collectors.toSet());
-
-        // Dummy map to fill
-        Configuration filledMap = new LinkedConfig();
+    private static void collectFiles(File directory, Set<String> fileBlacklist, List<File> files) {
+        File[] directoryFiles = directory.listFiles();
+        if (directoryFiles == null)
+            return;
 
-        for (File directoryFile : directory.listFiles()) {
+        // listFiles() has no guaranteed order
+        Arrays.sort(directoryFiles, Comparator.comparing(File::getName));
+        for (File directoryFile : directoryFiles) {
 
             String name = directoryFile.getName();
             if (fileBlacklist.contains(name)) continue;
 
-            try {
-                if (name.endsWith(".yml")) {
-                    Configuration newFilledMap = fillOneFile(directoryFile);
+            if (name.endsWith(".yml")) {
+                files.add(directoryFile);
+            } else if (directoryFile.isDirectory()) {
+                collectFiles(directoryFile, Collections.emptySet(), files);
+            }
+        }
+    }
 
-                    // This occurs when the yml file is empty
-                    if (newFilledMap == null) {
-                        continue;
-                    }
+    /**
+     * Returns a string which changes whenever a different serializer or
+     * validator is registered. Cached files are only valid for the same
+     * serializers.
+     */
+    private String getFingerprint() {
+        return Stream.concat(serializers.entrySet().stream(), validators.entrySet().stream())
+                .map(entry -> entry.getKey() + "=" + entry.getValue().getClass().getName())
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
 
-                    filledMap.add(newFilledMap);
-                } else if (directoryFile.isDirectory()) {
-                    filledMap.add(fillAllFilesLoop(directoryFile));
-                }
-            } catch (DuplicateKeyException ex) {
-                debug.log(LogLevel.ERROR, "Found duplicate keys in configuration!",
-                        "This occurs when you have 2 lines in configuration with the same name",
-                        "This is a huge error and WILL 100% cause issues in your guns.",
-                        "Duplicates Found: " + Arrays.toString(ex.getKeys()),
-                        "Found in file: " + name);
+    /**
+     * Reads, and serializes if the contents are not cached, the given file.
+     * May be called from any thread.
+     */
+    @Nullable
+    private LoadedFile loadFile(File file) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file.toPath());
+        } catch (IOException ex) {
+            debug.log(LogLevel.ERROR, "Cannot read file " + file, ex);
+            return null;
+        }
 
-                debug.log(LogLevel.DEBUG, "Duplicate Key Exception: ", ex);
+        String hash = FileCache.hash(bytes);
+        if (cache != null) {
+            LoadedFile cached = cache.get(file, hash);
+            if (cached != null)
+                return cached.asCached();
+        }
+
+        YamlConfiguration configuration = binaryCache == null ? null : binaryCache.get(file, hash);
+        if (configuration == null) {
+            configuration = new YamlConfiguration();
+            try {
+                configuration.loadFromString(new String(bytes, StandardCharsets.UTF_8));
+                if (binaryCache != null)
+                    binaryCache.put(file, hash, configuration);
+            } catch (InvalidConfigurationException ex) {
+                debug.log(LogLevel.ERROR, "Cannot load " + file, ex);
             }
         }
-        return filledMap;
+
+        LoadedFile loaded = fillOneFile(file, configuration, hash);
+        if (cache != null)
+            cache.put(loaded);
+        return loaded;
     }
 
     /**
@@ -187,7 +315,23 @@ public class FileReader {
      * @return the map with file's configurations
      */
     public Configuration fillOneFile(File file) {
+        LoadedFile loaded = fillOneFile(file, YamlConfiguration.loadConfiguration(file), null);
+        pathToSerializers.addAll(loaded.pathToSerializers());
+        nestedPathToSerializers.addAll(loaded.nestedPathToSerializers());
+        validatorDatas.addAll(loaded.validatorDatas());
+        return loaded.config();
+    }
+
+    /**
+     * Serializes one file. Path-to serializers and validators are collected
+     * into the returned {@link LoadedFile} instead of into this reader, so
+     * this method is safe to call from multiple threads at once.
+     */
+    private LoadedFile fillOneFile(File file, YamlConfiguration configuration, String hash) {
         Configuration filledMap = new LinkedConfig();
+        List<PathToSerializer> pathToSerializers = new ArrayList<>();
+        List<NestedPathToSerializer> nestedPathToSerializers = new ArrayList<>();
+        List<ValidatorData> validatorDatas = new ArrayList<>();
 
         // If a serializer is found, it's path is saved here. Any
         // NON SERIALIZER variable within a serializer is then "skipped"
@@ -195,7 +339,6 @@ public class FileReader {
         String startsWithDeny = null;
         Serializer<?> savedSerializer = null;
 
-        YamlConfiguration configuration = YamlConfiguration.loadConfiguration(file);
         for (String key : configuration.getKeys(true)) {
 
             // Remove the starsWithDeny if the key does no longer start with it
@@ -298,10 +441,10 @@ public class FileReader {
             filledMap.set(key, object);
         }
         if (filledMap.getKeys().isEmpty()) {
-            return null;
+            filledMap = null;
         }
 
-        return filledMap;
+        return new LoadedFile(file, hash, filledMap, pathToSerializers, nestedPathToSerializers, validatorDatas, false);
     }
 
     /**
@@ -390,4 +533,26 @@ public class FileReader {
      */
     public record ValidatorData(IValidator validator, File file, ConfigurationSection configurationSection, String path) {
     }
-}
\ No newline at end of file
+
+    /**
+     * Stores the result of serializing one file, before it is merged with
+     * the other files. Since path-to serializers and validators are only used
+     * after every file is merged, they are stored here too. These are what
+     * {@link FileCache} stores for unchanged files.
+     *
+     * @param file                    Which file was serialized.
+     * @param hash                    The hash of the contents of the file, or null if not known.
+     * @param config                  The serialized values, or null if the file was empty.
+     * @param pathToSerializers       The path-to serializers found in the file.
+     * @param nestedPathToSerializers The nested path-to serializers found in the file.
+     * @param validatorDatas          The validators found in the file.
+     * @param cached                  true if this was reused from a {@link FileCache}.
+     */
+    public record LoadedFile(File file, String hash, Configuration config, List<PathToSerializer> pathToSerializers,
+                             List<NestedPathToSerializer> nestedPathToSerializers, List<ValidatorData> validatorDatas, boolean cached) {
+
+        LoadedFile asCached() {
+            return new LoadedFile(file, hash, config, pathToSerializers, nestedPathToSerializers, validatorDatas, true);
+        }
+    }
+}
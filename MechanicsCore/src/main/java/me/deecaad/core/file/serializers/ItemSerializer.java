@@ -495,12 +495,16 @@ public class ItemSerializer implements Serializer<ItemStack> {
 
         // Finalize and register the new recipe.
         ReflectionUtil.setField(ingredientsField, recipe, ingredients);
-        try {
-            Bukkit.addRecipe(recipe);
-        } catch (IllegalStateException ex) {
-            // rethrow if we don't know where this error came from
-            if (!ex.getMessage().startsWith("Duplicate recipe ignored with ID mechanicscore:"))
-                throw ex;
+        // Files may be serialized in parallel (see FileReader#setParallel),
+        // and the server's recipe map is not thread safe.
+        synchronized (ItemSerializer.class) {
+            try {
+                Bukkit.addRecipe(recipe);
+            } catch (IllegalStateException ex) {
+                // rethrow if we don't know where this error came from
+                if (!ex.getMessage().startsWith("Duplicate recipe ignored with ID mechanicscore:"))
+                    throw ex;
+            }
         }
         return itemStack;
     }
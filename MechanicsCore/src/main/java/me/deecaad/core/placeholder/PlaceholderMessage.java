@@ -6,27 +6,52 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.intellij.lang.annotations.RegExp;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Represents a message template that can contain placeholders.
  * This class is used to process and replace these placeholders with desired values.
+ *
+ * <p>The template is compiled once into literal segments and tag slots. When
+ * every tag of the template is a placeholder with a plain value, the message
+ * is built without parsing it with MiniMessage. The last rendered component
+ * is also remembered per player, so messages which are sent every tick (like
+ * the action bar and boss bar of weapons) are only parsed again when one of
+ * their placeholders changes.
  */
 public class PlaceholderMessage {
 
     public static final @RegExp String TAG = "<([a-zA-Z_\\-]+)>";
     public static final Pattern TAG_PATTERN = Pattern.compile(TAG);
 
+    // Cached since these are checked for every message, see #invalidateSettings()
+    private static volatile Boolean isAdvancedPlaceholders;
+    private static volatile Boolean isPlaceholderApi;
+
     private final String template;
     private final Set<String> presentPlaceholders;
+    private final String[] names;
+    private final PlaceholderHandler[] handlers;
+
+    // Even indices are literal text, odd indices are the names of tags
+    private final String[] segments;
+    private final boolean hasLiteralTags;
+
+    private final Map<Player, Rendered> rendered = Collections.synchronizedMap(new WeakHashMap<>());
 
     /**
      * Constructs a new PlaceholderMessage based on the provided template string.
@@ -37,7 +62,7 @@ public class PlaceholderMessage {
      * @param template                  The template string containing potential placeholders.
      */
     public PlaceholderMessage(@NotNull String template) {
-        Set<String> presentPlaceholders = new LinkedHashSet<>();
+        Map<String, PlaceholderHandler> presentPlaceholders = new LinkedHashMap<>();
 
         Matcher matcher = TAG_PATTERN.matcher(template);
 
@@ -47,12 +72,53 @@ public class PlaceholderMessage {
             // Make sure the placeholder is valid
             PlaceholderHandler placeholderHandler = PlaceholderHandler.REGISTRY.get(placeholderString);
             if (placeholderHandler != null) {
-                presentPlaceholders.add(placeholderString);
+                presentPlaceholders.put(placeholderString, placeholderHandler);
             }
         }
 
         this.template = template;
-        this.presentPlaceholders = Collections.unmodifiableSet(presentPlaceholders);
+        this.presentPlaceholders = Collections.unmodifiableSet(presentPlaceholders.keySet());
+        this.names = presentPlaceholders.keySet().toArray(new String[0]);
+        this.handlers = presentPlaceholders.values().toArray(new PlaceholderHandler[0]);
+        this.segments = compile(template);
+        this.hasLiteralTags = hasLiteralTags(segments);
+    }
+
+    /**
+     * Splits the template into literal text and tags. Even indices of the
+     * returned array are literal text (possibly empty), and odd indices are
+     * the names of tags, so the array always has an odd length.
+     *
+     * @param template The template to split.
+     * @return The non-null segments.
+     */
+    static String[] compile(@NotNull String template) {
+        List<String> segments = new ArrayList<>();
+        Matcher matcher = TAG_PATTERN.matcher(template);
+        int last = 0;
+        while (matcher.find()) {
+            segments.add(template.substring(last, matcher.start()));
+            segments.add(matcher.group(1));
+            last = matcher.end();
+        }
+        segments.add(template.substring(last));
+        return segments.toArray(new String[0]);
+    }
+
+    /**
+     * Returns <code>true</code> if any literal segment may contain
+     * MiniMessage syntax that is not matched by {@link #TAG_PATTERN}, like
+     * closing tags, tags with arguments, or escaped characters.
+     */
+    private static boolean hasLiteralTags(String[] segments) {
+        for (int i = 0; i < segments.length; i += 2) {
+            if (!isPlain(segments[i])) return true;
+        }
+        return false;
+    }
+
+    private static boolean isPlain(String text) {
+        return text.indexOf('<') == -1 && text.indexOf('\\') == -1;
     }
 
     /**
@@ -81,42 +147,130 @@ public class PlaceholderMessage {
      * @param data The data to pass to the placeholder handlers.
      */
     public void fillMap(PlaceholderData data) {
-        for (String placeholder : presentPlaceholders) {
-            PlaceholderHandler handler = PlaceholderHandler.REGISTRY.get(placeholder);
-            data.placeholders().put(placeholder, handler == null ? null : handler.onRequest(data));
+        for (int i = 0; i < handlers.length; i++) {
+            data.placeholders().put(names[i], handlers[i].onRequest(data));
         }
     }
 
     public Component replaceAndDeserialize(PlaceholderData data) {
-        boolean isAdvancedPlaceholders = MechanicsCore.getPlugin().getConfig().getBoolean("Advanced_Placeholders", false);
-        boolean isPlaceholderApi = Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI");
+        boolean isAdvancedPlaceholders = isAdvancedPlaceholders();
+        boolean isPlaceholderApi = isPlaceholderApi();
         fillMap(data);
 
         // Let other plugins customize the appearance of placeholders
-        PlaceholderRequestEvent event = new PlaceholderRequestEvent(data);
-        Bukkit.getPluginManager().callEvent(event);
+        callRequestEvent(data);
+        Map<String, String> placeholders = data.placeholders();
+
+        // Advanced placeholders are applied after parsing, so the result
+        // can't be remembered from the placeholder values alone
+        if (isAdvancedPlaceholders && isPlaceholderApi) {
+            Component returnValue = MechanicsCore.getPlugin().message.deserialize(template, getTagResolvers(placeholders));
+            String message = MechanicsCore.getPlugin().message.serialize(returnValue);
+            message = PlaceholderAPI.setPlaceholders(data.player(), message);
+            return MechanicsCore.getPlugin().message.deserialize(message);
+        }
 
         // Let PlaceholderAPI
         String message = template;
-        if (!isAdvancedPlaceholders && isPlaceholderApi) {
+        if (isPlaceholderApi) {
             message = PlaceholderAPI.setPlaceholders(data.player(), message);
         }
 
-        // Convert the placeholder map into the tag resolver format for the adventure api
-        Map<String, String> placeholders = event.placeholders();
-        TagResolver[] tagResolvers = new TagResolver[event.placeholders().size()];
+        // Same message and same values, so the same component
+        Player player = data.player();
+        Rendered last = player == null ? null : rendered.get(player);
+        if (last != null && last.message.equals(message) && last.placeholders.equals(placeholders))
+            return last.component;
+
+        // PlaceholderAPI may have changed the segments of the template
+        Component returnValue = message.equals(template) ? renderPlain(placeholders) : null;
+        if (returnValue == null) {
+            // Adventure api does the heavy lifting
+            returnValue = MechanicsCore.getPlugin().message.deserialize(message, getTagResolvers(placeholders));
+        }
+
+        if (player != null)
+            rendered.put(player, new Rendered(message, new HashMap<>(placeholders), returnValue));
+        return returnValue;
+    }
+
+    /**
+     * Builds the message without MiniMessage, when every tag of the template
+     * is a placeholder whose value is plain text. Otherwise, returns
+     * <code>null</code>, and the message needs to be parsed.
+     *
+     * @param placeholders The values of the placeholders.
+     * @return The plain text component, or null.
+     */
+    @Nullable
+    Component renderPlain(@NotNull Map<String, String> placeholders) {
+        if (hasLiteralTags)
+            return null;
+
+        StringBuilder builder = new StringBuilder(template.length());
+        builder.append(segments[0]);
+        for (int i = 1; i < segments.length; i += 2) {
+            String value = placeholders.get(segments[i]);
+            if (value == null || !isPlain(value))
+                return null;
+
+            builder.append(value).append(segments[i + 1]);
+        }
+        return Component.text(builder.toString());
+    }
+
+    /**
+     * Calls the {@link PlaceholderRequestEvent}, unless no plugin listens to
+     * it.
+     *
+     * @param data The data with the filled placeholders.
+     */
+    static void callRequestEvent(@NotNull PlaceholderData data) {
+        if (PlaceholderRequestEvent.getHandlerList().getRegisteredListeners().length == 0)
+            return;
+
+        Bukkit.getPluginManager().callEvent(new PlaceholderRequestEvent(data));
+    }
+
+    /**
+     * Converts the placeholder map into the tag resolver format for the adventure api.
+     *
+     * @param placeholders The values of the placeholders.
+     * @return The non-null tag resolvers.
+     */
+    static TagResolver[] getTagResolvers(@NotNull Map<String, String> placeholders) {
+        TagResolver[] tagResolvers = new TagResolver[placeholders.size()];
         int i = 0;
         for (Map.Entry<String, String> entry : placeholders.entrySet()) {
             tagResolvers[i++] = Placeholder.parsed(entry.getKey(), entry.getValue());
         }
+        return tagResolvers;
+    }
 
-        // Adventure api does the heavy lifting
-        Component returnValue = MechanicsCore.getPlugin().message.deserialize(message, tagResolvers);
-        if (isAdvancedPlaceholders && isPlaceholderApi) {
-            message = MechanicsCore.getPlugin().message.serialize(returnValue);
-            message = PlaceholderAPI.setPlaceholders(data.player(), message);
-            returnValue = MechanicsCore.getPlugin().message.deserialize(message);
-        }
-        return returnValue;
+    static boolean isAdvancedPlaceholders() {
+        Boolean value = isAdvancedPlaceholders;
+        if (value == null)
+            isAdvancedPlaceholders = value = MechanicsCore.getPlugin().getConfig().getBoolean("Advanced_Placeholders", false);
+        return value;
+    }
+
+    static boolean isPlaceholderApi() {
+        Boolean value = isPlaceholderApi;
+        if (value == null)
+            isPlaceholderApi = value = Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI");
+        return value;
+    }
+
+    /**
+     * Forgets the cached <code>Advanced_Placeholders</code> option and
+     * whether PlaceholderAPI is enabled. Called by MechanicsCore when it is
+     * enabled, and whenever a plugin is enabled or disabled.
+     */
+    public static void invalidateSettings() {
+        isAdvancedPlaceholders = null;
+        isPlaceholderApi = null;
+    }
+
+    private record Rendered(String message, Map<String, String> placeholders, Component component) {
     }
 }
@@ -4,14 +4,11 @@ import me.clip.placeholderapi.PlaceholderAPI;
 import me.deecaad.core.MechanicsCore;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
-import org.bukkit.Bukkit;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 public class PlaceholderMessageChain {
 
@@ -37,23 +34,13 @@ public class PlaceholderMessageChain {
         }
 
         // Let other plugins customize the appearance of placeholders
-        PlaceholderRequestEvent event = new PlaceholderRequestEvent(data);
-        Bukkit.getPluginManager().callEvent(event);
-
-        // Convert the placeholder map into the tag resolver format for the adventure api
-        Map<String, String> placeholders = event.placeholders();
-        TagResolver[] tagResolvers = new TagResolver[event.placeholders().size()];
-        int i = 0;
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            tagResolvers[i++] = Placeholder.parsed(entry.getKey(), entry.getValue());
-        }
-
-        return tagResolvers;
+        PlaceholderMessage.callRequestEvent(data);
+        return PlaceholderMessage.getTagResolvers(data.placeholders());
     }
 
     public List<Component> replaceAndDeserialize(PlaceholderData data) {
         TagResolver[] tagResolvers = getTagResolvers(data);
-        boolean isPlaceholderAPI = Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI");
+        boolean isPlaceholderAPI = PlaceholderMessage.isPlaceholderApi();
 
         List<Component> temp = new ArrayList<>(chain.size());
         for (PlaceholderMessage message : chain) {
@@ -72,7 +59,7 @@ public class PlaceholderMessageChain {
 
     public TextComponent.Builder replaceAndDeserializeAndMerge(PlaceholderData data) {
         TagResolver[] tagResolvers = getTagResolvers(data);
-        boolean isPlaceholderAPI = Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI");
+        boolean isPlaceholderAPI = PlaceholderMessage.isPlaceholderApi();
 
         TextComponent.Builder builder = Component.text();
         for (PlaceholderMessage message : chain) {
@@ -0,0 +1,156 @@
+package me.deecaad.core.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An immutable mapping of elements to a weight, which returns random
+ * elements in O(1) using Vose's alias method. Unlike {@link ProbabilityMap},
+ * this class cannot be modified after it is created, and it is safe to use
+ * from multiple threads at once.
+ *
+ * <p>Each slot of the table holds one element, the chance of picking that
+ * element, and an "alias" element picked otherwise. Getting a random element
+ * picks a random slot and flips a weighted coin.
+ *
+ * @param <E> The type of the element to store.
+ */
+public final class AliasTable<E> {
+
+    private final Object[] values;
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    private AliasTable(Object[] values, double[] probabilities, int[] aliases) {
+        this.values = values;
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Builds an alias table from the elements (and weights) of the given map.
+     * Later changes to the map are not reflected in the table.
+     *
+     * @param map The non-null map to copy.
+     * @param <E> The type of the element to store.
+     * @return The non-null alias table.
+     */
+    @NotNull
+    public static <E> AliasTable<E> of(@NotNull ProbabilityMap<E> map) {
+        List<Object> values = new ArrayList<>(map.size());
+        double[] weights = new double[map.size()];
+        for (ProbabilityMap.Node<E> node : map) {
+            weights[values.size()] = node.getChance();
+            values.add(node.getValue());
+        }
+        return of(values.toArray(), weights);
+    }
+
+    /**
+     * Builds an alias table from the given elements and weights.
+     *
+     * @param values  The non-null elements.
+     * @param weights The positive weights, same length as <code>values</code>.
+     * @param <E>     The type of the element to store.
+     * @return The non-null alias table.
+     */
+    @NotNull
+    public static <E> AliasTable<E> of(@NotNull Object[] values, double @NotNull [] weights) {
+        if (values.length != weights.length)
+            throw new IllegalArgumentException("values.length != weights.length");
+
+        int n = values.length;
+        double total = 0.0;
+        for (double weight : weights) {
+            if (weight <= 0.0)
+                throw new IllegalArgumentException("weight <= 0.0");
+            total += weight;
+        }
+
+        // Scale weights so the average is 1, then split into slots that are
+        // under-full (small) and over-full (large)
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0)
+                small[smallSize++] = i;
+            else
+                large[largeSize++] = i;
+        }
+
+        // Fill each small slot with part of a large slot
+        double[] probabilities = new double[n];
+        int[] aliases = new int[n];
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0)
+                small[smallSize++] = more;
+            else
+                large[largeSize++] = more;
+        }
+
+        // Leftovers are (up to floating point error) exactly full
+        while (largeSize > 0) {
+            int index = large[--largeSize];
+            probabilities[index] = 1.0;
+            aliases[index] = index;
+        }
+        while (smallSize > 0) {
+            int index = small[--smallSize];
+            probabilities[index] = 1.0;
+            aliases[index] = index;
+        }
+
+        return new AliasTable<>(values.clone(), probabilities, aliases);
+    }
+
+    /**
+     * Returns a random element based on each element's weight. If there are
+     * no elements in the table, then this method will return <code>null</code>.
+     *
+     * @return The randomized element.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public E get() {
+        if (values.length == 0)
+            return null;
+
+        // Use 1 random number for both the slot and the coin flip
+        double random = ThreadLocalRandom.current().nextDouble() * values.length;
+        int index = (int) random;
+        return (E) (random - index < probabilities[index] ? values[index] : values[aliases[index]]);
+    }
+
+    /**
+     * Returns <code>true</code> if there are no elements in the table.
+     *
+     * @return <code>true</code> if the table is empty.
+     */
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    /**
+     * Returns the number of elements in the table.
+     *
+     * @return The amount of elements in the table.
+     */
+    public int size() {
+        return values.length;
+    }
+}
@@ -5,11 +5,10 @@ import me.deecaad.core.compatibility.CompatibilityAPI;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,6 +18,10 @@ import java.util.List;
  */
 public final class DistanceUtil {
 
+    // Reused by sendPacket, main thread only
+    private static final List<Player> SEND_BUFFER = new ArrayList<>();
+    private static boolean sending;
+
     // Don't let anyone instantiate this class
     private DistanceUtil() {
     }
@@ -70,48 +73,28 @@ public final class DistanceUtil {
      * @return The entities withing range of view distance from origin
      */
     public static List<Player> getPlayersInRange(@NotNull Location origin, double min, double max) {
+        List<Player> players = new ArrayList<>();
+        getPlayersInRange(origin, min, max, players);
+        return players;
+    }
+
+    /**
+     * Adds the players within range to the given list. Unlike
+     * {@link #getPlayersInRange(Location, double, double)}, this method does
+     * not allocate, so you can reuse the list for many calls.
+     *
+     * @param origin The coordinates that from where entities are taken
+     * @param min    How far away from the origin must the player be
+     * @param max    How close to the origin must the player be
+     * @param out    The non-null list to add the players to
+     * @see PlayerGrid
+     */
+    public static void getPlayersInRange(@NotNull Location origin, double min, double max, @NotNull List<? super Player> out) {
         World world = origin.getWorld();
         if (world == null)
             throw new IllegalArgumentException("origin.world cannot be null");
 
-        // AABB
-        double x1max = origin.getX() - max;
-        double y1max = origin.getY() - max;
-        double z1max = origin.getZ() - max;
-        double x2max = origin.getX() + max;
-        double y2max = origin.getY() + max;
-        double z2max = origin.getZ() + max;
-
-        double x1min = origin.getX() - min;
-        double y1min = origin.getY() - min;
-        double z1min = origin.getZ() - min;
-        double x2min = origin.getX() + min;
-        double y2min = origin.getY() + min;
-        double z2min = origin.getZ() + min;
-
-        // Collect all players in box
-        List<Player> players = new LinkedList<>();
-        for (Player player : world.getPlayers()) {
-            Location pos = player.getLocation();
-
-            if (pos.getX() > x1max && pos.getX() < x2max
-                    && pos.getY() > y1max && pos.getY() < y2max
-                    && pos.getZ() > z1max && pos.getZ() < z2max) {
-
-                // Minimum range exclusion check, if applicable
-                if (min != -1) {
-                    if (pos.getX() > x1min && pos.getX() < x2min
-                            && pos.getY() > y1min && pos.getY() < y2min
-                            && pos.getZ() > z1min && pos.getZ() < z2min) {
-                        continue;
-                    }
-                }
-
-                players.add(player);
-            }
-        }
-
-        return players;
+        PlayerGrid.of(world).getPlayersInRange(origin.getX(), origin.getY(), origin.getZ(), min, max, out);
     }
 
     /**
@@ -139,11 +122,23 @@ public final class DistanceUtil {
         if (origin.getWorld() == null)
             throw new IllegalArgumentException("Cannot have null world");
 
-        for (Player entity : getPlayersInRange(origin)) {
-            if (entity.getType() != EntityType.PLAYER) {
-                continue;
+        // Reuse the same buffer for every call on the main thread, unless a
+        // packet listener sends another packet while we are sending
+        boolean reuse = !sending && Bukkit.isPrimaryThread();
+        List<Player> players = reuse ? SEND_BUFFER : new ArrayList<>();
+        if (reuse)
+            sending = true;
+
+        try {
+            getPlayersInRange(origin, -1.0, getRange(origin.getWorld()), players);
+            for (Player player : players) {
+                CompatibilityAPI.getCompatibility().sendPackets(player, packets);
+            }
+        } finally {
+            if (reuse) {
+                SEND_BUFFER.clear();
+                sending = false;
             }
-            CompatibilityAPI.getCompatibility().sendPackets(entity, packets);
         }
     }
 }
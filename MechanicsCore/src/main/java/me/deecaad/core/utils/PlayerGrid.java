@@ -0,0 +1,220 @@
+package me.deecaad.core.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.util.NumberConversions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the positions of every player in a world, bucketed into
+ * 64x64 block columns. Range queries only check the players in nearby
+ * columns, and do not allocate (unlike {@link Player#getLocation()}).
+ *
+ * <p>On the main thread, the grid of each world is built the first time it
+ * is used in a tick, and shared until MechanicsCore clears it at the start of
+ * the next tick (or when a player joins, quits or changes worlds). So
+ * positions may be up to 1 tick old. Off the main thread, a new grid is built
+ * for every call to {@link #of(World)}.
+ */
+public final class PlayerGrid {
+
+    private static final int CELL_SHIFT = 6; // 64 blocks
+
+    // Main thread only
+    private static final Map<World, PlayerGrid> GRIDS = new HashMap<>();
+
+    private final Player[] players;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+
+    // Open addressing table of cell -> players in the cell. A cell with 0
+    // players is an empty slot.
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] cellCount;
+    private final int mask;
+    private final int cells;
+    private final int[] order; // indices of players, grouped by cell
+
+    private PlayerGrid(@NotNull World world) {
+        Collection<Player> worldPlayers = world.getPlayers();
+        int size = worldPlayers.size();
+        players = worldPlayers.toArray(new Player[0]);
+        x = new double[size];
+        y = new double[size];
+        z = new double[size];
+
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1);
+        cellKeys = new long[capacity];
+        cellStart = new int[capacity];
+        cellCount = new int[capacity];
+        mask = capacity - 1;
+        order = new int[size];
+
+        Location reuse = new Location(world, 0, 0, 0);
+        int[] playerSlots = new int[size];
+        int cells = 0;
+        for (int i = 0; i < size; i++) {
+            Location pos = players[i].getLocation(reuse);
+            x[i] = pos.getX();
+            y[i] = pos.getY();
+            z[i] = pos.getZ();
+
+            long key = key(NumberConversions.floor(x[i]) >> CELL_SHIFT, NumberConversions.floor(z[i]) >> CELL_SHIFT);
+            int slot = slot(key);
+            if (cellCount[slot] == 0) {
+                cellKeys[slot] = key;
+                cells++;
+            }
+            cellCount[slot]++;
+            playerSlots[i] = slot;
+        }
+        this.cells = cells;
+
+        // Each cell gets a consecutive range in the order array
+        int start = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            cellStart[slot] = start;
+            start += cellCount[slot];
+        }
+        int[] fill = cellStart.clone();
+        for (int i = 0; i < size; i++)
+            order[fill[playerSlots[i]]++] = i;
+    }
+
+    /**
+     * Returns the player grid of the given world.
+     *
+     * @param world The non-null world.
+     * @return The non-null grid.
+     */
+    @NotNull
+    public static PlayerGrid of(@NotNull World world) {
+        if (!Bukkit.isPrimaryThread())
+            return new PlayerGrid(world);
+
+        PlayerGrid grid = GRIDS.get(world);
+        if (grid == null) {
+            grid = new PlayerGrid(world);
+            GRIDS.put(world, grid);
+        }
+        return grid;
+    }
+
+    /**
+     * Forgets the grid of every world. The grids are rebuilt when they are
+     * next used.
+     */
+    public static void clear() {
+        GRIDS.clear();
+    }
+
+    /**
+     * @return the amount of players in the grid
+     */
+    public int size() {
+        return players.length;
+    }
+
+    /**
+     * Adds every player within the box of <code>max</code> blocks around the
+     * given point to <code>out</code>, excluding players within the box of
+     * <code>min</code> blocks. Use <code>-1</code> for <code>min</code> to
+     * exclude no players. Has the same behavior as
+     * {@link DistanceUtil#getPlayersInRange(Location, double, double)}.
+     *
+     * @param x   The x coordinate of the origin.
+     * @param y   The y coordinate of the origin.
+     * @param z   The z coordinate of the origin.
+     * @param min Players closer than this are excluded, or -1.
+     * @param max Players further than this are excluded.
+     * @param out The non-null list to add players to.
+     */
+    public void getPlayersInRange(double x, double y, double z, double min, double max, @NotNull List<? super Player> out) {
+        collect(x - max, y - max, z - max, x + max, y + max, z + max, x, y, z, min, out);
+    }
+
+    /**
+     * Adds every player strictly within the given box to <code>out</code>.
+     *
+     * @param minX The minimum x coordinate.
+     * @param minY The minimum y coordinate.
+     * @param minZ The minimum z coordinate.
+     * @param maxX The maximum x coordinate.
+     * @param maxY The maximum y coordinate.
+     * @param maxZ The maximum z coordinate.
+     * @param out  The non-null list to add players to.
+     */
+    public void getPlayersInBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, @NotNull List<? super Player> out) {
+        collect(minX, minY, minZ, maxX, maxY, maxZ, 0, 0, 0, -1, out);
+    }
+
+    private void collect(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                         double originX, double originY, double originZ, double min, List<? super Player> out) {
+
+        if (players.length == 0)
+            return;
+
+        int minCellX = NumberConversions.floor(minX) >> CELL_SHIFT;
+        int minCellZ = NumberConversions.floor(minZ) >> CELL_SHIFT;
+        int maxCellX = NumberConversions.floor(maxX) >> CELL_SHIFT;
+        int maxCellZ = NumberConversions.floor(maxZ) >> CELL_SHIFT;
+
+        // When the box covers more cells than there are players, checking
+        // every player is faster than looking up every cell
+        long boxCells = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+        if (boxCells >= cells) {
+            for (int i = 0; i < players.length; i++)
+                test(i, minX, minY, minZ, maxX, maxY, maxZ, originX, originY, originZ, min, out);
+            return;
+        }
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                int slot = slot(key(cellX, cellZ));
+                int end = cellStart[slot] + cellCount[slot];
+                for (int j = cellStart[slot]; j < end; j++)
+                    test(order[j], minX, minY, minZ, maxX, maxY, maxZ, originX, originY, originZ, min, out);
+            }
+        }
+    }
+
+    private void test(int i, double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                      double originX, double originY, double originZ, double min, List<? super Player> out) {
+
+        double px = x[i];
+        double py = y[i];
+        double pz = z[i];
+        if (px <= minX || px >= maxX || py <= minY || py >= maxY || pz <= minZ || pz >= maxZ)
+            return;
+
+        // Minimum range exclusion check, if applicable
+        if (min != -1
+                && px > originX - min && px < originX + min
+                && py > originY - min && py < originY + min
+                && pz > originZ - min && pz < originZ + min) {
+            return;
+        }
+
+        out.add(players[i]);
+    }
+
+    private int slot(long key) {
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (cellCount[slot] != 0 && cellKeys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private static long key(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,275 @@
+package me.deecaad.core.utils.ray;
+
+import me.deecaad.core.compatibility.CompatibilityAPI;
+import me.deecaad.core.compatibility.HitBox;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches block hitboxes for the duration of one tick, so rays that pass
+ * through the same blocks (very common with shotguns and miniguns) only
+ * calculate each block's hitbox once. Passable blocks (like air) are cached
+ * too, which makes stepping through air practically free.
+ *
+ * <p>Entries are keyed by the packed block position, and are validated
+ * against the block's {@link Material}. This means that a block broken
+ * earlier in the same tick (e.g. by an explosion) is never served from the
+ * cache. Changes that keep the material (e.g. a door opening) are picked up
+ * on the next tick, since the cache is cleared by {@link #close()}.
+ *
+ * <p>The returned hitboxes are shared, and should not be modified. This
+ * class is not thread safe, and should only be used on the main server
+ * thread.
+ *
+ * @see RayTrace#withBlockCache(BlockHitBoxCache)
+ */
+public class BlockHitBoxCache {
+
+    // After this many blocks, stop caching new blocks (until next tick).
+    // Prevents a huge explosion/nuke from growing the tables forever.
+    private static final int MAXIMUM_SIZE = 1 << 16;
+
+    /**
+     * Returned by {@link #peek(World, int, int, int, boolean)} when the block
+     * is not cached.
+     */
+    static final HitBox MISS = new HitBox(0, 0, 0, 0, 0, 0);
+
+    private final Map<World, Table> solidTables;
+    private final Map<World, Table> liquidTables;
+    private boolean open;
+
+    public BlockHitBoxCache() {
+        solidTables = new HashMap<>();
+        liquidTables = new HashMap<>();
+    }
+
+    /**
+     * Opens this cache, so it can be used by ray traces.
+     */
+    public void open() {
+        open = true;
+    }
+
+    /**
+     * Closes this cache, and clears all entries.
+     */
+    public void close() {
+        open = false;
+        for (Table table : solidTables.values())
+            table.clear();
+        for (Table table : liquidTables.values())
+            table.clear();
+    }
+
+    /**
+     * @return true if this cache can be used
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Returns the hitbox of the given block, calculating it only if the
+     * block is not already cached.
+     *
+     * @param block       The non-null block to get the hitbox of.
+     * @param allowLiquid whether liquid should be considered as having hit box.
+     * @return The shared hitbox, or null if the block is passable.
+     * @see me.deecaad.core.compatibility.block.BlockCompatibility#getHitBox(Block, boolean)
+     */
+    @Nullable
+    public HitBox getHitBox(@NotNull Block block, boolean allowLiquid) {
+        Table table = (allowLiquid ? liquidTables : solidTables).computeIfAbsent(block.getWorld(), world -> new Table());
+        return table.get(block, allowLiquid);
+    }
+
+    /**
+     * Returns the cached hitbox of the given block without touching the
+     * world. This is safe to call from any thread, as long as nothing is
+     * added to the cache at the same time.
+     *
+     * @return The hitbox, null if the block is passable, or {@link #MISS}.
+     */
+    HitBox peek(World world, int x, int y, int z, boolean allowLiquid) {
+        Table table = (allowLiquid ? liquidTables : solidTables).get(world);
+        return table == null ? MISS : table.peek(pack(x, y, z));
+    }
+
+    /**
+     * Returns the material the given block had when its hitbox was cached,
+     * without touching the world. Same thread safety as
+     * {@link #peek(World, int, int, int, boolean)}.
+     *
+     * @return The cached material, or null if the block is not cached.
+     */
+    Material peekMaterial(World world, int x, int y, int z, boolean allowLiquid) {
+        Table table = (allowLiquid ? liquidTables : solidTables).get(world);
+        return table == null ? null : table.peekMaterial(pack(x, y, z));
+    }
+
+    /**
+     * Adds the given hitbox to the cache, without calculating it. Used by
+     * tests, since hitboxes cannot be calculated without a server.
+     */
+    void put(World world, int x, int y, int z, Material material, HitBox hitBox, boolean allowLiquid) {
+        Table table = (allowLiquid ? liquidTables : solidTables).computeIfAbsent(world, key -> new Table());
+        table.put(pack(x, y, z), material, hitBox);
+    }
+
+    /**
+     * Packs the given block coordinates into one long. Supports x and z
+     * between -33554432 and 33554431 and y between -2048 and 2047.
+     *
+     * @param x The block x coordinate.
+     * @param y The block y coordinate.
+     * @param z The block z coordinate.
+     * @return The packed block position.
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    /**
+     * Open addressing hash table mapping a packed block position to its
+     * material and hitbox. Lookups do not allocate.
+     */
+    private static final class Table {
+
+        private static final int DEFAULT_INITIAL_CAPACITY = 1 << 8;
+
+        private long[] keys;
+        private Material[] materials; // null means empty slot
+        private HitBox[] hitBoxes; // null means passable block
+        private int size;
+
+        Table() {
+            keys = new long[DEFAULT_INITIAL_CAPACITY];
+            materials = new Material[DEFAULT_INITIAL_CAPACITY];
+            hitBoxes = new HitBox[DEFAULT_INITIAL_CAPACITY];
+        }
+
+        HitBox get(Block block, boolean allowLiquid) {
+            long key = pack(block.getX(), block.getY(), block.getZ());
+            Material material = block.getType();
+
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (materials[index] != null) {
+                if (keys[index] == key) {
+                    if (materials[index] == material)
+                        return hitBoxes[index];
+
+                    // Block was changed since it was cached
+                    HitBox hitBox = CompatibilityAPI.getBlockCompatibility().getHitBox(block, allowLiquid);
+                    materials[index] = material;
+                    hitBoxes[index] = hitBox;
+                    return hitBox;
+                }
+                index = (index + 1) & mask;
+            }
+
+            HitBox hitBox = CompatibilityAPI.getBlockCompatibility().getHitBox(block, allowLiquid);
+            if (size >= MAXIMUM_SIZE)
+                return hitBox;
+
+            keys[index] = key;
+            materials[index] = material;
+            hitBoxes[index] = hitBox;
+            if (++size > (keys.length >> 1))
+                resize();
+
+            return hitBox;
+        }
+
+        HitBox peek(long key) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (materials[index] != null) {
+                if (keys[index] == key)
+                    return hitBoxes[index];
+                index = (index + 1) & mask;
+            }
+            return MISS;
+        }
+
+        Material peekMaterial(long key) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (materials[index] != null) {
+                if (keys[index] == key)
+                    return materials[index];
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(long key, Material material, HitBox hitBox) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (materials[index] != null && keys[index] != key)
+                index = (index + 1) & mask;
+
+            if (materials[index] == null && ++size > (keys.length >> 1)) {
+                // Resize first, then insert into the new table
+                size--;
+                resize();
+                put(key, material, hitBox);
+                return;
+            }
+
+            keys[index] = key;
+            materials[index] = material;
+            hitBoxes[index] = hitBox;
+        }
+
+        void clear() {
+            if (size == 0)
+                return;
+
+            Arrays.fill(materials, null);
+            Arrays.fill(hitBoxes, null);
+            size = 0;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Material[] oldMaterials = materials;
+            HitBox[] oldHitBoxes = hitBoxes;
+
+            int capacity = oldKeys.length << 1;
+            keys = new long[capacity];
+            materials = new Material[capacity];
+            hitBoxes = new HitBox[capacity];
+
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldMaterials[i] == null)
+                    continue;
+
+                int index = hash(oldKeys[i]) & mask;
+                while (materials[index] != null)
+                    index = (index + 1) & mask;
+
+                keys[index] = oldKeys[i];
+                materials[index] = oldMaterials[i];
+                hitBoxes[index] = oldHitBoxes[i];
+            }
+        }
+
+        private static int hash(long key) {
+            // Mix the bits, since neighbouring blocks only differ in low bits
+            key ^= key >>> 33;
+            key *= 0xff51afd7ed558ccdL;
+            key ^= key >>> 33;
+            return (int) key;
+        }
+    }
+}
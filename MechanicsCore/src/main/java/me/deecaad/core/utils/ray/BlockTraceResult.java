@@ -6,11 +6,12 @@ import org.bukkit.block.BlockFace;
 import org.bukkit.block.BlockState;
 import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class BlockTraceResult extends RayTraceResult {
 
     private final @NotNull Block block;
-    private final @NotNull BlockState blockState;
+    private @Nullable BlockState blockState;
 
     public BlockTraceResult(
             @NotNull Vector origin,
@@ -21,10 +22,30 @@ public class BlockTraceResult extends RayTraceResult {
             double hitMin,
             double hitMax,
             @NotNull Block block
+    ) {
+        this(origin, direction, hitBox, hitFace, exitFace, hitMin, hitMax, block, block.getState());
+    }
+
+    /**
+     * When <code>blockState</code> is null, the state is captured on the first
+     * call to {@link #getBlockState()}. This is used when ray tracing off the
+     * main thread, since block states can only be captured on the main
+     * thread.
+     */
+    public BlockTraceResult(
+            @NotNull Vector origin,
+            @NotNull Vector direction,
+            @NotNull HitBox hitBox,
+            @NotNull BlockFace hitFace,
+            @NotNull BlockFace exitFace,
+            double hitMin,
+            double hitMax,
+            @NotNull Block block,
+            @Nullable BlockState blockState
     ) {
         super(origin, direction, hitBox, hitFace, exitFace, hitMin, hitMax);
         this.block = block;
-        this.blockState = block.getState();
+        this.blockState = blockState;
     }
 
     /**
@@ -46,6 +67,8 @@ public class BlockTraceResult extends RayTraceResult {
      */
     @NotNull
     public BlockState getBlockState() {
+        if (blockState == null)
+            blockState = block.getState();
         return blockState;
     }
 
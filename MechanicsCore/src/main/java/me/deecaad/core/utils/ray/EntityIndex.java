@@ -0,0 +1,202 @@
+package me.deecaad.core.utils.ray;
+
+import me.deecaad.core.compatibility.CompatibilityAPI;
+import me.deecaad.core.compatibility.HitBox;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid (one cell per chunk) of living entities and their hitboxes,
+ * shared by every {@link RayTrace} that uses it. Cells are filled lazily the
+ * first time they are queried, so the chunk entities and hitboxes are only
+ * looked up once per chunk per tick, no matter how many rays pass through it.
+ *
+ * <p>The index is only valid between {@link #open()} and {@link #close()}.
+ * While the index is closed, ray traces fall back to scanning the chunks
+ * themselves. Open the index at the start of a tick, and close it at the end
+ * of the same tick, since entities move between ticks.
+ *
+ * <p>This class is not thread safe, and should only be used on the main
+ * server thread.
+ *
+ * @see RayTrace#withEntityIndex(EntityIndex)
+ */
+public class EntityIndex {
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final Map<World, Map<Long, Entry[]>> cells;
+    private boolean open;
+
+    public EntityIndex() {
+        cells = new HashMap<>();
+    }
+
+    /**
+     * Opens this index. The cells are filled lazily when they are queried.
+     */
+    public void open() {
+        open = true;
+    }
+
+    /**
+     * Closes this index, and clears all cells.
+     */
+    public void close() {
+        open = false;
+        cells.clear();
+    }
+
+    /**
+     * @return true if this index can be queried
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Returns the living entities in the given chunk. The cell is filled on
+     * the first call to this method for the chunk.
+     *
+     * @param world  The non-null world the chunk is in.
+     * @param chunkX The chunk x coordinate.
+     * @param chunkZ The chunk z coordinate.
+     * @return The non-null entries in the chunk. Do not modify the array.
+     */
+    @NotNull
+    public Entry[] getEntities(@NotNull World world, int chunkX, int chunkZ) {
+        Map<Long, Entry[]> chunks = cells.computeIfAbsent(world, key -> new HashMap<>());
+
+        long key = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+        Entry[] entries = chunks.get(key);
+        if (entries == null) {
+            entries = index(world, chunkX, chunkZ);
+            chunks.put(key, entries);
+        }
+
+        return entries;
+    }
+
+    /**
+     * Returns the living entities in the given chunk, without filling the
+     * cell. This is safe to call from any thread, as long as no cells are
+     * filled at the same time.
+     *
+     * @return The entries in the chunk, or null if the cell is not filled.
+     */
+    Entry[] peek(World world, int chunkX, int chunkZ) {
+        Map<Long, Entry[]> chunks = cells.get(world);
+        return chunks == null ? null : chunks.get(((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL));
+    }
+
+    /**
+     * Fills the given cell, without looking up the entities. Used by tests,
+     * since hitboxes cannot be calculated without a server.
+     */
+    void put(World world, int chunkX, int chunkZ, Entry[] entries) {
+        cells.computeIfAbsent(world, key -> new HashMap<>()).put(((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL), entries);
+    }
+
+    private static Entry[] index(World world, int chunkX, int chunkZ) {
+        Entity[] entities = world.getChunkAt(chunkX, chunkZ).getEntities();
+        if (entities.length == 0) return EMPTY;
+
+        List<Entry> entries = new ArrayList<>(entities.length);
+        for (Entity entity : entities) {
+            if (!entity.getType().isAlive()) continue;
+
+            HitBox hitBox = CompatibilityAPI.getEntityCompatibility().getHitBox(entity);
+            if (hitBox == null) continue;
+
+            entries.add(new Entry((LivingEntity) entity, hitBox));
+        }
+
+        return entries.isEmpty() ? EMPTY : entries.toArray(EMPTY);
+    }
+
+    /**
+     * One living entity and its hitbox, at the time the cell was filled.
+     */
+    public static final class Entry {
+
+        private final LivingEntity entity;
+        private final HitBox hitBox;
+
+        // Most rays share the same ray size, so cache the last grown hitbox
+        private double grownBy;
+        private HitBox grown;
+
+        Entry(LivingEntity entity, HitBox hitBox) {
+            this.entity = entity;
+            this.hitBox = hitBox;
+        }
+
+        public LivingEntity getEntity() {
+            return entity;
+        }
+
+        /**
+         * Checks if the hitbox of this entity, grown by <code>raySize</code>,
+         * overlaps the given hitbox. Does not allocate any objects.
+         *
+         * @param other   The hitbox to check.
+         * @param raySize The amount to grow this entity's hitbox by.
+         * @return true if they overlap.
+         */
+        public boolean overlaps(HitBox other, double raySize) {
+            return hitBox.getMinX() - raySize < other.getMaxX() && hitBox.getMaxX() + raySize > other.getMinX()
+                    && hitBox.getMinY() - raySize < other.getMaxY() && hitBox.getMaxY() + raySize > other.getMinY()
+                    && hitBox.getMinZ() - raySize < other.getMaxZ() && hitBox.getMaxZ() + raySize > other.getMinZ();
+        }
+
+        /**
+         * Checks if the given ray could hit the hitbox of this entity, grown
+         * by <code>raySize</code>. Does not allocate any objects.
+         *
+         * @param start     The start of the ray.
+         * @param direction The normalized direction of the ray.
+         * @param raySize   The amount to grow this entity's hitbox by.
+         * @return true if the ray intersects the grown hitbox.
+         * @see HitBox#intersects(double, double, double, double, double, double, double, double)
+         */
+        public boolean intersects(Vector start, Vector direction, double raySize) {
+            return hitBox.intersects(start.getX(), start.getY(), start.getZ(),
+                    direction.getX(), direction.getY(), direction.getZ(), Double.MAX_VALUE, raySize);
+        }
+
+        /**
+         * Returns the hitbox of this entity grown by <code>raySize</code>. The
+         * returned hitbox is shared by all rays using the same size, so it
+         * should not be modified.
+         *
+         * @param raySize The amount to grow the hitbox by.
+         * @return The non-null grown hitbox.
+         */
+        public HitBox getHitBox(double raySize) {
+            if (grown == null || grownBy != raySize) {
+                grown = hitBox.copy().grow(raySize);
+                grownBy = raySize;
+            }
+            return grown;
+        }
+
+        /**
+         * Same as {@link #getHitBox(double)}, except the hitbox is not cached.
+         * This is safe to call from any thread.
+         *
+         * @param raySize The amount to grow the hitbox by.
+         * @return The non-null grown hitbox.
+         */
+        public HitBox createHitBox(double raySize) {
+            return hitBox.copy().grow(raySize);
+        }
+    }
+}
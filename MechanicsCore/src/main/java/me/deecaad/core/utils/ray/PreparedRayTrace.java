@@ -0,0 +1,160 @@
+package me.deecaad.core.utils.ray;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A ray trace split into a read-only phase, which can run on any thread, and
+ * an apply phase, which has to run on the main thread. This lets many rays
+ * be cast in parallel against the same (frozen) block cache and entity index.
+ *
+ * <ol>
+ *     <li>{@link RayTrace#prepare(World, Vector, Vector, Vector, double)} (main thread)</li>
+ *     <li>{@link #cast()} (any thread, after every ray was prepared)</li>
+ *     <li>{@link #getHits()} (main thread, after every ray was cast)</li>
+ * </ol>
+ *
+ * <p>Blocks and entities are not changed during step 2, so it is safe to run
+ * many casts at the same time. Step 3 applies filters, and checks that no
+ * block along the path (hit or not) changed during the tick. If one did, or
+ * if the cast could not complete, the ray is cast again on the main thread,
+ * so the hits are always the same as the hits of a normal cast.
+ */
+public class PreparedRayTrace {
+
+    private final RayTrace rayTrace;
+    private final World world;
+    private final Vector start;
+    private final Vector end;
+    private final Vector direction;
+    private final double maximumBlockThrough;
+
+    // Unfiltered hits, filled by RayTrace#castFrozen
+    final List<RayTraceResult> blockHits;
+    final List<RayTraceResult> entityHits;
+    boolean startBlockHit;
+    private boolean complete;
+
+    // Every block the ray passed through (x, y, z triples), and its material
+    // at cast time, so changes made later in the tick can be detected
+    private int[] traversed;
+    private Material[] traversedMaterials;
+    private int traversedCount;
+
+    PreparedRayTrace(RayTrace rayTrace, World world, Vector start, Vector end, Vector direction, double maximumBlockThrough) {
+        this.rayTrace = rayTrace;
+        this.world = world;
+        this.start = start;
+        this.end = end;
+        this.direction = direction;
+        this.maximumBlockThrough = maximumBlockThrough;
+        this.blockHits = new ArrayList<>(4);
+        this.entityHits = new ArrayList<>(2);
+        this.traversed = new int[3 * 8];
+        this.traversedMaterials = new Material[8];
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Vector getStart() {
+        return start;
+    }
+
+    public Vector getEnd() {
+        return end;
+    }
+
+    public Vector getDirection() {
+        return direction;
+    }
+
+    public double getMaximumBlockThrough() {
+        return maximumBlockThrough;
+    }
+
+    /**
+     * Casts the ray against the block cache and the entity index. This method
+     * is thread safe, as long as nothing modifies the cache and the index
+     * while it runs.
+     */
+    public void cast() {
+        try {
+            complete = rayTrace.castFrozen(this);
+        } catch (RuntimeException e) {
+            // Let the main thread cast the ray again
+            complete = false;
+        }
+    }
+
+    /**
+     * @return true if {@link #cast()} found every block and entity it needed
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns true if this prepared ray is the same ray as the given ray. If
+     * the projectile was moved between preparing and applying the ray, the
+     * prepared hits should not be used.
+     *
+     * @return true if the rays are exactly the same.
+     */
+    public boolean matches(@NotNull World world, @NotNull Vector start, @NotNull Vector end, @NotNull Vector direction, double maximumBlockThrough) {
+        return this.world == world && this.maximumBlockThrough == maximumBlockThrough
+                && this.start.getX() == start.getX() && this.start.getY() == start.getY() && this.start.getZ() == start.getZ()
+                && this.end.getX() == end.getX() && this.end.getY() == end.getY() && this.end.getZ() == end.getZ()
+                && this.direction.getX() == direction.getX() && this.direction.getY() == direction.getY() && this.direction.getZ() == direction.getZ();
+    }
+
+    void clearTraversed() {
+        traversedCount = 0;
+    }
+
+    void addTraversed(int x, int y, int z, Material material) {
+        if (traversedCount == traversedMaterials.length) {
+            traversed = Arrays.copyOf(traversed, traversed.length << 1);
+            traversedMaterials = Arrays.copyOf(traversedMaterials, traversedMaterials.length << 1);
+        }
+
+        int index = traversedCount * 3;
+        traversed[index] = x;
+        traversed[index + 1] = y;
+        traversed[index + 2] = z;
+        traversedMaterials[traversedCount++] = material;
+    }
+
+    /**
+     * Returns true if any block the ray passed through during {@link #cast()}
+     * has a different material now. Has to be called on the main thread.
+     */
+    boolean isTraversedChanged() {
+        for (int i = 0; i < traversedCount; i++) {
+            int index = i * 3;
+            if (world.getBlockAt(traversed[index], traversed[index + 1], traversed[index + 2]).getType() != traversedMaterials[i])
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the sorted hits of this ray, the same way as
+     * {@link RayTrace#cast(World, Vector, Vector, Vector, double)}. This
+     * method has to be called on the main thread.
+     *
+     * @return The sorted hits, or null if nothing was hit.
+     */
+    @Nullable
+    public List<RayTraceResult> getHits() {
+        return rayTrace.resolve(this);
+    }
+}
@@ -9,6 +9,7 @@ import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.util.Vector;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -26,6 +27,8 @@ public class RayTrace {
     private boolean outlineHitBox;
     private boolean allowLiquid;
     private double raySize = 0.1;
+    private EntityIndex entityIndex;
+    private BlockHitBoxCache blockCache;
 
     public RayTrace() { }
 
@@ -71,6 +74,30 @@ public class RayTrace {
         return this;
     }
 
+    /**
+     * Uses the given index for entity checks while the index is open. When
+     * the index is closed, the chunks are scanned for each cast instead.
+     *
+     * @param entityIndex The nullable entity index.
+     * @return A non-null reference to this (builder pattern).
+     */
+    public RayTrace withEntityIndex(EntityIndex entityIndex) {
+        this.entityIndex = entityIndex;
+        return this;
+    }
+
+    /**
+     * Uses the given cache for block hitboxes while the cache is open. When
+     * the cache is closed, the hitbox is calculated for every block instead.
+     *
+     * @param blockCache The nullable block cache.
+     * @return A non-null reference to this (builder pattern).
+     */
+    public RayTrace withBlockCache(BlockHitBoxCache blockCache) {
+        this.blockCache = blockCache;
+        return this;
+    }
+
     public List<RayTraceResult> cast(World world, Vector start, Vector direction, double range) {
         return cast(world, start, start.clone().add(direction.clone().multiply(range)), direction);
     }
@@ -87,7 +114,157 @@ public class RayTrace {
         List<RayTraceResult> hits = new ArrayList<>(5);
         getBlockHits(hits, world, start, end, direction, maximumBlockThrough);
         getEntityHits(hits, world, start, end, direction);
+        return finish(hits);
+    }
 
+    /**
+     * Prepares a cast that can be run on any thread using
+     * {@link PreparedRayTrace#cast()}, and then resolved on the main thread
+     * using {@link PreparedRayTrace#getHits()}. The hits are the same as the
+     * hits of {@link #cast(World, Vector, Vector, Vector, double)}.
+     *
+     * <p>This method fills the block cache and the entity index for the
+     * whole path of the ray, so it has to be called on the main thread,
+     * before any prepared casts are run.
+     *
+     * @return The prepared cast, or null if the entity index or the block cache is not open.
+     */
+    @Nullable
+    public PreparedRayTrace prepare(World world, Vector start, Vector end, Vector direction, double maximumBlockThrough) {
+        if (!disableBlockChecks && (blockCache == null || !blockCache.isOpen())) return null;
+        if (!disableEntityChecks && (entityIndex == null || !entityIndex.isOpen())) return null;
+
+        // Fill the caches now, the prepared cast may only read from them
+        if (!disableBlockChecks) {
+            traverseBlocks(start, end, (x, y, z, startBlock) -> {
+                blockCache.getHitBox(world.getBlockAt(x, y, z), allowLiquid);
+                return true;
+            });
+        }
+        if (!disableEntityChecks) {
+            HitBox hitBox = new HitBox(start, end);
+            int minX = NumberUtil.intFloor((hitBox.getMinX() - 2.0) / 16.0);
+            int maxX = NumberUtil.intFloor((hitBox.getMaxX() + 2.0) / 16.0);
+            int minZ = NumberUtil.intFloor((hitBox.getMinZ() - 2.0) / 16.0);
+            int maxZ = NumberUtil.intFloor((hitBox.getMaxZ() + 2.0) / 16.0);
+            for (int x = minX; x <= maxX; ++x) {
+                for (int z = minZ; z <= maxZ; ++z) {
+                    entityIndex.getEntities(world, x, z);
+                }
+            }
+        }
+
+        return new PreparedRayTrace(this, world, start.clone(), end.clone(), direction.clone(), maximumBlockThrough);
+    }
+
+    /**
+     * Collects every block and entity the prepared ray passes through,
+     * without touching the world and without applying filters. Filters and
+     * the maximum block through are applied by {@link #resolve(PreparedRayTrace)}.
+     *
+     * @return false if something was not cached.
+     */
+    boolean castFrozen(PreparedRayTrace prepared) {
+        World world = prepared.getWorld();
+        Vector start = prepared.getStart();
+        Vector end = prepared.getEnd();
+        Vector direction = prepared.getDirection();
+        List<RayTraceResult> blockHits = prepared.blockHits;
+        List<RayTraceResult> entityHits = prepared.entityHits;
+        blockHits.clear();
+        entityHits.clear();
+        prepared.startBlockHit = false;
+        prepared.clearTraversed();
+
+        if (!disableBlockChecks) {
+            boolean[] complete = { true };
+            traverseBlocks(start, end, (x, y, z, startBlock) -> {
+                HitBox blockBox = blockCache.peek(world, x, y, z, allowLiquid);
+                if (blockBox == BlockHitBoxCache.MISS) return complete[0] = false;
+
+                // Passable blocks may become solid later during this tick
+                prepared.addTraversed(x, y, z, blockCache.peekMaterial(world, x, y, z, allowLiquid));
+                if (blockBox == null) return true;
+
+                RayTraceResult hit = blockBox.rayTrace(start, direction, false);
+                if (hit != null) {
+                    blockHits.add(hit);
+                    prepared.startBlockHit |= startBlock;
+                }
+                return true;
+            });
+            if (!complete[0]) return false;
+        }
+
+        if (!disableEntityChecks) {
+            HitBox hitBox = new HitBox(start, end);
+            int minX = NumberUtil.intFloor((hitBox.getMinX() - 2.0) / 16.0);
+            int maxX = NumberUtil.intFloor((hitBox.getMaxX() + 2.0) / 16.0);
+            int minZ = NumberUtil.intFloor((hitBox.getMinZ() - 2.0) / 16.0);
+            int maxZ = NumberUtil.intFloor((hitBox.getMaxZ() + 2.0) / 16.0);
+            for (int x = minX; x <= maxX; ++x) {
+                for (int z = minZ; z <= maxZ; ++z) {
+                    EntityIndex.Entry[] entries = entityIndex.peek(world, x, z);
+                    if (entries == null) return false;
+
+                    for (EntityIndex.Entry entry : entries) {
+                        if (!entry.overlaps(hitBox, raySize)) continue;
+                        if (!entry.intersects(start, direction, raySize)) continue;
+
+                        RayTraceResult hit = entry.createHitBox(raySize).rayTrace(start, direction);
+                        if (hit != null) entityHits.add(hit);
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Applies the filters and the maximum block through to the hits of a
+     * prepared cast, exactly like {@link #cast(World, Vector, Vector, Vector, double)}
+     * would. When the prepared cast could not complete, or any block along
+     * the path was changed since it was cached, the ray is cast again instead.
+     */
+    List<RayTraceResult> resolve(PreparedRayTrace prepared) {
+        // Block was placed, broken or replaced earlier during this tick
+        if (!prepared.isComplete() || (!disableBlockChecks && prepared.isTraversedChanged()))
+            return cast(prepared.getWorld(), prepared.getStart(), prepared.getEnd(), prepared.getDirection(), prepared.getMaximumBlockThrough());
+
+        List<RayTraceResult> hits = new ArrayList<>(5);
+
+        double maximumBlockThrough = prepared.getMaximumBlockThrough();
+        List<RayTraceResult> blockHits = prepared.blockHits;
+        for (int i = 0; i < blockHits.size(); i++) {
+            boolean startBlock = i == 0 && prepared.startBlockHit;
+            if (!startBlock && maximumBlockThrough <= -1) break;
+
+            BlockTraceResult hit = (BlockTraceResult) blockHits.get(i);
+            Block block = hit.getBlock();
+            if (blockFilter != null && blockFilter.test(block)) continue;
+            hits.add(hit);
+
+            // Don't count liquid as actual hits along the path
+            if (!allowLiquid || !block.isLiquid()) {
+                maximumBlockThrough = countThrough(maximumBlockThrough, hit, startBlock);
+                if (maximumBlockThrough < 0) break;
+            }
+        }
+
+        for (RayTraceResult hit : prepared.entityHits) {
+            LivingEntity entity = ((EntityTraceResult) hit).getEntity();
+
+            // Entity may have died earlier during this tick
+            if (entity.isDead()) continue;
+            if (entityFilter != null && entityFilter.test(entity)) continue;
+            hits.add(hit);
+        }
+
+        return finish(hits);
+    }
+
+    private List<RayTraceResult> finish(List<RayTraceResult> hits) {
         if (!hits.isEmpty()) {
 
             // If more than 1 hit, sort based on distance travelled (lowest to highest)
@@ -113,8 +290,37 @@ public class RayTrace {
     private void getBlockHits(List<RayTraceResult> hits, World world, Vector start, Vector end, Vector direction, double maximumBlockThrough) {
         if (this.disableBlockChecks) return;
 
-        // Method based on NMS block traversing
+        double[] through = { maximumBlockThrough };
+        traverseBlocks(start, end, (x, y, z, startBlock) -> {
+            Block block = world.getBlockAt(x, y, z);
+            RayTraceResult hit = rayBlock(block, start, direction);
+            if (hit != null) {
+                hits.add(hit);
 
+                // Don't count liquid as actual hits along the path
+                if (!allowLiquid || !block.isLiquid()) {
+                    if ((through[0] = countThrough(through[0], hit, startBlock)) < 0) return false;
+                }
+            }
+            return through[0] > -1;
+        });
+    }
+
+    /**
+     * The first block only counts the distance travelled through it, every
+     * other block counts as 1. -1 means only the first block is checked.
+     */
+    private static double countThrough(double maximumBlockThrough, RayTraceResult hit, boolean startBlock) {
+        if (!startBlock) return maximumBlockThrough - 1;
+        return maximumBlockThrough == -1.0 ? maximumBlockThrough : maximumBlockThrough - hit.getThroughDistance();
+    }
+
+    /**
+     * Visits every block between <code>start</code> and <code>end</code>, in
+     * the order the ray passes through them. Method based on NMS block
+     * traversing.
+     */
+    private static void traverseBlocks(Vector start, Vector end, BlockVisitor visitor) {
         double startX = NumberUtil.lerp(start.getX(), end.getX(), -1.0E-7);
         double startY = NumberUtil.lerp(start.getY(), end.getY(), -1.0E-7);
         double startZ = NumberUtil.lerp(start.getZ(), end.getZ(), -1.0E-7);
@@ -123,16 +329,7 @@ public class RayTrace {
         int currentY = NumberUtil.intFloor(startY);
         int currentZ = NumberUtil.intFloor(startZ);
 
-        Block startBlock = world.getBlockAt(currentX, currentY, currentZ);
-        RayTraceResult rayStartBlock = rayBlock(startBlock, start, direction);
-        if (rayStartBlock != null) {
-            hits.add(rayStartBlock);
-
-            // Don't count liquid as actual hits along the path
-            if (!allowLiquid || !startBlock.isLiquid()) {
-                if (maximumBlockThrough != -1.0 && (maximumBlockThrough -= rayStartBlock.getThroughDistance()) < 0) return;
-            }
-        }
+        if (!visitor.visit(currentX, currentY, currentZ, true)) return;
 
         double endX = NumberUtil.lerp(end.getX(), start.getX(), -1.0E-7);
         double endY = NumberUtil.lerp(end.getY(), start.getY(), -1.0E-7);
@@ -151,11 +348,7 @@ public class RayTrace {
         double maxY = addY * (blockY > 0 ? 1.0 - NumberUtil.frac(startY) : NumberUtil.frac(startY));
         double maxZ = addZ * (blockZ > 0 ? 1.0 - NumberUtil.frac(startZ) : NumberUtil.frac(startZ));
 
-        while (maximumBlockThrough > -1) {
-            if (maxX > 1.0 && maxY > 1.0 && maxZ > 1.0) {
-                break;
-            }
-
+        while (maxX <= 1.0 || maxY <= 1.0 || maxZ <= 1.0) {
             if (maxX < maxY) {
                 if (maxX < maxZ) {
                     currentX += blockX;
@@ -172,26 +365,19 @@ public class RayTrace {
                 maxZ += addZ;
             }
 
-            Block newBlock = world.getBlockAt(currentX, currentY, currentZ);
-            RayTraceResult rayNewBlock = rayBlock(newBlock, start, direction);
-            if (rayNewBlock != null) {
-                hits.add(rayNewBlock);
-
-                // Don't count liquid as actual hits along the path
-                if (!allowLiquid || !newBlock.isLiquid()) {
-                    if (--maximumBlockThrough < 0) break;
-                }
-
-            }
+            if (!visitor.visit(currentX, currentY, currentZ, false)) return;
         }
     }
 
     private RayTraceResult rayBlock(Block block, Vector start, Vector direction) {
-        if (blockFilter != null && blockFilter.test(block)) return null;
-
-        HitBox blockBox = CompatibilityAPI.getBlockCompatibility().getHitBox(block, allowLiquid);
+        HitBox blockBox = blockCache != null && blockCache.isOpen()
+                ? blockCache.getHitBox(block, allowLiquid)
+                : CompatibilityAPI.getBlockCompatibility().getHitBox(block, allowLiquid);
         if (blockBox == null) return null;
 
+        // Filter after the hitbox check, passable blocks never need filtering
+        if (blockFilter != null && blockFilter.test(block)) return null;
+
         return blockBox.rayTrace(start, direction);
     }
 
@@ -204,6 +390,20 @@ public class RayTrace {
         int minZ = NumberUtil.intFloor((hitBox.getMinZ() - 2.0) / 16.0);
         int maxZ = NumberUtil.intFloor((hitBox.getMaxZ() + 2.0) / 16.0);
 
+        if (entityIndex != null && entityIndex.isOpen()) {
+            for (int x = minX; x <= maxX; ++x) {
+                for (int z = minZ; z <= maxZ; ++z) {
+                    for (EntityIndex.Entry entry : entityIndex.getEntities(world, x, z)) {
+                        RayTraceResult rayNewEntity = rayEntity(hitBox, entry, start, direction);
+                        if (rayNewEntity != null) {
+                            hits.add(rayNewEntity);
+                        }
+                    }
+                }
+            }
+            return;
+        }
+
         for (int x = minX; x <= maxX; ++x) {
             for (int z = minZ; z <= maxZ; ++z) {
                 Chunk chunk = world.getChunkAt(x, z);
@@ -229,4 +429,27 @@ public class RayTrace {
 
         return entityBox.rayTrace(start, direction);
     }
-}
\ No newline at end of file
+
+    private RayTraceResult rayEntity(HitBox hitBox, EntityIndex.Entry entry, Vector start, Vector direction) {
+        LivingEntity entity = entry.getEntity();
+
+        // Entity may have died earlier during this tick
+        if (entity.isDead()) return null;
+        if (!entry.overlaps(hitBox, raySize)) return null;
+
+        // Only build the grown hitbox and the result when the ray can hit
+        if (!entry.intersects(start, direction, raySize)) return null;
+        if (entityFilter != null && entityFilter.test(entity)) return null;
+
+        return entry.getHitBox(raySize).rayTrace(start, direction);
+    }
+
+    @FunctionalInterface
+    private interface BlockVisitor {
+
+        /**
+         * @return false to stop traversing
+         */
+        boolean visit(int x, int y, int z, boolean startBlock);
+    }
+}
@@ -0,0 +1,47 @@
+package me.deecaad.core.compatibility;
+
+import org.bukkit.util.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HitBoxTest {
+
+    @Test
+    void test_intersects_sameAsRayTrace() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            double x = random.nextDouble() * 10 - 5;
+            double y = random.nextDouble() * 10 - 5;
+            double z = random.nextDouble() * 10 - 5;
+            HitBox hitBox = new HitBox(x, y, z, x + random.nextDouble() * 2, y + random.nextDouble() * 2, z + random.nextDouble() * 2);
+            double grow = random.nextInt(3) * 0.1;
+
+            Vector start = new Vector(random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5);
+            Vector direction = new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, random.nextDouble() - 0.5).normalize();
+
+            // Axis aligned rays have 0 components, which divide to infinity
+            if (i % 10 == 0) direction = new Vector(0, 0, random.nextBoolean() ? 1 : -1);
+
+            boolean expected = hitBox.copy().grow(grow).rayTrace(start, direction) != null;
+            boolean actual = hitBox.intersects(start.getX(), start.getY(), start.getZ(), direction.getX(), direction.getY(), direction.getZ(), Double.MAX_VALUE, grow);
+            assertEquals(expected, actual, "start=" + start + ", direction=" + direction);
+        }
+    }
+
+    @Test
+    void test_intersects_maxDistance() {
+        HitBox hitBox = new HitBox(10, 0, 0, 11, 1, 1);
+        assertTrue(hitBox.intersects(0, 0.5, 0.5, 1, 0, 0, 10.5, 0));
+        assertFalse(hitBox.intersects(0, 0.5, 0.5, 1, 0, 0, 9.5, 0));
+        assertTrue(hitBox.intersects(0, 0.5, 0.5, 1, 0, 0, 9.5, 0.6));
+    }
+
+    @Test
+    void test_intersects_behind() {
+        HitBox hitBox = new HitBox(10, 0, 0, 11, 1, 1);
+        assertFalse(hitBox.intersects(0, 0.5, 0.5, -1, 0, 0, Double.MAX_VALUE, 0));
+    }
+}
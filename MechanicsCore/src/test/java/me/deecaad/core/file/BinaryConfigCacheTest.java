@@ -0,0 +1,67 @@
+package me.deecaad.core.file;
+
+import me.deecaad.core.utils.Debugger;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryConfigCacheTest {
+
+    private static final Debugger DEBUG = new Debugger(Logger.getLogger("BinaryConfigCacheTest"), 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void test_roundTrip() throws InvalidConfigurationException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.loadFromString("""
+                Weapon:
+                  Damage: 5
+                  Speed: 1.5
+                  Big: 12345678901
+                  Enabled: true
+                  Name: "&cGun"
+                  Lore:
+                    - "a"
+                    - "b"
+                  Maps:
+                    - Key: 1
+                """);
+
+        Path path = directory.resolve("cache.bin");
+        File file = new File("weapon.yml");
+        BinaryConfigCache cache = BinaryConfigCache.open(path, "1.0", DEBUG);
+        cache.put(file, "hash", yaml);
+        cache.save();
+
+        BinaryConfigCache reopened = BinaryConfigCache.open(path, "1.0", DEBUG);
+        assertNull(reopened.get(file, "other hash"));
+
+        YamlConfiguration cached = reopened.get(file, "hash");
+        assertNotNull(cached);
+        assertEquals(yaml.getKeys(true), cached.getKeys(true));
+        for (String key : yaml.getKeys(true)) {
+            if (!yaml.isConfigurationSection(key))
+                assertEquals(yaml.get(key), cached.get(key), key);
+        }
+    }
+
+    @Test
+    void test_versionChangeClears() {
+        Path path = directory.resolve("cache.bin");
+        File file = new File("weapon.yml");
+        BinaryConfigCache cache = BinaryConfigCache.open(path, "1.0", DEBUG);
+        cache.put(file, "hash", new YamlConfiguration());
+        cache.save();
+
+        assertNull(BinaryConfigCache.open(path, "2.0", DEBUG).get(file, "hash"));
+    }
+}
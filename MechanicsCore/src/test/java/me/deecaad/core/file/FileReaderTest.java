@@ -0,0 +1,121 @@
+package me.deecaad.core.file;
+
+import me.deecaad.core.utils.Debugger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileReaderTest {
+
+    private static final Debugger DEBUG = new Debugger(Logger.getLogger("FileReaderTest"), 0);
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(directory.resolve("a.yml"), "Weapon_A:\n  Damage: 5\n");
+        Files.createDirectories(directory.resolve("weapons"));
+        Files.writeString(directory.resolve("weapons/b.yml"), "Weapon_B:\n  Damage: 7\n");
+        Files.writeString(directory.resolve("ignored.yml"), "Weapon_C:\n  Damage: 9\n");
+    }
+
+    private FileReader reader(boolean parallel, FileCache cache) {
+        FileReader reader = new FileReader(DEBUG, null, null);
+        reader.setParallel(parallel);
+        reader.setCache(cache);
+        return reader;
+    }
+
+    @Test
+    void test_parallelMatchesSequential() {
+        Configuration sequential = reader(false, null).fillAllFiles(directory.toFile(), "ignored.yml");
+        Configuration parallel = reader(true, null).fillAllFiles(directory.toFile(), "ignored.yml");
+
+        assertEquals(sequential.getKeys(), parallel.getKeys());
+        assertEquals(5, parallel.getInt("Weapon_A.Damage"));
+        assertEquals(7, parallel.getInt("Weapon_B.Damage"));
+        assertFalse(parallel.containsKey("Weapon_C.Damage"));
+    }
+
+    @Test
+    void test_duplicateKeysKeepFirstFile() throws IOException {
+        Files.writeString(directory.resolve("z.yml"), "Weapon_A:\n  Damage: 100\n");
+
+        Configuration config = reader(true, null).fillAllFiles(directory.toFile(), "ignored.yml");
+        assertEquals(5, config.getInt("Weapon_A.Damage"));
+    }
+
+    @Test
+    void test_cacheOnlyReloadsChangedFiles() throws IOException {
+        FileCache cache = new FileCache();
+        reader(true, cache).fillAllFiles(directory.toFile(), "ignored.yml");
+        assertEquals(2, cache.size());
+
+        File a = directory.resolve("a.yml").toFile();
+        String oldHash = FileCache.hash(Files.readAllBytes(a.toPath()));
+        assertNotNull(cache.get(a, oldHash));
+
+        Files.writeString(a.toPath(), "Weapon_A:\n  Damage: 6\n");
+        Configuration config = reader(true, cache).fillAllFiles(directory.toFile(), "ignored.yml");
+        assertEquals(6, config.getInt("Weapon_A.Damage"));
+        assertEquals(7, config.getInt("Weapon_B.Damage"));
+        assertNull(cache.get(a, oldHash));
+
+        Files.delete(directory.resolve("weapons/b.yml"));
+        config = reader(true, cache).fillAllFiles(directory.toFile(), "ignored.yml");
+        assertFalse(config.containsKey("Weapon_B.Damage"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void test_serializerSideEffectsAreNotReplayedFromCache() {
+        AtomicInteger calls = new AtomicInteger();
+        Set<String> titles = ConcurrentHashMap.newKeySet();
+        Serializer<Integer> damage = new Serializer<>() {
+            @Override
+            public String getKeyword() {
+                return "Damage";
+            }
+
+            @NotNull
+            @Override
+            public Integer serialize(@NotNull SerializeData data) {
+                calls.incrementAndGet();
+                titles.add(data.key.split("\\.")[0]);
+                return (Integer) data.config.get(data.key);
+            }
+        };
+
+        FileCache cache = new FileCache();
+        FileReader reader = new FileReader(DEBUG, List.of(damage), null);
+        reader.setParallel(true);
+        reader.setCache(cache);
+        reader.fillAllFiles(directory.toFile(), "ignored.yml");
+        assertEquals(2, calls.get());
+        assertEquals(Set.of("Weapon_A", "Weapon_B"), titles);
+
+        // Unchanged files skip the serializer, so anything registered as a
+        // side effect has to be registered from the merged config instead
+        reader = new FileReader(DEBUG, List.of(damage), null);
+        reader.setParallel(true);
+        reader.setCache(cache);
+        Configuration config = reader.fillAllFiles(directory.toFile(), "ignored.yml");
+        assertEquals(2, calls.get());
+        assertEquals(5, config.getInt("Weapon_A.Damage"));
+        assertEquals(7, config.getInt("Weapon_B.Damage"));
+    }
+}
@@ -0,0 +1,46 @@
+package me.deecaad.core.placeholder;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlaceholderMessageTest {
+
+    @Test
+    void test_compile() {
+        assertArrayEquals(new String[]{"Hello"}, PlaceholderMessage.compile("Hello"));
+        assertArrayEquals(new String[]{"", "ammo_left", ""}, PlaceholderMessage.compile("<ammo_left>"));
+        assertArrayEquals(new String[]{"", "gold", "", "ammo_left", " / ", "max-ammo", "!"}, PlaceholderMessage.compile("<gold><ammo_left> / <max-ammo>!"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Ammo: <ammo_left>", "<ammo_left> / <reload>", "No placeholders", "<reload><reload>"})
+    void test_renderPlain(String template) {
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("ammo_left", "30");
+        placeholders.put("reload", "Reloading...");
+
+        Component plain = new PlaceholderMessage(template).renderPlain(placeholders);
+        Component parsed = MiniMessage.miniMessage().deserialize(template, PlaceholderMessage.getTagResolvers(placeholders));
+        assertEquals(MiniMessage.miniMessage().serialize(parsed), MiniMessage.miniMessage().serialize(plain));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"<gold><ammo_left>", "<ammo_left></gold>", "<color:red><ammo_left>", "\\<ammo_left>", "<missing>", "<formatted>"})
+    void test_renderPlain_needsParsing(String template) {
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("ammo_left", "30");
+        placeholders.put("formatted", "<red>30");
+
+        assertNull(new PlaceholderMessage(template).renderPlain(placeholders));
+    }
+}
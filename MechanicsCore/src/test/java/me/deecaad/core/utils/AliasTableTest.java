@@ -0,0 +1,55 @@
+package me.deecaad.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasTableTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void test_empty() {
+        AliasTable<String> table = AliasTable.of(new ProbabilityMap<>());
+        assertTrue(table.isEmpty());
+        assertNull(table.get());
+    }
+
+    @Test
+    void test_single() {
+        ProbabilityMap<String> map = new ProbabilityMap<>();
+        map.add("a", 0.3);
+        AliasTable<String> table = AliasTable.of(map);
+
+        for (int i = 0; i < 100; i++)
+            assertEquals("a", table.get());
+    }
+
+    @Test
+    void test_distribution() {
+        ProbabilityMap<String> map = new ProbabilityMap<>();
+        map.add("a", 1.0);
+        map.add("b", 2.0);
+        map.add("c", 7.0);
+        AliasTable<String> table = AliasTable.of(map);
+        assertEquals(3, table.size());
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SAMPLES; i++)
+            counts.merge(table.get(), 1, Integer::sum);
+
+        // Randomness can't be tested exactly, these bounds are very loose
+        assertEquals(0.1, counts.get("a") / (double) SAMPLES, 0.01);
+        assertEquals(0.2, counts.get("b") / (double) SAMPLES, 0.01);
+        assertEquals(0.7, counts.get("c") / (double) SAMPLES, 0.01);
+    }
+
+    @Test
+    void test_invalidWeight() {
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new Object[]{ "a" }, new double[]{ 0.0 }));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new Object[]{ "a" }, new double[0]));
+    }
+}
@@ -0,0 +1,283 @@
+package me.deecaad.core.utils.ray;
+
+import me.deecaad.core.compatibility.HitBox;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.util.Vector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that prepared ray traces (which may be cast in parallel) have the
+ * exact same hits as normal ray traces. Hitboxes cannot be calculated
+ * without a server, so the block cache and entity index are filled by hand.
+ */
+class PreparedRayTraceTest {
+
+    private static final int SIZE = 32;
+
+    private Map<Long, Block> blocks;
+    private Map<Long, Material> materials;
+    private Set<LivingEntity> deadEntities;
+    private World world;
+    private BlockHitBoxCache blockCache;
+    private EntityIndex entityIndex;
+    private List<LivingEntity> entities;
+
+    @BeforeEach
+    void setUp() {
+        blocks = new HashMap<>();
+        materials = new HashMap<>();
+        deadEntities = new HashSet<>();
+        entities = new ArrayList<>();
+        world = (World) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ World.class }, (proxy, method, args) -> switch (method.getName()) {
+            case "getBlockAt" -> block((World) proxy, (int) args[0], (int) args[1], (int) args[2]);
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "World";
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+
+        blockCache = new BlockHitBoxCache();
+        entityIndex = new EntityIndex();
+        blockCache.open();
+        entityIndex.open();
+
+        Random random = new Random(12345);
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    Block block = block(world, x, y, z);
+                    HitBox hitBox = null;
+                    double chance = random.nextDouble();
+                    if (chance < 0.08) {
+                        materials.put(BlockHitBoxCache.pack(x, y, z), Material.STONE);
+                        hitBox = new HitBox(x, y, z, x + 1, y + 1, z + 1);
+                    } else if (chance < 0.11) {
+                        // Stairs like shape, to test voxel shapes
+                        materials.put(BlockHitBoxCache.pack(x, y, z), Material.OAK_STAIRS);
+                        hitBox = new HitBox(x, y, z, x + 1, y + 1, z + 1);
+                        hitBox.addVoxelShapePart(new HitBox(x, y, z, x + 1, y + 0.5, z + 1));
+                        hitBox.addVoxelShapePart(new HitBox(x, y + 0.5, z + 0.5, x + 1, y + 1, z + 1));
+                    } else if (chance < 0.14) {
+                        materials.put(BlockHitBoxCache.pack(x, y, z), Material.WATER);
+                        hitBox = new HitBox(x, y, z, x + 1, y + 0.875, z + 1);
+                    } else {
+                        materials.put(BlockHitBoxCache.pack(x, y, z), Material.AIR);
+                    }
+
+                    if (hitBox != null)
+                        hitBox.setBlockHitBox(block);
+                    blockCache.put(world, x, y, z, materials.get(BlockHitBoxCache.pack(x, y, z)), hitBox, true);
+                }
+            }
+        }
+
+        Map<Long, List<EntityIndex.Entry>> cells = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            LivingEntity entity = entity(i);
+            entities.add(entity);
+
+            double x = random.nextDouble() * SIZE;
+            double y = random.nextDouble() * SIZE;
+            double z = random.nextDouble() * SIZE;
+            HitBox hitBox = new HitBox(x - 0.3, y, z - 0.3, x + 0.3, y + 1.8, z + 0.3);
+            hitBox.setLivingEntity(entity);
+
+            long key = ((long) ((int) x >> 4) << 32) | (((int) z >> 4) & 0xFFFFFFFFL);
+            cells.computeIfAbsent(key, k -> new ArrayList<>()).add(new EntityIndex.Entry(entity, hitBox));
+        }
+
+        // Rays near the edges check the neighbouring chunks too
+        for (int chunkX = -1; chunkX <= 2; chunkX++) {
+            for (int chunkZ = -1; chunkZ <= 2; chunkZ++) {
+                long key = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+                entityIndex.put(world, chunkX, chunkZ, cells.getOrDefault(key, List.of()).toArray(new EntityIndex.Entry[0]));
+            }
+        }
+    }
+
+    private Block block(World world, int x, int y, int z) {
+        return blocks.computeIfAbsent(BlockHitBoxCache.pack(x, y, z), key -> (Block) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ Block.class }, (proxy, method, args) -> switch (method.getName()) {
+            case "getX" -> x;
+            case "getY" -> y;
+            case "getZ" -> z;
+            case "getWorld" -> world;
+            case "getType" -> materials.get(key);
+            case "isLiquid" -> materials.get(key) == Material.WATER;
+            case "getState" -> null;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "Block[" + x + ", " + y + ", " + z + "]";
+            default -> throw new UnsupportedOperationException(method.getName());
+        }));
+    }
+
+    private LivingEntity entity(int id) {
+        return (LivingEntity) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ LivingEntity.class }, (proxy, method, args) -> switch (method.getName()) {
+            case "getEntityId" -> id;
+            case "isDead" -> deadEntities.contains((LivingEntity) proxy);
+            case "hashCode" -> id;
+            case "equals" -> proxy == args[0];
+            case "toString" -> "Entity[" + id + "]";
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private RayTrace rayTrace() {
+        return new RayTrace()
+                .enableLiquidChecks()
+                .withRaySize(0.1)
+                .withEntityIndex(entityIndex)
+                .withBlockCache(blockCache);
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-1.0, 0.0, 1.0, 2.5, 10.0})
+    void test_sameHits(double maximumBlockThrough) {
+        Random random = new Random(54321);
+        for (int i = 0; i < 2000; i++) {
+            RayTrace rayTrace = rayTrace();
+            if (i % 3 == 0) rayTrace.withBlockFilter(block -> block.getX() % 4 == 0);
+            if (i % 5 == 0) rayTrace.withEntityFilter(entity -> entity.getEntityId() % 3 == 0);
+
+            assertSameHits(rayTrace, random, maximumBlockThrough);
+        }
+    }
+
+    @Test
+    void test_sameHits_parallel() {
+        Random random = new Random(999);
+        List<PreparedRayTrace> prepared = new ArrayList<>();
+        List<List<RayTraceResult>> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Vector start = new Vector(2 + random.nextDouble() * 28, 2 + random.nextDouble() * 28, 2 + random.nextDouble() * 28);
+            Vector direction = randomDirection(random);
+            Vector end = start.clone().add(direction.clone().multiply(1.5));
+
+            RayTrace rayTrace = rayTrace();
+            expected.add(rayTrace.cast(world, start, end, direction, 1.0));
+            prepared.add(rayTrace.prepare(world, start, end, direction, 1.0));
+        }
+
+        prepared.parallelStream().forEach(PreparedRayTrace::cast);
+
+        for (int i = 0; i < prepared.size(); i++) {
+            assertTrue(prepared.get(i).isComplete());
+            assertHitsEqual(expected.get(i), prepared.get(i).getHits());
+        }
+    }
+
+    @Test
+    void test_deadEntities() {
+        Random random = new Random(777);
+        for (int i = 0; i < 2000; i++) {
+            Vector start = new Vector(2 + random.nextDouble() * 28, 2 + random.nextDouble() * 28, 2 + random.nextDouble() * 28);
+            Vector direction = randomDirection(random);
+            Vector end = start.clone().add(direction.clone().multiply(1.5));
+
+            RayTrace rayTrace = rayTrace();
+            PreparedRayTrace prepared = rayTrace.prepare(world, start, end, direction, 0.0);
+            prepared.cast();
+
+            // Entity died between casting and applying the ray
+            deadEntities.add(entities.get(random.nextInt(entities.size())));
+            assertHitsEqual(rayTrace.cast(world, start, end, direction, 0.0), prepared.getHits());
+        }
+    }
+
+    @Test
+    void test_placedBlock() {
+        for (int x = 5; x <= 9; x++)
+            setBlock(x, 5, 5, Material.AIR, null);
+
+        Vector start = new Vector(5.5, 5.5, 5.5);
+        Vector end = new Vector(9.5, 5.5, 5.5);
+        Vector direction = new Vector(1, 0, 0);
+
+        RayTrace rayTrace = rayTrace().disableEntityChecks();
+        PreparedRayTrace prepared = rayTrace.prepare(world, start, end, direction, 0.0);
+        prepared.cast();
+        assertTrue(prepared.isComplete());
+
+        // Block placed between casting and applying the ray, and already
+        // cached again by another ray on the main thread
+        setBlock(7, 5, 5, Material.STONE, new HitBox(7, 5, 5, 8, 6, 6));
+
+        List<RayTraceResult> expected = rayTrace.cast(world, start, end, direction, 0.0);
+        assertNotNull(expected);
+        assertSame(block(world, 7, 5, 5), ((BlockTraceResult) expected.get(0)).getBlock());
+        assertHitsEqual(expected, prepared.getHits());
+    }
+
+    @Test
+    void test_closedCache() {
+        blockCache.close();
+        assertNull(rayTrace().prepare(world, new Vector(1, 1, 1), new Vector(2, 2, 2), new Vector(1, 1, 1).normalize(), 0.0));
+    }
+
+    private void setBlock(int x, int y, int z, Material material, HitBox hitBox) {
+        materials.put(BlockHitBoxCache.pack(x, y, z), material);
+        if (hitBox != null)
+            hitBox.setBlockHitBox(block(world, x, y, z));
+        blockCache.put(world, x, y, z, material, hitBox, true);
+    }
+
+    private static Vector randomDirection(Random random) {
+        return new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, random.nextDouble() - 0.5).normalize();
+    }
+
+    private void assertSameHits(RayTrace rayTrace, Random random, double maximumBlockThrough) {
+        Vector start = new Vector(2 + random.nextDouble() * 28, 2 + random.nextDouble() * 28, 2 + random.nextDouble() * 28);
+        Vector direction = randomDirection(random);
+        Vector end = start.clone().add(direction.clone().multiply(random.nextDouble() * 1.5));
+
+        List<RayTraceResult> expected = rayTrace.cast(world, start, end, direction, maximumBlockThrough);
+
+        PreparedRayTrace prepared = rayTrace.prepare(world, start, end, direction, maximumBlockThrough);
+        assertNotNull(prepared);
+        prepared.cast();
+        assertTrue(prepared.isComplete());
+        assertTrue(prepared.matches(world, start, end, direction, maximumBlockThrough));
+
+        assertHitsEqual(expected, prepared.getHits());
+    }
+
+    private static void assertHitsEqual(List<RayTraceResult> expected, List<RayTraceResult> actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+
+        assertNotNull(actual);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            RayTraceResult a = expected.get(i);
+            RayTraceResult b = actual.get(i);
+            assertEquals(a.getClass(), b.getClass());
+            assertEquals(a.getHitMin(), b.getHitMin());
+            assertEquals(a.getHitMax(), b.getHitMax());
+            assertEquals(a.getHitFace(), b.getHitFace());
+            assertEquals(a.getExitFace(), b.getExitFace());
+            if (a instanceof BlockTraceResult blockHit)
+                assertSame(blockHit.getBlock(), ((BlockTraceResult) b).getBlock());
+            else
+                assertSame(((EntityTraceResult) a).getEntity(), ((EntityTraceResult) b).getEntity());
+        }
+    }
+}
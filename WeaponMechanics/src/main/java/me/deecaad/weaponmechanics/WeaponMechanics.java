@@ -33,11 +33,14 @@ import me.deecaad.weaponmechanics.packetlisteners.OutAbilitiesListener;
 import me.deecaad.weaponmechanics.packetlisteners.OutEntityEffectListener;
 import me.deecaad.weaponmechanics.packetlisteners.OutRemoveEntityEffectListener;
 import me.deecaad.weaponmechanics.packetlisteners.OutSetSlotBobFix;
+import me.deecaad.weaponmechanics.utils.TagSnapshot;
+import me.deecaad.weaponmechanics.weapon.WeaponDefinition;
 import me.deecaad.weaponmechanics.weapon.WeaponHandler;
 import me.deecaad.weaponmechanics.weapon.damage.AssistData;
 import me.deecaad.weaponmechanics.weapon.damage.BlockDamageData;
 import me.deecaad.weaponmechanics.weapon.damage.DamageModifier;
 import me.deecaad.weaponmechanics.weapon.info.InfoHandler;
+import me.deecaad.weaponmechanics.weapon.placeholders.PTopStat;
 import me.deecaad.weaponmechanics.weapon.placeholders.PlaceholderValidator;
 import me.deecaad.weaponmechanics.weapon.projectile.HitBoxValidator;
 import me.deecaad.weaponmechanics.weapon.projectile.ProjectilesRunnable;
@@ -46,6 +49,7 @@ import me.deecaad.weaponmechanics.weapon.shoot.recoil.Recoil;
 import me.deecaad.weaponmechanics.weapon.stats.PlayerStat;
 import me.deecaad.weaponmechanics.weapon.stats.WeaponStat;
 import me.deecaad.weaponmechanics.wrappers.EntityWrapper;
+import me.deecaad.weaponmechanics.wrappers.MovementTracker;
 import me.deecaad.weaponmechanics.wrappers.PlayerWrapper;
 import org.bstats.bukkit.Metrics;
 import org.bstats.charts.SimplePie;
@@ -78,10 +82,13 @@ public class WeaponMechanics {
     Map<LivingEntity, EntityWrapper> entityWrappers;
     Configuration configurations;
     Configuration basicConfiguration;
+    FileCache configCache; // Survives reloads, so unchanged weapon files are not serialized again
+    BinaryConfigCache binaryConfigCache; // Survives restarts, so unchanged weapon files are not parsed again
     MainCommand mainCommand;
     WeaponHandler weaponHandler;
     ResourcePackListener resourcePackListener;
     ProjectilesRunnable projectilesRunnable;
+    MovementTracker movementTracker;
     ProtocolManager protocolManager;
     Metrics metrics;
     Database database;
@@ -155,12 +162,15 @@ public class WeaponMechanics {
 
         weaponHandler = new WeaponHandler();
         projectilesRunnable = new ProjectilesRunnable(getPlugin());
+        movementTracker = new MovementTracker(getPlugin());
+        movementTracker.loadConfig(basicConfiguration);
         resourcePackListener = new ResourcePackListener();
 
         // Set millis between recoil rotations
         Recoil.MILLIS_BETWEEN_ROTATIONS = basicConfiguration.getInt("Recoil_Millis_Between_Rotations", 20);
 
         setupDatabase();
+        setupBlockDamageJournal();
         registerPlaceholders();
 
         for (Player player : Bukkit.getOnlinePlayers()) {
@@ -296,6 +306,21 @@ public class WeaponMechanics {
                 database = new MySQL(hostname, port, databaseName, username, password);
             }
             database.executeUpdate(true, PlayerStat.getCreateTableString(), WeaponStat.getCreateTableString());
+            weaponHandler.getStatsHandler().start(getPlugin(), database, basicConfiguration);
+        }
+    }
+
+    void setupBlockDamageJournal() {
+        // Block data can only be saved as a string in 1.13+, and TileState
+        // (used to find blocks with extra data) was added in 1.14
+        if (ReflectionUtil.getMCVersion() < 14 || !basicConfiguration.getBool("Explosions.Regeneration_Journal", true))
+            return;
+
+        debug.debug("Opening block damage journal");
+        try {
+            BlockDamageData.openJournal(new File(getDataFolder(), "block_damage.journal").toPath());
+        } catch (IOException e) {
+            debug.log(LogLevel.WARN, "Failed to open block damage journal, blocks will regenerate on shutdown", e);
         }
     }
 
@@ -325,8 +350,45 @@ public class WeaponMechanics {
             event.addValidators(validators);
             Bukkit.getPluginManager().callEvent(event);
 
-            Configuration temp = new FileReader(debug, event.getSerializers(), event.getValidators()).fillAllFiles(getDataFolder(), "config.yml", "repair_kits", "attachments", "ammos", "placeholders");
+            String[] ignoreFiles = {"config.yml", "repair_kits", "attachments", "ammos", "placeholders"};
+            FileReader reader = new FileReader(debug, event.getSerializers(), event.getValidators());
+            reader.setParallel(basicConfiguration.getBool("Config_Loading.Parallel", true));
+            if (basicConfiguration.getBool("Config_Loading.Incremental_Reload", true)) {
+                if (configCache == null)
+                    configCache = new FileCache();
+
+                // Serialized weapons may use ammo types, attachments, etc. So
+                // when those files change, every weapon is serialized again.
+                configCache.setDependencies(Arrays.stream(ignoreFiles).map(name -> new File(getDataFolder(), name)).toList());
+                reader.setCache(configCache);
+            } else {
+                configCache = null;
+            }
+
+            if (basicConfiguration.getBool("Config_Loading.Binary_Cache", true)) {
+                if (binaryConfigCache == null) {
+                    String version = javaPlugin.getDescription().getVersion() + "/" + Bukkit.getBukkitVersion();
+                    binaryConfigCache = BinaryConfigCache.open(new File(getDataFolder(), "config_cache.bin").toPath(), version, debug);
+                }
+                reader.setBinaryCache(binaryConfigCache);
+            } else {
+                binaryConfigCache = null;
+            }
+
+            Configuration temp = reader.fillAllFiles(getDataFolder(), ignoreFiles);
             configurations.add(temp);
+
+            if (binaryConfigCache != null) {
+                BinaryConfigCache binaryCache = binaryConfigCache;
+                new TaskChain(javaPlugin).thenRunAsync(binaryCache::save);
+            }
+
+            // Weapons are registered from the merged config, since cached
+            // files are not serialized again
+            weaponHandler.getInfoHandler().registerWeapons(configurations);
+
+            // Resolve the hot weapon config once, instead of on every shot
+            WeaponDefinition.compileAll(configurations, weaponHandler.getInfoHandler().getSortedWeaponList());
         } catch (IOException e) {
             e.printStackTrace();
         } catch (DuplicateKeyException e) {
@@ -337,7 +399,8 @@ public class WeaponMechanics {
     void registerPlaceholders() {
         debug.debug("Registering placeholders");
         try {
-            new JarInstancer(new JarFile(getFile())).createAllInstances(PlaceholderHandler.class, getClassLoader(), true).forEach(PlaceholderHandler.REGISTRY::add);
+            new JarInstancer(new JarFile(getFile())).createAllInstances(PlaceholderHandler.class, getClassLoader(), true, PTopStat.class).forEach(PlaceholderHandler.REGISTRY::add);
+            PTopStat.registerAll();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -359,6 +422,7 @@ public class WeaponMechanics {
         // Other
         Bukkit.getPluginManager().registerEvents(resourcePackListener, getPlugin());
         Bukkit.getPluginManager().registerEvents(RepairItemListener.getInstance(), getPlugin());
+        TagSnapshot.startClearTask(getPlugin());
         if (Bukkit.getPluginManager().getPlugin("MythicMobs") != null) {
 
             // We need to make sure we are running MM v5
@@ -539,11 +603,13 @@ public class WeaponMechanics {
         entityWrappers = new HashMap<>();
         weaponHandler = new WeaponHandler();
         projectilesRunnable = new ProjectilesRunnable(getPlugin());
+        movementTracker = new MovementTracker(getPlugin());
         resourcePackListener = new ResourcePackListener();
 
         return new TaskChain(getPlugin())
                 .thenRunAsync(this::writeFiles)
                 .thenRunSync(() -> {
+                    movementTracker.loadConfig(basicConfiguration);
 
                     loadConfig();
                     registerPacketListeners();
@@ -552,6 +618,7 @@ public class WeaponMechanics {
                     registerPermissions();
                     registerUpdateChecker();
                     setupDatabase();
+                    setupBlockDamageJournal();
 
                     for (Player player : Bukkit.getOnlinePlayers()) {
                         // Add PlayerWrapper in onEnable in case server is reloaded for example
@@ -563,17 +630,20 @@ public class WeaponMechanics {
     }
 
     public void onDisable() {
-        BlockDamageData.regenerateAll();
+        BlockDamageData.shutdown();
+        Recoil.getScheduler().shutdown();
 
         HandlerList.unregisterAll(getPlugin());
         Bukkit.getServer().getScheduler().cancelTasks(getPlugin());
 
-        // Close database and save data in SYNC
+        // Close database and save data in SYNC. Queue every player first,
+        // so all changes are written in 1 flush.
         if (database != null) {
             for (EntityWrapper entityWrapper : entityWrappers.values()) {
                 if (!entityWrapper.isPlayer()) continue;
-                weaponHandler.getStatsHandler().save((PlayerWrapper) entityWrapper, true);
+                weaponHandler.getStatsHandler().save((PlayerWrapper) entityWrapper, false);
             }
+            weaponHandler.getStatsHandler().close();
             try {
                 database.close();
             } catch (SQLException e) {
@@ -592,6 +662,7 @@ public class WeaponMechanics {
         configurations = null;
         basicConfiguration = null;
         projectilesRunnable = null;
+        movementTracker = null;
         plugin = null;
         debug = null;
     }
@@ -603,6 +674,13 @@ public class WeaponMechanics {
         return plugin.projectilesRunnable;
     }
 
+    /**
+     * @return The BukkitRunnable checking the movement of every entity wrapper
+     */
+    public static MovementTracker getMovementTracker() {
+        return plugin.movementTracker;
+    }
+
     /**
      * @return the WeaponMechanics plugin instance
      */
@@ -673,17 +751,14 @@ public class WeaponMechanics {
 
     /**
      * Removes entity (and player) wrapper and all of its content.
-     * Move task is also cancelled.
+     * The entity's movement is no longer tracked.
      *
      * @param entity the entity (or player)
      */
     public static void removeEntityWrapper(LivingEntity entity) {
         EntityWrapper oldWrapper = plugin.entityWrappers.remove(entity);
         if (oldWrapper != null) {
-            int oldMoveTask = oldWrapper.getMoveTaskId();
-            if (oldMoveTask != 0) {
-                Bukkit.getScheduler().cancelTask(oldMoveTask);
-            }
+            plugin.movementTracker.untrack(oldWrapper);
             oldWrapper.getMainHandData().cancelTasks();
             oldWrapper.getOffHandData().cancelTasks();
         }
@@ -5,6 +5,7 @@ import me.deecaad.core.compatibility.ICompatibility;
 import me.deecaad.weaponmechanics.compatibility.IWeaponCompatibility;
 import me.deecaad.weaponmechanics.compatibility.WeaponCompatibilityAPI;
 import me.deecaad.weaponmechanics.utils.CustomTag;
+import me.deecaad.weaponmechanics.weapon.WeaponHandler;
 import me.deecaad.weaponmechanics.weapon.damage.BlockDamageData;
 import me.deecaad.weaponmechanics.weapon.projectile.AProjectile;
 import me.deecaad.weaponmechanics.weapon.projectile.ProjectilesRunnable;
@@ -15,6 +16,9 @@ import me.deecaad.weaponmechanics.weapon.reload.ammo.ItemAmmo;
 import me.deecaad.weaponmechanics.weapon.shoot.FullAutoTask;
 import me.deecaad.weaponmechanics.weapon.skin.SkinHandler;
 import me.deecaad.weaponmechanics.weapon.skin.SkinSelector;
+import me.deecaad.weaponmechanics.weapon.stats.Leaderboard;
+import me.deecaad.weaponmechanics.weapon.stats.LeaderboardService;
+import me.deecaad.weaponmechanics.weapon.stats.PlayerStat;
 import me.deecaad.weaponmechanics.weapon.stats.WeaponStat;
 import me.deecaad.weaponmechanics.wrappers.EntityWrapper;
 import me.deecaad.weaponmechanics.wrappers.HandData;
@@ -34,6 +38,8 @@ import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -67,6 +73,44 @@ public final class WeaponMechanicsAPI {
         return WeaponMechanics.getPlayerWrapper(player).getStatsData();
     }
 
+    /**
+     * Gets the top players of the given player stat, from highest to lowest.
+     * Leaderboards are kept in memory, so this method does not query the
+     * database, and may be called async. Returns an empty list when the
+     * database is disabled, or for String stats.
+     *
+     * @param stat The non-null player stat.
+     * @return The non-null, unmodifiable top players.
+     */
+    @NotNull
+    public static List<Leaderboard.Entry> getLeaderboard(@NotNull PlayerStat stat) {
+        LeaderboardService leaderboards = getLeaderboards();
+        return leaderboards == null ? Collections.emptyList() : leaderboards.getTop(stat);
+    }
+
+    /**
+     * Gets the top players of the given weapon stat, from highest to lowest.
+     * Leaderboards are kept in memory, so this method does not query the
+     * database, and may be called async. Returns an empty list when the
+     * database is disabled, or for String and Set stats.
+     *
+     * @param stat The non-null weapon stat.
+     * @param weaponTitle The weapon title, or null for all weapons combined.
+     * @return The non-null, unmodifiable top players.
+     */
+    @NotNull
+    public static List<Leaderboard.Entry> getLeaderboard(@NotNull WeaponStat stat, @Nullable String weaponTitle) {
+        LeaderboardService leaderboards = getLeaderboards();
+        return leaderboards == null ? Collections.emptyList() : leaderboards.getTop(stat, weaponTitle);
+    }
+
+    @Nullable
+    private static LeaderboardService getLeaderboards() {
+        // Null while reloading
+        WeaponHandler weaponHandler = WeaponMechanics.getWeaponHandler();
+        return weaponHandler == null ? null : weaponHandler.getStatsHandler().getLeaderboards();
+    }
+
     /**
      * Gets the skin that will be applied to the weapon item for the given player.
      * This takes the skin override ({@link #setSkin(ItemStack, String)}) into
@@ -31,6 +31,7 @@ import me.deecaad.weaponmechanics.weapon.reload.ammo.AmmoConfig;
 import me.deecaad.weaponmechanics.weapon.reload.ammo.AmmoRegistry;
 import me.deecaad.weaponmechanics.weapon.shoot.CustomDurability;
 import me.deecaad.weaponmechanics.weapon.shoot.recoil.Recoil;
+import me.deecaad.weaponmechanics.weapon.shoot.recoil.RecoilScheduler;
 import me.deecaad.weaponmechanics.wrappers.PlayerWrapper;
 import me.deecaad.weaponmechanics.wrappers.StatsData;
 import net.kyori.adventure.text.TextComponent;
@@ -998,6 +999,8 @@ public class WeaponMechanicsCommand {
     public static void recoil(Player player, int push, int recover, List<Double> yaws, List<Double> pitches, int rate, int time) {
         Recoil recoil = new Recoil(push, recover, yaws.stream().map(Double::floatValue).collect(Collectors.toList()), pitches.stream().map(Double::floatValue).collect(Collectors.toList()), null, null);
         PlayerWrapper playerWrapper = WeaponMechanics.getPlayerWrapper(player);
+        RecoilScheduler scheduler = Recoil.getScheduler();
+        scheduler.resetMaxLag();
         new BukkitRunnable() {
             int ticks = 0;
 
@@ -1011,6 +1014,11 @@ public class WeaponMechanicsCommand {
                 ticks += rate;
                 if (ticks > time) {
                     cancel();
+
+                    // Show how late recoil rotations were during the test
+                    player.sendMessage(GOLD + "Recoil lag: " + GRAY + "average " + NumberUtil.getAsRounded(scheduler.getAverageLagNanos() / 1e6, 2)
+                            + "ms, max " + NumberUtil.getAsRounded(scheduler.getMaxLagNanos() / 1e6, 2)
+                            + "ms, " + scheduler.getActiveSessions() + " active sessions");
                 }
             }
         }.runTaskTimer(WeaponMechanics.getPlugin(), 0, rate);
@@ -183,8 +183,10 @@ public class RepairItemListener implements Listener {
         CompatibilityAPI.getNBTCompatibility().copyTagsFromTo(weapon, weaponTemplate, "PublicBukkitValues");
         weapon.setType(weaponTemplate.getType());
         weapon.setItemMeta(weaponTemplate.getItemMeta());
-        CustomTag.WEAPON_TITLE.setString(weapon, weaponTitle);
-        CustomTag.BROKEN_WEAPON.remove(weapon);
+        CustomTag.edit(weapon)
+                .setString(CustomTag.WEAPON_TITLE, weaponTitle)
+                .remove(CustomTag.BROKEN_WEAPON)
+                .apply();
     }
 
     public boolean repair(ItemStack weapon, String weaponTitle, ItemStack repairItem, CastData cast) {
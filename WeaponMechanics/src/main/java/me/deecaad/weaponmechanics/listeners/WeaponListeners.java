@@ -36,12 +36,21 @@ import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.Map;
+import java.util.function.Predicate;
 
 import static me.deecaad.weaponmechanics.WeaponMechanics.getBasicConfigurations;
 import static me.deecaad.weaponmechanics.WeaponMechanics.getConfigurations;
 
 public class WeaponListeners implements Listener {
 
+    /**
+     * Weapons always have item meta (they store their title in it), so
+     * equipment changes between items without meta can be skipped by
+     * {@link #equip(EntityEquipmentEvent)}. Only used when no weapon
+     * converters are used, since those convert vanilla items.
+     */
+    public static final Predicate<ItemStack> EQUIP_FILTER = ItemStack::hasItemMeta;
+
     private WeaponHandler weaponHandler;
 
     public WeaponListeners(WeaponHandler weaponHandler) {
@@ -51,6 +60,7 @@ public class WeaponListeners implements Listener {
     @EventHandler
     public void equip(EntityEquipmentEvent e) {
         if (e.isArmor()) return;
+        if (!weaponHandler.getInfoHandler().hasWeaponConverters() && !e.anyItemMatches(EQUIP_FILTER)) return;
 
         LivingEntity entity = (LivingEntity) e.getEntity();
         EntityWrapper entityWrapper = WeaponMechanics.getEntityWrapper(entity);
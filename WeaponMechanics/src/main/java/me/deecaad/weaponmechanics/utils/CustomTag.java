@@ -1,6 +1,7 @@
 package me.deecaad.weaponmechanics.utils;
 
 import me.deecaad.core.compatibility.CompatibilityAPI;
+import me.deecaad.core.compatibility.nbt.NBTCompatibility;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.Locale;
@@ -17,20 +18,20 @@ public enum CustomTag {
      * to determine if an item is a weapon, and which weapon it is. The title
      * can be used to retrieve values from config.
      */
-    WEAPON_TITLE,
+    WEAPON_TITLE(String.class),
 
     /**
      * Selective fire is stored as an int, and is used by WeaponMechanics to
      * determine the current selective fire rate of the weapon. 0 = single,
      * 1 = burst, and 2 = auto.
      */
-    SELECTIVE_FIRE,
+    SELECTIVE_FIRE(Integer.class),
 
     /**
      * Ammo left is stored as an int, and is used by WeaponMechanics to store
      * the amount of ammo left in the gun.
      */
-    AMMO_LEFT,
+    AMMO_LEFT(Integer.class),
 
     /**
      * Ammo type index is stored as an int, and is used by WeaponMechanics to
@@ -39,20 +40,20 @@ public enum CustomTag {
      * the weapons. This is used by WeaponMechanicsPlus to add modifiers to
      * different ammo types.
      */
-    AMMO_TYPE_INDEX,
+    AMMO_TYPE_INDEX(Integer.class),
 
     /**
      * The ammo name is stored as a String, and is used by WeaponMechanics
      * to determine if an item can be used as ammunition.
      */
-    AMMO_TITLE("ammo-name"),
+    AMMO_TITLE(String.class, "ammo-name"),
 
     /**
      * Ammo magazine is stored as an int, and is used by WeaponMechanics to
      * determine if the ammo was loaded as a magazine, or as individual
      * bullets. 0 = bullets, 1 = magazine.
      */
-    AMMO_MAGAZINE,
+    AMMO_MAGAZINE(Integer.class),
 
     /**
      * Firearm action state is stored as an int, and is used by WeaponMechanics
@@ -60,33 +61,33 @@ public enum CustomTag {
      *
      * @see me.deecaad.weaponmechanics.weapon.firearm.FirearmAction#getState(ItemStack)
      */
-    FIREARM_ACTION_STATE,
+    FIREARM_ACTION_STATE(Integer.class),
 
     /**
      * Durability is stored as an int, and is used by WeaponMechanics for
      * {@link me.deecaad.weaponmechanics.weapon.shoot.CustomDurability}.
      */
-    DURABILITY,
+    DURABILITY(Integer.class),
 
     /**
      * Max durability is stored as an int, and is used by WeaponMechanics to
      * prevent abusing repairs over and over.
      */
-    MAX_DURABILITY,
+    MAX_DURABILITY(Integer.class),
 
     /**
      * Broken weapon is stored as a String, and is used by WeaponMechanics to
      * determine which weapon this item was before breaking. The stored value
      * is a weapon title.
      */
-    BROKEN_WEAPON,
+    BROKEN_WEAPON(String.class),
 
     /**
      * Repair kit title is stored as a String, and is used by WeaponMechanics
      * to determine if an item is a repair kit. This title can be used to
      * get repair kit information from config.
      */
-    REPAIR_KIT_TITLE,
+    REPAIR_KIT_TITLE(String.class),
 
     /**
      * Attachment title is stored as a string, and is used by
@@ -94,7 +95,7 @@ public enum CustomTag {
      * can be used to get attachment information from config (or the attachment
      * registry, stored in WeaponMechanicsPlus).
      */
-    ATTACHMENT_TITLE,
+    ATTACHMENT_TITLE(String.class),
 
     /**
      * Attachments are stored as a list of strings, and is used by
@@ -102,32 +103,36 @@ public enum CustomTag {
      * weapon. Each string in the list is an {@link #ATTACHMENT_TITLE}, and can
      * be used to pull information from config.
      */
-    ATTACHMENTS,
+    ATTACHMENTS(String[].class),
 
     /**
      * Weapon skin is stored as a string, and is used by WeaponMechanicsCosmetics
      * to determine if a weapon has a set skin. This overrides the player's
      * preferred skin.
      */
-    WEAPON_SKIN,
+    WEAPON_SKIN(String.class),
 
     /**
      * Armor title is stored as a string, and is used by ArmorMechanics to
      * determine if an item is a custom armor added by the plugin.
      */
-    ARMOR_TITLE(null, "armormechanics"),
+    ARMOR_TITLE(String.class, null, "armormechanics"),
 
     /**
      * Prevent remove is stored as an int, and is used by ArmorMechanics as a
      * marker to prevent armor from being unequipped.
      */
-    PREVENT_REMOVE(null, "armormechanics");
+    PREVENT_REMOVE(Integer.class, null, "armormechanics");
 
+    // Returned by getSnapshot when the tag has to be read directly
+    private static final Object NOT_SNAPSHOT = new Object();
 
+    private final Class<?> type;
     private final String owningPlugin;
     private final String id;
 
-    CustomTag() {
+    CustomTag(Class<?> type) {
+        this.type = type;
         this.id = name().toLowerCase(Locale.ROOT).replace('_', '-');
         this.owningPlugin = "weaponmechanics";
     }
@@ -136,14 +141,17 @@ public enum CustomTag {
      * This is only used for backwards support. For example, AMMO_NAME ->
      * {@link #AMMO_TITLE}. Use the default constructor.
      *
-     * @param id The non-null id to be used as the NBT tag.
+     * @param type The non-null type of the stored value.
+     * @param id   The non-null id to be used as the NBT tag.
      */
-    CustomTag(String id) {
+    CustomTag(Class<?> type, String id) {
+        this.type = type;
         this.id = id;
         this.owningPlugin = "weaponmechanics";
     }
 
-    CustomTag(String id, String owningPlugin) {
+    CustomTag(Class<?> type, String id, String owningPlugin) {
+        this.type = type;
         this.id = id != null ? id : name().toLowerCase(Locale.ROOT).replace('_', '-');
         this.owningPlugin = owningPlugin;
     }
@@ -159,67 +167,137 @@ public enum CustomTag {
         return owningPlugin + ":" + getId();
     }
 
+    /**
+     * @return the type of the stored value, used by {@link TagSnapshot}
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    public String getOwningPlugin() {
+        return owningPlugin;
+    }
+
+    /**
+     * Returns the value of this tag from the item's {@link TagSnapshot}, or
+     * <code>NOT_SNAPSHOT</code> if this tag can't be read as the given type
+     * from a snapshot.
+     */
+    private Object getSnapshot(ItemStack item, Class<?> type) {
+        if (this.type != type || !TagSnapshot.isSnapshot(this))
+            return NOT_SNAPSHOT;
+        return TagSnapshot.of(item).get(this);
+    }
+
     public boolean hasString(ItemStack item) {
+        Object value = getSnapshot(item, String.class);
+        if (value != NOT_SNAPSHOT)
+            return value != null;
         return CompatibilityAPI.getNBTCompatibility().hasString(item, owningPlugin, id);
     }
 
     public String getString(ItemStack item) {
+        Object value = getSnapshot(item, String.class);
+        if (value != NOT_SNAPSHOT)
+            return (String) value;
         return CompatibilityAPI.getNBTCompatibility().getString(item, owningPlugin, id);
     }
 
     public void setString(ItemStack item, String value) {
         CompatibilityAPI.getNBTCompatibility().setString(item, owningPlugin, id, value);
+        TagSnapshot.invalidate(item);
     }
 
     public boolean hasInteger(ItemStack item) {
+        Object value = getSnapshot(item, Integer.class);
+        if (value != NOT_SNAPSHOT)
+            return value != null;
         return CompatibilityAPI.getNBTCompatibility().hasInt(item, owningPlugin, id);
     }
 
     public int getInteger(ItemStack item) {
+        Object value = getSnapshot(item, Integer.class);
+        if (value != NOT_SNAPSHOT)
+            return value == null ? 0 : (Integer) value;
         return CompatibilityAPI.getNBTCompatibility().getInt(item, owningPlugin, id);
     }
 
     public void setInteger(ItemStack item, int value) {
         CompatibilityAPI.getNBTCompatibility().setInt(item, owningPlugin, id, value);
+        TagSnapshot.invalidate(item);
     }
 
     public boolean hasDouble(ItemStack item) {
+        Object value = getSnapshot(item, Double.class);
+        if (value != NOT_SNAPSHOT)
+            return value != null;
         return CompatibilityAPI.getNBTCompatibility().hasDouble(item, owningPlugin, id);
     }
 
     public double getDouble(ItemStack item) {
+        Object value = getSnapshot(item, Double.class);
+        if (value != NOT_SNAPSHOT)
+            return value == null ? 0.0 : (Double) value;
         return CompatibilityAPI.getNBTCompatibility().getDouble(item, owningPlugin, id);
     }
 
     public void setDouble(ItemStack item, double value) {
         CompatibilityAPI.getNBTCompatibility().setDouble(item, owningPlugin, id, value);
+        TagSnapshot.invalidate(item);
     }
 
     public boolean hasArray(ItemStack item) {
+        Object value = getSnapshot(item, int[].class);
+        if (value != NOT_SNAPSHOT)
+            return value != null;
         return CompatibilityAPI.getNBTCompatibility().hasArray(item, owningPlugin, id);
     }
 
     public int[] getArray(ItemStack item) {
+        Object value = getSnapshot(item, int[].class);
+        if (value != NOT_SNAPSHOT)
+            return value == null ? NBTCompatibility.DO_NOT_MODIFY_ME : ((int[]) value).clone();
         return CompatibilityAPI.getNBTCompatibility().getArray(item, owningPlugin, id);
     }
 
     public void setArray(ItemStack item, int[] value) {
         CompatibilityAPI.getNBTCompatibility().setArray(item, owningPlugin, id, value);
+        TagSnapshot.invalidate(item);
     }
 
     public boolean hasStringArray(ItemStack item) {
+        Object value = getSnapshot(item, String[].class);
+        if (value != NOT_SNAPSHOT)
+            return value != null;
         return CompatibilityAPI.getNBTCompatibility().hasStringArray(item, owningPlugin, id);
     }
 
     public String[] getStringArray(ItemStack item) {
+        Object value = getSnapshot(item, String[].class);
+        if (value != NOT_SNAPSHOT)
+            return value == null ? NBTCompatibility.DO_NOT_MODIFY_ME_STRING : ((String[]) value).clone();
         return CompatibilityAPI.getNBTCompatibility().getStringArray(item, owningPlugin, id);
     }
 
     public void setStringArray(ItemStack item, String[] value) {
         CompatibilityAPI.getNBTCompatibility().setStringArray(item, owningPlugin, id, value);
+        TagSnapshot.invalidate(item);
     }
 
     public void remove(ItemStack item) {
         CompatibilityAPI.getNBTCompatibility().remove(item, owningPlugin, id);
+        TagSnapshot.invalidate(item);
+    }
+
+    /**
+     * Returns an editor to set multiple tags of the item with a single item
+     * meta write. For example:
+     * <code>CustomTag.edit(item).setInteger(AMMO_LEFT, 30).setInteger(AMMO_MAGAZINE, 1).apply()</code>
+     *
+     * @param item The non-null item to edit.
+     * @return The non-null editor.
+     */
+    public static TagSnapshot.Editor edit(ItemStack item) {
+        return new TagSnapshot.Editor(item);
     }
-}
\ No newline at end of file
+}
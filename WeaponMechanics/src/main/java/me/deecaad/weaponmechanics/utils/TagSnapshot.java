@@ -0,0 +1,231 @@
+package me.deecaad.weaponmechanics.utils;
+
+import me.deecaad.core.compatibility.CompatibilityAPI;
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every WeaponMechanics tag of an item, read with a single item meta read.
+ * Handlers often check 3-6 tags of the same weapon in the same tick, and
+ * each {@link me.deecaad.core.compatibility.nbt.NBTCompatibility} call copies
+ * the whole item meta, so {@link CustomTag} reads go through this snapshot.
+ *
+ * <p>Snapshots are cached by item identity (not {@link ItemStack#equals(Object)}),
+ * only on the main thread, and the cache is cleared every tick. Any code that
+ * changes the tags of an item without {@link CustomTag} (for example,
+ * {@link ItemStack#setItemMeta(org.bukkit.inventory.meta.ItemMeta)} with a
+ * meta that has different tags) should call {@link #invalidate(ItemStack)}.
+ */
+public final class TagSnapshot {
+
+    private static final String PLUGIN = "weaponmechanics";
+    private static final int CACHE_SIZE = 16;
+
+    // Only tags owned by WeaponMechanics are read in a snapshot
+    private static final int[] SLOTS;
+    private static final String[] KEYS;
+    private static final Class<?>[] TYPES;
+
+    // Small identity cache, main thread only
+    private static final ItemStack[] cachedItems = new ItemStack[CACHE_SIZE];
+    private static final TagSnapshot[] cachedSnapshots = new TagSnapshot[CACHE_SIZE];
+    private static int nextCacheIndex;
+
+    static {
+        CustomTag[] tags = CustomTag.values();
+        SLOTS = new int[tags.length];
+        List<CustomTag> snapshotTags = new ArrayList<>();
+        for (CustomTag tag : tags) {
+            if (PLUGIN.equals(tag.getOwningPlugin())) {
+                SLOTS[tag.ordinal()] = snapshotTags.size();
+                snapshotTags.add(tag);
+            } else {
+                SLOTS[tag.ordinal()] = -1;
+            }
+        }
+
+        KEYS = new String[snapshotTags.size()];
+        TYPES = new Class<?>[snapshotTags.size()];
+        for (int i = 0; i < snapshotTags.size(); i++) {
+            KEYS[i] = snapshotTags.get(i).getId();
+            TYPES[i] = snapshotTags.get(i).getType();
+        }
+    }
+
+    private final Object[] values;
+
+    private TagSnapshot(Object[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Returns <code>true</code> if the given tag can be read from a snapshot.
+     *
+     * @param tag The non-null tag.
+     * @return true if the tag is in snapshots.
+     */
+    static boolean isSnapshot(@NotNull CustomTag tag) {
+        return SLOTS[tag.ordinal()] != -1;
+    }
+
+    /**
+     * Returns the value of the given tag, or <code>null</code> if the item
+     * does not use the tag.
+     *
+     * @param tag The non-null tag, see {@link #isSnapshot(CustomTag)}.
+     * @return The value, or null.
+     */
+    @Nullable
+    public Object get(@NotNull CustomTag tag) {
+        int slot = SLOTS[tag.ordinal()];
+        if (slot == -1)
+            throw new IllegalArgumentException(tag + " is not owned by WeaponMechanics");
+
+        return values[slot];
+    }
+
+    /**
+     * Returns the snapshot of the given item. On the main thread, the
+     * snapshot is reused until the item is changed or the tick ends.
+     *
+     * @param item The non-null item to read.
+     * @return The non-null snapshot.
+     */
+    @NotNull
+    public static TagSnapshot of(@NotNull ItemStack item) {
+        if (!Bukkit.isPrimaryThread())
+            return read(item);
+
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            if (cachedItems[i] == item)
+                return cachedSnapshots[i];
+        }
+
+        TagSnapshot snapshot = read(item);
+        cachedItems[nextCacheIndex] = item;
+        cachedSnapshots[nextCacheIndex] = snapshot;
+        nextCacheIndex = (nextCacheIndex + 1) % CACHE_SIZE;
+        return snapshot;
+    }
+
+    private static TagSnapshot read(ItemStack item) {
+        return new TagSnapshot(CompatibilityAPI.getNBTCompatibility().getAll(item, PLUGIN, KEYS, TYPES));
+    }
+
+    /**
+     * Removes the cached snapshot of the given item. Should be called after
+     * the tags of the item are changed.
+     *
+     * @param item The non-null item that was changed.
+     */
+    public static void invalidate(@NotNull ItemStack item) {
+        if (!Bukkit.isPrimaryThread())
+            return;
+
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            if (cachedItems[i] == item) {
+                cachedItems[i] = null;
+                cachedSnapshots[i] = null;
+            }
+        }
+    }
+
+    public static void clearCache() {
+        Arrays.fill(cachedItems, null);
+        Arrays.fill(cachedSnapshots, null);
+    }
+
+    /**
+     * Clears the cache every tick. This bounds how long a snapshot can be
+     * outdated when another plugin changes our tags, and makes sure items
+     * are not kept in memory.
+     *
+     * @param plugin The non-null plugin to schedule the task with.
+     */
+    public static void startClearTask(@NotNull Plugin plugin) {
+        Bukkit.getScheduler().runTaskTimer(plugin, TagSnapshot::clearCache, 0, 1);
+    }
+
+    /**
+     * Sets multiple tags of an item with a single item meta write. Use
+     * {@link CustomTag#edit(ItemStack)} to create an editor.
+     */
+    public static final class Editor {
+
+        private final ItemStack item;
+        private final List<CustomTag> tags;
+        private final List<Object> values;
+
+        Editor(@NotNull ItemStack item) {
+            this.item = item;
+            this.tags = new ArrayList<>(4);
+            this.values = new ArrayList<>(4);
+        }
+
+        public Editor setString(@NotNull CustomTag tag, String value) {
+            return set(tag, value);
+        }
+
+        public Editor setInteger(@NotNull CustomTag tag, int value) {
+            return set(tag, value);
+        }
+
+        public Editor setDouble(@NotNull CustomTag tag, double value) {
+            return set(tag, value);
+        }
+
+        public Editor setArray(@NotNull CustomTag tag, int[] value) {
+            return set(tag, value);
+        }
+
+        public Editor setStringArray(@NotNull CustomTag tag, String[] value) {
+            return set(tag, value);
+        }
+
+        public Editor remove(@NotNull CustomTag tag) {
+            return set(tag, null);
+        }
+
+        private Editor set(CustomTag tag, Object value) {
+            tags.add(tag);
+            values.add(value);
+            return this;
+        }
+
+        /**
+         * Writes every change to the item. Tags owned by the same plugin are
+         * written with a single item meta write.
+         */
+        public void apply() {
+            if (tags.isEmpty())
+                return;
+
+            List<String> owners = new ArrayList<>(1);
+            for (CustomTag tag : tags) {
+                if (!owners.contains(tag.getOwningPlugin()))
+                    owners.add(tag.getOwningPlugin());
+            }
+
+            for (String owner : owners) {
+                List<String> keys = new ArrayList<>(tags.size());
+                List<Object> ownerValues = new ArrayList<>(tags.size());
+                for (int i = 0; i < tags.size(); i++) {
+                    if (tags.get(i).getOwningPlugin().equals(owner)) {
+                        keys.add(tags.get(i).getId());
+                        ownerValues.add(values.get(i));
+                    }
+                }
+                CompatibilityAPI.getNBTCompatibility().setAll(item, owner, keys.toArray(new String[0]), ownerValues.toArray());
+            }
+
+            invalidate(item);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package me.deecaad.weaponmechanics.weapon;
 import me.deecaad.core.compatibility.CompatibilityAPI;
 import me.deecaad.core.compatibility.HitBox;
 import me.deecaad.core.compatibility.worldguard.WorldGuardCompatibility;
+import me.deecaad.core.compatibility.worldguard.WorldGuardFlagCache;
 import me.deecaad.core.file.Configuration;
 import me.deecaad.core.utils.LogLevel;
 import me.deecaad.core.utils.StringUtil;
@@ -70,7 +71,7 @@ public class HitHandler {
         WorldGuardCompatibility worldGuard = CompatibilityAPI.getWorldGuardCompatibility();
         Location loc = result.getHitLocation().clone().toLocation(shooter.getWorld());
 
-        if (!worldGuard.testFlag(loc, shooter instanceof Player ? (Player) shooter : null, "weapon-damage")) { // is cancelled check
+        if (!WorldGuardFlagCache.testFlag(loc, shooter instanceof Player ? (Player) shooter : null, "weapon-damage")) { // is cancelled check
             Object obj = worldGuard.getValue(loc, "weapon-damage-message");
             if (obj != null && !obj.toString().isEmpty() && shooter != null) {
                 shooter.sendMessage(StringUtil.color(obj.toString()));
@@ -104,7 +105,8 @@ public class HitHandler {
         Bukkit.getPluginManager().callEvent(hitBlockEvent);
         if (hitBlockEvent.isCancelled()) return true;
 
-        Explosion explosion = getConfigurations().getObject(projectile.getWeaponTitle() + ".Explosion", Explosion.class);
+        String weaponTitle = projectile.getWeaponTitle();
+        Explosion explosion = weaponTitle == null ? null : WeaponDefinition.of(weaponTitle).getExplosion();
         if (explosion != null) explosion.handleExplosion(projectile.getShooter(), result.getHitLocation().clone().toLocation(projectile.getWorld()), projectile, ExplosionTrigger.BLOCK);
 
         return false;
@@ -116,7 +118,7 @@ public class HitHandler {
         Location loc = result.getHitLocation().toLocation(projectile.getWorld());
         LivingEntity shooter = projectile.getShooter();
 
-        if (!worldGuard.testFlag(loc, shooter instanceof Player ? (Player) shooter : null, "weapon-damage")) { // is cancelled check
+        if (!WorldGuardFlagCache.testFlag(loc, shooter instanceof Player ? (Player) shooter : null, "weapon-damage")) { // is cancelled check
             Object obj = worldGuard.getValue(loc, "weapon-damage-message");
             if (obj != null && !obj.toString().isEmpty() && shooter != null) {
                 shooter.sendMessage(StringUtil.color(obj.toString()));
@@ -141,7 +143,8 @@ public class HitHandler {
             return true;
         }
 
-        Explosion explosion = getConfigurations().getObject(projectile.getWeaponTitle() + ".Explosion", Explosion.class);
+        String weaponTitle = projectile.getWeaponTitle();
+        Explosion explosion = weaponTitle == null ? null : WeaponDefinition.of(weaponTitle).getExplosion();
         if (explosion != null) explosion.handleExplosion(projectile.getShooter(), result.getHitLocation().clone().toLocation(projectile.getWorld()), projectile, ExplosionTrigger.ENTITY);
 
         return false;
@@ -0,0 +1,467 @@
+package me.deecaad.weaponmechanics.weapon;
+
+import me.deecaad.core.file.Configuration;
+import me.deecaad.core.file.LinkedConfig;
+import me.deecaad.core.mechanics.Mechanics;
+import me.deecaad.weaponmechanics.WeaponMechanics;
+import me.deecaad.weaponmechanics.weapon.explode.Explosion;
+import me.deecaad.weaponmechanics.weapon.firearm.FirearmAction;
+import me.deecaad.weaponmechanics.weapon.info.WeaponInfoDisplay;
+import me.deecaad.weaponmechanics.weapon.projectile.weaponprojectile.Projectile;
+import me.deecaad.weaponmechanics.weapon.reload.ammo.AmmoConfig;
+import me.deecaad.weaponmechanics.weapon.shoot.CustomDurability;
+import me.deecaad.weaponmechanics.weapon.shoot.recoil.Recoil;
+import me.deecaad.weaponmechanics.weapon.shoot.spread.Spread;
+import me.deecaad.weaponmechanics.weapon.trigger.Trigger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled configuration of one weapon. Handlers used to look up every
+ * value with a string key like <code>weaponTitle + ".Shoot.Delay_Between_Shots"</code>,
+ * which concatenates a string and hashes it on every shot. Instead, every
+ * value the handlers need is looked up once, after the config is serialized,
+ * and stored in typed fields.
+ *
+ * <p>Each weapon also gets an interned id, which can be stored instead of the
+ * weapon title, see {@link #byId(int)}.
+ *
+ * <p>The string API ({@link WeaponMechanics#getConfigurations()}) still works,
+ * and is what definitions are compiled from. Addons that modify the
+ * configuration of a weapon at runtime should call {@link #recompile(String)}.
+ * Instances of this class are immutable.
+ */
+public final class WeaponDefinition {
+
+    private static final Map<String, WeaponDefinition> BY_TITLE = new HashMap<>();
+    private static final List<WeaponDefinition> BY_ID = new ArrayList<>();
+
+    // Returned for titles that are not weapons, every value is the default
+    private static final WeaponDefinition EMPTY = new WeaponDefinition(-1, null, new LinkedConfig());
+
+    private final int id;
+    private final String weaponTitle;
+    private final Shoot shoot;
+    private final Scope scope;
+    private final Reload reload;
+    private final Info info;
+    private final Projectile projectile;
+    private final FirearmAction firearmAction;
+    private final Explosion explosion;
+
+    private WeaponDefinition(int id, String weaponTitle, Configuration config) {
+        this.id = id;
+        this.weaponTitle = weaponTitle;
+        this.shoot = new Shoot(weaponTitle, config);
+        this.scope = new Scope(weaponTitle, config);
+        this.reload = new Reload(weaponTitle, config);
+        this.info = new Info(weaponTitle, config);
+        this.projectile = config.getObject(weaponTitle + ".Projectile", Projectile.class);
+        this.firearmAction = config.getObject(weaponTitle + ".Firearm_Action", FirearmAction.class);
+        this.explosion = config.getObject(weaponTitle + ".Explosion", Explosion.class);
+    }
+
+    /**
+     * Compiles the definition of every given weapon, replacing all previously
+     * compiled definitions. Should be called after the config is serialized.
+     *
+     * @param config       The non-null serialized configuration.
+     * @param weaponTitles The non-null weapons to compile.
+     */
+    public static void compileAll(@NotNull Configuration config, @NotNull Collection<String> weaponTitles) {
+        BY_TITLE.clear();
+        BY_ID.clear();
+        for (String weaponTitle : weaponTitles)
+            compile(config, weaponTitle);
+    }
+
+    /**
+     * Compiles the definition of the given weapon again. Use this method
+     * after modifying the configuration of the weapon, otherwise the handlers
+     * keep using the old values.
+     *
+     * @param weaponTitle The non-null weapon to compile.
+     * @return The non-null compiled definition.
+     */
+    @NotNull
+    public static WeaponDefinition recompile(@NotNull String weaponTitle) {
+        return compile(WeaponMechanics.getConfigurations(), weaponTitle);
+    }
+
+    private static WeaponDefinition compile(Configuration config, String weaponTitle) {
+        WeaponDefinition old = BY_TITLE.get(weaponTitle);
+        int id = old == null ? BY_ID.size() : old.id;
+
+        WeaponDefinition definition = new WeaponDefinition(id, weaponTitle, config);
+        BY_TITLE.put(weaponTitle, definition);
+        if (old == null)
+            BY_ID.add(definition);
+        else
+            BY_ID.set(id, definition);
+        return definition;
+    }
+
+    /**
+     * Returns the compiled definition of the given weapon. Registered weapons
+     * which were not compiled yet (like weapons added by addons) are compiled
+     * on the first call. Titles that are not registered weapons get a shared
+     * empty definition, which has the default value for everything and an
+     * id of <code>-1</code>.
+     *
+     * @param weaponTitle The non-null weapon title.
+     * @return The non-null compiled definition.
+     */
+    @NotNull
+    public static WeaponDefinition of(@NotNull String weaponTitle) {
+        WeaponDefinition definition = BY_TITLE.get(weaponTitle);
+        if (definition != null)
+            return definition;
+
+        return WeaponMechanics.getWeaponHandler().getInfoHandler().hasWeapon(weaponTitle) ? recompile(weaponTitle) : EMPTY;
+    }
+
+    /**
+     * @param id The interned id of the weapon, see {@link #getId()}.
+     * @return The compiled definition, or null if no weapon has the given id.
+     */
+    @Nullable
+    public static WeaponDefinition byId(int id) {
+        return id < 0 || id >= BY_ID.size() ? null : BY_ID.get(id);
+    }
+
+    /**
+     * Returns the interned id of this weapon. Ids are only valid until the
+     * plugin is reloaded, so they should never be saved.
+     *
+     * @return the id, or <code>-1</code> for titles that are not weapons
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getWeaponTitle() {
+        return weaponTitle;
+    }
+
+    public Shoot getShoot() {
+        return shoot;
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public Reload getReload() {
+        return reload;
+    }
+
+    public Info getInfo() {
+        return info;
+    }
+
+    @Nullable
+    public Projectile getProjectile() {
+        return projectile;
+    }
+
+    @Nullable
+    public FirearmAction getFirearmAction() {
+        return firearmAction;
+    }
+
+    @Nullable
+    public Explosion getExplosion() {
+        return explosion;
+    }
+
+    @Override
+    public String toString() {
+        return "WeaponDefinition{" +
+                "id=" + id +
+                ", weaponTitle='" + weaponTitle + '\'' +
+                '}';
+    }
+
+    /**
+     * The <code>Shoot</code> section of the weapon.
+     */
+    public static final class Shoot {
+
+        private final Trigger trigger;
+        private final boolean consumeItemOnShoot;
+        private final int ammoPerShot;
+        private final boolean destroyWhenEmpty;
+        private final Trigger selectiveFireTrigger;
+        private final int delayBetweenShots;
+        private final int shotsPerBurst;
+        private final int ticksBetweenEachShot;
+        private final int fullyAutomaticShotsPerSecond;
+        private final Mechanics mechanics;
+        private final boolean resetFallDistance;
+        private final double projectileSpeed;
+        private final int projectilesPerShot;
+        private final Spread spread;
+        private final Recoil recoil;
+        private final CustomDurability customDurability;
+
+        private Shoot(String weaponTitle, Configuration config) {
+            trigger = config.getObject(weaponTitle + ".Shoot.Trigger", Trigger.class);
+            consumeItemOnShoot = config.getBool(weaponTitle + ".Shoot.Consume_Item_On_Shoot");
+            ammoPerShot = config.getInt(weaponTitle + ".Shoot.Ammo_Per_Shot", 1);
+            destroyWhenEmpty = config.getBool(weaponTitle + ".Shoot.Destroy_When_Empty");
+            selectiveFireTrigger = config.getObject(weaponTitle + ".Shoot.Selective_Fire.Trigger", Trigger.class);
+            delayBetweenShots = config.getInt(weaponTitle + ".Shoot.Delay_Between_Shots");
+            shotsPerBurst = config.getInt(weaponTitle + ".Shoot.Burst.Shots_Per_Burst");
+            ticksBetweenEachShot = config.getInt(weaponTitle + ".Shoot.Burst.Ticks_Between_Each_Shot");
+            fullyAutomaticShotsPerSecond = config.getInt(weaponTitle + ".Shoot.Fully_Automatic_Shots_Per_Second");
+            mechanics = config.getObject(weaponTitle + ".Shoot.Mechanics", Mechanics.class);
+            resetFallDistance = config.getBool(weaponTitle + ".Shoot.Reset_Fall_Distance");
+            projectileSpeed = config.getDouble(weaponTitle + ".Shoot.Projectile_Speed");
+            projectilesPerShot = config.getInt(weaponTitle + ".Shoot.Projectiles_Per_Shot");
+            spread = config.getObject(weaponTitle + ".Shoot.Spread", Spread.class);
+            recoil = config.getObject(weaponTitle + ".Shoot.Recoil", Recoil.class);
+            customDurability = config.getObject(weaponTitle + ".Shoot.Custom_Durability", CustomDurability.class);
+        }
+
+        @Nullable
+        public Trigger getTrigger() {
+            return trigger;
+        }
+
+        public boolean isConsumeItemOnShoot() {
+            return consumeItemOnShoot;
+        }
+
+        public int getAmmoPerShot() {
+            return ammoPerShot;
+        }
+
+        public boolean isDestroyWhenEmpty() {
+            return destroyWhenEmpty;
+        }
+
+        @Nullable
+        public Trigger getSelectiveFireTrigger() {
+            return selectiveFireTrigger;
+        }
+
+        public int getDelayBetweenShots() {
+            return delayBetweenShots;
+        }
+
+        public int getShotsPerBurst() {
+            return shotsPerBurst;
+        }
+
+        public int getTicksBetweenEachShot() {
+            return ticksBetweenEachShot;
+        }
+
+        public int getFullyAutomaticShotsPerSecond() {
+            return fullyAutomaticShotsPerSecond;
+        }
+
+        @Nullable
+        public Mechanics getMechanics() {
+            return mechanics;
+        }
+
+        public boolean isResetFallDistance() {
+            return resetFallDistance;
+        }
+
+        public double getProjectileSpeed() {
+            return projectileSpeed;
+        }
+
+        public int getProjectilesPerShot() {
+            return projectilesPerShot;
+        }
+
+        @Nullable
+        public Spread getSpread() {
+            return spread;
+        }
+
+        @Nullable
+        public Recoil getRecoil() {
+            return recoil;
+        }
+
+        @Nullable
+        public CustomDurability getCustomDurability() {
+            return customDurability;
+        }
+    }
+
+    /**
+     * The <code>Scope</code> section of the weapon.
+     */
+    public static final class Scope {
+
+        private final Trigger trigger;
+        private final Trigger zoomOffTrigger;
+        private final Mechanics zoomOffMechanics;
+        private final List<String> zoomStacks;
+        private final Mechanics zoomStackingMechanics;
+        private final boolean unscopeAfterShot;
+        private final double zoomAmount;
+        private final Mechanics mechanics;
+        private final int shootDelayAfterScope;
+
+        private Scope(String weaponTitle, Configuration config) {
+            trigger = config.getObject(weaponTitle + ".Scope.Trigger", Trigger.class);
+            zoomOffTrigger = config.getObject(weaponTitle + ".Scope.Zoom_Off.Trigger", Trigger.class);
+            zoomOffMechanics = config.getObject(weaponTitle + ".Scope.Zoom_Off.Mechanics", Mechanics.class);
+            List<String> stacks = config.getList(weaponTitle + ".Scope.Zoom_Stacking.Stacks", null);
+            zoomStacks = stacks == null ? null : List.copyOf(stacks);
+            zoomStackingMechanics = config.getObject(weaponTitle + ".Scope.Zoom_Stacking.Mechanics", Mechanics.class);
+            unscopeAfterShot = config.getBool(weaponTitle + ".Scope.Unscope_After_Shot");
+            zoomAmount = config.getDouble(weaponTitle + ".Scope.Zoom_Amount");
+            mechanics = config.getObject(weaponTitle + ".Scope.Mechanics", Mechanics.class);
+            shootDelayAfterScope = config.getInt(weaponTitle + ".Scope.Shoot_Delay_After_Scope");
+        }
+
+        @Nullable
+        public Trigger getTrigger() {
+            return trigger;
+        }
+
+        @Nullable
+        public Trigger getZoomOffTrigger() {
+            return zoomOffTrigger;
+        }
+
+        @Nullable
+        public Mechanics getZoomOffMechanics() {
+            return zoomOffMechanics;
+        }
+
+        /**
+         * @return the unmodifiable zoom stacks, or null if zoom stacking is not used
+         */
+        @Nullable
+        public List<String> getZoomStacks() {
+            return zoomStacks;
+        }
+
+        @Nullable
+        public Mechanics getZoomStackingMechanics() {
+            return zoomStackingMechanics;
+        }
+
+        public boolean isUnscopeAfterShot() {
+            return unscopeAfterShot;
+        }
+
+        public double getZoomAmount() {
+            return zoomAmount;
+        }
+
+        @Nullable
+        public Mechanics getMechanics() {
+            return mechanics;
+        }
+
+        public int getShootDelayAfterScope() {
+            return shootDelayAfterScope;
+        }
+    }
+
+    /**
+     * The <code>Reload</code> section of the weapon.
+     */
+    public static final class Reload {
+
+        private final Trigger trigger;
+        private final int reloadDuration;
+        private final int magazineSize;
+        private final int ammoPerReload;
+        private final AmmoConfig ammo;
+        private final Mechanics startMechanics;
+        private final Mechanics finishMechanics;
+        private final boolean unloadAmmoOnReload;
+        private final int shootDelayAfterReload;
+
+        private Reload(String weaponTitle, Configuration config) {
+            trigger = config.getObject(weaponTitle + ".Reload.Trigger", Trigger.class);
+            reloadDuration = config.getInt(weaponTitle + ".Reload.Reload_Duration");
+            magazineSize = config.getInt(weaponTitle + ".Reload.Magazine_Size");
+            ammoPerReload = config.getInt(weaponTitle + ".Reload.Ammo_Per_Reload", -1);
+            ammo = config.getObject(weaponTitle + ".Reload.Ammo", AmmoConfig.class);
+            startMechanics = config.getObject(weaponTitle + ".Reload.Start_Mechanics", Mechanics.class);
+            finishMechanics = config.getObject(weaponTitle + ".Reload.Finish_Mechanics", Mechanics.class);
+            unloadAmmoOnReload = config.getBool(weaponTitle + ".Reload.Unload_Ammo_On_Reload");
+            shootDelayAfterReload = config.getInt(weaponTitle + ".Reload.Shoot_Delay_After_Reload");
+        }
+
+        @Nullable
+        public Trigger getTrigger() {
+            return trigger;
+        }
+
+        public int getReloadDuration() {
+            return reloadDuration;
+        }
+
+        public int getMagazineSize() {
+            return magazineSize;
+        }
+
+        public int getAmmoPerReload() {
+            return ammoPerReload;
+        }
+
+        @Nullable
+        public AmmoConfig getAmmo() {
+            return ammo;
+        }
+
+        @Nullable
+        public Mechanics getStartMechanics() {
+            return startMechanics;
+        }
+
+        @Nullable
+        public Mechanics getFinishMechanics() {
+            return finishMechanics;
+        }
+
+        public boolean isUnloadAmmoOnReload() {
+            return unloadAmmoOnReload;
+        }
+
+        public int getShootDelayAfterReload() {
+            return shootDelayAfterReload;
+        }
+    }
+
+    /**
+     * The <code>Info</code> section of the weapon.
+     */
+    public static final class Info {
+
+        private final WeaponInfoDisplay weaponInfoDisplay;
+        private final int weaponEquipDelay;
+
+        private Info(String weaponTitle, Configuration config) {
+            weaponInfoDisplay = config.getObject(weaponTitle + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class);
+            weaponEquipDelay = config.getInt(weaponTitle + ".Info.Weapon_Equip_Delay");
+        }
+
+        @Nullable
+        public WeaponInfoDisplay getWeaponInfoDisplay() {
+            return weaponInfoDisplay;
+        }
+
+        public int getWeaponEquipDelay() {
+            return weaponEquipDelay;
+        }
+    }
+}
@@ -3,9 +3,11 @@ package me.deecaad.weaponmechanics.weapon.damage;
 import me.deecaad.core.compatibility.CompatibilityAPI;
 import me.deecaad.core.compatibility.block.BlockCompatibility;
 import me.deecaad.core.utils.DistanceUtil;
+import me.deecaad.core.utils.LogLevel;
 import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.core.utils.ReflectionUtil;
 import me.deecaad.weaponmechanics.WeaponMechanics;
+import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -13,25 +15,34 @@ import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.BlockState;
 import org.bukkit.block.Chest;
+import org.bukkit.block.TileState;
 import org.bukkit.block.data.*;
 import org.bukkit.block.data.type.Candle;
 import org.bukkit.block.data.type.SeaPickle;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 
 import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import static me.deecaad.weaponmechanics.WeaponMechanics.debug;
+
 /**
  * Utility class that stores all block damage on the server.
  */
 public final class BlockDamageData {
 
-    private static final Map<ChunkPos, Map<Block, DamageData>> DAMAGE_MAP = new LinkedHashMap<>(256);
+    private static final Map<World, BlockDamageStore> STORES = new HashMap<>();
+    private static BlockDamageJournal journal;
     public static final int MAX_BLOCK_CRACK = 9;
     public static final Material MASK = Material.valueOf("AIR");
 
@@ -43,6 +54,18 @@ public final class BlockDamageData {
     private BlockDamageData() {
     }
 
+    /**
+     * Returns the store holding the damaged blocks of the given world. Use
+     * the store for bulk operations on chunks and regions.
+     *
+     * @param world The non-null world.
+     * @return The store, or null if no blocks are damaged in the world.
+     */
+    @Nullable
+    public static BlockDamageStore getStore(@NotNull World world) {
+        return STORES.get(world);
+    }
+
     /**
      * Shorthand for {@link #damage(Block, double, boolean, boolean, Material)}
      */
@@ -63,11 +86,10 @@ public final class BlockDamageData {
      * @return <code>true</code> if the block was broken.
      */
     public static DamageData damage(@NotNull Block block, double damage, boolean isBreak, boolean isRegenerate, Material mask) {
-        ChunkPos pos = new ChunkPos(block);
 
         // Get the DamageData for the given block, or create a new one if needed
-        Map<Block, DamageData> map = DAMAGE_MAP.computeIfAbsent(pos, k -> new HashMap<>());
-        DamageData damageData = map.computeIfAbsent(block, DamageData::new);
+        BlockDamageStore store = STORES.computeIfAbsent(block.getWorld(), BlockDamageStore::new);
+        DamageData damageData = store.getOrCreate(block.getX(), block.getY(), block.getZ());
 
         damageData.damage(damage, isBreak, isRegenerate, mask);
         return damageData;
@@ -75,12 +97,12 @@ public final class BlockDamageData {
 
     @Nullable
     public static DamageData getBlockDamage(@NotNull Block block) {
-        Map<Block, DamageData> map = DAMAGE_MAP.get(new ChunkPos(block));
-        if (map == null)
+        BlockDamageStore store = STORES.get(block.getWorld());
+        if (store == null)
             return null;
 
         // may return null
-        return map.get(block);
+        return store.get(block.getX(), block.getY(), block.getZ());
     }
 
     /**
@@ -105,14 +127,13 @@ public final class BlockDamageData {
      * @param block The non-null block to regenerate
      */
     public static void regenerate(@NotNull Block block) {
-        Map<Block, DamageData> data = DAMAGE_MAP.get(new ChunkPos(block));
+        DamageData damage = getBlockDamage(block);
 
-        if (data == null)
+        if (damage == null)
             return;
 
-        DamageData damage = data.get(block);
         damage.regenerate();
-        data.remove(block);
+        damage.remove();
     }
 
     /**
@@ -126,10 +147,35 @@ public final class BlockDamageData {
      * @see #regenerate(Block)
      */
     public static void regenerate(@NotNull Chunk chunk) {
-        ChunkPos pos = new ChunkPos(chunk);
+        BlockDamageStore store = STORES.get(chunk.getWorld());
 
-        regenerate(pos);
-        DAMAGE_MAP.remove(pos);
+        if (store == null)
+            return;
+
+        regenerate(store.removeChunk(chunk.getX(), chunk.getZ()));
+        if (store.isEmpty())
+            STORES.remove(chunk.getWorld());
+    }
+
+    /**
+     * Regenerates all blocks in the given region (32x32 chunks).
+     *
+     * <p>After regeneration, the region will be removed from the cache.
+     *
+     * @param world   The non-null world the region is in.
+     * @param regionX The region x coordinate (chunk x >> 5).
+     * @param regionZ The region z coordinate (chunk z >> 5).
+     * @see #regenerate(Block)
+     */
+    public static void regenerate(@NotNull World world, int regionX, int regionZ) {
+        BlockDamageStore store = STORES.get(world);
+
+        if (store == null)
+            return;
+
+        regenerate(store.removeRegion(regionX, regionZ));
+        if (store.isEmpty())
+            STORES.remove(world);
     }
 
     /**
@@ -142,43 +188,116 @@ public final class BlockDamageData {
      * @see #regenerate(Block)
      */
     public static void regenerate(@NotNull World world) {
-        Iterator<ChunkPos> iterator = DAMAGE_MAP.keySet().iterator();
+        BlockDamageStore store = STORES.remove(world);
 
-        while (iterator.hasNext()) {
-            ChunkPos pos = iterator.next();
-
-            if (pos.world.equals(world)) {
-                regenerate(pos);
-                iterator.remove();
-            }
-        }
+        if (store != null)
+            regenerate(store.removeAll());
     }
 
     public static void regenerateAll() {
-        Iterator<ChunkPos> iterator = DAMAGE_MAP.keySet().iterator();
+        Iterator<BlockDamageStore> iterator = STORES.values().iterator();
 
         while (iterator.hasNext()) {
-            ChunkPos pos = iterator.next();
-            regenerate(pos);
+            BlockDamageStore store = iterator.next();
             iterator.remove();
+            regenerate(store.removeAll());
+        }
+    }
+
+    private static void regenerate(@NotNull List<DamageData> blocks) {
+        for (DamageData damage : blocks) {
+            damage.regenerate();
+        }
+    }
+
+    /**
+     * Opens the journal used to regenerate blocks after a restart or a
+     * crash, and schedules the blocks that were never regenerated to
+     * regenerate at the time they were originally scheduled for (or as soon
+     * as possible, if that time has passed).
+     *
+     * @param path The non-null path to the journal file.
+     * @throws IOException If the journal cannot be opened.
+     * @see BlockDamageJournal
+     */
+    public static void openJournal(@NotNull Path path) throws IOException {
+        if (journal != null)
+            journal.close();
+
+        journal = BlockDamageJournal.open(path);
+
+        // Group blocks by their delay, to reduce task scheduling
+        long now = System.currentTimeMillis();
+        Map<Long, List<BlockDamageJournal.Entry>> tasks = new HashMap<>();
+        for (BlockDamageJournal.Entry entry : journal.getPending()) {
+            long delay = Math.max(1L, (entry.regenerateAt() - now) / 50L);
+            tasks.computeIfAbsent(delay, k -> new ArrayList<>()).add(entry);
         }
+
+        BlockDamageJournal opened = journal;
+        tasks.forEach((delay, entries) -> new BukkitRunnable() {
+            @Override
+            public void run() {
+                for (BlockDamageJournal.Entry entry : entries)
+                    restore(opened, entry);
+            }
+        }.runTaskLater(WeaponMechanics.getPlugin(), delay));
     }
 
-    private static void regenerate(@NotNull ChunkPos pos) {
-        Map<Block, DamageData> blocks = DAMAGE_MAP.get(pos);
+    private static void restore(BlockDamageJournal journal, BlockDamageJournal.Entry entry) {
 
-        if (blocks == null)
+        // Keep the block in the journal until its world is loaded
+        World world = Bukkit.getWorld(entry.world());
+        if (world == null)
             return;
 
-        blocks.forEach((block, damage) -> {
-            damage.regenerate();
-        });
+        long key = entry.key();
+        Block block = world.getBlockAt(BlockDamageStore.getX(key), BlockDamageStore.getY(key), BlockDamageStore.getZ(key));
+        try {
+            block.setBlockData(Bukkit.createBlockData(entry.blockData()), false);
+        } catch (IllegalArgumentException e) {
+            debug.log(LogLevel.WARN, "Could not regenerate " + block + " to unknown block data " + entry.blockData(), e);
+        }
+        journal.logRestore(entry.world(), key);
+    }
+
+    /**
+     * Handles all damaged blocks when the plugin is disabled. When the
+     * journal is open, broken blocks which are in the journal are left broken,
+     * and regenerate after the server starts again. All other blocks (and
+     * blocks with extra data, like chests and signs, since the journal only
+     * stores block data) are regenerated immediately.
+     */
+    public static void shutdown() {
+        if (journal == null) {
+            regenerateAll();
+            return;
+        }
+
+        Iterator<BlockDamageStore> iterator = STORES.values().iterator();
+        while (iterator.hasNext()) {
+            BlockDamageStore store = iterator.next();
+            iterator.remove();
+
+            for (DamageData damage : store.removeAll()) {
+                if (!damage.journaled || damage.state instanceof TileState)
+                    damage.regenerate();
+            }
+        }
+
+        journal.close();
+        journal = null;
     }
 
     /**
      * The {@link org.bukkit.Chunk} class does not provide a hashing method,
      * so we are stuck wrapping the chunk in order to use a {@link HashMap}
+     *
+     * @deprecated Damage is now stored in a {@link BlockDamageStore} keyed by
+     *             packed coordinates, so nothing uses this class anymore. It
+     *             will be removed in a future release.
      */
+    @Deprecated
     public static class ChunkPos {
 
         private final World world;
@@ -211,14 +330,32 @@ public final class BlockDamageData {
 
     public static class DamageData {
 
-        private final Block block;
+        private final BlockDamageStore store;
+        private final long key;
         private double durability = 1.0; // Stores a value [0.0, 1.0]. 0.0 = broken
 
         private BlockState state = null; // Stores the BlockState of a block before it is broken
         private int packetId = -1;       // Stores the ID used for the block cracking packet
+        private boolean journaled;       // true if the break was written to the journal
+
+        DamageData(BlockDamageStore store, long key) {
+            this.store = store;
+            this.key = key;
+        }
 
-        private DamageData(Block block) {
-            this.block = block;
+        /**
+         * @return the packed position of the block, see {@link BlockDamageStore#pack(int, int, int)}
+         */
+        public long getKey() {
+            return key;
+        }
+
+        /**
+         * @return the non-null damaged block
+         */
+        @NotNull
+        public Block getBlock() {
+            return store.getWorld().getBlockAt(BlockDamageStore.getX(key), BlockDamageStore.getY(key), BlockDamageStore.getZ(key));
         }
 
         public void damage(double amount, boolean isBreak, boolean isRegenerate) {
@@ -241,6 +378,7 @@ public final class BlockDamageData {
         }
 
         public void destroy(boolean isRegenerate, Material mask) {
+            Block block = getBlock();
             state = block.getState();
 
             // We need to clear the contents of the inventory(s). If we skip
@@ -287,19 +425,40 @@ public final class BlockDamageData {
             block.setType(mask, !isRegenerate);
         }
 
+        /**
+         * Writes this broken block to the journal (if it is open), so it is
+         * regenerated even if the server restarts or crashes before the given
+         * delay has passed. Call this method after scheduling a task which
+         * calls {@link #regenerate()}.
+         *
+         * @param delayTicks The delay, in ticks, before the block regenerates.
+         */
+        public void markRegeneration(long delayTicks) {
+            if (journal == null || state == null || journaled)
+                return;
+
+            journal.logBreak(store.getWorld().getUID(), key, state.getBlockData().getAsString(), System.currentTimeMillis() + delayTicks * 50L);
+            journaled = true;
+        }
+
         public void regenerate() {
             if (state != null) {
                 state.update(true, false);
                 state = null;
             }
 
+            if (journaled) {
+                if (journal != null)
+                    journal.logRestore(store.getWorld().getUID(), key);
+                journaled = false;
+            }
+
             durability = 1.0;
             sendCrackPacket();
         }
 
         public void remove() {
-            Map<Block, DamageData> map = DAMAGE_MAP.get(new ChunkPos(block));
-            map.remove(block);
+            store.remove(this);
         }
 
         public void sendCrackPacket() {
@@ -312,6 +471,7 @@ public final class BlockDamageData {
                     ? -1
                     : (int) NumberUtil.lerp(MAX_BLOCK_CRACK, 0, durability);
 
+            Block block = getBlock();
             Object packet = CompatibilityAPI.getBlockCompatibility().getCrackPacket(block, crack, packetId);
             DistanceUtil.sendPacket(block.getLocation(), packet);
         }
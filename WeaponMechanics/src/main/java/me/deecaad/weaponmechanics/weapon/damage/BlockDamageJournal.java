@@ -0,0 +1,356 @@
+package me.deecaad.weaponmechanics.weapon.damage;
+
+import me.deecaad.core.utils.LogLevel;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static me.deecaad.weaponmechanics.WeaponMechanics.debug;
+
+/**
+ * An append only journal of broken blocks that are waiting to regenerate.
+ * Every broken block is written with its original block data and the time it
+ * should regenerate at, and every regenerated block is written as a restore.
+ * When the server crashes (or shuts down), the blocks that were never
+ * restored are replayed the next time the journal is opened.
+ *
+ * <p>The journal is a memory mapped file. Records are encoded on the main
+ * thread, and copied into the file on a separate thread. Since the mapped
+ * pages belong to the operating system, written records survive a crash of
+ * the server process. {@link #flush()} also forces the pages to the disk.
+ *
+ * <p>Each record is stored as <code>[int length][int crc32][body]</code>. A
+ * record that was only partially written before a crash fails its checksum,
+ * and the journal is read up to the last complete record.
+ *
+ * <p>The journal is compacted when it is opened, and whenever it would need
+ * to grow while most of it is restored (dead) records. So the journal stays
+ * around twice the size of the blocks that are currently broken.
+ */
+public final class BlockDamageJournal {
+
+    private static final int MAGIC = 0x574D424A; // "WMBJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int INITIAL_SIZE = 1 << 20;
+
+    private static final byte BREAK = 1;
+    private static final byte RESTORE = 2;
+
+    private final Path path;
+    private final List<Entry> pending;
+    private final ExecutorService writer;
+
+    // Only touched by the writer thread
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private final Map<EntryKey, byte[]> live;
+    private long liveBytes;
+    private boolean canCompact = true;
+
+    private BlockDamageJournal(Path path, List<Entry> pending, Map<EntryKey, byte[]> live) {
+        this.path = path;
+        this.pending = pending;
+        this.live = live;
+        for (byte[] record : live.values())
+            liveBytes += record.length;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "WeaponMechanics Block Damage Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the journal at the given path, creating it if it does not exist.
+     * The blocks that were never restored are read, and the journal is
+     * compacted so it only contains those blocks.
+     *
+     * @param path The non-null path to the journal file.
+     * @return The non-null opened journal.
+     * @throws IOException If the file cannot be read or written.
+     */
+    @NotNull
+    public static BlockDamageJournal open(@NotNull Path path) throws IOException {
+        List<Entry> pending = Files.exists(path) ? read(path) : Collections.emptyList();
+
+        Map<EntryKey, byte[]> live = new LinkedHashMap<>();
+        for (Entry entry : pending)
+            live.put(new EntryKey(entry.world(), entry.key()), encode(BREAK, entry.world(), entry.key(), entry.blockData(), entry.regenerateAt()));
+
+        int size = writeCompacted(path, live.values());
+        BlockDamageJournal journal = new BlockDamageJournal(path, pending, live);
+        journal.mapAt(size);
+        return journal;
+    }
+
+    /**
+     * Replaces the file at the given path with a journal that only contains
+     * the given records. The records are written to a temporary file first,
+     * so a crash while compacting never loses the old journal.
+     *
+     * @return The size of the new journal.
+     */
+    private static int writeCompacted(Path path, Iterable<byte[]> records) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        for (byte[] record : records)
+            out.write(record);
+        Files.write(temp, bytes.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return bytes.size();
+    }
+
+    /**
+     * Returns the blocks that were broken, but never restored, when this
+     * journal was opened. These blocks should be scheduled to regenerate.
+     *
+     * @return The non-null, unmodifiable pending blocks.
+     */
+    @NotNull
+    public List<Entry> getPending() {
+        return Collections.unmodifiableList(pending);
+    }
+
+    /**
+     * Writes that the given block was broken, and should regenerate at the
+     * given time. Does not block the calling thread.
+     *
+     * @param world        The world the block is in.
+     * @param key          The packed block position, see {@link BlockDamageStore#pack(int, int, int)}.
+     * @param blockData    The block data of the block before it was broken.
+     * @param regenerateAt The time (in unix millis) the block should regenerate at.
+     */
+    public void logBreak(@NotNull UUID world, long key, @NotNull String blockData, long regenerateAt) {
+        write(new EntryKey(world, key), encode(BREAK, world, key, blockData, regenerateAt), true);
+    }
+
+    /**
+     * Writes that the given block was regenerated. Does not block the calling
+     * thread.
+     *
+     * @param world The world the block is in.
+     * @param key   The packed block position, see {@link BlockDamageStore#pack(int, int, int)}.
+     */
+    public void logRestore(@NotNull UUID world, long key) {
+        write(new EntryKey(world, key), encode(RESTORE, world, key, null, 0L), false);
+    }
+
+    /**
+     * Waits for every record to be written, and forces the written records to
+     * the disk.
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> buffer.force()).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            debug.log(LogLevel.WARN, "Failed to flush block damage journal " + path, e);
+        }
+    }
+
+    /**
+     * Flushes this journal, and closes the file. Records written after this
+     * method is called are ignored.
+     */
+    public void close() {
+        flush();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+            channel.close();
+        } catch (IOException | InterruptedException e) {
+            debug.log(LogLevel.WARN, "Failed to close block damage journal " + path, e);
+        }
+    }
+
+    private void write(EntryKey key, byte[] record, boolean isBreak) {
+        if (writer.isShutdown())
+            return;
+
+        writer.execute(() -> {
+            byte[] replaced = isBreak ? live.put(key, record) : live.remove(key);
+            if (replaced != null)
+                liveBytes -= replaced.length;
+            if (isBreak)
+                liveBytes += record.length;
+
+            try {
+                if (buffer.remaining() < record.length) {
+                    // Compact instead of growing when most records are dead.
+                    // The new record is already in the live records.
+                    long deadBytes = buffer.position() - HEADER_SIZE - (liveBytes - (isBreak ? record.length : 0));
+                    if (canCompact && deadBytes > liveBytes && compact())
+                        return;
+
+                    grow(Math.max(buffer.capacity() * 2L, buffer.position() + (long) record.length));
+                }
+                buffer.put(record);
+            } catch (IOException e) {
+                debug.log(LogLevel.ERROR, "Failed to write to block damage journal " + path + ", broken blocks may not regenerate after a restart", e);
+            }
+        });
+    }
+
+    /**
+     * Rewrites the journal with only the live records. Called on the writer
+     * thread.
+     *
+     * @return true if the journal was compacted.
+     */
+    private boolean compact() throws IOException {
+        int position = buffer.position();
+        long size = buffer.capacity();
+        buffer.force();
+        channel.close();
+        channel = null;
+
+        try {
+            mapAt(writeCompacted(path, live.values()));
+            return true;
+        } catch (IOException e) {
+            // Some systems can't replace a mapped file, keep appending to
+            // the old journal instead
+            canCompact = false;
+            debug.log(LogLevel.WARN, "Failed to compact block damage journal " + path + ", it will only be compacted on restart", e);
+            map(position, size);
+            return false;
+        }
+    }
+
+    private void map(long position, long size) throws IOException {
+        if (channel == null)
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        // Mapping past the end of the file grows the file. The new bytes are
+        // zeros, which marks the end of the journal.
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.position((int) position);
+    }
+
+    private void mapAt(int position) throws IOException {
+        map(position, Math.max(INITIAL_SIZE, Integer.highestOneBit(position) << 1));
+    }
+
+    private void grow(long size) throws IOException {
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Block damage journal is too large");
+
+        int position = buffer.position();
+        buffer.force();
+        map(position, size);
+    }
+
+    private static byte[] encode(byte type, UUID world, long key, String blockData, long regenerateAt) {
+        byte[] data = blockData == null ? null : blockData.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 16 + 8 + (type == BREAK ? 8 + 4 + data.length : 0);
+
+        ByteBuffer body = ByteBuffer.allocate(8 + length);
+        body.position(8);
+        body.put(type);
+        body.putLong(world.getMostSignificantBits());
+        body.putLong(world.getLeastSignificantBits());
+        body.putLong(key);
+        if (type == BREAK) {
+            body.putLong(regenerateAt);
+            body.putInt(data.length);
+            body.put(data);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), 8, length);
+        body.putInt(0, length);
+        body.putInt(4, (int) crc.getValue());
+        return body.array();
+    }
+
+    private static List<Entry> read(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            debug.log(LogLevel.WARN, "Ignoring unknown block damage journal " + path);
+            return Collections.emptyList();
+        }
+
+        Map<EntryKey, Entry> pending = new LinkedHashMap<>();
+        CRC32 crc = new CRC32();
+        try {
+            while (buffer.remaining() >= 8) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+
+                // A length of 0 is the zeroed end of the file. Anything else
+                // that does not fit was torn by a crash.
+                if (length <= 0 || length > buffer.remaining())
+                    break;
+
+                crc.reset();
+                crc.update(buffer.array(), start + 8, length);
+                if ((int) crc.getValue() != checksum)
+                    break;
+
+                byte type = buffer.get();
+                UUID world = new UUID(buffer.getLong(), buffer.getLong());
+                long key = buffer.getLong();
+                EntryKey entryKey = new EntryKey(world, key);
+                if (type == BREAK) {
+                    long regenerateAt = buffer.getLong();
+                    byte[] data = new byte[buffer.getInt()];
+                    buffer.get(data);
+                    pending.put(entryKey, new Entry(world, key, new String(data, StandardCharsets.UTF_8), regenerateAt));
+                } else {
+                    pending.remove(entryKey);
+                }
+
+                buffer.position(start + 8 + length);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            debug.log(LogLevel.WARN, "Block damage journal " + path + " ends with a corrupted record, ignoring it");
+        }
+
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * One broken block waiting to regenerate.
+     *
+     * @param world        The world the block is in.
+     * @param key          The packed block position, see {@link BlockDamageStore#pack(int, int, int)}.
+     * @param blockData    The block data of the block before it was broken.
+     * @param regenerateAt The time (in unix millis) the block should regenerate at.
+     */
+    public record Entry(UUID world, long key, String blockData, long regenerateAt) {
+    }
+
+    private record EntryKey(UUID world, long key) {
+    }
+}
@@ -0,0 +1,394 @@
+package me.deecaad.weaponmechanics.weapon.damage;
+
+import me.deecaad.weaponmechanics.weapon.damage.BlockDamageData.DamageData;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Stores the {@link DamageData} of every damaged block in one world. Blocks
+ * are sharded into regions (32x32 chunks), and then chunks, so operations on
+ * one chunk or one region only touch the blocks in that chunk or region.
+ *
+ * <p>Blocks are keyed by a packed long (see {@link #pack(int, int, int)}),
+ * which holds the chunk coordinates and the offset of the block inside the
+ * chunk. Inside a chunk, the offset is used as a primitive int key, so no
+ * {@link org.bukkit.block.Block} or boxed keys are stored.
+ *
+ * <p>This class is not thread safe, and should only be used on the main
+ * server thread.
+ */
+public final class BlockDamageStore {
+
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+
+    private final World world;
+    private final Map<Long, Region> regions;
+    private int size;
+
+    public BlockDamageStore(@NotNull World world) {
+        this.world = world;
+        this.regions = new HashMap<>();
+    }
+
+    /**
+     * @return the non-null world this store holds the blocks of
+     */
+    @NotNull
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * @return the amount of damaged blocks in this store
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Nullable
+    public DamageData get(int x, int y, int z) {
+        ChunkDamage chunk = getChunk(x >> 4, z >> 4);
+        return chunk == null ? null : chunk.get(offset(x, y, z));
+    }
+
+    @Nullable
+    public DamageData get(long key) {
+        ChunkDamage chunk = getChunk(getChunkX(key), getChunkZ(key));
+        return chunk == null ? null : chunk.get((int) (key & 0xFFFFF));
+    }
+
+    /**
+     * Returns the damage data of the given block, or adds new damage data if
+     * the block is not damaged.
+     *
+     * @return the non-null damage data of the block
+     */
+    @NotNull
+    public DamageData getOrCreate(int x, int y, int z) {
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        Region region = regions.computeIfAbsent(regionKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT), key -> new Region());
+
+        int index = Region.index(chunkX, chunkZ);
+        ChunkDamage chunk = region.chunks[index];
+        if (chunk == null) {
+            chunk = new ChunkDamage();
+            region.chunks[index] = chunk;
+            region.chunkCount++;
+        }
+
+        int offset = offset(x, y, z);
+        DamageData data = chunk.get(offset);
+        if (data == null) {
+            data = new DamageData(this, pack(x, y, z));
+            chunk.put(offset, data);
+            size++;
+        }
+        return data;
+    }
+
+    /**
+     * Removes the given damage data, only if it is still the data stored for
+     * its block.
+     *
+     * @return true if the data was removed
+     */
+    public boolean remove(@NotNull DamageData data) {
+        long key = data.getKey();
+        int chunkX = getChunkX(key);
+        int chunkZ = getChunkZ(key);
+        long regionKey = regionKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        Region region = regions.get(regionKey);
+        if (region == null)
+            return false;
+
+        int index = Region.index(chunkX, chunkZ);
+        ChunkDamage chunk = region.chunks[index];
+        if (chunk == null || !chunk.remove((int) (key & 0xFFFFF), data))
+            return false;
+
+        size--;
+        if (chunk.size == 0) {
+            region.chunks[index] = null;
+            if (--region.chunkCount == 0)
+                regions.remove(regionKey);
+        }
+        return true;
+    }
+
+    /**
+     * Calls the given consumer for every damaged block in the given chunk.
+     * The consumer should not modify this store.
+     */
+    public void forEachInChunk(int chunkX, int chunkZ, @NotNull Consumer<DamageData> consumer) {
+        ChunkDamage chunk = getChunk(chunkX, chunkZ);
+        if (chunk != null)
+            chunk.forEach(consumer);
+    }
+
+    /**
+     * Calls the given consumer for every damaged block in this store. The
+     * consumer should not modify this store.
+     */
+    public void forEach(@NotNull Consumer<DamageData> consumer) {
+        for (Region region : regions.values())
+            region.forEach(consumer);
+    }
+
+    /**
+     * Removes every damaged block in the given chunk.
+     *
+     * @return the non-null removed blocks
+     */
+    @NotNull
+    public List<DamageData> removeChunk(int chunkX, int chunkZ) {
+        long regionKey = regionKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        Region region = regions.get(regionKey);
+        if (region == null)
+            return Collections.emptyList();
+
+        int index = Region.index(chunkX, chunkZ);
+        ChunkDamage chunk = region.chunks[index];
+        if (chunk == null)
+            return Collections.emptyList();
+
+        List<DamageData> removed = new ArrayList<>(chunk.size);
+        chunk.forEach(removed::add);
+        size -= chunk.size;
+
+        region.chunks[index] = null;
+        if (--region.chunkCount == 0)
+            regions.remove(regionKey);
+        return removed;
+    }
+
+    /**
+     * Removes every damaged block in the given region (32x32 chunks).
+     *
+     * @param regionX the region x coordinate (chunk x >> 5)
+     * @param regionZ the region z coordinate (chunk z >> 5)
+     * @return the non-null removed blocks
+     */
+    @NotNull
+    public List<DamageData> removeRegion(int regionX, int regionZ) {
+        Region region = regions.remove(regionKey(regionX, regionZ));
+        if (region == null)
+            return Collections.emptyList();
+
+        List<DamageData> removed = new ArrayList<>();
+        region.forEach(removed::add);
+        size -= removed.size();
+        return removed;
+    }
+
+    /**
+     * Removes every damaged block in this store.
+     *
+     * @return the non-null removed blocks
+     */
+    @NotNull
+    public List<DamageData> removeAll() {
+        List<DamageData> removed = new ArrayList<>(size);
+        Iterator<Region> iterator = regions.values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().forEach(removed::add);
+            iterator.remove();
+        }
+
+        size = 0;
+        return removed;
+    }
+
+    @Nullable
+    private ChunkDamage getChunk(int chunkX, int chunkZ) {
+        Region region = regions.get(regionKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT));
+        return region == null ? null : region.chunks[Region.index(chunkX, chunkZ)];
+    }
+
+    /**
+     * Packs the given block coordinates into one long. The highest 22 bits
+     * hold the chunk x coordinate, the next 22 bits hold the chunk z
+     * coordinate, and the lowest 20 bits hold the offset of the block inside
+     * the chunk (12 bits for y, 4 bits for z and 4 bits for x).
+     *
+     * @param x The block x coordinate.
+     * @param y The block y coordinate, between -2048 and 2047.
+     * @param z The block z coordinate.
+     * @return The packed block position.
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) ((x >> 4) & 0x3FFFFF) << 42) | ((long) ((z >> 4) & 0x3FFFFF) << 20) | offset(x, y, z);
+    }
+
+    public static int getChunkX(long key) {
+        return (int) (key >> 42);
+    }
+
+    public static int getChunkZ(long key) {
+        return (int) (key << 22 >> 42);
+    }
+
+    public static int getX(long key) {
+        return (getChunkX(key) << 4) | (int) (key & 15);
+    }
+
+    public static int getY(long key) {
+        return ((int) key << 12) >> 20;
+    }
+
+    public static int getZ(long key) {
+        return (getChunkZ(key) << 4) | (int) ((key >> 4) & 15);
+    }
+
+    private static int offset(int x, int y, int z) {
+        return ((y & 0xFFF) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    private static long regionKey(int regionX, int regionZ) {
+        return ((long) regionX << 32) | (regionZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 32x32 chunks. Chunks without damaged blocks are null.
+     */
+    private static final class Region {
+
+        private final ChunkDamage[] chunks = new ChunkDamage[(REGION_MASK + 1) * (REGION_MASK + 1)];
+        private int chunkCount;
+
+        private static int index(int chunkX, int chunkZ) {
+            return ((chunkX & REGION_MASK) << REGION_SHIFT) | (chunkZ & REGION_MASK);
+        }
+
+        private void forEach(Consumer<DamageData> consumer) {
+            for (ChunkDamage chunk : chunks) {
+                if (chunk != null)
+                    chunk.forEach(consumer);
+            }
+        }
+    }
+
+    /**
+     * Open addressing hash table mapping the offset of a block inside the
+     * chunk to its damage data. Lookups do not allocate.
+     */
+    private static final class ChunkDamage {
+
+        private int[] keys = new int[8];
+        private DamageData[] values = new DamageData[8]; // null means empty slot
+        private int size;
+
+        DamageData get(int key) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (values[index] != null) {
+                if (keys[index] == key)
+                    return values[index];
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(int key, DamageData value) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (values[index] != null) {
+                if (keys[index] == key) {
+                    values[index] = value;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+
+            keys[index] = key;
+            values[index] = value;
+            if (++size > (keys.length >> 1))
+                resize();
+        }
+
+        boolean remove(int key, DamageData value) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (values[index] != null) {
+                if (keys[index] == key) {
+                    if (values[index] != value)
+                        return false;
+
+                    values[index] = null;
+                    size--;
+                    shiftBack(index);
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        void forEach(Consumer<DamageData> consumer) {
+            for (DamageData value : values) {
+                if (value != null)
+                    consumer.accept(value);
+            }
+        }
+
+        // Moves the following entries back, so lookups do not stop early at the removed slot
+        private void shiftBack(int empty) {
+            int mask = keys.length - 1;
+            int index = (empty + 1) & mask;
+            while (values[index] != null) {
+                int ideal = hash(keys[index]) & mask;
+
+                // Only move the entry if the empty slot is between its ideal slot and its slot
+                if (((index - ideal) & mask) >= ((index - empty) & mask)) {
+                    keys[empty] = keys[index];
+                    values[empty] = values[index];
+                    values[index] = null;
+                    empty = index;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            DamageData[] oldValues = values;
+
+            int capacity = oldKeys.length << 1;
+            keys = new int[capacity];
+            values = new DamageData[capacity];
+
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] == null)
+                    continue;
+
+                int index = hash(oldKeys[i]) & mask;
+                while (values[index] != null)
+                    index = (index + 1) & mask;
+
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+
+        private static int hash(int key) {
+            // Mix the bits, since neighbouring blocks only differ in low bits
+            key *= 0x9E3779B9;
+            return key ^ (key >>> 16);
+        }
+    }
+}
@@ -346,7 +346,13 @@ public class Explosion implements Serializer<Explosion> {
             timeOffset += regeneration.getTicksBeforeStart();
 
         List<BlockDamageData.DamageData> brokenBlocks = isRegenerate ? new ArrayList<>(regeneration.getMaxBlocksPerUpdate()) : null;
-        Location temp = new Location(null, 0, 0, 0);
+
+        // Check WorldGuard to determine whether we can break blocks here. The
+        // regions of the whole explosion are looked up at once.
+        // Always use null for player. We could check if the projectile
+        // shooter owns the region, but it is best to simply deny for all
+        // players (Less confused people).
+        blocks = CompatibilityAPI.getWorldGuardCompatibility().filterBlocks(blocks, null, "weapon-break-block");
 
         int blocksBroken = 0;
 
@@ -354,13 +360,6 @@ public class Explosion implements Serializer<Explosion> {
         for (int i = 0; i < size; i++) {
             Block block = blocks.get(i);
 
-            // Check WorldGuard to determine whether we can break blocks here
-            // Always use null for player. We could check if the projectile
-            // shooter owns the region, but it is best to simply deny for all
-            // players (Less confused people).
-            if (!CompatibilityAPI.getWorldGuardCompatibility().testFlag(block.getLocation(temp), null, "weapon-break-block"))
-                continue;
-
             // We need the BlockState for falling blocks. If we get the state
             // after breaking the block, we will get AIR (not good for visual
             // effects).
@@ -398,6 +397,10 @@ public class Explosion implements Serializer<Explosion> {
                         }
                     }.runTaskLater(WeaponMechanics.getPlugin(), time);
 
+                    // Lets the blocks regenerate after a restart or a crash
+                    for (BlockDamageData.DamageData block : finalBrokenBlocks)
+                        block.markRegeneration(time);
+
                     // Reset back to 0 elements, so we can continue adding
                     // blocks to regenerate to the list.
                     brokenBlocks.clear();
@@ -5,9 +5,7 @@ import me.deecaad.core.compatibility.HitBox;
 import me.deecaad.core.utils.LogLevel;
 import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.core.utils.primitive.DoubleMap;
-import me.deecaad.weaponmechanics.weapon.explode.raytrace.Ray;
-import me.deecaad.weaponmechanics.weapon.explode.raytrace.TraceCollision;
-import me.deecaad.weaponmechanics.weapon.explode.raytrace.TraceResult;
+import me.deecaad.weaponmechanics.weapon.explode.raytrace.ExposureTracer;
 import me.deecaad.weaponmechanics.weapon.explode.shapes.ExplosionShape;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -45,6 +43,15 @@ public class DefaultExposure implements ExplosionExposure {
             return temp;
         }
 
+        // Every ray of every entity is cast in one batch, so blocks between
+        // the explosion and multiple entities are only looked up once
+        ExposureTracer tracer = new ExposureTracer(world, x, y, z, 0.3);
+        LivingEntity[] exposed = new LivingEntity[entities.size()];
+        double[] impactRates = new double[entities.size()];
+        int[] firstRays = new int[entities.size()];
+        int[] rayCounts = new int[entities.size()];
+        int count = 0;
+
         Vector vector = new Vector(x, y, z);
 
         for (LivingEntity entity : entities) {
@@ -65,32 +72,37 @@ public class DefaultExposure implements ExplosionExposure {
 
             // If there is distance between the entity and the explosion
             if (distance != 0.0) {
+                exposed[count] = entity;
+                impactRates[count] = impactRate;
+                firstRays[count] = tracer.size();
+                rayCounts[count] = addRays(tracer, entity);
+                count++;
+            }
+        }
 
-                // Normalize
-                betweenEntityAndExplosion.multiply(1 / distance);
-
-                double exposure = getExposure(vector, entity);
-                double impact = impactRate * exposure;
+        tracer.trace();
+        for (int i = 0; i < count; i++) {
+            double exposure = getExposure(tracer, firstRays[i], rayCounts[i]);
+            double impact = impactRates[i] * exposure;
 
-                temp.put(entity, impact);
-            }
+            temp.put(exposed[i], impact);
         }
 
         return temp;
     }
 
     /**
-     * Gets a double [0, 1] representing how exposed the entity is to the explosion
+     * Adds one ray for each point of a grid on the entity's bounding box.
      *
-     * @param vec3d The origin of the explosion
+     * @param tracer The tracer to add the rays to
      * @param entity The entity exposed to the explosion
-     * @return The level of exposure of the entity to the epxlosion
+     * @return The amount of rays added
      */
-    private static double getExposure(Vector vec3d, Entity entity) {
+    private static int addRays(ExposureTracer tracer, Entity entity) {
         HitBox box = CompatibilityAPI.getEntityCompatibility().getHitBox(entity);
 
         if (box == null) {
-            return 0.0;
+            return 0;
         }
 
         // Get the dimensions of the bounding box
@@ -108,16 +120,12 @@ public class DefaultExposure implements ExplosionExposure {
 
         // Outside the grid
         if (gridX < 0.0 || gridY < 0.0 || gridZ < 0.0)
-            return 0.0;
+            return 0;
 
         double d3 = (1.0 - Math.floor(stepX) * gridX) / 2.0;
         double d4 = (1.0 - Math.floor(stepZ) * gridZ) / 2.0;
 
-        // Setup variables for the loop
-        World world = entity.getWorld();
-
-        int successfulTraces = 0;
-        int totalTraces = 0;
+        int rays = 0;
 
         // For each grid on the bounding box
         for (double x = 0; x <= 1; x += gridX) {
@@ -129,22 +137,38 @@ public class DefaultExposure implements ExplosionExposure {
                     double c = NumberUtil.lerp(box.getMinZ(), box.getMaxZ(), z);
 
                     // Calculates a path from the origin of the explosion
-                    // (0, 0, 0) to the current grid on the entity's bounding
-                    // box. The Vector is then ray traced to check for obstructions
-                    Vector vector = new Vector(a + d3, b, c + d4).subtract(vec3d);
+                    // to the current grid on the entity's bounding box. The
+                    // path is checked for obstructions after every ray was added
+                    tracer.addRay(a + d3, b, c + d4);
+                    rays++;
+                }
+            }
+        }
 
-                    Ray ray = new Ray(vec3d.toLocation(world), vector);
-                    TraceResult trace = ray.trace(TraceCollision.BLOCK, 0.3);
-                    if (trace.getBlocks().isEmpty()) {
-                        successfulTraces++;
-                    }
+        return rays;
+    }
 
-                    totalTraces++;
-                }
+    /**
+     * Gets a double [0, 1] representing how exposed the entity is to the explosion
+     *
+     * @param tracer The traced rays
+     * @param first The index of the first ray of the entity
+     * @param rays The amount of rays of the entity
+     * @return The level of exposure of the entity to the explosion
+     */
+    private static double getExposure(ExposureTracer tracer, int first, int rays) {
+        if (rays == 0) {
+            return 0.0;
+        }
+
+        int successfulTraces = 0;
+        for (int i = first; i < first + rays; i++) {
+            if (!tracer.isObstructed(i)) {
+                successfulTraces++;
             }
         }
 
         // The percentage of successful traces
-        return ((double) successfulTraces) / totalTraces;
+        return ((double) successfulTraces) / rays;
     }
 }
@@ -3,15 +3,12 @@ package me.deecaad.weaponmechanics.weapon.explode.exposures;
 import me.deecaad.core.compatibility.CompatibilityAPI;
 import me.deecaad.core.compatibility.HitBox;
 import me.deecaad.core.utils.LogLevel;
-import me.deecaad.core.utils.VectorUtil;
+import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.core.utils.primitive.DoubleMap;
-import me.deecaad.weaponmechanics.weapon.explode.raytrace.Ray;
-import me.deecaad.weaponmechanics.weapon.explode.raytrace.TraceCollision;
-import me.deecaad.weaponmechanics.weapon.explode.raytrace.TraceResult;
+import me.deecaad.weaponmechanics.weapon.explode.raytrace.ExposureTracer;
 import me.deecaad.weaponmechanics.weapon.explode.shapes.ExplosionShape;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
@@ -43,6 +40,14 @@ public class OptimizedExposure implements ExplosionExposure {
             return temp;
         }
 
+        // Every ray of every entity is cast in one batch, so blocks between
+        // the explosion and multiple entities are only looked up once
+        ExposureTracer tracer = new ExposureTracer(world, x, y, z, 0.3);
+        LivingEntity[] exposed = new LivingEntity[entities.size()];
+        double[] impactRates = new double[entities.size()];
+        int[] firstRays = new int[entities.size()];
+        int count = 0;
+
         Vector vector = new Vector(x, y, z);
         for (LivingEntity entity : entities) {
             Vector entityLocation = entity.getLocation().toVector();
@@ -58,24 +63,58 @@ public class OptimizedExposure implements ExplosionExposure {
                 continue;
             }
 
-            Vector betweenEntityAndExplosion = entityLocation.subtract(vector);
-
             // If there is distance between the entity and the explosion
             if (distance != 0.0) {
+                HitBox box = CompatibilityAPI.getEntityCompatibility().getHitBox(entity);
 
-                // Normalize
-                betweenEntityAndExplosion.multiply(1.0 / distance);
+                exposed[count] = entity;
+                impactRates[count] = impactRate;
+                firstRays[count] = box == null ? -1 : addRays(tracer, box);
+                count++;
+            }
+        }
 
-                double exposure = getExposure(vector, entity);
-                double impact = impactRate * exposure;
+        tracer.trace();
+        for (int i = 0; i < count; i++) {
+            double exposure = firstRays[i] == -1 ? 0.0 : getExposure(tracer, firstRays[i]);
+            double impact = impactRates[i] * exposure;
 
-                temp.put(entity, impact);
-            }
+            temp.put(exposed[i], impact);
         }
 
         return temp;
     }
 
+    /**
+     * Adds the rays used to determine the exposure of the given hitbox. There
+     * are 8 rays, 1 ray for each corner of the bounding box, and 1 ray going
+     * to the center of the bounding box.
+     *
+     * @param tracer The tracer to add the rays to
+     * @param box The hitbox of the entity
+     * @return The index of the first ray
+     */
+    private static int addRays(ExposureTracer tracer, HitBox box) {
+        int first = tracer.size();
+
+        // For each corner of the bounding box
+        for (int x = 0; x <= 1; x++) {
+            for (int y = 0; y <= 1; y++) {
+                for (int z = 0; z <= 1; z++) {
+                    tracer.addRay(NumberUtil.lerp(box.getMinX(), box.getMaxX(), x),
+                            NumberUtil.lerp(box.getMinY(), box.getMaxY(), y),
+                            NumberUtil.lerp(box.getMinZ(), box.getMaxZ(), z));
+                }
+            }
+        }
+
+        tracer.addRay(NumberUtil.lerp(box.getMinX(), box.getMaxX(), 0.5),
+                NumberUtil.lerp(box.getMinY(), box.getMaxY(), 0.5),
+                NumberUtil.lerp(box.getMinZ(), box.getMaxZ(), 0.5));
+
+        return first;
+    }
+
     /**
      * Gets a double [0.0, 1.0] representing how exposed the entity is to the explosion.
      * Exposure is determined by 8 rays, 1 ray for each corner of an entity's
@@ -85,49 +124,27 @@ public class OptimizedExposure implements ExplosionExposure {
      * <p>There is also one ray going to the center of the entity hit-box that
      * has the power of 4 rays.
      *
-     * @param vec3d The origin point
-     * @param entity The entity exposed to the explosion
+     * @param tracer The traced rays
+     * @param first The index of the first ray of the entity
      * @return The level of exposure of the entity to the explosion
      */
-    private static double getExposure(Vector vec3d, Entity entity) {
-        HitBox box = CompatibilityAPI.getEntityCompatibility().getHitBox(entity);
-
-        if (box == null) {
-            return 0.0;
-        }
-
-        // Setup variables for the loop
-        World world = entity.getWorld();
-        Vector min = box.getMin();
-        Vector max = box.getMax();
-
+    private static double getExposure(ExposureTracer tracer, int first) {
         int successfulTraces = 0;
         int totalTraces = 0;
 
         // For each corner of the bounding box
-        for (int x = 0; x <= 1; x++) {
-            for (int y = 0; y <= 1; y++) {
-                for (int z = 0; z <= 1; z++) {
-                    Vector lerp = VectorUtil.lerp(min, max, x, y, z);
-
-                    // Determine if the ray can hit the entity without hitting a block
-                    Ray ray = new Ray(world, vec3d, lerp);
-                    TraceResult trace = ray.trace(TraceCollision.BLOCK, 0.3);
-                    if (trace.getBlocks().isEmpty()) {
-                        successfulTraces++;
-                    }
-
-                    totalTraces++;
-                }
+        for (int i = 0; i < 8; i++) {
+            if (!tracer.isObstructed(first + i)) {
+                successfulTraces++;
             }
+
+            totalTraces++;
         }
 
-        // Add one more ray pointing to the center of the bound box. If this
-        // ray hits the entity, it has the power of 4 rays. If this ray does
-        // not hit the entity, it has the power of 0 rays
-        Ray ray = new Ray(world, vec3d, VectorUtil.lerp(min, max, 0.5));
-        TraceResult trace = ray.trace(TraceCollision.BLOCK, 0.3);
-        if (trace.getBlocks().isEmpty()) {
+        // The ray pointing to the center of the bound box. If this ray hits
+        // the entity, it has the power of 4 rays. If this ray does not hit
+        // the entity, it has the power of 0 rays
+        if (!tracer.isObstructed(first + 8)) {
             successfulTraces += 4;
             totalTraces += 4;
         }
@@ -0,0 +1,223 @@
+package me.deecaad.weaponmechanics.weapon.explode.raytrace;
+
+import me.deecaad.core.compatibility.CompatibilityAPI;
+import me.deecaad.core.compatibility.HitBox;
+import me.deecaad.core.compatibility.block.BlockCompatibility;
+import me.deecaad.core.file.Configuration;
+import me.deecaad.weaponmechanics.WeaponMechanics;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Casts every exposure ray of one explosion as a batch. Instead of creating a
+ * {@link Ray} per ray (which looks up a block every <code>accuracy</code>
+ * blocks), rays are walked voxel by voxel (a DDA), and each block's hitbox is
+ * only looked up once per explosion, no matter how many rays pass through it.
+ *
+ * <p>Usage:
+ * <ol>
+ *     <li>{@link #addRay(double, double, double)} for every ray</li>
+ *     <li>{@link #trace()} (main thread)</li>
+ *     <li>{@link #isObstructed(int)} for every ray</li>
+ * </ol>
+ *
+ * <p>Like {@link Ray}, the first <code>accuracy</code> blocks of each ray are
+ * skipped, so the block the explosion is in does not obstruct every ray (See
+ * issue #26). Unlike {@link Ray}, the whole ray is checked instead of points
+ * along the ray, so rays can no longer slip through the corners of blocks.
+ *
+ * <p>When <code>Explosions.Parallel_Exposure</code> is enabled, the hitboxes
+ * are collected into a snapshot on the main thread first, and then the rays
+ * are checked against the snapshot in parallel.
+ */
+public class ExposureTracer {
+
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    // Marks a passable block in the snapshot (null means not loaded yet)
+    private static final Object PASSABLE = new Object();
+
+    private final World world;
+    private final double originX;
+    private final double originY;
+    private final double originZ;
+    private final double accuracy;
+
+    // x, y, z of the end of each ray
+    private double[] targets;
+    private boolean[] obstructed;
+    private int size;
+
+    // 16x16x16 sections of block hitboxes, keyed by packed section position
+    private final Map<Long, Object[]> sections;
+
+    /**
+     * @param world the non-null world the explosion is in
+     * @param originX the x coordinate of the explosion
+     * @param originY the y coordinate of the explosion
+     * @param originZ the z coordinate of the explosion
+     * @param accuracy the distance at the start of each ray to skip
+     */
+    public ExposureTracer(@NotNull World world, double originX, double originY, double originZ, double accuracy) {
+        this.world = world;
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+        this.accuracy = accuracy;
+        this.targets = new double[3 * 32];
+        this.sections = new HashMap<>();
+    }
+
+    /**
+     * Adds a ray from the origin of the explosion to the given point.
+     *
+     * @return the index of the ray, used by {@link #isObstructed(int)}
+     */
+    public int addRay(double x, double y, double z) {
+        if (size * 3 == targets.length)
+            targets = Arrays.copyOf(targets, targets.length << 1);
+
+        targets[size * 3] = x;
+        targets[size * 3 + 1] = y;
+        targets[size * 3 + 2] = z;
+        return size++;
+    }
+
+    /**
+     * @return the amount of rays added to this tracer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Casts every ray added to this tracer. Has to be called on the main
+     * thread, since block hitboxes are looked up.
+     */
+    public void trace() {
+        obstructed = new boolean[size];
+
+        Configuration basicConfiguration = WeaponMechanics.getBasicConfigurations();
+        boolean parallel = basicConfiguration != null && basicConfiguration.getBool("Explosions.Parallel_Exposure", false);
+
+        if (!parallel || size < PARALLEL_THRESHOLD) {
+            BlockCompatibility blockCompatibility = CompatibilityAPI.getBlockCompatibility();
+            for (int i = 0; i < size; i++)
+                obstructed[i] = walk(i, blockCompatibility, true);
+            return;
+        }
+
+        // Fill the snapshot on the main thread, then only read it in parallel
+        BlockCompatibility blockCompatibility = CompatibilityAPI.getBlockCompatibility();
+        for (int i = 0; i < size; i++)
+            walk(i, blockCompatibility, false);
+
+        IntStream.range(0, size).parallel().forEach(i -> obstructed[i] = walk(i, null, true));
+    }
+
+    /**
+     * @param ray the index of the ray, from {@link #addRay(double, double, double)}
+     * @return true if a block is between the origin and the end of the ray
+     */
+    public boolean isObstructed(int ray) {
+        return obstructed[ray];
+    }
+
+    /**
+     * Walks the blocks along the given ray. When <code>blockCompatibility</code>
+     * is not null, blocks missing from the snapshot are loaded into the
+     * snapshot. Otherwise, the snapshot is only read (which is thread safe).
+     *
+     * @return true if <code>test</code> is true and the ray is obstructed
+     */
+    private boolean walk(int ray, BlockCompatibility blockCompatibility, boolean test) {
+        double dirX = targets[ray * 3] - originX;
+        double dirY = targets[ray * 3 + 1] - originY;
+        double dirZ = targets[ray * 3 + 2] - originZ;
+        double length = Math.sqrt(dirX * dirX + dirY * dirY + dirZ * dirZ);
+
+        // Ray is shorter than the skipped distance
+        if (accuracy > length)
+            return false;
+
+        dirX /= length;
+        dirY /= length;
+        dirZ /= length;
+        double startX = originX + dirX * accuracy;
+        double startY = originY + dirY * accuracy;
+        double startZ = originZ + dirZ * accuracy;
+        double distance = length - accuracy;
+
+        int x = floor(startX);
+        int y = floor(startY);
+        int z = floor(startZ);
+        int endX = floor(targets[ray * 3]);
+        int endY = floor(targets[ray * 3 + 1]);
+        int endZ = floor(targets[ray * 3 + 2]);
+
+        int stepX = dirX > 0.0 ? 1 : (dirX < 0.0 ? -1 : 0);
+        int stepY = dirY > 0.0 ? 1 : (dirY < 0.0 ? -1 : 0);
+        int stepZ = dirZ > 0.0 ? 1 : (dirZ < 0.0 ? -1 : 0);
+        double deltaX = stepX == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dirX);
+        double deltaY = stepY == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dirY);
+        double deltaZ = stepZ == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dirZ);
+        double maxX = stepX == 0 ? Double.MAX_VALUE : (stepX > 0 ? x + 1 - startX : startX - x) * deltaX;
+        double maxY = stepY == 0 ? Double.MAX_VALUE : (stepY > 0 ? y + 1 - startY : startY - y) * deltaY;
+        double maxZ = stepZ == 0 ? Double.MAX_VALUE : (stepZ > 0 ? z + 1 - startZ : startZ - z) * deltaZ;
+
+        // Consecutive blocks are usually in the same section
+        long sectionKey = 0;
+        Object[] section = null;
+
+        while (true) {
+            long key = sectionKey(x, y, z);
+            if (section == null || key != sectionKey) {
+                sectionKey = key;
+                section = blockCompatibility == null ? sections.get(key) : sections.computeIfAbsent(key, k -> new Object[16 * 16 * 16]);
+            }
+
+            int index = ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+            Object cell = section == null ? null : section[index];
+            if (cell == null && blockCompatibility != null) {
+                HitBox hitBox = blockCompatibility.getHitBox(world.getBlockAt(x, y, z));
+                cell = hitBox == null ? PASSABLE : hitBox;
+                section[index] = cell;
+            }
+
+            if (test && cell instanceof HitBox hitBox && hitBox.intersects(startX, startY, startZ, dirX, dirY, dirZ, distance, 0.0))
+                return true;
+
+            if (x == endX && y == endY && z == endZ)
+                return false;
+
+            // Move to the next block along the ray
+            if (maxX < maxY && maxX < maxZ) {
+                if (maxX > distance) return false;
+                x += stepX;
+                maxX += deltaX;
+            } else if (maxY < maxZ) {
+                if (maxY > distance) return false;
+                y += stepY;
+                maxY += deltaY;
+            } else {
+                if (maxZ > distance) return false;
+                z += stepZ;
+                maxZ += deltaZ;
+            }
+        }
+    }
+
+    private static long sectionKey(int x, int y, int z) {
+        return ((long) (x >> 4) & 0x3FFFFFF) << 38 | ((long) (z >> 4) & 0x3FFFFFF) << 12 | ((y >> 4) & 0xFFF);
+    }
+
+    private static int floor(double a) {
+        int i = (int) a;
+        return a < i ? i - 1 : i;
+    }
+}
@@ -2,7 +2,6 @@ package me.deecaad.weaponmechanics.weapon.explode.shapes;
 
 import me.deecaad.core.file.Configuration;
 import me.deecaad.core.utils.LogLevel;
-import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -29,6 +28,8 @@ public class CuboidExplosion implements ExplosionShape {
     // values, kind of like radius
     private final double width;
     private final double height;
+    private final double noiseChance;
+    private final ShapeTemplate template;
     
     /**
      * Constructs a <code>CuboidExplosion</code> object. The
@@ -46,6 +47,26 @@ public class CuboidExplosion implements ExplosionShape {
     public CuboidExplosion(double width, double height) {
         this.width = width / 2.0;
         this.height = height / 2.0;
+
+        double noiseDistance = config == null ? 1.25 : config.getDouble("Explosions.Spherical.Noise_Distance", 1.25);
+        this.noiseChance = config == null ? 0.25 : config.getDouble("Explosions.Spherical.Noise_Chance", 0.25);
+
+        ShapeTemplate.Builder builder = new ShapeTemplate.Builder();
+        for (int x = (int) -this.width; x < this.width; x++) {
+            for (int y = (int) -this.height; y < this.height; y++) {
+                for (int z = (int) -this.width; z < this.width; z++) {
+                    builder.add(x, y, z, isNearEdge(x, y, z, noiseDistance));
+                }
+            }
+        }
+        this.template = builder.build();
+    }
+
+    /**
+     * @return The non-null precomputed blocks of this shape.
+     */
+    public ShapeTemplate getTemplate() {
+        return template;
     }
     
     /**
@@ -60,35 +81,13 @@ public class CuboidExplosion implements ExplosionShape {
     @NotNull
     @Override
     public List<Block> getBlocks(@NotNull Location origin) {
-        List<Block> temp = new ArrayList<>((int) (2 * width + 2 * height) + 1);
-
-        double noiseDistance = config.getDouble("Explosions.Spherical.Noise_Distance", 1.25);
-        double noiseChance = config.getDouble("Explosions.Spherical.Noise_Chance", 0.25);
-
         World world = origin.getWorld();
         if (world == null) {
             debug.log(LogLevel.WARN, "Cuboid explosion's origin was null? Origin:", origin.toString());
-            return temp;
+            return new ArrayList<>();
         }
-        int blockX = origin.getBlockX();
-        int blockY = origin.getBlockY();
-        int blockZ = origin.getBlockZ();
-
-        for (int x = (int) -width; x < width; x++) {
-            for (int y = (int) -height; y < height; y++) {
-                for (int z = (int) -width; z < width; z++) {
-
-                    // Noise checker
-                    if (isNearEdge(x, y, z, noiseDistance) && NumberUtil.chance(noiseChance)) {
-                        debug.log(LogLevel.DEBUG, "Skipping block(" + x + ", " + y + ", " + z + ") due to noise.");
-                        continue; // outer noise checker
-                    }
 
-                    temp.add(world.getBlockAt(x + blockX, y + blockY, z + blockZ));
-                }
-            }
-        }
-        return temp;
+        return template.getBlocks(world, origin.getBlockX(), origin.getBlockY(), origin.getBlockZ(), noiseChance);
     }
     
     /**
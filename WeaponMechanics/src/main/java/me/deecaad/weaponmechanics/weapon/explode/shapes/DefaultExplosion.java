@@ -32,7 +32,9 @@ public class DefaultExplosion implements ExplosionShape {
 
     private final float yield;
     private final int gridSize;
-    private final int bound;
+
+    // Normalized x, y, z direction of each ray
+    private final double[] directions;
     
     public DefaultExplosion(double yield) {
         this(yield, 16);
@@ -41,64 +43,108 @@ public class DefaultExplosion implements ExplosionShape {
     public DefaultExplosion(double yield, int gridSize) {
         this.yield = (float) yield;
         this.gridSize = gridSize;
-        this.bound = gridSize - 1;
+        this.directions = calculateDirections(gridSize);
     }
 
-    @NotNull
-    @Override
-    public List<Block> getBlocks(@NotNull Location origin) {
-        if (origin.getWorld() == null)
-            throw new IllegalArgumentException("origin is null");
-
-        // If the explosion is too small, then no blocks are destroyed
-        if (yield < 0.1F)
-            return List.of();
-
-        World world = origin.getWorld();
-        Set<Block> set = new HashSet<>();
+    /**
+     * Separates the explosion into a grid (16 by 16 by 16 in vanilla), and
+     * calculates the direction of a ray for every point on the surface of the
+     * grid. The directions only depend on the grid size, so they are only
+     * calculated once.
+     */
+    private static double[] calculateDirections(int gridSize) {
+        int bound = gridSize - 1;
+        List<Vector> vectors = new ArrayList<>();
 
-        // Separates the explosion into a 16 by 16 by 16
-        // grid.
         for (int k = 0; k < gridSize; ++k) {
             for (int i = 0; i < gridSize; ++i) {
                 for (int j = 0; j < gridSize; ++j) {
 
                     // Checking if the the point defined by (k, i, j) is on the grid
                     if (k == 0 || k == bound || i == 0 || i == bound || j == 0 || j == bound) {
-
                         Vector vector = new Vector(((double) k) / bound * 2 - 1, ((double) i) / bound * 2 - 1, ((double) j) / bound * 2 - 1);
-                        vector.normalize();
+                        vectors.add(vector.normalize());
+                    }
+                }
+            }
+        }
 
-                        double x = origin.getX();
-                        double y = origin.getY();
-                        double z = origin.getZ();
+        double[] directions = new double[vectors.size() * 3];
+        for (int i = 0; i < vectors.size(); i++) {
+            directions[i * 3] = vectors.get(i).getX();
+            directions[i * 3 + 1] = vectors.get(i).getY();
+            directions[i * 3 + 2] = vectors.get(i).getZ();
+        }
+        return directions;
+    }
 
-                        // Slightly randomized intensity, based on the yield of the explosion
-                        float intensity = yield * (0.7F + ThreadLocalRandom.current().nextFloat() * 0.6F);
+    @NotNull
+    @Override
+    public List<Block> getBlocks(@NotNull Location origin) {
+        if (origin.getWorld() == null)
+            throw new IllegalArgumentException("origin is null");
 
-                        while (intensity > 0.0f) {
-                            Block block = world.getBlockAt((int) x, (int) y, (int) z);
+        // If the explosion is too small, then no blocks are destroyed
+        if (yield < 0.1F)
+            return List.of();
 
+        World world = origin.getWorld();
+        Set<Block> set = new HashSet<>();
 
-                            if (!block.isEmpty()) {
-                                float resistance = CompatibilityAPI.getBlockCompatibility().getBlastResistance(block);
+        double originX = origin.getX();
+        double originY = origin.getY();
+        double originZ = origin.getZ();
+
+        for (int ray = 0; ray < directions.length; ray += 3) {
+            double stepX = directions[ray] * DECAY_RATE;
+            double stepY = directions[ray + 1] * DECAY_RATE;
+            double stepZ = directions[ray + 2] * DECAY_RATE;
+
+            double x = originX;
+            double y = originY;
+            double z = originZ;
+
+            // Slightly randomized intensity, based on the yield of the explosion
+            float intensity = yield * (0.7F + ThreadLocalRandom.current().nextFloat() * 0.6F);
+
+            // A ray takes multiple steps through each block, so only look up
+            // the block (and its resistance) when the ray enters a new block
+            Block block = null;
+            int blockX = 0, blockY = 0, blockZ = 0;
+            boolean isEmpty = true;
+            boolean isAdded = false;
+            float resistance = 0.0F;
+
+            while (intensity > 0.0f) {
+                int currentX = (int) x;
+                int currentY = (int) y;
+                int currentZ = (int) z;
+                if (block == null || currentX != blockX || currentY != blockY || currentZ != blockZ) {
+                    block = world.getBlockAt(currentX, currentY, currentZ);
+                    blockX = currentX;
+                    blockY = currentY;
+                    blockZ = currentZ;
+                    isEmpty = block.isEmpty();
+                    isAdded = false;
+                    if (!isEmpty)
+                        resistance = CompatibilityAPI.getBlockCompatibility().getBlastResistance(block);
+                }
 
-                                intensity -= (resistance + 0.3F) * ABSORB_RATE;
-                            }
+                if (!isEmpty) {
+                    intensity -= (resistance + 0.3F) * ABSORB_RATE;
+                }
 
-                            if (intensity > 0.0F && y < 256 && y >= 0) {
-                                set.add(block);
-                            }
+                if (!isAdded && intensity > 0.0F && y < 256 && y >= 0) {
+                    set.add(block);
+                    isAdded = true;
+                }
 
-                            x += vector.getX() * DECAY_RATE;
-                            y += vector.getY() * DECAY_RATE;
-                            z += vector.getZ() * DECAY_RATE;
+                x += stepX;
+                y += stepY;
+                z += stepZ;
 
-                            // Ray decays over longer distance
-                            intensity -= DECAY_RATE * 0.75;
-                        }
-                    }
-                }
+                // Ray decays over longer distance
+                intensity -= DECAY_RATE * 0.75;
             }
         }
         return new ArrayList<>(set);
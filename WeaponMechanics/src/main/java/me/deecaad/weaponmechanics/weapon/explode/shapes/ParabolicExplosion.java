@@ -1,7 +1,6 @@
 package me.deecaad.weaponmechanics.weapon.explode.shapes;
 
 import me.deecaad.core.file.Configuration;
-import me.deecaad.core.utils.LogLevel;
 import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import org.bukkit.Location;
@@ -13,8 +12,6 @@ import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.List;
 
-import static me.deecaad.weaponmechanics.WeaponMechanics.debug;
-
 /**
  * Uses parabolas to calculate the area of explosions, where
  * a parabola is defined as:
@@ -29,6 +26,8 @@ public class ParabolicExplosion implements ExplosionShape {
 
     private final double depth; // This is assumed to be negative
     private final double angle;
+    private final double noiseChance;
+    private final ShapeTemplate template;
     
     public ParabolicExplosion(double depth) {
         this(depth, 0.5);
@@ -37,6 +36,31 @@ public class ParabolicExplosion implements ExplosionShape {
     public ParabolicExplosion(double depth, double angle) {
         this.depth = -Math.abs(depth); // this check is also done by serializer, but add it here for devs
         this.angle = angle;
+
+        // Solve for x
+        // y = angle * x^2 + depth
+        // y - depth = angle * x^2
+        // (y - depth) / angle = x^2
+        // sqrt((y - depth) / angle) = x
+        // Set y = 0 to find x intercept (sqrt always returns a positive double)
+        // sqrt(-depth / angle) = x
+        double intercept = Math.sqrt(-this.depth / angle);
+
+        double noiseDistance = config == null ? 1.25 : config.getDouble("Explosions.Spherical.Noise_Distance", 1.25);
+        this.noiseChance = config == null ? 0.25 : config.getDouble("Explosions.Spherical.Noise_Chance", 0.25);
+
+        // The origin is assumed to be in the center of its block
+        ShapeTemplate.Builder builder = new ShapeTemplate.Builder();
+        for (double x = -intercept; x < intercept; x++) {
+            for (double y = this.depth; y < -this.depth; y++) {
+                for (double z = -intercept; z < intercept; z++) {
+                    if (test(x, y, z)) {
+                        builder.add(NumberUtil.intFloor(x + 0.5), NumberUtil.intFloor(y + 0.5), NumberUtil.intFloor(z + 0.5), isNearEdge(x, y, z, noiseDistance));
+                    }
+                }
+            }
+        }
+        this.template = builder.build();
     }
     
     /**
@@ -52,41 +76,18 @@ public class ParabolicExplosion implements ExplosionShape {
     public double getAngle() {
         return angle;
     }
+
+    /**
+     * @return The non-null precomputed blocks of this shape.
+     */
+    public ShapeTemplate getTemplate() {
+        return template;
+    }
     
     @NotNull
     @Override
     public List<Block> getBlocks(@NotNull Location origin) {
-        List<Block> temp = new ArrayList<>();
-
-        // Solve for x
-        // y = angle * x^2 + depth
-        // y - depth = angle * x^2
-        // (y - depth) / angle = x^2
-        // sqrt((y - depth) / angle) = x
-        // Set y = 0 to find x intercept (sqrt always returns a positive double)
-        // sqrt(-depth / angle) = x
-        double intercept = Math.sqrt(-depth / angle);
-
-        double noiseDistance = config.getDouble("Explosions.Spherical.Noise_Distance", 1.25);
-        double noiseChance = config.getDouble("Explosions.Spherical.Noise_Chance", 0.25);
-
-        for (double x = -intercept; x < intercept; x++) {
-            for (double y = depth; y < -depth; y++) {
-                for (double z = -intercept; z < intercept; z++) {
-                    if (test(x, y, z)) {
-
-                        // Checking chance first for resource usage
-                        if (NumberUtil.chance(noiseChance) && isNearEdge(x, y, z, noiseDistance)) {
-                            debug.log(LogLevel.DEBUG, "Skipping block (" + x + ", " + y + ", " + z + ") due to noise.");
-                            continue; // outer noise checker
-                        }
-
-                        temp.add(origin.clone().add(x, y, z).getBlock());
-                    }
-                }
-            }
-        }
-        return temp;
+        return template.getBlocks(origin.getWorld(), origin.getBlockX(), origin.getBlockY(), origin.getBlockZ(), noiseChance);
     }
     
     @NotNull
@@ -0,0 +1,159 @@
+package me.deecaad.weaponmechanics.weapon.explode.shapes;
+
+import me.deecaad.core.utils.LogLevel;
+import me.deecaad.core.utils.NumberUtil;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+import static me.deecaad.weaponmechanics.WeaponMechanics.debug;
+
+/**
+ * The precomputed blocks of an {@link ExplosionShape}, stored as offsets from
+ * the block the explosion is centered on. Shapes build their template once
+ * (when they are serialized), and each explosion only has to translate the
+ * offsets to its origin.
+ *
+ * <p>Offsets are stored in layer order, the same order that
+ * {@link me.deecaad.weaponmechanics.weapon.explode.regeneration.LayerDistanceSorter}
+ * uses (lowest layer first, outer blocks before inner blocks). This means
+ * that sorting the blocks of an explosion is practically free.
+ *
+ * <p>Instances of this class are immutable.
+ */
+public final class ShapeTemplate {
+
+    // x, y, z for each block
+    private final int[] offsets;
+    private final BitSet nearEdge;
+    private final int size;
+
+    private ShapeTemplate(int[] offsets, BitSet nearEdge) {
+        this.offsets = offsets;
+        this.nearEdge = nearEdge;
+        this.size = offsets.length / 3;
+    }
+
+    /**
+     * @return the amount of blocks in this template
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getX(int index) {
+        return offsets[index * 3];
+    }
+
+    public int getY(int index) {
+        return offsets[index * 3 + 1];
+    }
+
+    public int getZ(int index) {
+        return offsets[index * 3 + 2];
+    }
+
+    /**
+     * @param index the index of the block
+     * @return true if the block is near the edge of the shape, and may be skipped due to noise
+     */
+    public boolean isNearEdge(int index) {
+        return nearEdge.get(index);
+    }
+
+    /**
+     * Translates this template to the given origin block. Blocks near the
+     * edge of the shape are skipped with the chance <code>noiseChance</code>,
+     * which makes explosions look less artificial.
+     *
+     * @param world the non-null world the explosion is in
+     * @param originX the x coordinate of the origin block
+     * @param originY the y coordinate of the origin block
+     * @param originZ the z coordinate of the origin block
+     * @param noiseChance the chance [0, 1] to skip a block near the edge
+     * @return the non-null blocks of the explosion, in layer order
+     */
+    @NotNull
+    public List<Block> getBlocks(@NotNull World world, int originX, int originY, int originZ, double noiseChance) {
+        List<Block> blocks = new ArrayList<>(size);
+        boolean isDebug = debug.canLog(LogLevel.DEBUG);
+
+        int[] offsets = this.offsets;
+        for (int i = 0, j = 0; i < size; i++, j += 3) {
+            int x = offsets[j];
+            int y = offsets[j + 1];
+            int z = offsets[j + 2];
+
+            // Noise checker
+            if (noiseChance > 0.0 && nearEdge.get(i) && NumberUtil.chance(noiseChance)) {
+                if (isDebug) debug.log(LogLevel.DEBUG, "Skipping block (" + x + ", " + y + ", " + z + ") due to noise.");
+                continue;
+            }
+
+            blocks.add(world.getBlockAt(originX + x, originY + y, originZ + z));
+        }
+
+        return blocks;
+    }
+
+    @Override
+    public String toString() {
+        return "ShapeTemplate{" +
+                "size=" + size +
+                '}';
+    }
+
+    /**
+     * Collects offsets, and sorts them into layer order when built.
+     */
+    static final class Builder {
+
+        private int[] offsets = new int[3 * 64];
+        private final BitSet nearEdge = new BitSet();
+        private int size;
+
+        Builder add(int x, int y, int z, boolean isNearEdge) {
+            if (size * 3 == offsets.length)
+                offsets = Arrays.copyOf(offsets, offsets.length << 1);
+
+            offsets[size * 3] = x;
+            offsets[size * 3 + 1] = y;
+            offsets[size * 3 + 2] = z;
+            if (isNearEdge)
+                nearEdge.set(size);
+            size++;
+            return this;
+        }
+
+        ShapeTemplate build() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++)
+                order[i] = i;
+
+            // Lowest layer first, then outer blocks before inner blocks
+            Arrays.sort(order, Comparator.<Integer>comparingInt(i -> offsets[i * 3 + 1])
+                    .thenComparing(Comparator.<Integer>comparingInt(i -> square(offsets[i * 3]) + square(offsets[i * 3 + 1]) + square(offsets[i * 3 + 2])).reversed()));
+
+            int[] sorted = new int[size * 3];
+            BitSet sortedNearEdge = new BitSet(size);
+            for (int i = 0; i < size; i++) {
+                int from = order[i];
+                System.arraycopy(offsets, from * 3, sorted, i * 3, 3);
+                if (nearEdge.get(from))
+                    sortedNearEdge.set(i);
+            }
+
+            return new ShapeTemplate(sorted, sortedNearEdge);
+        }
+
+        private static int square(int a) {
+            return a * a;
+        }
+    }
+}
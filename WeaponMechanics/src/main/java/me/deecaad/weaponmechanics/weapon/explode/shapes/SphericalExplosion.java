@@ -1,7 +1,6 @@
 package me.deecaad.weaponmechanics.weapon.explode.shapes;
 
 import me.deecaad.core.file.Configuration;
-import me.deecaad.core.utils.LogLevel;
 import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import org.bukkit.Location;
@@ -11,61 +10,60 @@ import org.bukkit.util.NumberConversions;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static me.deecaad.weaponmechanics.WeaponMechanics.debug;
-
 public class SphericalExplosion implements ExplosionShape {
 
     private static final Configuration config = WeaponMechanics.getBasicConfigurations();
 
     private final double radius;
     private final double radiusSquared;
+    private final double noiseChance;
+    private final ShapeTemplate template;
     
     public SphericalExplosion(double radius) {
         this.radius = radius;
         this.radiusSquared = radius * radius;
-    }
-    
-    @NotNull
-    @Override
-    public List<Block> getBlocks(@NotNull Location origin) {
-        List<Block> temp = new ArrayList<>();
-        
-        Location pos1 = origin.clone().add(-radius, -radius, -radius);
-        Location pos2 = origin.clone().add(+radius, +radius, +radius);
 
-        double noiseDistance = NumberConversions.square(config.getDouble("Explosions.Spherical.Noise_Distance", 1.0));
-        double noiseChance = config.getDouble("Explosions.Spherical.Noise_Chance", 0.10);
+        double noiseDistance = NumberConversions.square(config == null ? 1.0 : config.getDouble("Explosions.Spherical.Noise_Distance", 1.0));
+        this.noiseChance = config == null ? 0.10 : config.getDouble("Explosions.Spherical.Noise_Chance", 0.10);
+
+        // Loops through a cuboid region around the origin block, effectively
+        // looping through every single block inside of a square. The origin
+        // is assumed to be in the center of its block.
+        ShapeTemplate.Builder builder = new ShapeTemplate.Builder();
+        int min = NumberUtil.intFloor(0.5 - radius);
+        int max = NumberUtil.intFloor(0.5 + radius);
+        for (int x = min; x < max; x++) {
+            for (int y = min; y < max; y++) {
+                for (int z = min; z < max; z++) {
 
-        // Loops through a cuboid region between pos1 and pos2
-        // effectively looping through every single block inside
-        // of a square
-        for (int x = pos1.getBlockX(); x < pos2.getBlockX(); x++) {
-            for (int y = pos1.getBlockY(); y < pos2.getBlockY(); y++) {
-                for (int z = pos1.getBlockZ(); z < pos2.getBlockZ(); z++) {
-                    Location loc = new Location(origin.getWorld(), x, y, z);
-                    
                     // If the distance between the current iteration
                     // and the origin is less than the radius of the
                     // sphere. This "reshapes" the cube into a sphere
-                    double distance = loc.distanceSquared(origin);
+                    double distance = NumberConversions.square(x - 0.5) + NumberConversions.square(y - 0.5) + NumberConversions.square(z - 0.5);
                     if (distance <= radiusSquared) {
-
                         boolean isNearEdge = radiusSquared - distance < noiseDistance;
-                        if (isNearEdge && NumberUtil.chance(noiseChance)) {
-                            debug.log(LogLevel.DEBUG, "Skipping block (" + x + ", " + y + ", " + z + ") due to noise.");
-                            continue; // outer noise checker
-                        }
-
-                        temp.add(loc.getBlock());
+                        builder.add(x, y, z, isNearEdge);
                     }
                 }
             }
         }
-        return temp;
+        this.template = builder.build();
+    }
+
+    /**
+     * @return The non-null precomputed blocks of this shape.
+     */
+    public ShapeTemplate getTemplate() {
+        return template;
+    }
+    
+    @NotNull
+    @Override
+    public List<Block> getBlocks(@NotNull Location origin) {
+        return template.getBlocks(origin.getWorld(), origin.getBlockX(), origin.getBlockY(), origin.getBlockZ(), noiseChance);
     }
     
     @NotNull
@@ -10,6 +10,7 @@ import me.deecaad.core.utils.AdventureUtil;
 import me.deecaad.core.utils.StringUtil;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import me.deecaad.weaponmechanics.utils.CustomTag;
+import me.deecaad.weaponmechanics.utils.TagSnapshot;
 import me.deecaad.weaponmechanics.weapon.WeaponHandler;
 import me.deecaad.weaponmechanics.weapon.shoot.CustomDurability;
 import me.deecaad.weaponmechanics.weapon.skin.SkinSelector;
@@ -100,6 +101,32 @@ public class InfoHandler implements IValidator {
         }
     }
 
+    /**
+     * Registers every weapon (and weapon converter) found in the given
+     * merged configuration, replacing the previously registered weapons.
+     * This is done after all files are loaded, instead of while serializing,
+     * since files may be serialized in parallel, or skipped completely when
+     * they are reused from the {@link me.deecaad.core.file.FileCache}.
+     *
+     * @param config the merged configuration of every weapon file
+     */
+    public void registerWeapons(Configuration config) {
+        weaponList.clear();
+        sortedWeaponList.clear();
+        weaponsWithConvert.clear();
+
+        for (String key : config.getKeys()) {
+            if (key.endsWith(".Info.Weapon_Item") && config.getObject(key) instanceof ItemStack) {
+                weaponList.add(key.substring(0, key.indexOf('.')));
+            } else if (key.endsWith(".Info.Weapon_Converter_Check") && config.getObject(key) instanceof WeaponConverter) {
+                weaponsWithConvert.add(key.substring(0, key.indexOf('.')));
+            }
+        }
+
+        sortedWeaponList.addAll(weaponList);
+        Collections.sort(sortedWeaponList);
+    }
+
     public boolean hasWeapon(String weaponTitle) {
         return weaponList.contains(weaponTitle);
     }
@@ -120,6 +147,13 @@ public class InfoHandler implements IValidator {
         weaponsWithConvert.add(weaponTitle);
     }
 
+    /**
+     * @return true if any weapon uses <code>Weapon_Converter_Check</code>
+     */
+    public boolean hasWeaponConverters() {
+        return !weaponsWithConvert.isEmpty();
+    }
+
     /**
      * @param weaponStack the item stack which is supposed to be weapon
      * @param autoConvert whether or not to automatically convert weapon stack to weapon if its valid
@@ -156,6 +190,7 @@ public class InfoHandler implements IValidator {
                 // Convert the possible weapon stack to actually match weapon stack
                 possibleWeaponStack.setType(weaponStack.getType());
                 possibleWeaponStack.setItemMeta(weaponStack.getItemMeta());
+                TagSnapshot.invalidate(possibleWeaponStack);
 
                 return weaponWithConvert; // return the weapon title
             }
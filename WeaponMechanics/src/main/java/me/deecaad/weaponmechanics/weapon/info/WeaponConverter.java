@@ -5,7 +5,6 @@ import me.deecaad.core.file.SerializeData;
 import me.deecaad.core.file.Serializer;
 import me.deecaad.core.file.SerializerException;
 import me.deecaad.core.utils.ReflectionUtil;
-import me.deecaad.weaponmechanics.WeaponMechanics;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -137,8 +136,6 @@ public class WeaponConverter implements Serializer<WeaponConverter> {
             throw data.exception("Custom_Model_Data", "Custom_Model_Data is only available for 1.14+");
         }
 
-        WeaponMechanics.getWeaponHandler().getInfoHandler().addWeaponWithConvert(data.key.split("\\.")[0]);
-
         return new WeaponConverter(type, name, lore, enchantments, cmd);
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.core.utils.ReflectionUtil;
 import me.deecaad.core.utils.StringUtil;
 import me.deecaad.weaponmechanics.WeaponMechanics;
+import me.deecaad.weaponmechanics.weapon.WeaponDefinition;
 import me.deecaad.weaponmechanics.wrappers.MessageHelper;
 import me.deecaad.weaponmechanics.wrappers.PlayerWrapper;
 import net.kyori.adventure.audience.Audience;
@@ -32,6 +33,7 @@ import static me.deecaad.weaponmechanics.WeaponMechanics.*;
 
 public class WeaponInfoDisplay implements Serializer<WeaponInfoDisplay> {
 
+    private static final long ACTION_BAR_RESEND_MILLIS = 1000;
     private static Constructor<?> packetPlayOutExperienceConstructor;
 
     static {
@@ -138,8 +140,8 @@ public class WeaponInfoDisplay implements Serializer<WeaponInfoDisplay> {
                     mainDisplay = this;
                     offDisplay = this;
                 } else {
-                    mainDisplay = mainhand ? this : getConfigurations().getObject(mainWeapon + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class);
-                    offDisplay = mainhand ? getConfigurations().getObject(offWeapon + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class) : this;
+                    mainDisplay = mainhand ? this : WeaponDefinition.of(mainWeapon).getInfo().getWeaponInfoDisplay();
+                    offDisplay = mainhand ? WeaponDefinition.of(offWeapon).getInfo().getWeaponInfoDisplay() : this;
                 }
 
                 // OFF HAND < dual wield split > MAIN HAND
@@ -147,17 +149,14 @@ public class WeaponInfoDisplay implements Serializer<WeaponInfoDisplay> {
                 ComponentLike offHand = getDualDisplay(offDisplay, PlaceholderData.of(player, offStack, offWeapon, EquipmentSlot.OFF_HAND), mainDisplay, false, hasInvertedMainHand);
                 ComponentLike mainHand = getDualDisplay(mainDisplay, PlaceholderData.of(player, mainStack, mainWeapon, EquipmentSlot.HAND), offDisplay, false, hasInvertedMainHand);
 
-                Audience audience = MechanicsCore.getPlugin().adventure.player(player);
-                audience.sendActionBar(buildDisplay(Component.text(), hasInvertedMainHand, mainHand, offHand));
+                sendActionBar(player, messageHelper, buildDisplay(Component.text(), hasInvertedMainHand, mainHand, offHand).build());
             } else {
                 if (mainhand) {
                     if (mainStack != null && mainStack.hasItemMeta()) {
-                        Audience audience = MechanicsCore.getPlugin().adventure.player(player);
-                        audience.sendActionBar(actionBar.replaceAndDeserialize(PlaceholderData.of(player, mainStack, mainWeapon, slot)));
+                        sendActionBar(player, messageHelper, actionBar.replaceAndDeserialize(PlaceholderData.of(player, mainStack, mainWeapon, slot)));
                     }
                 } else if (offStack != null && offStack.hasItemMeta()) {
-                    Audience audience = MechanicsCore.getPlugin().adventure.player(player);
-                    audience.sendActionBar(actionBar.replaceAndDeserialize(PlaceholderData.of(player, offStack, offWeapon, slot)));
+                    sendActionBar(player, messageHelper, actionBar.replaceAndDeserialize(PlaceholderData.of(player, offStack, offWeapon, slot)));
                 }
             }
         }
@@ -176,8 +175,8 @@ public class WeaponInfoDisplay implements Serializer<WeaponInfoDisplay> {
                     mainDisplay = this;
                     offDisplay = this;
                 } else {
-                    mainDisplay = mainhand ? this : getConfigurations().getObject(mainWeapon + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class);
-                    offDisplay = mainhand ? getConfigurations().getObject(offWeapon + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class) : this;
+                    mainDisplay = mainhand ? this : WeaponDefinition.of(mainWeapon).getInfo().getWeaponInfoDisplay();
+                    offDisplay = mainhand ? WeaponDefinition.of(offWeapon).getInfo().getWeaponInfoDisplay() : this;
                 }
 
                 // OFF HAND < dual wield split > MAIN HAND
@@ -268,6 +267,19 @@ public class WeaponInfoDisplay implements Serializer<WeaponInfoDisplay> {
         }
     }
 
+    private void sendActionBar(Player player, MessageHelper messageHelper, Component message) {
+        // The same action bar is sent for every shot and reload tick. The
+        // client keeps showing it for a few seconds, so it only needs to be
+        // resent once in a while (in case another plugin replaced it)
+        long now = System.currentTimeMillis();
+        if (message.equals(messageHelper.getActionBar()) && now - messageHelper.getActionBarTime() < ACTION_BAR_RESEND_MILLIS)
+            return;
+
+        messageHelper.setActionBar(message, now);
+        Audience audience = MechanicsCore.getPlugin().adventure.player(player);
+        audience.sendActionBar(message);
+    }
+
     private ComponentLike getDualDisplay(WeaponInfoDisplay display, PlaceholderData data, WeaponInfoDisplay otherDisplay, boolean bossbar, boolean isInverted) {
         if (display == null) return null;
 
@@ -333,7 +345,7 @@ public class WeaponInfoDisplay implements Serializer<WeaponInfoDisplay> {
     }
 
     private double getMagazineProgress(ItemStack weaponStack, String weaponTitle) {
-        double progress = (double) getWeaponHandler().getReloadHandler().getAmmoLeft(weaponStack, weaponTitle) / (double) getConfigurations().getInt(weaponTitle + ".Reload.Magazine_Size");
+        double progress = (double) getWeaponHandler().getReloadHandler().getAmmoLeft(weaponStack, weaponTitle) / (double) WeaponDefinition.of(weaponTitle).getReload().getMagazineSize();
         return NumberUtil.minMax(0.0, progress, 1.0);
     }
 
@@ -3,7 +3,6 @@ package me.deecaad.weaponmechanics.weapon.info;
 import me.deecaad.core.file.SerializeData;
 import me.deecaad.core.file.SerializerException;
 import me.deecaad.core.file.serializers.ItemSerializer;
-import me.deecaad.weaponmechanics.WeaponMechanics;
 import me.deecaad.weaponmechanics.utils.CustomTag;
 import me.deecaad.weaponmechanics.weapon.shoot.SelectiveFireState;
 import org.bukkit.inventory.ItemStack;
@@ -53,8 +52,6 @@ public class WeaponItemSerializer extends ItemSerializer {
                     SerializerException.forValue(weaponTitle));
         }
 
-        WeaponMechanics.getWeaponHandler().getInfoHandler().addWeapon(weaponTitle);
-
         int magazineSize = (Integer) data.config.get(weaponTitle + ".Reload.Magazine_Size", -1);
         if (magazineSize != -1) {
             CustomTag.AMMO_LEFT.setInteger(weaponStack, magazineSize);
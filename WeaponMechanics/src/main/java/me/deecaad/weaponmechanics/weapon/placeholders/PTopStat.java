@@ -0,0 +1,87 @@
+package me.deecaad.weaponmechanics.weapon.placeholders;
+
+import me.deecaad.core.placeholder.ListPlaceholderHandler;
+import me.deecaad.core.placeholder.PlaceholderData;
+import me.deecaad.core.placeholder.PlaceholderHandler;
+import me.deecaad.core.utils.NumberUtil;
+import me.deecaad.weaponmechanics.WeaponMechanics;
+import me.deecaad.weaponmechanics.weapon.WeaponHandler;
+import me.deecaad.weaponmechanics.weapon.stats.Leaderboard;
+import me.deecaad.weaponmechanics.weapon.stats.LeaderboardService;
+import me.deecaad.weaponmechanics.weapon.stats.PlayerStat;
+import me.deecaad.weaponmechanics.weapon.stats.WeaponStat;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The leaderboard of a stat, like <code>&lt;top_player_kills&gt;</code>.
+ * Weapon stats show the leaderboard of the weapon in the placeholder data,
+ * or of all weapons combined when there is no weapon. Registered once per
+ * integer and float stat by {@link #registerAll()}.
+ */
+public class PTopStat extends ListPlaceholderHandler {
+
+    // Names are looked up from the user cache once
+    private static final Map<UUID, String> NAMES = new ConcurrentHashMap<>();
+
+    private final PlayerStat playerStat;
+    private final WeaponStat weaponStat;
+    private final boolean isFloat;
+
+    private PTopStat(PlayerStat playerStat, WeaponStat weaponStat, String name, Class<?> type) {
+        super("top_" + name.toLowerCase(Locale.ROOT));
+        this.playerStat = playerStat;
+        this.weaponStat = weaponStat;
+        this.isFloat = type == Float.class;
+    }
+
+    /**
+     * Registers a leaderboard placeholder for every integer and float stat.
+     */
+    public static void registerAll() {
+        for (PlayerStat stat : PlayerStat.VALUES) {
+            if (LeaderboardService.isRanked(stat.getClassType()))
+                PlaceholderHandler.REGISTRY.add(new PTopStat(stat, null, stat.name(), stat.getClassType()));
+        }
+        for (WeaponStat stat : WeaponStat.VALUES) {
+            if (LeaderboardService.isRanked(stat.getClassType()))
+                PlaceholderHandler.REGISTRY.add(new PTopStat(null, stat, stat.name(), stat.getClassType()));
+        }
+    }
+
+    @Nullable
+    @Override
+    public List<String> requestValue(@NotNull PlaceholderData data) {
+        // Null while reloading
+        WeaponHandler weaponHandler = WeaponMechanics.getWeaponHandler();
+        LeaderboardService leaderboards = weaponHandler == null ? null : weaponHandler.getStatsHandler().getLeaderboards();
+        if (leaderboards == null) return null;
+
+        List<Leaderboard.Entry> entries = playerStat != null
+                ? leaderboards.getTop(playerStat)
+                : leaderboards.getTop(weaponStat, data.itemTitle());
+        if (entries.isEmpty()) return null;
+
+        List<String> list = new ArrayList<>(entries.size());
+        for (Leaderboard.Entry entry : entries) {
+            String value = isFloat ? String.valueOf(NumberUtil.getAsRounded(entry.value(), 2)) : String.valueOf((long) entry.value());
+            list.add(getName(entry.uuid()) + ": " + value);
+        }
+        return list;
+    }
+
+    private static String getName(UUID uuid) {
+        return NAMES.computeIfAbsent(uuid, key -> {
+            String name = Bukkit.getOfflinePlayer(key).getName();
+            return name == null ? key.toString() : name;
+        });
+    }
+}
@@ -3,7 +3,9 @@ package me.deecaad.weaponmechanics.weapon.projectile;
 import me.deecaad.core.compatibility.CompatibilityAPI;
 import me.deecaad.core.compatibility.entity.FakeEntity;
 import me.deecaad.core.utils.VectorUtil;
+import me.deecaad.core.utils.ray.PreparedRayTrace;
 import me.deecaad.core.utils.ray.RayTraceResult;
+import me.deecaad.weaponmechanics.WeaponMechanics;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -36,9 +38,25 @@ public abstract class AProjectile {
     private Vector motion;
     private double motionLength;
 
+    // Cached liquid state of the block the projectile is in, only updated
+    // when the projectile moves to another block, or every few ticks in case
+    // water flows in or out of the block. See isInLiquid()
+    private static final int LIQUID_RECHECK_TICKS = 10;
+    private boolean liquidChecked;
+    private boolean inLiquid;
+    private int liquidCheckTick;
+    private int liquidBlockX;
+    private int liquidBlockY;
+    private int liquidBlockZ;
+
     private int aliveTicks;
     private double distanceTravelled;
     private boolean dead;
+
+    // True when the start of this tick was already run by prepareTick()
+    private boolean tickStarted;
+    private double tickGravity;
+
     private Map<String, String> stringTags;
     private Map<String, Integer> integerTags;
 
@@ -107,9 +125,9 @@ public abstract class AProjectile {
      * @return base speed decreasing
      */
     public double getDrag() {
-        if (getCurrentBlock().isLiquid())
+        if (isInLiquid())
             return 0.96;
-        else if (world.isThundering() || world.hasStorm())
+        else if (isStorming())
             return 0.98;
         else
             return 0.99;
@@ -163,6 +181,43 @@ public abstract class AProjectile {
         return world.getBlockAt(location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
 
+    /**
+     * Returns true if the block this projectile is in is a liquid. The
+     * result is cached until the projectile moves into another block (or for
+     * a few ticks, for slow and sticked projectiles), so this is cheaper than
+     * <code>getCurrentBlock().isLiquid()</code>.
+     *
+     * @return true if this projectile is in a liquid
+     */
+    public boolean isInLiquid() {
+        int blockX = location.getBlockX();
+        int blockY = location.getBlockY();
+        int blockZ = location.getBlockZ();
+
+        if (!liquidChecked || blockX != liquidBlockX || blockY != liquidBlockY || blockZ != liquidBlockZ
+                || aliveTicks - liquidCheckTick >= LIQUID_RECHECK_TICKS) {
+            inLiquid = world.getBlockAt(blockX, blockY, blockZ).isLiquid();
+            liquidChecked = true;
+            liquidCheckTick = aliveTicks;
+            liquidBlockX = blockX;
+            liquidBlockY = blockY;
+            liquidBlockZ = blockZ;
+        }
+
+        return inLiquid;
+    }
+
+    /**
+     * Returns true if it is raining, snowing or thundering in this
+     * projectile's world. While projectiles are being ticked, the weather is
+     * only checked once per world per tick.
+     *
+     * @return true if there is a storm in this projectile's world
+     */
+    public boolean isStorming() {
+        return WeaponMechanics.getProjectilesRunnable().isStorming(world);
+    }
+
     public double getX() {
         return location.getX();
     }
@@ -180,7 +235,7 @@ public abstract class AProjectile {
      */
     public void setLocation(Vector location) {
         if (location == null) throw new IllegalArgumentException("Location can't be null");
-        this.lastLocation = this.location.clone();
+        this.lastLocation.copy(this.location);
         this.location = location;
     }
 
@@ -202,6 +257,18 @@ public abstract class AProjectile {
         return motion.clone();
     }
 
+    public double getMotionX() {
+        return motion.getX();
+    }
+
+    public double getMotionY() {
+        return motion.getY();
+    }
+
+    public double getMotionZ() {
+        return motion.getZ();
+    }
+
     /**
      * @return the current motion's length
      */
@@ -214,7 +281,7 @@ public abstract class AProjectile {
      */
     public Vector getNormalizedMotion() {
         if (motionLength == 0) return getMotion();
-        return getMotion().divide(new Vector(motionLength, motionLength, motionLength));
+        return new Vector(motion.getX() / motionLength, motion.getY() / motionLength, motion.getZ() / motionLength);
     }
 
     /**
@@ -334,21 +401,17 @@ public abstract class AProjectile {
      */
     public boolean tick() {
         if (this.dead) {
-            // If projectile is marked for removal, but hasn't yet been removed
+            // If projectile is marked for removal, but hasn't yet been removed.
+            // This may happen after the tick was already started, for example
+            // when another projectile removed this one earlier in the tick
+            tickStarted = false;
             return true;
         }
 
-        scriptEvent(ProjectileScript::onTickStart);
-
-        // Update last location here since handle collisions will change the location
-        lastLocation = location.clone();
-
-        // Update motion BEFORE updating position, see #339
-        double gravity = getGravity();
-        if (gravity != 0) {
-            motion.setY(motion.getY() - gravity);
-        }
-        motion.multiply(getDrag());
+        if (!tickStarted)
+            startTick();
+        tickStarted = false;
+        double gravity = tickGravity;
 
         // Handle collisions will update location and distance travelled
         if (updatePosition()) {
@@ -380,12 +443,12 @@ public abstract class AProjectile {
             if (isRemoveAtMinimumSpeed()) {
                 return true;
             }
-            setMotion(getNormalizedMotion().multiply(getMinimumSpeed()));
+            scaleMotion(minimumSpeed);
         } else if (maximumSpeed != -1.0 && motionLength > maximumSpeed) {
             if (isRemoveAtMaximumSpeed()) {
                 return true;
             }
-            setMotion(getNormalizedMotion().multiply(getMaximumSpeed()));
+            scaleMotion(maximumSpeed);
         }
 
         updateDisguise(false);
@@ -395,6 +458,67 @@ public abstract class AProjectile {
         return false;
     }
 
+    /**
+     * Runs the start of this projectile's tick (everything before the
+     * position is updated), and prepares the collision checks of this tick.
+     * The next call to {@link #tick()} continues from where this method
+     * stopped. Used by {@link ProjectilesRunnable} to cast the rays of all
+     * projectiles in parallel.
+     *
+     * @return the prepared ray trace to cast, or null if there is nothing to cast
+     */
+    @Nullable
+    public PreparedRayTrace prepareTick() {
+        if (this.dead) return null;
+
+        startTick();
+        return prepareCollisions();
+    }
+
+    /**
+     * Override this method to prepare the ray trace that
+     * {@link #updatePosition()} will use during this tick. This is called
+     * on the main thread, but the returned ray trace may be cast on any
+     * thread.
+     *
+     * @return the prepared ray trace, or null if not used
+     */
+    @Nullable
+    protected PreparedRayTrace prepareCollisions() {
+        return null;
+    }
+
+    private void startTick() {
+        // Set this first, so an exception never runs the start twice
+        tickStarted = true;
+
+        scriptEvent(ProjectileScript::onTickStart);
+
+        // Update last location here since handle collisions will change the location.
+        // Copy into the existing vector, since location is never modified in place.
+        lastLocation.copy(location);
+
+        // Update motion BEFORE updating position, see #339
+        tickGravity = getGravity();
+        if (tickGravity != 0) {
+            motion.setY(motion.getY() - tickGravity);
+        }
+        motion.multiply(getDrag());
+    }
+
+    /**
+     * Scales the motion (in place) to have the given length.
+     *
+     * @param length the new length of the motion
+     */
+    private void scaleMotion(double length) {
+        if (motionLength == 0) return;
+
+        double multiplier = length / motionLength;
+        motion.setX(motion.getX() * multiplier).setY(motion.getY() * multiplier).setZ(motion.getZ() * multiplier);
+        motionLength = motion.length();
+    }
+
     /**
      * If this projectile already has disguise spawned, this call is ignored
      *
@@ -428,23 +552,24 @@ public abstract class AProjectile {
         if (motionLength == 0) {
             disguise.setPosition(location.getX(), location.getY(), location.getZ(), disguise.getYaw(), disguise.getPitch(), forceTeleport);
         } else {
-            Vector normalizedMotion = getNormalizedMotion();
-            disguise.setPosition(location.getX(), location.getY(), location.getZ(), calculateYaw(normalizedMotion), calculatePitch(normalizedMotion), forceTeleport);
+            // Yaw and pitch don't depend on the length of motion, so there
+            // is no need to normalize it first
+            disguise.setPosition(location.getX(), location.getY(), location.getZ(), calculateYaw(motion), calculatePitch(motion), forceTeleport);
         }
         disguise.setMotion(motion);
 
         lastDisguiseUpdateTick = aliveTicks;
     }
 
-    private float calculateYaw(Vector normalizedMotion) {
+    private float calculateYaw(Vector motion) {
         if (motionLength == 0) return 0;
         double PI_2 = VectorUtil.PI_2;
-        return (float) Math.toDegrees((Math.atan2(-normalizedMotion.getX(), normalizedMotion.getZ()) + PI_2) % PI_2);
+        return (float) Math.toDegrees((Math.atan2(-motion.getX(), motion.getZ()) + PI_2) % PI_2);
     }
 
-    private float calculatePitch(Vector normalizedMotion) {
+    private float calculatePitch(Vector motion) {
         if (motionLength == 0) return 0;
-        return (float) Math.toDegrees(Math.atan(-normalizedMotion.getY() / Math.sqrt(NumberConversions.square(normalizedMotion.getX()) + NumberConversions.square(normalizedMotion.getZ()))));
+        return (float) Math.toDegrees(Math.atan(-motion.getY() / Math.sqrt(NumberConversions.square(motion.getX()) + NumberConversions.square(motion.getZ()))));
     }
 
     /**
@@ -0,0 +1,123 @@
+package me.deecaad.weaponmechanics.weapon.projectile;
+
+import me.deecaad.core.utils.NumberUtil;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Dense, array backed storage for all projectiles inside one chunk. Removing
+ * a projectile swaps the last projectile into the removed slot, so the order
+ * of projectiles is NOT preserved (The order in which projectiles are ticked
+ * is undefined anyway, see {@link ProjectilesRunnable}).
+ *
+ * <p>This class is not thread safe, and should only be used on the main
+ * server thread.
+ */
+public final class ProjectileChunk {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 8;
+
+    private final World world;
+    private final int x;
+    private final int z;
+    private final long key;
+
+    private AProjectile[] projectiles;
+    private int size;
+
+    ProjectileChunk(@NotNull World world, int x, int z) {
+        this.world = world;
+        this.x = x;
+        this.z = z;
+        this.key = key(x, z);
+        this.projectiles = new AProjectile[DEFAULT_INITIAL_CAPACITY];
+    }
+
+    /**
+     * @return the world this chunk is in
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * @return the chunk x coordinate
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return the chunk z coordinate
+     */
+    public int getZ() {
+        return z;
+    }
+
+    /**
+     * @return the packed chunk coordinates, see {@link #key(int, int)}
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * @return the amount of projectiles in this chunk
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index the index of the projectile, between 0 (inclusive) and {@link #size()} (exclusive)
+     * @return the projectile at the given index
+     */
+    public AProjectile get(int index) {
+        return projectiles[index];
+    }
+
+    void add(AProjectile projectile) {
+        if (size == projectiles.length)
+            projectiles = Arrays.copyOf(projectiles, size << 1);
+
+        projectiles[size++] = projectile;
+    }
+
+    /**
+     * Removes the projectile at the given index by moving the last projectile
+     * into its slot. After calling this method, the projectile at
+     * <code>index</code> (if any) has not been seen before.
+     *
+     * @param index the index of the projectile to remove
+     */
+    void swapRemove(int index) {
+        int last = --size;
+        projectiles[index] = projectiles[last];
+        projectiles[last] = null;
+    }
+
+    /**
+     * Packs the given chunk coordinates into one long.
+     *
+     * @param x the chunk x coordinate
+     * @param z the chunk z coordinate
+     * @return the packed chunk coordinates
+     */
+    public static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param projectile the projectile
+     * @return the packed coordinates of the chunk the projectile is currently in
+     */
+    public static long key(AProjectile projectile) {
+        return key(NumberUtil.intFloor(projectile.getX()) >> 4, NumberUtil.intFloor(projectile.getZ()) >> 4);
+    }
+}
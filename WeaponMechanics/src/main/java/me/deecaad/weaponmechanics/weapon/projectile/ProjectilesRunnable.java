@@ -1,16 +1,25 @@
 package me.deecaad.weaponmechanics.weapon.projectile;
 
+import me.deecaad.core.compatibility.entity.FakeEntityBatcher;
+import me.deecaad.core.file.Configuration;
 import me.deecaad.core.utils.LogLevel;
+import me.deecaad.core.utils.ray.BlockHitBoxCache;
+import me.deecaad.core.utils.ray.EntityIndex;
+import me.deecaad.core.utils.ray.PreparedRayTrace;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import static me.deecaad.weaponmechanics.WeaponMechanics.debug;
@@ -21,12 +30,35 @@ import static me.deecaad.weaponmechanics.WeaponMechanics.debug;
  * this class are thread safe. The order in which the projectiles are ticked
  * is undefined, but every projectile is guaranteed to tick once for every MC
  * server tick.
+ *
+ * <p>Projectiles are bucketed by world and by chunk into dense arrays (see
+ * {@link ProjectileChunk}), so ticking is a linear walk over memory instead
+ * of pointer chasing through a linked list. Projectiles that move into a new
+ * chunk are moved to that chunk's bucket at the end of the tick.
+ *
+ * <p>When <code>Projectiles.Parallel_Collisions</code> is enabled, the tick
+ * is split into 2 phases. First, the rays of all projectiles are cast in
+ * parallel against the entities and blocks of this tick (which are not
+ * modified meanwhile). Then, projectiles are ticked normally on the main
+ * thread using the prepared hits. See {@link PreparedRayTrace}.
  */
 public class ProjectilesRunnable extends BukkitRunnable {
 
-    private final LinkedList<AProjectile> projectiles;
+    // Below this many rays, it is faster to cast on the main thread
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private final Map<World, Map<Long, ProjectileChunk>> projectiles;
     private final LinkedBlockingQueue<AProjectile> asyncProjectiles;
     private final List<ProjectileScriptManager> managers;
+    private final EntityIndex entityIndex;
+    private final BlockHitBoxCache blockCache;
+    private final Map<World, Boolean> storms;
+
+    // Reused buffers, only touched on the main thread
+    private final List<AProjectile> drainedProjectiles;
+    private final List<AProjectile> pendingProjectiles;
+    private final List<PreparedRayTrace> preparedRayTraces;
+    private boolean ticking;
 
     /**
      * Initializes and registers this runnable. This runnable can be cancelled
@@ -40,9 +72,15 @@ public class ProjectilesRunnable extends BukkitRunnable {
      * @param plugin The non-null plugin
      */
     public ProjectilesRunnable(Plugin plugin) {
-        projectiles = new LinkedList<>();
+        projectiles = new HashMap<>();
         asyncProjectiles = new LinkedBlockingQueue<>();
         managers = new LinkedList<>();
+        drainedProjectiles = new ArrayList<>();
+        pendingProjectiles = new ArrayList<>();
+        preparedRayTraces = new ArrayList<>();
+        entityIndex = new EntityIndex();
+        blockCache = new BlockHitBoxCache();
+        storms = new HashMap<>();
 
         runTaskTimer(plugin, 0, 0);
     }
@@ -51,6 +89,45 @@ public class ProjectilesRunnable extends BukkitRunnable {
         managers.add(manager);
     }
 
+    /**
+     * Returns the entity index shared by all projectiles. The index is only
+     * open while projectiles are being ticked by this runnable, and only if
+     * <code>Projectiles.Entity_Index</code> is enabled in config.yml.
+     *
+     * @return The non-null entity index.
+     */
+    @NotNull
+    public EntityIndex getEntityIndex() {
+        return entityIndex;
+    }
+
+    /**
+     * Returns the block hitbox cache shared by all projectiles. The cache is
+     * only open while projectiles are being ticked by this runnable, and only
+     * if <code>Projectiles.Block_Cache</code> is enabled in config.yml.
+     *
+     * @return The non-null block hitbox cache.
+     */
+    @NotNull
+    public BlockHitBoxCache getBlockCache() {
+        return blockCache;
+    }
+
+    /**
+     * Returns true if it is raining, snowing or thundering in the given
+     * world. While projectiles are being ticked, the weather of each world is
+     * only checked once.
+     *
+     * @param world The non-null world to check.
+     * @return true if there is a storm in the world.
+     */
+    public boolean isStorming(@NotNull World world) {
+        if (!ticking)
+            return world.isThundering() || world.hasStorm();
+
+        return storms.computeIfAbsent(world, key -> key.isThundering() || key.hasStorm());
+    }
+
     /**
      * Adds the given projectiles to be ticked. Projectile is instantly
      * ticked once. On async call ticking starts during the next tick.
@@ -111,8 +188,40 @@ public class ProjectilesRunnable extends BukkitRunnable {
         }
 
         // Since code reached this point, projectile didn't hit anything instantly
-        // -> Add to the normal runnable
-        this.projectiles.add(projectile);
+        // -> Add to the normal runnable. When a projectile is added while
+        // ticking (e.g. cluster bombs), insert it after iterating.
+        if (ticking)
+            pendingProjectiles.add(projectile);
+        else
+            insert(projectile);
+    }
+
+    /**
+     * Returns the number of projectiles currently being ticked. Projectiles
+     * which were added asynchronously, but not yet drained, are not counted.
+     *
+     * @return The number of ticking projectiles.
+     */
+    public int getProjectileCount() {
+        int count = 0;
+        for (Map<Long, ProjectileChunk> chunks : projectiles.values()) {
+            for (ProjectileChunk chunk : chunks.values())
+                count += chunk.size();
+        }
+        return count;
+    }
+
+    private void insert(AProjectile projectile) {
+        Map<Long, ProjectileChunk> chunks = projectiles.computeIfAbsent(projectile.getWorld(), world -> new HashMap<>());
+
+        long key = ProjectileChunk.key(projectile);
+        ProjectileChunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = new ProjectileChunk(projectile.getWorld(), (int) (key >> 32), (int) key);
+            chunks.put(key, chunk);
+        }
+
+        chunk.add(projectile);
     }
 
     /**
@@ -125,33 +234,137 @@ public class ProjectilesRunnable extends BukkitRunnable {
         if (!Bukkit.getServer().isPrimaryThread())
             throw new IllegalStateException("Cannot tick projectiles asynchronously!");
 
-        // Clears the async projectiles WHILE adding them to the normal projectiles
-        while (!asyncProjectiles.isEmpty()) {
-            AProjectile asyncProjectile = asyncProjectiles.remove();
-            projectiles.add(asyncProjectile);
+        // Drain the async projectiles in one go, then attach scripts to the
+        // whole batch before they are added to the normal projectiles
+        if (!asyncProjectiles.isEmpty()) {
+            asyncProjectiles.drainTo(drainedProjectiles);
 
-            for (ProjectileScriptManager manager : managers)
-                manager.attach(asyncProjectile);
+            for (ProjectileScriptManager manager : managers) {
+                for (AProjectile asyncProjectile : drainedProjectiles)
+                    manager.attach(asyncProjectile);
+            }
+            for (AProjectile asyncProjectile : drainedProjectiles)
+                insert(asyncProjectile);
+
+            drainedProjectiles.clear();
+        }
+
+        // Entities and block hitboxes only need to be collected once per
+        // tick, and then they can be shared by all projectiles.
+        Configuration basicConfiguration = WeaponMechanics.getBasicConfigurations();
+        boolean parallelCollisions = false;
+        if (basicConfiguration != null) {
+            if (basicConfiguration.getBool("Projectiles.Entity_Index", true))
+                entityIndex.open();
+            if (basicConfiguration.getBool("Projectiles.Block_Cache", true))
+                blockCache.open();
+            parallelCollisions = basicConfiguration.getBool("Projectiles.Parallel_Collisions", false);
         }
 
-        Iterator<AProjectile> projectilesIterator = projectiles.iterator();
+        ticking = true;
+        try {
+            if (parallelCollisions)
+                castCollisions();
+
+            Iterator<Map<Long, ProjectileChunk>> worldIterator = projectiles.values().iterator();
+            while (worldIterator.hasNext()) {
+                Map<Long, ProjectileChunk> chunks = worldIterator.next();
 
-        while (projectilesIterator.hasNext()) {
-            AProjectile projectile = projectilesIterator.next();
+                Iterator<ProjectileChunk> chunkIterator = chunks.values().iterator();
+                while (chunkIterator.hasNext()) {
+                    ProjectileChunk chunk = chunkIterator.next();
+                    tickChunk(chunk);
+
+                    if (chunk.isEmpty())
+                        chunkIterator.remove();
+                }
+
+                if (chunks.isEmpty())
+                    worldIterator.remove();
+            }
+        } finally {
+            // Even if a projectile throws, the per-tick snapshots must not
+            // leak into the next tick
+            ticking = false;
+            entityIndex.close();
+            blockCache.close();
+            storms.clear();
+        }
+
+        // Projectiles that changed chunks (or were added while ticking) can
+        // only be inserted after iterating, otherwise we would modify the
+        // maps while iterating.
+        for (AProjectile pendingProjectile : pendingProjectiles)
+            insert(pendingProjectile);
+
+        pendingProjectiles.clear();
+
+        // Send the disguise movement of this tick now, instead of waiting
+        // for MechanicsCore to flush it next tick
+        FakeEntityBatcher.flushAll();
+    }
+
+    /**
+     * Prepares the rays of every projectile on the main thread, then casts
+     * them in parallel. Nothing may modify the world, the entity index or the
+     * block cache while the rays are cast.
+     */
+    private void castCollisions() {
+        for (Map<Long, ProjectileChunk> chunks : projectiles.values()) {
+            for (ProjectileChunk chunk : chunks.values()) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    AProjectile projectile = chunk.get(i);
+                    try {
+                        PreparedRayTrace prepared = projectile.prepareTick();
+                        if (prepared != null)
+                            preparedRayTraces.add(prepared);
+                    } catch (Exception e) {
+                        // The rest of the tick is handled in tickChunk, like normal
+                        debug.log(LogLevel.WARN, "Unhandled exception while preparing projectile collisions", e);
+                    }
+                }
+            }
+        }
+
+        if (preparedRayTraces.size() >= PARALLEL_THRESHOLD) {
+            preparedRayTraces.parallelStream().forEach(PreparedRayTrace::cast);
+        } else {
+            for (PreparedRayTrace prepared : preparedRayTraces)
+                prepared.cast();
+        }
+
+        preparedRayTraces.clear();
+    }
+
+    private void tickChunk(ProjectileChunk chunk) {
+        int i = 0;
+        while (i < chunk.size()) {
+            AProjectile projectile = chunk.get(i);
             try {
                 if (projectile.tick()) {
 
                     // Call the remove method of projectile
                     projectile.remove();
 
-                    // Remove the projectile from runnable
-                    projectilesIterator.remove();
+                    // Remove the projectile from runnable. Swap remove moves
+                    // an un-ticked projectile to index i, so don't increment.
+                    chunk.swapRemove(i);
+                    continue;
                 }
             } catch (Exception e) {
-                projectilesIterator.remove();
+                chunk.swapRemove(i);
                 debug.log(LogLevel.WARN, "Unhandled exception while ticking projectiles! Removing projectile");
                 debug.log(LogLevel.WARN, "Removed Projectile: " + projectile, e);
+                continue;
             }
+
+            if (ProjectileChunk.key(projectile) != chunk.getKey()) {
+                chunk.swapRemove(i);
+                pendingProjectiles.add(projectile);
+                continue;
+            }
+
+            i++;
         }
     }
 }
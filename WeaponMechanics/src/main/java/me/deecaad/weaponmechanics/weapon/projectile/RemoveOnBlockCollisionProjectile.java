@@ -30,7 +30,7 @@ public class RemoveOnBlockCollisionProjectile extends AProjectile {
 
     @Override
     public boolean updatePosition() {
-        Vector possibleNextLocation = getLocation().add(getMotion());
+        Vector possibleNextLocation = new Vector(getX() + getMotionX(), getY() + getMotionY(), getZ() + getMotionZ());
         List<RayTraceResult> hits = rayTrace.cast(getWorld(), getLocation(), possibleNextLocation, getNormalizedMotion());
         if (hits != null) {
             RayTraceResult firstHit = hits.get(0);
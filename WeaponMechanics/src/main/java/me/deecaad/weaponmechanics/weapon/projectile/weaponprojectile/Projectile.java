@@ -8,6 +8,7 @@ import me.deecaad.core.file.SerializerException;
 import me.deecaad.core.mechanics.CastData;
 import me.deecaad.core.mechanics.Mechanics;
 import me.deecaad.weaponmechanics.WeaponMechanics;
+import me.deecaad.weaponmechanics.weapon.WeaponDefinition;
 import me.deecaad.weaponmechanics.weapon.explode.Explosion;
 import me.deecaad.weaponmechanics.weapon.explode.ExplosionTrigger;
 import org.bukkit.Location;
@@ -20,8 +21,6 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nonnull;
 
-import static me.deecaad.weaponmechanics.WeaponMechanics.getConfigurations;
-
 public class Projectile implements Serializer<Projectile> {
 
     private ProjectileSettings projectileSettings;
@@ -98,7 +97,8 @@ public class Projectile implements Serializer<Projectile> {
         }
 
         // Handle explosions
-        Explosion explosion = getConfigurations().getObject(projectile.getWeaponTitle() + ".Explosion", Explosion.class);
+        String weaponTitle = projectile.getWeaponTitle();
+        Explosion explosion = weaponTitle == null ? null : WeaponDefinition.of(weaponTitle).getExplosion();
         if (explosion != null) explosion.handleExplosion(projectile.getShooter(), projectile, ExplosionTrigger.SPAWN);
 
         WeaponMechanics.getProjectilesRunnable().addProjectile(projectile);
@@ -1,7 +1,9 @@
 package me.deecaad.weaponmechanics.weapon.projectile.weaponprojectile;
 
+import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.core.utils.ray.BlockTraceResult;
 import me.deecaad.core.utils.ray.EntityTraceResult;
+import me.deecaad.core.utils.ray.PreparedRayTrace;
 import me.deecaad.core.utils.ray.RayTrace;
 import me.deecaad.core.utils.ray.RayTraceResult;
 import me.deecaad.weaponmechanics.WeaponMechanics;
@@ -50,6 +52,7 @@ public class WeaponProjectile extends AProjectile {
     private int lastEntity = -1;
 
     private final RayTrace rayTrace;
+    private PreparedRayTrace preparedRayTrace;
 
     public WeaponProjectile(ProjectileSettings projectileSettings, LivingEntity shooter, Location location,
                             Vector motion, ItemStack weaponStack, String weaponTitle, EquipmentSlot hand,
@@ -70,7 +73,8 @@ public class WeaponProjectile extends AProjectile {
                     .withBlockFilter(this::equalToLastHit)
                     .disableEntityChecks()
                     .enableLiquidChecks()
-                    .withRaySize(projectileSettings.getSize());
+                    .withRaySize(projectileSettings.getSize())
+                    .withBlockCache(WeaponMechanics.getProjectilesRunnable().getBlockCache());
         } else {
             this.rayTrace = new RayTrace()
                     .withBlockFilter(this::equalToLastHit)
@@ -78,7 +82,9 @@ public class WeaponProjectile extends AProjectile {
                                     || (getShooter() != null && getAliveTicks() < 10 && entity.getEntityId() == getShooter().getEntityId())
                                     || entity.getPassengers().contains(getShooter()))
                     .enableLiquidChecks()
-                    .withRaySize(projectileSettings.getSize());
+                    .withRaySize(projectileSettings.getSize())
+                    .withEntityIndex(WeaponMechanics.getProjectilesRunnable().getEntityIndex())
+                    .withBlockCache(WeaponMechanics.getProjectilesRunnable().getBlockCache());
         }
     }
 
@@ -217,9 +223,9 @@ public class WeaponProjectile extends AProjectile {
 
     @Override
     public double getDrag() {
-        if (getCurrentBlock().isLiquid())
+        if (isInLiquid())
             return projectileSettings.getDecreaseInWater();
-        else if (getWorld().isThundering() || getWorld().hasStorm())
+        else if (isStorming())
             return projectileSettings.getDecreaseWhenRainingOrSnowing();
         else
             return projectileSettings.getDecrease();
@@ -333,11 +339,37 @@ public class WeaponProjectile extends AProjectile {
         return rolling;
     }
 
+    @Override
+    protected PreparedRayTrace prepareCollisions() {
+
+        // Same checks as updatePosition(), there is nothing to cast when the
+        // projectile is sticked or doesn't move
+        double nextX = getX() + getMotionX();
+        double nextY = getY() + getMotionY();
+        double nextZ = getZ() + getMotionZ();
+        if (stickedData != null || getMotionLength() < Vector.getEpsilon()
+                || !getWorld().isChunkLoaded(NumberUtil.intFloor(nextX) >> 4, NumberUtil.intFloor(nextZ) >> 4)) {
+            return null;
+        }
+
+        preparedRayTrace = rayTrace.prepare(getWorld(), getLocation(), new Vector(nextX, nextY, nextZ), getNormalizedMotion(),
+                through == null ? 0.0 : through.getMaximumThroughAmount());
+        return preparedRayTrace;
+    }
+
     @Override
     public boolean updatePosition() {
 
-        Vector possibleNextLocation = getLocation().add(getMotion());
-        if (!getWorld().isChunkLoaded(possibleNextLocation.getBlockX() >> 4, possibleNextLocation.getBlockZ() >> 4)) {
+        // Prepared ray traces are only valid for the tick they were prepared in
+        PreparedRayTrace prepared = preparedRayTrace;
+        preparedRayTrace = null;
+
+        // Use primitives until we know the projectile actually moves, to
+        // avoid creating vectors for sticked or stationary projectiles
+        double nextX = getX() + getMotionX();
+        double nextY = getY() + getMotionY();
+        double nextZ = getZ() + getMotionZ();
+        if (!getWorld().isChunkLoaded(NumberUtil.intFloor(nextX) >> 4, NumberUtil.intFloor(nextZ) >> 4)) {
             // Remove projectile if next location would be in unloaded chunk
             return true;
         }
@@ -359,10 +391,16 @@ public class WeaponProjectile extends AProjectile {
         // Don't check for new collisions if motion is empty
         if (getMotionLength() < Vector.getEpsilon()) return false;
 
+        Vector possibleNextLocation = new Vector(nextX, nextY, nextZ);
+
         // Returns sorted list of hits
 
-        List<RayTraceResult> hits = rayTrace.cast(getWorld(), getLocation(), possibleNextLocation, getNormalizedMotion(),
-                through == null ? 0.0 : through.getMaximumThroughAmount());
+        Vector location = getLocation();
+        Vector normalizedMotion = getNormalizedMotion();
+        double maximumThroughAmount = through == null ? 0.0 : through.getMaximumThroughAmount();
+        List<RayTraceResult> hits = prepared != null && prepared.matches(getWorld(), location, possibleNextLocation, normalizedMotion, maximumThroughAmount)
+                ? prepared.getHits()
+                : rayTrace.cast(getWorld(), location, possibleNextLocation, normalizedMotion, maximumThroughAmount);
         if (hits == null) {
 
             // Check if can't keep rolling
@@ -8,6 +8,7 @@ import me.deecaad.core.placeholder.PlaceholderData;
 import me.deecaad.core.placeholder.PlaceholderMessage;
 import me.deecaad.core.utils.StringUtil;
 import me.deecaad.weaponmechanics.utils.CustomTag;
+import me.deecaad.weaponmechanics.weapon.WeaponDefinition;
 import me.deecaad.weaponmechanics.weapon.WeaponHandler;
 import me.deecaad.weaponmechanics.weapon.firearm.FirearmAction;
 import me.deecaad.weaponmechanics.weapon.firearm.FirearmState;
@@ -38,7 +39,6 @@ import java.util.Collections;
 import java.util.List;
 
 import static me.deecaad.weaponmechanics.WeaponMechanics.getBasicConfigurations;
-import static me.deecaad.weaponmechanics.WeaponMechanics.getConfigurations;
 
 public class ReloadHandler implements IValidator, TriggerListener {
 
@@ -63,7 +63,7 @@ public class ReloadHandler implements IValidator, TriggerListener {
     public boolean tryUse(EntityWrapper entityWrapper, String weaponTitle, ItemStack weaponStack, EquipmentSlot slot,
                           TriggerType triggerType, boolean dualWield, @Nullable LivingEntity victim) {
 
-        Trigger trigger = getConfigurations().getObject(weaponTitle + ".Reload.Trigger", Trigger.class);
+        Trigger trigger = WeaponDefinition.of(weaponTitle).getReload().getTrigger();
         if (trigger == null || !trigger.check(triggerType, slot, entityWrapper)) return false;
 
         return startReloadWithoutTrigger(entityWrapper, weaponTitle, weaponStack, slot, dualWield, false);
@@ -97,10 +97,11 @@ public class ReloadHandler implements IValidator, TriggerListener {
         if (preReloadEvent.isCancelled())
             return false;
 
-        Configuration config = getConfigurations();
+        WeaponDefinition definition = WeaponDefinition.of(weaponTitle);
+        WeaponDefinition.Reload reloadConfig = definition.getReload();
 
-        int reloadDuration = config.getInt(weaponTitle + ".Reload.Reload_Duration");
-        int tempMagazineSize = config.getInt(weaponTitle + ".Reload.Magazine_Size");
+        int reloadDuration = reloadConfig.getReloadDuration();
+        int tempMagazineSize = reloadConfig.getMagazineSize();
         if (tempMagazineSize <= 0 || reloadDuration <= 0) {
             // This ensures that non intended reloads doesn't occur from ShootHandler for example
             return false;
@@ -133,7 +134,7 @@ public class ReloadHandler implements IValidator, TriggerListener {
         boolean mainhand = slot == EquipmentSlot.HAND;
         HandData handData = mainhand ? entityWrapper.getMainHandData() : entityWrapper.getOffHandData();
 
-        int ammoPerReload = config.getInt(weaponTitle + ".Reload.Ammo_Per_Reload", -1);
+        int ammoPerReload = reloadConfig.getAmmoPerReload();
 
         // Check how much ammo should be added during this reload iteration
         int tempAmmoToAdd;
@@ -148,9 +149,9 @@ public class ReloadHandler implements IValidator, TriggerListener {
         }
 
         PlayerWrapper playerWrapper = shooter.getType() != EntityType.PLAYER ? null : (PlayerWrapper) entityWrapper;
-        WeaponInfoDisplay weaponInfoDisplay = playerWrapper == null ? null : getConfigurations().getObject(weaponTitle + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class);
+        WeaponInfoDisplay weaponInfoDisplay = playerWrapper == null ? null : definition.getInfo().getWeaponInfoDisplay();
 
-        FirearmAction firearmAction = config.getObject(weaponTitle + ".Firearm_Action", FirearmAction.class);
+        FirearmAction firearmAction = definition.getFirearmAction();
         FirearmState state = null;
         boolean isRevolver = false;
         boolean isPump = false;
@@ -209,7 +210,7 @@ public class ReloadHandler implements IValidator, TriggerListener {
             return false;
         }
 
-        AmmoConfig ammo = playerWrapper != null ? config.getObject(weaponTitle + ".Reload.Ammo", AmmoConfig.class) : null;
+        AmmoConfig ammo = playerWrapper != null ? reloadConfig.getAmmo() : null;
         if (ammo != null && !ammo.hasAmmo(weaponTitle, weaponStack, playerWrapper)) {
 
             // Creative mode bypass... #176
@@ -221,7 +222,7 @@ public class ReloadHandler implements IValidator, TriggerListener {
 
         }
 
-        Mechanics reloadStartMechanics = config.getObject(weaponTitle + ".Reload.Start_Mechanics", Mechanics.class);
+        Mechanics reloadStartMechanics = reloadConfig.getStartMechanics();
         WeaponReloadEvent reloadEvent = new WeaponReloadEvent(weaponTitle, weaponStack, entityWrapper.getEntity(), slot,
                 reloadDuration, tempAmmoToAdd, tempMagazineSize, firearmOpenTime, firearmCloseTime, reloadStartMechanics);
         Bukkit.getPluginManager().callEvent(reloadEvent);
@@ -235,7 +236,7 @@ public class ReloadHandler implements IValidator, TriggerListener {
         final int finalAmmoToAdd = tempAmmoToAdd;
         final int magazineSize = tempMagazineSize;
 
-        boolean unloadAmmoOnReload = config.getBool(weaponTitle + ".Reload.Unload_Ammo_On_Reload");
+        boolean unloadAmmoOnReload = reloadConfig.isUnloadAmmoOnReload();
 
         // This is necessary for events to be used correctly
         handData.setReloadData(weaponTitle, weaponStack);
@@ -392,7 +393,7 @@ public class ReloadHandler implements IValidator, TriggerListener {
                 event.useMechanics(new CastData(shooter, weaponTitle, weaponStack, handData::addReloadTask), true);
 
                 if (entityWrapper instanceof PlayerWrapper) {
-                    WeaponInfoDisplay weaponInfoDisplay = getConfigurations().getObject(weaponTitle + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class);
+                    WeaponInfoDisplay weaponInfoDisplay = WeaponDefinition.of(weaponTitle).getInfo().getWeaponInfoDisplay();
                     if (weaponInfoDisplay != null) weaponInfoDisplay.send((PlayerWrapper) entityWrapper, slot);
                 }
 
@@ -436,7 +437,7 @@ public class ReloadHandler implements IValidator, TriggerListener {
                 event.useMechanics(new CastData(shooter, weaponTitle, weaponStack, handData::addReloadTask), false);
 
                 if (entityWrapper instanceof PlayerWrapper) {
-                    WeaponInfoDisplay weaponInfoDisplay = getConfigurations().getObject(weaponTitle + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class);
+                    WeaponInfoDisplay weaponInfoDisplay = WeaponDefinition.of(weaponTitle).getInfo().getWeaponInfoDisplay();
                     if (weaponInfoDisplay != null) weaponInfoDisplay.send((PlayerWrapper) entityWrapper, slot);
                 }
 
@@ -453,12 +454,12 @@ public class ReloadHandler implements IValidator, TriggerListener {
 
         handData.finishReload();
 
-        Mechanics reloadFinishMechanics = getConfigurations().getObject(weaponTitle + ".Reload.Finish_Mechanics", Mechanics.class);
+        Mechanics reloadFinishMechanics = WeaponDefinition.of(weaponTitle).getReload().getFinishMechanics();
         if (reloadFinishMechanics != null)
             reloadFinishMechanics.use(new CastData(entityWrapper.getEntity(), weaponTitle, weaponStack));
 
         if (entityWrapper instanceof PlayerWrapper) {
-            WeaponInfoDisplay weaponInfoDisplay = getConfigurations().getObject(weaponTitle + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class);
+            WeaponInfoDisplay weaponInfoDisplay = WeaponDefinition.of(weaponTitle).getInfo().getWeaponInfoDisplay();
             if (weaponInfoDisplay != null) weaponInfoDisplay.send((PlayerWrapper) entityWrapper, slot);
         }
 
@@ -483,7 +484,7 @@ public class ReloadHandler implements IValidator, TriggerListener {
         if (weaponTitle == null) return -1;
 
         // If ammo is disabled for this weapon
-        if (getConfigurations().getInt(weaponTitle + ".Reload.Magazine_Size") == 0) return -1;
+        if (WeaponDefinition.of(weaponTitle).getReload().getMagazineSize() == 0) return -1;
 
         if (!CustomTag.AMMO_LEFT.hasInteger(weaponStack)) {
             // If the ammo was added later on, add the tag
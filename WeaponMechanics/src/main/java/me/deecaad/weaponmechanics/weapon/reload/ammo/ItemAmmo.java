@@ -4,6 +4,7 @@ import me.deecaad.core.utils.AdventureUtil;
 import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import me.deecaad.weaponmechanics.utils.CustomTag;
+import me.deecaad.weaponmechanics.utils.TagSnapshot;
 import me.deecaad.weaponmechanics.wrappers.PlayerWrapper;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -85,6 +86,7 @@ public class ItemAmmo implements IAmmoType {
             // Handle conversion
             potentialAmmo.setType(ammoTemplate.getType());
             potentialAmmo.setItemMeta(ammoTemplate.getItemMeta());
+            TagSnapshot.invalidate(potentialAmmo);
             AdventureUtil.updatePlaceholders(wrapper.getPlayer(), potentialAmmo);
 
             inventory.setItem(i, potentialAmmo);
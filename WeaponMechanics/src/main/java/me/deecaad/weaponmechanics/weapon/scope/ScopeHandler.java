@@ -11,6 +11,7 @@ import me.deecaad.core.utils.LogLevel;
 import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.weaponmechanics.compatibility.WeaponCompatibilityAPI;
 import me.deecaad.weaponmechanics.compatibility.scope.IScopeCompatibility;
+import me.deecaad.weaponmechanics.weapon.WeaponDefinition;
 import me.deecaad.weaponmechanics.weapon.WeaponHandler;
 import me.deecaad.weaponmechanics.weapon.trigger.Trigger;
 import me.deecaad.weaponmechanics.weapon.trigger.TriggerListener;
@@ -56,7 +57,7 @@ public class ScopeHandler implements IValidator, TriggerListener {
 
     @Override
     public boolean tryUse(EntityWrapper entityWrapper, String weaponTitle, ItemStack weaponStack, EquipmentSlot slot, TriggerType triggerType, boolean dualWield, @Nullable LivingEntity victim) {
-        Configuration config = getConfigurations();
+        WeaponDefinition.Scope scopeConfig = WeaponDefinition.of(weaponTitle).getScope();
 
         if (Bukkit.getPluginManager().getPlugin("VivecraftSpigot") != null
                 && entityWrapper.isPlayer() && VSE.isVive((Player) entityWrapper.getEntity())) {
@@ -78,7 +79,7 @@ public class ScopeHandler implements IValidator, TriggerListener {
             zoomData = entityWrapper.getOffHandData().getZoomData();
         }
 
-        Trigger trigger = config.getObject(weaponTitle + ".Scope.Trigger", Trigger.class);
+        Trigger trigger = scopeConfig.getTrigger();
         if (trigger == null) return false;
 
         LivingEntity shooter = entityWrapper.getEntity();
@@ -89,7 +90,7 @@ public class ScopeHandler implements IValidator, TriggerListener {
         // Check if entity is already zooming
         if (zoomData.isZooming()) {
 
-            Trigger offTrigger = config.getObject(weaponTitle + ".Scope.Zoom_Off.Trigger", Trigger.class);
+            Trigger offTrigger = scopeConfig.getZoomOffTrigger();
             // If off trigger is valid -> zoom out even if stacking hasn't reached maximum stacks
             if (offTrigger != null && offTrigger.check(triggerType, slot, entityWrapper)) {
                 return zoomOut(weaponStack, weaponTitle, entityWrapper, zoomData, slot);
@@ -108,7 +109,7 @@ public class ScopeHandler implements IValidator, TriggerListener {
                     return false;
                 }
 
-                List<String> zoomStacks = config.getList(weaponTitle + ".Scope.Zoom_Stacking.Stacks", null);
+                List<String> zoomStacks = scopeConfig.getZoomStacks();
                 if (zoomStacks == null) { // meaning that zoom stacking is not used
                     // Should turn off
                     return zoomOut(weaponStack, weaponTitle, entityWrapper, zoomData, slot);
@@ -148,25 +149,26 @@ public class ScopeHandler implements IValidator, TriggerListener {
      * @return true if successfully zoomed in or stacked
      */
     private boolean zoomIn(ItemStack weaponStack, String weaponTitle, EntityWrapper entityWrapper, ZoomData zoomData, EquipmentSlot slot) {
-        Configuration config = getConfigurations();
+        WeaponDefinition definition = WeaponDefinition.of(weaponTitle);
+        WeaponDefinition.Scope scopeConfig = definition.getScope();
         LivingEntity entity = entityWrapper.getEntity();
 
         // If the entity is on shoot cooldown and the weapon uses Unscope_After_Shot,
         // then the entity is not allowed to enter scope until the cooldown is over.
-        boolean unscopeAfterShot = config.getBool(weaponTitle + ".Scope.Unscope_After_Shot");
-        int delayBetweenShots = config.getInt(weaponTitle + ".Shoot.Delay_Between_Shots");
+        boolean unscopeAfterShot = scopeConfig.isUnscopeAfterShot();
+        int delayBetweenShots = definition.getShoot().getDelayBetweenShots();
         if (unscopeAfterShot && delayBetweenShots != 0 && !NumberUtil.hasMillisPassed(zoomData.getHandData().getLastShotTime(), delayBetweenShots)) {
             return false;
         }
 
         if (zoomData.isZooming()) { // zoom stack
 
-            List<String> zoomStacks = config.getList(weaponTitle + ".Scope.Zoom_Stacking.Stacks", null);
+            List<String> zoomStacks = scopeConfig.getZoomStacks();
             if (zoomStacks != null) {
                 int currentStacks = zoomData.getZoomStacks();
                 double zoomAmount = Double.parseDouble(zoomStacks.get(currentStacks));
                 int zoomStack = currentStacks + 1;
-                Mechanics zoomStackingMechanics = config.getObject(weaponTitle + ".Scope.Zoom_Stacking.Mechanics", Mechanics.class);
+                Mechanics zoomStackingMechanics = scopeConfig.getZoomStackingMechanics();
 
                 WeaponScopeEvent weaponScopeEvent = new WeaponScopeEvent(weaponTitle, weaponStack, entity, slot, WeaponScopeEvent.ScopeType.STACK, zoomAmount, zoomStack, zoomStackingMechanics);
                 Bukkit.getPluginManager().callEvent(weaponScopeEvent);
@@ -195,10 +197,10 @@ public class ScopeHandler implements IValidator, TriggerListener {
             }
         }
 
-        double zoomAmount = config.getDouble(weaponTitle + ".Scope.Zoom_Amount");
+        double zoomAmount = scopeConfig.getZoomAmount();
         if (zoomAmount == 0) return false;
 
-        Mechanics scopeMechanics = config.getObject(weaponTitle + ".Scope.Mechanics", Mechanics.class);
+        Mechanics scopeMechanics = scopeConfig.getMechanics();
 
         // zoom stack = 0, because its not used OR this is first zoom in
         WeaponScopeEvent weaponScopeEvent = new WeaponScopeEvent(weaponTitle, weaponStack, entity, slot, WeaponScopeEvent.ScopeType.IN, zoomAmount, 0, scopeMechanics);
@@ -230,7 +232,7 @@ public class ScopeHandler implements IValidator, TriggerListener {
         if (!zoomData.isZooming()) return false;
         LivingEntity entity = entityWrapper.getEntity();
 
-        Mechanics zoomOffMechanics = getConfigurations().getObject(weaponTitle + ".Scope.Zoom_Off.Mechanics", Mechanics.class);
+        Mechanics zoomOffMechanics = WeaponDefinition.of(weaponTitle).getScope().getZoomOffMechanics();
 
         // Zoom amount and stack 0 because zooming out
         WeaponScopeEvent weaponScopeEvent = new WeaponScopeEvent(weaponTitle, weaponStack, entity, slot, WeaponScopeEvent.ScopeType.OUT, 0, 0, zoomOffMechanics);
@@ -270,9 +270,11 @@ public class CustomDurability implements Serializer<CustomDurability> {
         CompatibilityAPI.getNBTCompatibility().copyTagsFromTo(item, template, "PublicBukkitValues");
         item.setType(template.getType());
         item.setItemMeta(template.getItemMeta());
-        CustomTag.WEAPON_TITLE.remove(item);
-        CustomTag.BROKEN_WEAPON.setString(item, CustomTag.WEAPON_TITLE.getString(template));
-        CustomTag.DURABILITY.setInteger(item, 0);
+        CustomTag.edit(item)
+                .remove(CustomTag.WEAPON_TITLE)
+                .setString(CustomTag.BROKEN_WEAPON, CustomTag.WEAPON_TITLE.getString(template))
+                .setInteger(CustomTag.DURABILITY, 0)
+                .apply();
 
         return true;
     }
@@ -306,8 +308,10 @@ public class CustomDurability implements Serializer<CustomDurability> {
             CompatibilityAPI.getNBTCompatibility().copyTagsFromTo(weapon, weaponTemplate, "PublicBukkitValues");
             weapon.setType(weaponTemplate.getType());
             weapon.setItemMeta(weaponTemplate.getItemMeta());
-            CustomTag.WEAPON_TITLE.setString(weapon, weaponTitle);
-            CustomTag.BROKEN_WEAPON.remove(weapon);
+            CustomTag.edit(weapon)
+                    .setString(CustomTag.WEAPON_TITLE, weaponTitle)
+                    .remove(CustomTag.BROKEN_WEAPON)
+                    .apply();
 
             // Add durability back to the weapon
             if (repairMaxDurability) CustomTag.MAX_DURABILITY.setInteger(weapon, getMaxDurability());
@@ -1,7 +1,7 @@
 package me.deecaad.weaponmechanics.weapon.shoot;
 
-import me.deecaad.weaponmechanics.WeaponMechanics;
 import me.deecaad.weaponmechanics.utils.CustomTag;
+import me.deecaad.weaponmechanics.weapon.WeaponDefinition;
 import me.deecaad.weaponmechanics.weapon.WeaponHandler;
 import me.deecaad.weaponmechanics.weapon.trigger.Trigger;
 import me.deecaad.weaponmechanics.weapon.trigger.TriggerType;
@@ -12,8 +12,6 @@ import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import static me.deecaad.weaponmechanics.WeaponMechanics.getConfigurations;
-
 /**
  * This task handles firing projectiles every <code>N</code> ticks. 1 of these
  * tasks is created every time you start firing a fully automatic weapon. The
@@ -89,6 +87,7 @@ public class FullAutoTask extends BukkitRunnable {
     private final Trigger trigger;
     private final boolean consumeItemOnShoot;
     private final int ammoPerShot;
+    private final boolean destroyWhenEmpty;
 
     // Updated in the run() method
     private int currentTick;
@@ -106,9 +105,11 @@ public class FullAutoTask extends BukkitRunnable {
         this.rate = shotsPerSecond % 20;
         this.perShot = shotsPerSecond / 20;
 
-        trigger = getConfigurations().getObject(weaponTitle + ".Shoot.Trigger", Trigger.class);
-        consumeItemOnShoot = getConfigurations().getBool(weaponTitle + ".Shoot.Consume_Item_On_Shoot");
-        ammoPerShot = getConfigurations().getInt(weaponTitle + ".Shoot.Ammo_Per_Shot", 1);
+        WeaponDefinition.Shoot shootConfig = WeaponDefinition.of(weaponTitle).getShoot();
+        trigger = shootConfig.getTrigger();
+        consumeItemOnShoot = shootConfig.isConsumeItemOnShoot();
+        ammoPerShot = shootConfig.getAmmoPerShot();
+        destroyWhenEmpty = shootConfig.isDestroyWhenEmpty();
     }
 
     public EntityWrapper getEntityWrapper() {
@@ -200,7 +201,6 @@ public class FullAutoTask extends BukkitRunnable {
         }
         // END RELOAD STUFF
 
-        boolean destroyWhenEmpty = WeaponMechanics.getConfigurations().getBool(weaponTitle + ".Shoot.Destroy_When_Empty");
         for (int i = 0; i < shootAmount; ++i) {
             Location shootLocation = weaponHandler.getShootHandler().getShootLocation(entityWrapper.getEntity(), dualWield, mainHand);
             weaponHandler.getShootHandler().shoot(entityWrapper, weaponTitle, taskReference, shootLocation, mainHand, true, false);
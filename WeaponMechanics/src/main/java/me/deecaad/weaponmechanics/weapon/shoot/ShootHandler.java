@@ -3,6 +3,7 @@ package me.deecaad.weaponmechanics.weapon.shoot;
 import me.deecaad.core.MechanicsCore;
 import me.deecaad.core.compatibility.CompatibilityAPI;
 import me.deecaad.core.compatibility.worldguard.WorldGuardCompatibility;
+import me.deecaad.core.compatibility.worldguard.WorldGuardFlagCache;
 import me.deecaad.core.file.*;
 import me.deecaad.core.mechanics.CastData;
 import me.deecaad.core.mechanics.Mechanics;
@@ -12,6 +13,7 @@ import me.deecaad.core.utils.NumberUtil;
 import me.deecaad.core.utils.StringUtil;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import me.deecaad.weaponmechanics.utils.CustomTag;
+import me.deecaad.weaponmechanics.weapon.WeaponDefinition;
 import me.deecaad.weaponmechanics.weapon.WeaponHandler;
 import me.deecaad.weaponmechanics.weapon.firearm.FirearmAction;
 import me.deecaad.weaponmechanics.weapon.firearm.FirearmState;
@@ -74,7 +76,7 @@ public class ShootHandler implements IValidator, TriggerListener {
             return weaponHandler.getMeleeHandler().tryUse(entityWrapper, weaponTitle, weaponStack, slot, triggerType, dualWield, knownVictim);
         }
 
-        Trigger trigger = getConfigurations().getObject(weaponTitle + ".Shoot.Trigger", Trigger.class);
+        Trigger trigger = WeaponDefinition.of(weaponTitle).getShoot().getTrigger();
         if (trigger == null || !trigger.check(triggerType, slot, entityWrapper)) return false;
 
         boolean result = shootWithoutTrigger(entityWrapper, weaponTitle, weaponStack, slot, triggerType, dualWield);
@@ -91,7 +93,7 @@ public class ShootHandler implements IValidator, TriggerListener {
         // Don't even try if slot is already being used for full auto or burst
         if (handData.isUsingFullAuto() || handData.isUsingBurst()) return false;
 
-        Configuration config = getConfigurations();
+        WeaponDefinition definition = WeaponDefinition.of(weaponTitle);
 
         WeaponPreShootEvent preShootEvent = new WeaponPreShootEvent(weaponTitle, weaponStack, entityWrapper.getEntity(), slot);
         Bukkit.getPluginManager().callEvent(preShootEvent);
@@ -102,7 +104,7 @@ public class ShootHandler implements IValidator, TriggerListener {
         // Handle worldguard flags
         WorldGuardCompatibility worldGuard = CompatibilityAPI.getWorldGuardCompatibility();
         Location loc = entityWrapper.getEntity().getLocation();
-        if (!worldGuard.testFlag(loc, entityWrapper instanceof PlayerWrapper ? ((PlayerWrapper) entityWrapper).getPlayer() : null, "weapon-shoot")) {
+        if (!WorldGuardFlagCache.testFlag(loc, entityWrapper instanceof PlayerWrapper ? ((PlayerWrapper) entityWrapper).getPlayer() : null, "weapon-shoot")) {
             Object obj = worldGuard.getValue(loc, "weapon-shoot-message");
             if (obj != null && !obj.toString().isEmpty()) {
                 entityWrapper.getEntity().sendMessage(StringUtil.color(obj.toString()));
@@ -126,7 +128,7 @@ public class ShootHandler implements IValidator, TriggerListener {
 
         ReloadHandler reloadHandler = weaponHandler.getReloadHandler();
 
-        if (!getConfigurations().getBool(weaponTitle + ".Shoot.Consume_Item_On_Shoot")) {
+        if (!definition.getShoot().isConsumeItemOnShoot()) {
             reloadHandler.handleWeaponStackAmount(entityWrapper, weaponStack);
         }
 
@@ -144,7 +146,7 @@ public class ShootHandler implements IValidator, TriggerListener {
         }
 
         // FIREARM START
-        FirearmAction firearmAction = config.getObject(weaponTitle + ".Firearm_Action", FirearmAction.class);
+        FirearmAction firearmAction = definition.getFirearmAction();
         if (firearmAction != null) {
             FirearmState state = firearmAction.getState(weaponStack);
             if (state != FirearmState.READY) {
@@ -180,7 +182,7 @@ public class ShootHandler implements IValidator, TriggerListener {
 
         // RELOAD END
 
-        boolean usesSelectiveFire = config.getObject(weaponTitle + ".Shoot.Selective_Fire.Trigger", Trigger.class) != null;
+        boolean usesSelectiveFire = definition.getShoot().getSelectiveFireTrigger() != null;
         SelectiveFireState selectiveFireState = SelectiveFireState.SINGLE;
         if (usesSelectiveFire) {
             int selectiveFireStateId = CustomTag.SELECTIVE_FIRE.getInteger(weaponStack);
@@ -193,22 +195,22 @@ public class ShootHandler implements IValidator, TriggerListener {
         if (selectiveFireState != SelectiveFireState.AUTO && !isMelee) {
 
 
-            int delayBetweenShots = config.getInt(weaponTitle + ".Shoot.Delay_Between_Shots");
+            int delayBetweenShots = definition.getShoot().getDelayBetweenShots();
 
 
             if (delayBetweenShots != 0 && !NumberUtil.hasMillisPassed(handData.getLastShotTime(weaponTitle), delayBetweenShots))
                 return false;
         }
 
-        int weaponEquipDelay = config.getInt(weaponTitle + ".Info.Weapon_Equip_Delay");
+        int weaponEquipDelay = definition.getInfo().getWeaponEquipDelay();
         if (weaponEquipDelay != 0 && !NumberUtil.hasMillisPassed(handData.getLastEquipTime(), weaponEquipDelay))
             return false;
 
-        int shootDelayAfterScope = config.getInt(weaponTitle + ".Scope.Shoot_Delay_After_Scope");
+        int shootDelayAfterScope = definition.getScope().getShootDelayAfterScope();
         if (shootDelayAfterScope != 0 && !NumberUtil.hasMillisPassed(handData.getLastScopeTime(), shootDelayAfterScope))
             return false;
 
-        int shootDelayAfterReload = config.getInt(weaponTitle + ".Reload.Shoot_Delay_After_Reload");
+        int shootDelayAfterReload = definition.getReload().getShootDelayAfterReload();
         if (shootDelayAfterReload != 0 && !NumberUtil.hasMillisPassed(handData.getLastReloadTime(), shootDelayAfterReload))
             return false;
 
@@ -233,8 +235,9 @@ public class ShootHandler implements IValidator, TriggerListener {
 
     private boolean singleShot(EntityWrapper entityWrapper, String weaponTitle, ItemStack weaponStack, HandData handData, EquipmentSlot slot, boolean dualWield, boolean isMelee) {
         boolean mainhand = slot == EquipmentSlot.HAND;
-        boolean consumeItemOnShoot = getConfigurations().getBool(weaponTitle + ".Shoot.Consume_Item_On_Shoot");
-        int ammoPerShot = getConfigurations().getInt(weaponTitle + ".Shoot.Ammo_Per_Shot", 1);
+        WeaponDefinition.Shoot shootConfig = WeaponDefinition.of(weaponTitle).getShoot();
+        boolean consumeItemOnShoot = shootConfig.isConsumeItemOnShoot();
+        int ammoPerShot = shootConfig.getAmmoPerShot();
 
         // START RELOAD STUFF
 
@@ -246,7 +249,7 @@ public class ShootHandler implements IValidator, TriggerListener {
 
         shoot(entityWrapper, weaponTitle, weaponStack, getShootLocation(entityWrapper.getEntity(), dualWield, mainhand), mainhand, true, isMelee);
 
-        boolean consumeEmpty = getConfigurations().getBool(weaponTitle + ".Shoot.Destroy_When_Empty") && CustomTag.AMMO_LEFT.getInteger(weaponStack) == 0;
+        boolean consumeEmpty = shootConfig.isDestroyWhenEmpty() && CustomTag.AMMO_LEFT.getInteger(weaponStack) == 0;
         if ((consumeEmpty || consumeItemOnShoot) && handleConsumeItemOnShoot(weaponStack, mainhand ? entityWrapper.getMainHandData() : entityWrapper.getOffHandData())) {
             return true;
         }
@@ -261,16 +264,17 @@ public class ShootHandler implements IValidator, TriggerListener {
     }
 
     private boolean burstShot(EntityWrapper entityWrapper, String weaponTitle, ItemStack weaponStack, HandData handData, EquipmentSlot slot, boolean dualWield) {
-        Configuration config = getConfigurations();
-        int shotsPerBurst = config.getInt(weaponTitle + ".Shoot.Burst.Shots_Per_Burst");
-        int ticksBetweenEachShot = config.getInt(weaponTitle + ".Shoot.Burst.Ticks_Between_Each_Shot");
+        WeaponDefinition.Shoot shootConfig = WeaponDefinition.of(weaponTitle).getShoot();
+        int shotsPerBurst = shootConfig.getShotsPerBurst();
+        int ticksBetweenEachShot = shootConfig.getTicksBetweenEachShot();
 
         // Not used
         if (shotsPerBurst == 0 || ticksBetweenEachShot == 0) return false;
 
         boolean mainhand = slot == EquipmentSlot.HAND;
-        boolean consumeItemOnShoot = getConfigurations().getBool(weaponTitle + ".Shoot.Consume_Item_On_Shoot");
-        int ammoPerShot = getConfigurations().getInt(weaponTitle + ".Shoot.Ammo_Per_Shot", 1);
+        boolean consumeItemOnShoot = shootConfig.isConsumeItemOnShoot();
+        int ammoPerShot = shootConfig.getAmmoPerShot();
+        boolean destroyWhenEmpty = shootConfig.isDestroyWhenEmpty();
 
         handData.setBurstTask(new BukkitRunnable() {
             int shots = 0;
@@ -307,7 +311,7 @@ public class ShootHandler implements IValidator, TriggerListener {
                 // Only make the first projectile of burst modify spread change if its used
                 shoot(entityWrapper, weaponTitle, taskReference, getShootLocation(entityWrapper.getEntity(), dualWield, mainhand), mainhand, shots == 0, false);
 
-                boolean consumeEmpty = getConfigurations().getBool(weaponTitle + ".Shoot.Destroy_When_Empty") && CustomTag.AMMO_LEFT.getInteger(weaponStack) == 0;
+                boolean consumeEmpty = destroyWhenEmpty && CustomTag.AMMO_LEFT.getInteger(weaponStack) == 0;
                 if ((consumeEmpty || consumeItemOnShoot) && handleConsumeItemOnShoot(weaponStack, mainhand ? entityWrapper.getMainHandData() : entityWrapper.getOffHandData())) {
                     return;
                 }
@@ -329,8 +333,7 @@ public class ShootHandler implements IValidator, TriggerListener {
     }
 
     private boolean fullAutoShot(EntityWrapper entityWrapper, String weaponTitle, ItemStack weaponStack, HandData handData, EquipmentSlot slot, TriggerType triggerType, boolean dualWield) {
-        Configuration config = getConfigurations();
-        int fullyAutomaticShotsPerSecond = config.getInt(weaponTitle + ".Shoot.Fully_Automatic_Shots_Per_Second");
+        int fullyAutomaticShotsPerSecond = WeaponDefinition.of(weaponTitle).getShoot().getFullyAutomaticShotsPerSecond();
 
         // Call event before checking if full auto is used, so weapons can be converted to Full Auto
         WeaponFullAutoEvent event = new WeaponFullAutoEvent(weaponTitle, weaponStack, entityWrapper.getEntity(), slot, fullyAutomaticShotsPerSecond);
@@ -348,7 +351,7 @@ public class ShootHandler implements IValidator, TriggerListener {
     }
 
     public void doShootFirearmActions(EntityWrapper entityWrapper, String weaponTitle, ItemStack weaponStack, HandData handData, EquipmentSlot slot) {
-        FirearmAction firearmAction = getConfigurations().getObject(weaponTitle + ".Firearm_Action", FirearmAction.class);
+        FirearmAction firearmAction = WeaponDefinition.of(weaponTitle).getFirearmAction();
         if (firearmAction == null || handData.hasRunningFirearmAction()) return;
 
         FirearmState state = firearmAction.getState(weaponStack);
@@ -363,7 +366,7 @@ public class ShootHandler implements IValidator, TriggerListener {
         boolean mainhand = slot == EquipmentSlot.HAND;
         LivingEntity shooter = entityWrapper.getEntity();
         PlayerWrapper playerWrapper = shooter.getType() != EntityType.PLAYER ? null : (PlayerWrapper) entityWrapper;
-        WeaponInfoDisplay weaponInfoDisplay = playerWrapper == null ? null : getConfigurations().getObject(weaponTitle + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class);
+        WeaponInfoDisplay weaponInfoDisplay = playerWrapper == null ? null : WeaponDefinition.of(weaponTitle).getInfo().getWeaponInfoDisplay();
 
         // Initiate CLOSE task
         BukkitRunnable closeRunnable = new BukkitRunnable() {
@@ -497,17 +500,18 @@ public class ShootHandler implements IValidator, TriggerListener {
      * Does not use ammo nor check for it.
      */
     public void shoot(EntityWrapper entityWrapper, String weaponTitle, ItemStack weaponStack, Location shootLocation, boolean mainHand, boolean updateSpreadChange, boolean isMelee) {
-        Configuration config = getConfigurations();
+        WeaponDefinition definition = WeaponDefinition.of(weaponTitle);
+        WeaponDefinition.Shoot shootConfig = definition.getShoot();
         LivingEntity livingEntity = entityWrapper.getEntity();
         EquipmentSlot slot = mainHand ? EquipmentSlot.HAND : EquipmentSlot.OFF_HAND;
 
-        Mechanics shootMechanics = config.getObject(weaponTitle + ".Shoot.Mechanics", Mechanics.class);
-        boolean resetFallDistance = config.getBool(weaponTitle + ".Shoot.Reset_Fall_Distance");
-        Projectile projectile = config.getObject(weaponTitle + ".Projectile", Projectile.class);
-        double projectileSpeed = config.getDouble(weaponTitle + ".Shoot.Projectile_Speed");
-        int projectileAmount = config.getInt(weaponTitle + ".Shoot.Projectiles_Per_Shot");
-        Spread spread = config.getObject(weaponTitle + ".Shoot.Spread", Spread.class);
-        Recoil recoil = config.getObject(weaponTitle + ".Shoot.Recoil", Recoil.class);
+        Mechanics shootMechanics = shootConfig.getMechanics();
+        boolean resetFallDistance = shootConfig.isResetFallDistance();
+        Projectile projectile = definition.getProjectile();
+        double projectileSpeed = shootConfig.getProjectileSpeed();
+        int projectileAmount = shootConfig.getProjectilesPerShot();
+        Spread spread = shootConfig.getSpread();
+        Recoil recoil = shootConfig.getRecoil();
 
         PrepareWeaponShootEvent prepareEvent = new PrepareWeaponShootEvent(
                 weaponTitle, weaponStack, entityWrapper.getEntity(), slot,
@@ -535,7 +539,7 @@ public class ShootHandler implements IValidator, TriggerListener {
             if (playerWrapper.getStatsData() != null)
                 playerWrapper.getStatsData().add(weaponTitle, WeaponStat.SHOTS, 1);
 
-            WeaponInfoDisplay weaponInfoDisplay = getConfigurations().getObject(weaponTitle + ".Info.Weapon_Info_Display", WeaponInfoDisplay.class);
+            WeaponInfoDisplay weaponInfoDisplay = definition.getInfo().getWeaponInfoDisplay();
             if (weaponInfoDisplay != null)
                 weaponInfoDisplay.send(playerWrapper, slot);
         }
@@ -599,7 +603,7 @@ public class ShootHandler implements IValidator, TriggerListener {
         }
 
         // Apply custom durability
-        CustomDurability durability = config.getObject(weaponTitle + ".Shoot.Custom_Durability", CustomDurability.class);
+        CustomDurability durability = shootConfig.getCustomDurability();
         if (durability != null) {
             boolean broke = durability.use(livingEntity, weaponStack, weaponTitle);
 
@@ -607,7 +611,7 @@ public class ShootHandler implements IValidator, TriggerListener {
                 entityWrapper.getHandData(mainHand).cancelTasks();
         }
 
-        boolean unscopeAfterShot = config.getBool(weaponTitle + ".Scope.Unscope_After_Shot");
+        boolean unscopeAfterShot = definition.getScope().isUnscopeAfterShot();
         WeaponPostShootEvent event = new WeaponPostShootEvent(weaponTitle, weaponStack, entityWrapper.getEntity(), slot, unscopeAfterShot);
         Bukkit.getPluginManager().callEvent(event);
 
@@ -637,18 +641,19 @@ public class ShootHandler implements IValidator, TriggerListener {
      * Does not apply recoil nor anything that would require EntityWrapper.
      */
     public void shoot(LivingEntity livingEntity, String weaponTitle, Vector normalizedDirection) {
-        Configuration config = getConfigurations();
+        WeaponDefinition definition = WeaponDefinition.of(weaponTitle);
 
-        Mechanics shootMechanics = config.getObject(weaponTitle + ".Shoot.Mechanics", Mechanics.class);
+        Mechanics shootMechanics = definition.getShoot().getMechanics();
         if (shootMechanics != null) shootMechanics.use(new CastData(livingEntity, weaponTitle, null));
 
-        Projectile projectile = config.getObject(weaponTitle + ".Projectile", Projectile.class);
+        Projectile projectile = definition.getProjectile();
         if (projectile == null) return;
 
         Location shootLocation = getShootLocation(livingEntity, false, true);
-        double projectileSpeed = config.getDouble(weaponTitle + ".Shoot.Projectile_Speed");
+        double projectileSpeed = definition.getShoot().getProjectileSpeed();
+        int projectileAmount = definition.getShoot().getProjectilesPerShot();
 
-        for (int i = 0; i < config.getInt(weaponTitle + ".Shoot.Projectiles_Per_Shot"); ++i) {
+        for (int i = 0; i < projectileAmount; ++i) {
 
             Location perProjectileShootLocation = shootLocation.clone();
 
@@ -15,14 +15,13 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
 
 import static me.deecaad.weaponmechanics.WeaponMechanics.getPlayerWrapper;
 
 public class Recoil implements Serializer<Recoil> {
 
     public static long MILLIS_BETWEEN_ROTATIONS = 20;
-    private static final Timer TIMER = new Timer();
+    private static final RecoilScheduler SCHEDULER = new RecoilScheduler();
     private static final IWeaponCompatibility weaponCompatibility = WeaponCompatibilityAPI.getWeaponCompatibility();
 
     private long pushTime;
@@ -70,7 +69,7 @@ public class Recoil implements Serializer<Recoil> {
             // Normally shoot, recoil, recover
             recoilTask = new RecoilTask(playerWrapper, handData, this);
             handData.setRecoilTask(recoilTask);
-            TIMER.scheduleAtFixedRate(recoilTask, 0, MILLIS_BETWEEN_ROTATIONS);
+            SCHEDULER.schedule(recoilTask);
             return;
         }
         // Shoot during recoil
@@ -80,6 +79,13 @@ public class Recoil implements Serializer<Recoil> {
         recoilTask.setRecoil(this);
     }
 
+    /**
+     * @return the scheduler running every recoil session
+     */
+    public static RecoilScheduler getScheduler() {
+        return SCHEDULER;
+    }
+
     public long getPushTime() {
         return pushTime;
     }
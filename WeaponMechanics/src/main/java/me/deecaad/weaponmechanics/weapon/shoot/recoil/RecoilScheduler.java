@@ -0,0 +1,207 @@
+package me.deecaad.weaponmechanics.weapon.shoot.recoil;
+
+import me.deecaad.core.utils.LogLevel;
+import me.deecaad.weaponmechanics.WeaponMechanics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every active {@link RecoilTask} from a single repeating task, every
+ * {@link Recoil#MILLIS_BETWEEN_ROTATIONS} milliseconds. Each run ticks every
+ * recoil session in one batch, instead of scheduling one timer task per
+ * session. The repeating task only runs while there are sessions, and a new
+ * session is rotated for the first time as soon as it is added.
+ *
+ * <p>Recoil sessions only compute the rotation, the packet itself is handed
+ * to the player's connection, which writes it on that player's own netty
+ * event loop. So the recoil thread is never blocked by a slow connection.
+ *
+ * <p>Since recoil runs off the main thread, this class also measures how
+ * late each run starts compared to when it was supposed to start. Use
+ * {@link #getAverageLagNanos()} and {@link #getMaxLagNanos()} to see if
+ * recoil drifts under load.
+ */
+public class RecoilScheduler {
+
+    // Used to smooth the average lag, higher values react faster
+    private static final double LAG_SMOOTHING = 0.05;
+
+    private final Queue<RecoilTask> added;
+    private final List<RecoilTask> sessions; // Guarded by itself
+
+    private ScheduledThreadPoolExecutor executor;
+    private ScheduledFuture<?> future; // null while there are no sessions
+    private long periodNanos;
+    private long startNanos;
+    private long runs;
+
+    private volatile int activeSessions;
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+    private volatile double averageLagNanos;
+
+    public RecoilScheduler() {
+        this.added = new ConcurrentLinkedQueue<>();
+        this.sessions = new ArrayList<>();
+    }
+
+    /**
+     * Adds the given recoil session, which is ticked until
+     * {@link RecoilTask#tick()} returns false. The first tick happens right
+     * away, the following ticks happen with the other sessions.
+     *
+     * @param task The non-null recoil session.
+     */
+    public void schedule(@NotNull RecoilTask task) {
+        added.add(task);
+        ensureStarted();
+    }
+
+    private synchronized void ensureStarted() {
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(Recoil.MILLIS_BETWEEN_ROTATIONS);
+        if (future != null && this.periodNanos == periodNanos) {
+            // Don't wait for the next run to rotate the new session
+            executor.execute(this::runAdded);
+            return;
+        }
+
+        // MILLIS_BETWEEN_ROTATIONS changed (or first session)
+        if (future != null)
+            future.cancel(false);
+
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "WeaponMechanics Recoil");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+        }
+
+        this.periodNanos = periodNanos;
+        this.startNanos = System.nanoTime();
+        this.runs = 0;
+        future = executor.scheduleAtFixedRate(this::run, 0, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the repeating task once every session is finished. Sessions
+     * added in the meantime keep it running.
+     */
+    private synchronized void stopIfIdle() {
+        if (future != null && added.isEmpty()) {
+            future.cancel(false);
+            future = null;
+        }
+    }
+
+    /**
+     * Stops the recoil thread. Active recoil sessions are dropped. The
+     * scheduler starts again when the next session is scheduled.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+                future = null;
+            }
+        }
+        added.clear();
+        synchronized (sessions) {
+            sessions.clear();
+            activeSessions = 0;
+        }
+    }
+
+    private void run() {
+        // Synchronized since shutdown() clears the sessions from another thread
+        synchronized (sessions) {
+            tick();
+            if (sessions.isEmpty())
+                stopIfIdle();
+        }
+    }
+
+    private void runAdded() {
+        synchronized (sessions) {
+            RecoilTask task;
+            while ((task = added.poll()) != null) {
+                if (tickSafely(task))
+                    sessions.add(task);
+            }
+            activeSessions = sessions.size();
+        }
+    }
+
+    private void tick() {
+        long lag = System.nanoTime() - (startNanos + runs++ * periodNanos);
+        lastLagNanos = lag;
+        if (lag > maxLagNanos)
+            maxLagNanos = lag;
+        averageLagNanos += (lag - averageLagNanos) * LAG_SMOOTHING;
+
+        RecoilTask task;
+        while ((task = added.poll()) != null)
+            sessions.add(task);
+
+        // Swap remove finished sessions, order does not matter
+        for (int i = sessions.size() - 1; i >= 0; i--) {
+            if (!tickSafely(sessions.get(i))) {
+                int last = sessions.size() - 1;
+                sessions.set(i, sessions.get(last));
+                sessions.remove(last);
+            }
+        }
+        activeSessions = sessions.size();
+    }
+
+    private static boolean tickSafely(RecoilTask task) {
+        try {
+            return task.tick();
+        } catch (Throwable e) {
+            // An exception would cancel every future run
+            WeaponMechanics.debug.log(LogLevel.ERROR, "Unhandled exception during recoil", e);
+            return false;
+        }
+    }
+
+    /**
+     * @return the amount of recoil sessions ticked in the last run
+     */
+    public int getActiveSessions() {
+        return activeSessions;
+    }
+
+    /**
+     * @return how late the last run started, in nanoseconds
+     */
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    /**
+     * @return the highest lag since the last {@link #resetMaxLag()}, in nanoseconds
+     */
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    /**
+     * @return the smoothed average lag, in nanoseconds
+     */
+    public double getAverageLagNanos() {
+        return averageLagNanos;
+    }
+
+    public void resetMaxLag() {
+        maxLagNanos = 0;
+    }
+}
@@ -9,9 +9,12 @@ import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
 import java.util.List;
-import java.util.TimerTask;
 
-public class RecoilTask extends TimerTask {
+/**
+ * One recoil session of a hand. Ticked by {@link RecoilScheduler} until the
+ * recoil (and recovery) is finished.
+ */
+public class RecoilTask {
 
     private static final IWeaponCompatibility weaponCompatibility = WeaponCompatibilityAPI.getWeaponCompatibility();
     private final PlayerWrapper playerWrapper;
@@ -29,7 +32,7 @@ public class RecoilTask extends TimerTask {
     private int currentIndexAtRecoilPattern;
 
     private int counter;
-    private Recoil tempRecoil;
+    private volatile Recoil tempRecoil;
     private int rotations;
     private float yawPerIteration;
     private float pitchPerIteration;
@@ -45,18 +48,21 @@ public class RecoilTask extends TimerTask {
         tempRecoil = recoil;
     }
 
-    @Override
-    public void run() {
+    /**
+     * Rotates the player's camera once.
+     *
+     * @return false if this session is finished.
+     */
+    public boolean tick() {
 
         Player player = playerWrapper.getPlayer();
         if (player == null || player.isDead() || !player.isOnline()) {
             handData.setRecoilTask(null);
-            cancel();
-            return;
+            return false;
         }
 
         // If this returns true, that means task is terminated
-        if (handleNewRecoil()) return;
+        if (handleNewRecoil()) return false;
 
         // This first check in case non-repeating pattern is used, and it has reached its end -> don't send unnecessary packets
         if (!(yawPerIteration == 0 && pitchPerIteration == 0)) {
@@ -76,8 +82,7 @@ public class RecoilTask extends TimerTask {
                 // OR
                 // Recovery is not used
                 handData.setRecoilTask(null);
-                cancel();
-                return;
+                return false;
             }
 
             // Rotation finished, start recovering
@@ -101,6 +106,7 @@ public class RecoilTask extends TimerTask {
             counter = 0;
             isRotating = false;
         }
+        return true;
     }
 
     /**
@@ -140,7 +146,6 @@ public class RecoilTask extends TimerTask {
             // Neither one wasn't used?
             // Terminate this task...
             handData.setRecoilTask(null);
-            cancel();
             return true;
         }
 
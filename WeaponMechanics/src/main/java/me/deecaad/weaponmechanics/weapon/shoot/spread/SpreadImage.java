@@ -3,6 +3,7 @@ package me.deecaad.weaponmechanics.weapon.shoot.spread;
 import me.deecaad.core.file.SerializeData;
 import me.deecaad.core.file.Serializer;
 import me.deecaad.core.file.SerializerException;
+import me.deecaad.core.utils.AliasTable;
 import me.deecaad.core.utils.ProbabilityMap;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import org.jetbrains.annotations.NotNull;
@@ -17,7 +18,8 @@ import java.util.Set;
 
 public class SpreadImage implements Serializer<SpreadImage> {
     
-    private ProbabilityMap<Point> points;
+    // Only sampled through the alias table, which is safe to use from any thread
+    private AliasTable<Point> points;
     private int height, width;
     
     /**
@@ -27,7 +29,7 @@ public class SpreadImage implements Serializer<SpreadImage> {
     }
     
     public SpreadImage(Sprite sprite, double fovWidth, double fovHeight) {
-        this.points = new ProbabilityMap<>();
+        ProbabilityMap<Point> points = new ProbabilityMap<>();
         this.width = sprite.getWidth();
         this.height = sprite.getHeight();
 
@@ -63,6 +65,8 @@ public class SpreadImage implements Serializer<SpreadImage> {
                 }
             }
         }
+
+        this.points = AliasTable.of(points);
     }
     
     public int getHeight() {
@@ -0,0 +1,108 @@
+package me.deecaad.weaponmechanics.weapon.stats;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The top N players of a single stat, sorted from highest to lowest value.
+ * Entries are updated in place when a player's value changes. Since stats
+ * only grow, a player outside the top N can only enter it by passing the
+ * lowest entry, so the top N is exact without knowing every other player.
+ *
+ * <p>Every method is synchronized, so leaderboards can be read from any
+ * thread.
+ */
+public class Leaderboard {
+
+    private final UUID[] uuids;
+    private final double[] values;
+    private int size;
+
+    /**
+     * @param capacity the amount of players to keep track of
+     */
+    public Leaderboard(int capacity) {
+        this.uuids = new UUID[capacity];
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Sets the value of the given player. Values of 0 are never added.
+     *
+     * @param uuid the uuid of the player
+     * @param value the current value of the stat of the player
+     */
+    public synchronized void offer(@NotNull UUID uuid, double value) {
+        int current = indexOf(uuid);
+        if (current != -1) {
+            if (values[current] == value) return;
+            remove(current);
+        }
+
+        if (value <= 0.0 || (size == uuids.length && value <= values[size - 1]))
+            return;
+
+        // Find the first entry with a lower value, ties keep the older entry first
+        int index = size;
+        while (index > 0 && values[index - 1] < value)
+            index--;
+
+        int moved = Math.min(size, uuids.length - 1) - index;
+        if (moved > 0) {
+            System.arraycopy(uuids, index, uuids, index + 1, moved);
+            System.arraycopy(values, index, values, index + 1, moved);
+        }
+        uuids[index] = uuid;
+        values[index] = value;
+        if (size < uuids.length) size++;
+    }
+
+    /**
+     * @param uuid the uuid of the player
+     * @return the 1 based rank of the player, or -1 if not in the top N
+     */
+    public synchronized int getRank(@NotNull UUID uuid) {
+        int index = indexOf(uuid);
+        return index == -1 ? -1 : index + 1;
+    }
+
+    /**
+     * @return a snapshot of the entries, from highest to lowest value
+     */
+    @NotNull
+    public synchronized List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            entries.add(new Entry(uuids[i], values[i]));
+        return Collections.unmodifiableList(entries);
+    }
+
+    private int indexOf(UUID uuid) {
+        for (int i = 0; i < size; i++) {
+            if (uuids[i].equals(uuid)) return i;
+        }
+        return -1;
+    }
+
+    private void remove(int index) {
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(uuids, index + 1, uuids, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+        }
+        uuids[--size] = null;
+    }
+
+    /**
+     * A player and the value of the stat of the player.
+     *
+     * @param uuid the uuid of the player
+     * @param value the value of the stat
+     */
+    public record Entry(@NotNull UUID uuid, double value) {
+    }
+}
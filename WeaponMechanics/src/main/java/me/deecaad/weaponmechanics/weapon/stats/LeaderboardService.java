@@ -0,0 +1,331 @@
+package me.deecaad.weaponmechanics.weapon.stats;
+
+import me.deecaad.core.database.Database;
+import me.deecaad.core.utils.LogLevel;
+import me.deecaad.weaponmechanics.WeaponMechanics;
+import me.deecaad.weaponmechanics.wrappers.StatsData;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps an in memory {@link Leaderboard} for every integer and float stat:
+ * 1 per {@link PlayerStat}, 1 per {@link WeaponStat} of each weapon, and 1
+ * per {@link WeaponStat} of all weapons combined (the sum, or the max for the
+ * longest distance stats).
+ *
+ * <p>The leaderboards are seeded once from the database, using 1 streamed
+ * query per table. After that, they are updated from the changes of online
+ * players (see {@link StatsData#drainChanges(StatsData.ChangeConsumer)}), so
+ * reading a leaderboard never queries the database. Changes made while
+ * seeding are replayed into the seeded leaderboards. Leaderboards can be read
+ * from any thread.
+ */
+public class LeaderboardService {
+
+    private static final int MAX_REPLAY = 1_000_000;
+    private static final Set<WeaponStat> MAX_STATS = EnumSet.of(WeaponStat.LONGEST_DISTANCE_HIT, WeaponStat.LONGEST_DISTANCE_KILL);
+
+    private final int capacity;
+    private volatile Views views;
+
+    // Main thread only, the offers made while seeding
+    private List<Consumer<Views>> replay;
+
+    /**
+     * @param capacity the amount of players in each leaderboard
+     */
+    public LeaderboardService(int capacity) {
+        this.capacity = capacity;
+        this.views = new Views(capacity);
+    }
+
+    /**
+     * Loads every leaderboard from the database async. Until the
+     * leaderboards are loaded, they only contain changes of online players.
+     * The tables are read after the queued stats are written, and changes
+     * made until the leaderboards are loaded are applied to the loaded
+     * leaderboards, so no change is missed (even for players who quit in the
+     * meantime). Must be called on the main thread.
+     *
+     * @param plugin the plugin to schedule the sync task with
+     * @param database the opened database
+     * @param writeQueue the queue of stats which are not written yet, or null
+     */
+    public void seed(Plugin plugin, Database database, @Nullable StatsWriteQueue writeQueue) {
+        List<Consumer<Views>> replay = new ArrayList<>();
+        this.replay = replay;
+
+        Views seeded = new Views(capacity);
+        Runnable query = () -> database.executeStreamingQuery("SELECT * FROM player_stats", playerSet -> {
+            try {
+                seedPlayerStats(seeded, playerSet);
+            } catch (SQLException e) {
+                WeaponMechanics.debug.log(LogLevel.ERROR, "Failed to load player stat leaderboards", e);
+            }
+
+            // Ordered by the primary key, so all weapons of a player are together
+            database.executeStreamingQuery("SELECT * FROM weapon_stats ORDER BY UUID", weaponSet -> {
+                try {
+                    seedWeaponStats(seeded, weaponSet);
+                } catch (SQLException e) {
+                    WeaponMechanics.debug.log(LogLevel.ERROR, "Failed to load weapon stat leaderboards", e);
+                }
+
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    for (Consumer<Views> offer : replay)
+                        offer.accept(seeded);
+                    if (this.replay == replay)
+                        this.replay = null;
+                    views = seeded;
+
+                    // Online players may have changes which are not saved yet
+                    for (Player player : Bukkit.getOnlinePlayers()) {
+                        StatsData statsData = WeaponMechanics.getPlayerWrapper(player).getStatsData();
+                        if (statsData != null)
+                            refresh(player.getUniqueId(), statsData);
+                    }
+                });
+            });
+        });
+
+        if (writeQueue == null)
+            query.run();
+        else
+            writeQueue.runAfterPending(query);
+    }
+
+    private static void seedPlayerStats(Views views, ResultSet playerSet) throws SQLException {
+        while (playerSet.next()) {
+            UUID uuid = UUID.fromString(playerSet.getString(PlayerStat.UUID.name()));
+            for (PlayerStat stat : PlayerStat.VALUES) {
+                Leaderboard leaderboard = views.player[stat.ordinal()];
+                if (leaderboard != null)
+                    leaderboard.offer(uuid, playerSet.getDouble(stat.name()));
+            }
+        }
+    }
+
+    private static void seedWeaponStats(Views views, ResultSet weaponSet) throws SQLException {
+        UUID uuid = null;
+        double[] totals = new double[WeaponStat.VALUES.length];
+        while (weaponSet.next()) {
+            UUID rowUuid = UUID.fromString(weaponSet.getString(WeaponStat.UUID.name()));
+            if (!rowUuid.equals(uuid)) {
+                if (uuid != null)
+                    offerTotals(views, uuid, totals);
+                uuid = rowUuid;
+                totals = new double[WeaponStat.VALUES.length];
+            }
+
+            Leaderboard[] weapon = views.weapon(weaponSet.getString(WeaponStat.WEAPON_TITLE.name()));
+            for (WeaponStat stat : WeaponStat.VALUES) {
+                if (weapon[stat.ordinal()] == null)
+                    continue;
+
+                double value = weaponSet.getDouble(stat.name());
+                weapon[stat.ordinal()].offer(rowUuid, value);
+                totals[stat.ordinal()] = combine(stat, totals[stat.ordinal()], value);
+            }
+        }
+        if (uuid != null)
+            offerTotals(views, uuid, totals);
+    }
+
+    private static void offerTotals(Views views, UUID uuid, double[] totals) {
+        for (int i = 0; i < totals.length; i++) {
+            if (views.total[i] != null)
+                views.total[i].offer(uuid, totals[i]);
+        }
+    }
+
+    /**
+     * Updates the leaderboards of a changed row. Called on the main thread
+     * for each row passed to {@link StatsData#drainChanges(StatsData.ChangeConsumer)}.
+     *
+     * @param uuid the uuid of the player
+     * @param statsData the stats of the player
+     * @param weaponTitle the weapon title, or null for the player stats
+     * @param changedStats the bit mask of changed stat ordinals
+     */
+    public void update(@NotNull UUID uuid, @NotNull StatsData statsData, @Nullable String weaponTitle, long changedStats) {
+        if (weaponTitle == null) {
+            for (PlayerStat stat : PlayerStat.VALUES) {
+                if (isRanked(stat.getClassType()) && (changedStats & (1L << stat.ordinal())) != 0)
+                    offer(views -> views.player[stat.ordinal()], uuid, value(statsData, stat));
+            }
+            return;
+        }
+
+        for (WeaponStat stat : WeaponStat.VALUES) {
+            if (!isRanked(stat.getClassType()) || (changedStats & (1L << stat.ordinal())) == 0)
+                continue;
+
+            offer(views -> views.weapon(weaponTitle)[stat.ordinal()], uuid, value(statsData, weaponTitle, stat));
+            offer(views -> views.total[stat.ordinal()], uuid, total(statsData, stat));
+        }
+    }
+
+    private void offer(Function<Views, Leaderboard> leaderboard, UUID uuid, double value) {
+        leaderboard.apply(views).offer(uuid, value);
+        if (replay == null)
+            return;
+
+        // The seed failed, don't keep recording forever
+        if (replay.size() >= MAX_REPLAY) {
+            WeaponMechanics.debug.warn("Leaderboards were not loaded from the database, they only contain recent changes");
+            replay = null;
+            return;
+        }
+        replay.add(views -> leaderboard.apply(views).offer(uuid, value));
+    }
+
+    /**
+     * Updates every leaderboard with the current stats of the player.
+     *
+     * @param uuid the uuid of the player
+     * @param statsData the stats of the player
+     */
+    public void refresh(@NotNull UUID uuid, @NotNull StatsData statsData) {
+        Set<String> weapons = statsData.getWeapons();
+        if (weapons == null)
+            return;
+
+        update(uuid, statsData, null, -1L);
+        for (String weaponTitle : weapons)
+            update(uuid, statsData, weaponTitle, -1L);
+    }
+
+    /**
+     * @param stat the player stat
+     * @return the top players of the stat, empty for String stats
+     */
+    @NotNull
+    public List<Leaderboard.Entry> getTop(@NotNull PlayerStat stat) {
+        Leaderboard leaderboard = views.player[stat.ordinal()];
+        return leaderboard == null ? Collections.emptyList() : leaderboard.getEntries();
+    }
+
+    /**
+     * @param stat the weapon stat
+     * @param weaponTitle the weapon title, or null for all weapons combined
+     * @return the top players of the stat, empty for String and Set stats
+     */
+    @NotNull
+    public List<Leaderboard.Entry> getTop(@NotNull WeaponStat stat, @Nullable String weaponTitle) {
+        Leaderboard leaderboard = get(stat, weaponTitle);
+        return leaderboard == null ? Collections.emptyList() : leaderboard.getEntries();
+    }
+
+    /**
+     * @param uuid the uuid of the player
+     * @param stat the player stat
+     * @return the 1 based rank of the player, or -1 if not in the top players
+     */
+    public int getRank(@NotNull UUID uuid, @NotNull PlayerStat stat) {
+        Leaderboard leaderboard = views.player[stat.ordinal()];
+        return leaderboard == null ? -1 : leaderboard.getRank(uuid);
+    }
+
+    /**
+     * @param uuid the uuid of the player
+     * @param stat the weapon stat
+     * @param weaponTitle the weapon title, or null for all weapons combined
+     * @return the 1 based rank of the player, or -1 if not in the top players
+     */
+    public int getRank(@NotNull UUID uuid, @NotNull WeaponStat stat, @Nullable String weaponTitle) {
+        Leaderboard leaderboard = get(stat, weaponTitle);
+        return leaderboard == null ? -1 : leaderboard.getRank(uuid);
+    }
+
+    private Leaderboard get(WeaponStat stat, String weaponTitle) {
+        Views views = this.views;
+        if (weaponTitle == null)
+            return views.total[stat.ordinal()];
+
+        Leaderboard[] weapon = views.weapons.get(weaponTitle);
+        return weapon == null ? null : weapon[stat.ordinal()];
+    }
+
+    /**
+     * @param type the class type of a stat
+     * @return true if stats of the type have leaderboards
+     */
+    public static boolean isRanked(Class<?> type) {
+        return type == Integer.class || type == Float.class;
+    }
+
+    private static double value(StatsData statsData, PlayerStat stat) {
+        return stat.getClassType() == Integer.class ? statsData.getInt(stat) : statsData.getFloat(stat);
+    }
+
+    private static double value(StatsData statsData, String weaponTitle, WeaponStat stat) {
+        return stat.getClassType() == Integer.class ? statsData.getInt(weaponTitle, stat) : statsData.getFloat(weaponTitle, stat);
+    }
+
+    private static double total(StatsData statsData, WeaponStat stat) {
+        Set<String> weapons = statsData.getWeapons();
+        if (weapons == null)
+            return 0.0;
+
+        double total = 0.0;
+        for (String weaponTitle : weapons)
+            total = combine(stat, total, value(statsData, weaponTitle, stat));
+        return total;
+    }
+
+    private static double combine(WeaponStat stat, double total, double value) {
+        return MAX_STATS.contains(stat) ? Math.max(total, value) : total + value;
+    }
+
+    /**
+     * Every leaderboard. Replaced as a whole when the leaderboards are
+     * seeded. Indexed by stat ordinal, null for stats without leaderboards.
+     */
+    private static final class Views {
+
+        final int capacity;
+        final Leaderboard[] player;
+        final Leaderboard[] total;
+        final Map<String, Leaderboard[]> weapons;
+
+        Views(int capacity) {
+            this.capacity = capacity;
+            this.player = new Leaderboard[PlayerStat.VALUES.length];
+            for (PlayerStat stat : PlayerStat.VALUES) {
+                if (isRanked(stat.getClassType()))
+                    player[stat.ordinal()] = new Leaderboard(capacity);
+            }
+            this.total = newWeaponLeaderboards(capacity);
+            this.weapons = new ConcurrentHashMap<>();
+        }
+
+        Leaderboard[] weapon(String weaponTitle) {
+            return weapons.computeIfAbsent(weaponTitle, key -> newWeaponLeaderboards(capacity));
+        }
+
+        private static Leaderboard[] newWeaponLeaderboards(int capacity) {
+            Leaderboard[] leaderboards = new Leaderboard[WeaponStat.VALUES.length];
+            for (WeaponStat stat : WeaponStat.VALUES) {
+                if (isRanked(stat.getClassType()))
+                    leaderboards[stat.ordinal()] = new Leaderboard(capacity);
+            }
+            return leaderboards;
+        }
+    }
+}
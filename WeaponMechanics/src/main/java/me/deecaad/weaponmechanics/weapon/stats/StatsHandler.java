@@ -1,11 +1,15 @@
 package me.deecaad.weaponmechanics.weapon.stats;
 
 import me.deecaad.core.database.Database;
+import me.deecaad.core.file.Configuration;
 import me.deecaad.core.utils.LogLevel;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import me.deecaad.weaponmechanics.weapon.WeaponHandler;
 import me.deecaad.weaponmechanics.wrappers.PlayerWrapper;
 import me.deecaad.weaponmechanics.wrappers.StatsData;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
 
 import java.sql.SQLException;
 import java.util.*;
@@ -13,12 +17,60 @@ import java.util.*;
 public class StatsHandler {
 
     private WeaponHandler weaponHandler;
-    private StringBuilder generatedReplaceWeaponStats;
-    private StringBuilder generatedReplacePlayerStats;
+    private volatile StatsWriteQueue writeQueue;
+    private volatile LeaderboardService leaderboards; // read by async placeholders
 
     public StatsHandler(WeaponHandler weaponHandler) {
         this.weaponHandler = weaponHandler;
-        generateReplaces();
+    }
+
+    /**
+     * Starts the write-behind queue of the given database. Every
+     * <code>Database.Flush_Interval</code> seconds, the changed stats of
+     * online players are queued, and the queue is written to the database.
+     * Also loads the leaderboards, which are then updated with the queued
+     * changes.
+     *
+     * @param plugin   the plugin to schedule the flush task with
+     * @param database the opened database
+     * @param config   the config.yml configuration
+     */
+    public void start(Plugin plugin, Database database, Configuration config) {
+        writeQueue = new StatsWriteQueue(database, Math.max(1, config.getInt("Database.Max_Backlog", 10000)));
+        leaderboards = new LeaderboardService(Math.max(1, config.getInt("Database.Leaderboard_Size", 10)));
+        leaderboards.seed(plugin, database, writeQueue);
+
+        long interval = Math.max(1, config.getInt("Database.Flush_Interval", 30)) * 20L;
+        Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                StatsData statsData = WeaponMechanics.getPlayerWrapper(player).getStatsDataUnsafe();
+                if (statsData != null && statsData.hasChanges())
+                    queue(player.getUniqueId(), statsData);
+            }
+            writeQueue.flushAsync();
+        }, interval, interval);
+    }
+
+    /**
+     * Writes every queued stat to the database in sync, and stops the
+     * writer thread. Has to be called before the database is closed.
+     */
+    public void close() {
+        if (writeQueue == null) return;
+
+        writeQueue.close();
+        writeQueue = null;
+        leaderboards = null;
+    }
+
+    /**
+     * Returns the leaderboards of every integer and float stat, or null if
+     * the database is disabled.
+     *
+     * @return the leaderboards, or null
+     */
+    public LeaderboardService getLeaderboards() {
+        return leaderboards;
     }
 
     /**
@@ -37,18 +89,24 @@ public class StatsHandler {
 
         if (statsData.isSync()) throw new IllegalArgumentException("Tried to load data to already synced stats data");
 
-        fetchAndInsertPlayerStats(database, playerWrapper.getPlayer().getUniqueId(), statsData);
+        // Stats of a player who just quit may still be queued
+        UUID uuid = playerWrapper.getPlayer().getUniqueId();
+        if (writeQueue == null)
+            fetchAndInsertPlayerStats(database, uuid, statsData);
+        else
+            writeQueue.runAfterPending(() -> fetchAndInsertPlayerStats(database, uuid, statsData));
     }
 
     /**
-     * Saves data from player wrapper to database
+     * Queues the changed stats of the player wrapper to be saved. Only the
+     * stats which changed since the last save are written.
      *
      * @param playerWrapper the player wrapper
      * @param forceSync true means that saving is forced to be sync (used on disable)
      */
     public void save(PlayerWrapper playerWrapper, boolean forceSync) {
         Database database = WeaponMechanics.getDatabase();
-        if (database == null) return;
+        if (database == null || writeQueue == null) return;
 
         if (database.isClosed()) throw new IllegalArgumentException("Tried to save data when database was closed");
 
@@ -56,127 +114,16 @@ public class StatsHandler {
         // This might be null if sync didn't occur...
         if (statsData == null) return;
 
-        database.executeUpdate(forceSync, getSaveStrings(playerWrapper));
-    }
-
-    private String[] getSaveStrings(PlayerWrapper playerWrapper) {
-        StatsData statsData = playerWrapper.getStatsData();
-        if (statsData == null) return null;
-
-        if (!statsData.isSync()) throw new IllegalArgumentException("Tried to use REPLACE when player stat data wasn't yet synced");
-
-        Set<String> weapons = statsData.getWeapons();
-        if (weapons == null || weapons.isEmpty()) return new String[]{getPlayerStatReplaceString(playerWrapper)};
-
-        String[] batches = new String[weapons.size() + 1];
-
-        // Create batch for every weapon...
-        int i = 0;
-        for (String weapon : weapons) {
-
-            StringBuilder builder = new StringBuilder(generatedReplaceWeaponStats);
-
-            WeaponStat[] array = WeaponStat.VALUES;
-            for (int j = 0; j < array.length; ++j) {
-                WeaponStat stat = array[j];
-                if (j != 0) {
-                    builder.append(", ");
-                }
-                Class<?> type = stat.getClassType();
-                if (type == String.class) {
-                    Object value = statsData.get(weapon, stat);
-                    if (value == null) {
-                        // Append SQL null value
-                        builder.append("NULL");
-                    } else {
-                        builder.append("'")
-                                .append(value)
-                                .append("'");
-                    }
-                } else if (type == Set.class) {
-                    Set<?> value = (Set<?>) statsData.get(weapon, stat);
-                    if (value == null) {
-                        // Append SQL null value
-                        builder.append("NULL");
-                    } else {
-                        builder.append("'");
-
-                        // Append each string from set separated with comma
-                        value.forEach(val -> builder.append(val).append(","));
-
-                        // Take the last , out
-                        builder.deleteCharAt(builder.length() - 1);
-                        builder.append("'");
-                    }
-                } else {
-                    builder.append(statsData.get(weapon, stat));
-                }
-            }
-
-            batches[i] = builder.append(")").toString();
-
-            ++i;
-        }
-
-        // The i is actually incremented above +1 times
-        batches[i] = getPlayerStatReplaceString(playerWrapper);
-
-        return batches;
+        queue(playerWrapper.getPlayer().getUniqueId(), statsData);
+        if (forceSync)
+            writeQueue.flush();
     }
 
-    private String getPlayerStatReplaceString(PlayerWrapper playerWrapper) {
-        StatsData statsData = playerWrapper.getStatsData();
-        StringBuilder builder = new StringBuilder(generatedReplacePlayerStats);
-        PlayerStat[] array = PlayerStat.VALUES;
-        for (int i = 0; i < array.length; ++i) {
-            PlayerStat stat = array[i];
-            if (i != 0) {
-                builder.append(", ");
-            }
-            if (stat.getClassType() == String.class) {
-                Object value = statsData.get(stat);
-                if (value == null) {
-                    builder.append("NULL");
-                } else {
-                    builder.append("'")
-                            .append(value)
-                            .append("'");
-                }
-            } else {
-                builder.append(statsData.get(stat));
-            }
-        }
-        return builder.append(")").toString();
-    }
-
-    private void generateReplaces() {
-        StringBuilder weaponBuilder = new StringBuilder("REPLACE INTO weapon_stats (");
-
-        WeaponStat[] weaponArray = WeaponStat.VALUES;
-        for (int i = 0; i < weaponArray.length; ++i) {
-            WeaponStat stat = weaponArray[i];
-            if (i != 0) {
-                weaponBuilder.append(", ");
-            }
-            weaponBuilder.append(stat.name());
-        }
-
-        weaponBuilder.append(") VALUES (");
-        generatedReplaceWeaponStats = weaponBuilder;
-
-        StringBuilder playerBuilder = new StringBuilder("REPLACE INTO player_stats (");
-
-        PlayerStat[] playerArray = PlayerStat.VALUES;
-        for (int i = 0; i < playerArray.length; ++i) {
-            PlayerStat stat = playerArray[i];
-            if (i != 0) {
-                playerBuilder.append(", ");
-            }
-            playerBuilder.append(stat.name());
-        }
-
-        playerBuilder.append(") VALUES (");
-        generatedReplacePlayerStats = playerBuilder;
+    private void queue(UUID uuid, StatsData statsData) {
+        statsData.drainChanges((weaponTitle, changedStats) -> {
+            writeQueue.enqueue(uuid, statsData, weaponTitle, changedStats);
+            leaderboards.update(uuid, statsData, weaponTitle, changedStats);
+        });
     }
 
     private void fetchAndInsertPlayerStats(Database database, UUID uuid, StatsData statsData) {
@@ -252,6 +199,11 @@ public class StatsHandler {
                     }
                 }
 
+                // Rows which could not be written yet are newer than the database
+                StatsWriteQueue queue = writeQueue;
+                if (queue != null)
+                    queue.applyPending(uuid, playerData, weaponData);
+
                 statsData.setData(playerData, weaponData);
 
             } catch (SQLException e) {
@@ -0,0 +1,311 @@
+package me.deecaad.weaponmechanics.weapon.stats;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * The stats of one row (the player stats, or the stats of one weapon) of a
+ * player, indexed by stat ordinal. Integer and float stats are stored in
+ * primitive columns, so adding to a stat does not box. String and Set stats
+ * are stored in a small side table.
+ *
+ * <p>A {@link #plain(Layout)} row may only be used by 1 thread. An
+ * {@link #atomic(Layout)} row may be read from any thread (for example by
+ * placeholders and leaderboards) while it is modified.
+ *
+ * <p>The int and float methods do not check the type of the stat, callers
+ * should use {@link Layout#getType(int)} first.
+ */
+public abstract class StatsRow {
+
+    protected final Layout layout;
+
+    protected StatsRow(Layout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * @param layout the columns of the row
+     * @return a new row which may only be used by 1 thread
+     */
+    public static StatsRow plain(Layout layout) {
+        return new Plain(layout);
+    }
+
+    /**
+     * @param layout the columns of the row
+     * @return a new row which may be read and modified by any thread
+     */
+    public static StatsRow atomic(Layout layout) {
+        return new Atomic(layout);
+    }
+
+    public abstract int getInt(int ordinal);
+
+    public abstract void setInt(int ordinal, int value);
+
+    public abstract void addInt(int ordinal, int delta);
+
+    public abstract float getFloat(int ordinal);
+
+    public abstract void setFloat(int ordinal, float value);
+
+    public abstract void addFloat(int ordinal, float delta);
+
+    /**
+     * Sets the stat to the given value, if the given value is larger.
+     *
+     * @param ordinal the stat ordinal
+     * @param value   the new value
+     */
+    public abstract void maxFloat(int ordinal, float value);
+
+    /**
+     * Gets a String or Set stat. Sets should not be modified, use
+     * {@link #setObject(int, Object)} with a modified copy instead.
+     *
+     * @param ordinal the stat ordinal
+     * @return the value, or null
+     */
+    public abstract Object getObject(int ordinal);
+
+    public abstract void setObject(int ordinal, Object value);
+
+    /**
+     * Boxes the value of any stat. Unset stats (0 or null) return null.
+     *
+     * @param ordinal the stat ordinal
+     * @return the value, or null
+     */
+    public Object get(int ordinal) {
+        Class<?> type = layout.types[ordinal];
+        if (type == Integer.class) {
+            int value = getInt(ordinal);
+            return value == 0 ? null : value;
+        } else if (type == Float.class) {
+            float value = getFloat(ordinal);
+            return value == 0.0f ? null : value;
+        } else {
+            return getObject(ordinal);
+        }
+    }
+
+    /**
+     * Sets the value of any stat. Null sets the stat to 0 or null.
+     *
+     * @param ordinal the stat ordinal
+     * @param value   the boxed value, or null
+     */
+    public void set(int ordinal, Object value) {
+        Class<?> type = layout.types[ordinal];
+        if (type == Integer.class) {
+            setInt(ordinal, value == null ? 0 : (Integer) value);
+        } else if (type == Float.class) {
+            setFloat(ordinal, value == null ? 0.0f : (Float) value);
+        } else {
+            setObject(ordinal, value);
+        }
+    }
+
+    /**
+     * @return true if every stat is unset
+     */
+    public boolean isEmpty() {
+        for (int i = 0; i < layout.types.length; i++) {
+            if (get(i) != null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Maps each stat ordinal to a column of the int, float or object columns.
+     */
+    public static final class Layout {
+
+        public static final Layout PLAYER = of(PlayerStat.VALUES.length, ordinal -> PlayerStat.VALUES[ordinal].getClassType());
+        public static final Layout WEAPON = of(WeaponStat.VALUES.length, ordinal -> WeaponStat.VALUES[ordinal].getClassType());
+
+        private final Class<?>[] types;
+        private final int[] columns;
+        private final int ints;
+        private final int floats;
+        private final int objects;
+
+        private Layout(Class<?>[] types) {
+            this.types = types;
+            this.columns = new int[types.length];
+
+            int ints = 0;
+            int floats = 0;
+            int objects = 0;
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] == Integer.class)
+                    columns[i] = ints++;
+                else if (types[i] == Float.class)
+                    columns[i] = floats++;
+                else
+                    columns[i] = objects++;
+            }
+            this.ints = ints;
+            this.floats = floats;
+            this.objects = objects;
+        }
+
+        private static Layout of(int length, IntFunction<Class<?>> type) {
+            Class<?>[] types = new Class<?>[length];
+            for (int i = 0; i < length; i++)
+                types[i] = type.apply(i);
+            return new Layout(types);
+        }
+
+        /**
+         * @param ordinal the stat ordinal
+         * @return Integer, Float, String or Set
+         */
+        public Class<?> getType(int ordinal) {
+            return types[ordinal];
+        }
+
+        /**
+         * @return the amount of stats in each row
+         */
+        public int size() {
+            return types.length;
+        }
+    }
+
+    private static final class Plain extends StatsRow {
+
+        private final int[] ints;
+        private final float[] floats;
+        private final Object[] objects;
+
+        Plain(Layout layout) {
+            super(layout);
+            this.ints = new int[layout.ints];
+            this.floats = new float[layout.floats];
+            this.objects = new Object[layout.objects];
+        }
+
+        @Override
+        public int getInt(int ordinal) {
+            return ints[layout.columns[ordinal]];
+        }
+
+        @Override
+        public void setInt(int ordinal, int value) {
+            ints[layout.columns[ordinal]] = value;
+        }
+
+        @Override
+        public void addInt(int ordinal, int delta) {
+            ints[layout.columns[ordinal]] += delta;
+        }
+
+        @Override
+        public float getFloat(int ordinal) {
+            return floats[layout.columns[ordinal]];
+        }
+
+        @Override
+        public void setFloat(int ordinal, float value) {
+            floats[layout.columns[ordinal]] = value;
+        }
+
+        @Override
+        public void addFloat(int ordinal, float delta) {
+            floats[layout.columns[ordinal]] += delta;
+        }
+
+        @Override
+        public void maxFloat(int ordinal, float value) {
+            int column = layout.columns[ordinal];
+            if (value > floats[column])
+                floats[column] = value;
+        }
+
+        @Override
+        public Object getObject(int ordinal) {
+            return objects[layout.columns[ordinal]];
+        }
+
+        @Override
+        public void setObject(int ordinal, Object value) {
+            objects[layout.columns[ordinal]] = value;
+        }
+    }
+
+    private static final class Atomic extends StatsRow {
+
+        private final AtomicIntegerArray ints;
+        private final AtomicIntegerArray floats; // raw float bits
+        private final AtomicReferenceArray<Object> objects;
+
+        Atomic(Layout layout) {
+            super(layout);
+            this.ints = new AtomicIntegerArray(layout.ints);
+            this.floats = new AtomicIntegerArray(layout.floats);
+            this.objects = new AtomicReferenceArray<>(layout.objects);
+        }
+
+        @Override
+        public int getInt(int ordinal) {
+            return ints.get(layout.columns[ordinal]);
+        }
+
+        @Override
+        public void setInt(int ordinal, int value) {
+            ints.set(layout.columns[ordinal], value);
+        }
+
+        @Override
+        public void addInt(int ordinal, int delta) {
+            ints.getAndAdd(layout.columns[ordinal], delta);
+        }
+
+        @Override
+        public float getFloat(int ordinal) {
+            return Float.intBitsToFloat(floats.get(layout.columns[ordinal]));
+        }
+
+        @Override
+        public void setFloat(int ordinal, float value) {
+            floats.set(layout.columns[ordinal], Float.floatToRawIntBits(value));
+        }
+
+        @Override
+        public void addFloat(int ordinal, float delta) {
+            int column = layout.columns[ordinal];
+            while (true) {
+                int bits = floats.get(column);
+                int next = Float.floatToRawIntBits(Float.intBitsToFloat(bits) + delta);
+                if (floats.compareAndSet(column, bits, next))
+                    return;
+            }
+        }
+
+        @Override
+        public void maxFloat(int ordinal, float value) {
+            int column = layout.columns[ordinal];
+            while (true) {
+                int bits = floats.get(column);
+                if (!(value > Float.intBitsToFloat(bits)))
+                    return;
+                if (floats.compareAndSet(column, bits, Float.floatToRawIntBits(value)))
+                    return;
+            }
+        }
+
+        @Override
+        public Object getObject(int ordinal) {
+            return objects.get(layout.columns[ordinal]);
+        }
+
+        @Override
+        public void setObject(int ordinal, Object value) {
+            objects.set(layout.columns[ordinal], value);
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package me.deecaad.weaponmechanics.weapon.stats;
+
+import me.deecaad.core.database.Database;
+import me.deecaad.core.database.DatabaseType;
+import me.deecaad.core.utils.LogLevel;
+import me.deecaad.weaponmechanics.WeaponMechanics;
+import me.deecaad.weaponmechanics.wrappers.StatsData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind queue for player stats and weapon stats. Changed stats (see
+ * {@link StatsData#drainChanges(StatsData.ChangeConsumer)}) are queued per
+ * row, and changes to the same row are merged until the queue is flushed. So
+ * a quit wave after a match is written as a few large batches, instead of
+ * every stat of every weapon of every player.
+ *
+ * <p>Flushes run on a dedicated thread. Rows with the same changed columns
+ * are written with the same upsert {@link PreparedStatement}, in batches of
+ * {@link #BATCH_SIZE} rows. The SQL for each set of columns is only built
+ * once. SQLite only supports upserts since 3.24, and older servers bundle an
+ * older driver, so SQLite rows are inserted (if missing) and then updated.
+ */
+public class StatsWriteQueue {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String PLAYER_INSERT_KEYS = "INSERT OR IGNORE INTO player_stats (UUID) VALUES (?)";
+    private static final String WEAPON_INSERT_KEYS = "INSERT OR IGNORE INTO weapon_stats (UUID, WEAPON_TITLE) VALUES (?, ?)";
+
+    private final Database database;
+    private final int maxBacklog;
+    private final ExecutorService executor;
+    private final Map<RowKey, Row> pending;
+    private final AtomicBoolean flushQueued;
+    private final Map<Long, String> playerSql;
+    private final Map<Long, String> weaponSql;
+
+    public StatsWriteQueue(@NotNull Database database, int maxBacklog) {
+        this.database = database;
+        this.maxBacklog = maxBacklog;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "WeaponMechanics Stats Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pending = new ConcurrentHashMap<>();
+        this.flushQueued = new AtomicBoolean();
+        this.playerSql = new ConcurrentHashMap<>();
+        this.weaponSql = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Queues a changed row of the given player, as given by
+     * {@link StatsData#drainChanges(StatsData.ChangeConsumer)}. Must be called
+     * on the thread that modifies the stats data (the main thread). When the
+     * backlog is full, a flush is started early.
+     *
+     * @param uuid         The non-null uuid of the player.
+     * @param statsData    The non-null stats of the player.
+     * @param weaponTitle  The weapon title, or null for the player stats.
+     * @param changedStats The bit mask of changed stat ordinals.
+     */
+    public void enqueue(@NotNull UUID uuid, @NotNull StatsData statsData, @Nullable String weaponTitle, long changedStats) {
+        Row row = snapshot(statsData, weaponTitle, changedStats);
+        pending.merge(new RowKey(uuid, weaponTitle), row, Row::merge);
+
+        if (pending.size() >= maxBacklog)
+            flushAsync();
+    }
+
+    /**
+     * @return the amount of rows waiting to be written
+     */
+    public int getBacklog() {
+        return pending.size();
+    }
+
+    /**
+     * Flushes the queue on the writer thread. Does nothing if a flush is
+     * already waiting to run.
+     */
+    public void flushAsync() {
+        if (!flushQueued.compareAndSet(false, true))
+            return;
+
+        try {
+            executor.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            // Closed, close() flushes the rest
+            flushQueued.set(false);
+        }
+    }
+
+    /**
+     * Runs the given task on the writer thread, after every queued row was
+     * written. Used before loading stats, so a player who quickly rejoins
+     * doesn't load outdated stats from the database. The task always waits
+     * for the writer thread, since a flush may have already taken the rows
+     * out of the queue without writing them yet.
+     *
+     * <p>If the rows could not be written, they are still queued when the
+     * task runs. Use {@link #applyPending(UUID, Map, Map)} to apply them to
+     * the loaded stats.
+     *
+     * @param task The non-null task to run.
+     */
+    public void runAfterPending(@NotNull Runnable task) {
+        try {
+            executor.execute(() -> {
+                flush();
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            // Closed, so the writer thread is not running anymore
+            flush();
+            task.run();
+        }
+    }
+
+    /**
+     * Overwrites the loaded stats of the given player with the rows of the
+     * player that are still queued. Queued rows contain the latest values of
+     * their changed columns, so they are newer than the database.
+     *
+     * @param uuid       The non-null uuid of the player.
+     * @param playerData The player stats loaded from the database.
+     * @param weaponData The weapon stats loaded from the database.
+     */
+    public void applyPending(@NotNull UUID uuid, @NotNull Map<PlayerStat, Object> playerData, @NotNull Map<String, Map<WeaponStat, Object>> weaponData) {
+        for (Map.Entry<RowKey, Row> entry : pending.entrySet()) {
+            RowKey key = entry.getKey();
+            if (!key.uuid().equals(uuid))
+                continue;
+
+            Row row = entry.getValue();
+            for (int i = 0; i < row.values().length; i++) {
+                if ((row.columns() & (1L << i)) == 0)
+                    continue;
+
+                Object value = row.values()[i];
+                if (key.weaponTitle() == null) {
+                    apply(playerData, PlayerStat.VALUES[i], value);
+                } else {
+                    WeaponStat stat = WeaponStat.VALUES[i];
+
+                    // Sets are comma separated in the queue too
+                    if (value != null && stat.getClassType() == Set.class)
+                        value = new HashSet<>(Arrays.asList(((String) value).split(",")));
+                    apply(weaponData.computeIfAbsent(key.weaponTitle(), title -> new HashMap<>()), stat, value);
+                }
+            }
+        }
+    }
+
+    private static <T> void apply(Map<T, Object> data, T stat, @Nullable Object value) {
+        if (value == null)
+            data.remove(stat);
+        else
+            data.put(stat, value);
+    }
+
+    /**
+     * Stops the writer thread, then writes every queued row on the calling
+     * thread.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS))
+                WeaponMechanics.debug.warn("Timed out waiting for stats to be written");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Writes every queued row in a single transaction. When the transaction
+     * fails, the rows are queued again (unless newer changes were queued in
+     * the meantime), as long as the backlog is not full.
+     */
+    public synchronized void flush() {
+        if (pending.isEmpty())
+            return;
+
+        List<RowKey> keys = new ArrayList<>(pending.size());
+        List<Row> rows = new ArrayList<>(pending.size());
+        for (RowKey key : pending.keySet()) {
+            Row row = pending.remove(key);
+            if (row != null) {
+                keys.add(key);
+                rows.add(row);
+            }
+        }
+
+        // Rows with the same columns share a statement
+        Map<Long, List<Integer>> playerGroups = new HashMap<>();
+        Map<Long, List<Integer>> weaponGroups = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Map<Long, List<Integer>> groups = keys.get(i).weaponTitle() == null ? playerGroups : weaponGroups;
+            groups.computeIfAbsent(rows.get(i).columns(), key -> new ArrayList<>()).add(i);
+        }
+
+        Connection connection = null;
+        try {
+            connection = database.getConnection();
+            connection.setAutoCommit(false);
+
+            write(connection, playerGroups, keys, rows, false);
+            write(connection, weaponGroups, keys, rows, true);
+
+            connection.commit();
+        } catch (SQLException e) {
+            rollback(connection);
+            requeue(keys, rows);
+            WeaponMechanics.debug.log(LogLevel.ERROR, "Failed to write " + rows.size() + " stat rows", e);
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    WeaponMechanics.debug.log(LogLevel.ERROR, e);
+                }
+            }
+            database.close(connection, null, null);
+        }
+    }
+
+    private void write(Connection connection, Map<Long, List<Integer>> groups, List<RowKey> keys, List<Row> rows, boolean weapon) throws SQLException {
+        boolean mysql = database.getType() == DatabaseType.MYSQL;
+        for (Map.Entry<Long, List<Integer>> group : groups.entrySet()) {
+            long columns = group.getKey();
+            String sql = (weapon ? weaponSql : playerSql).computeIfAbsent(columns, key -> buildSql(weapon, key));
+
+            // MySQL upserts in one statement, SQLite inserts the keys first
+            try (PreparedStatement statement = connection.prepareStatement(sql);
+                 PreparedStatement insert = mysql ? null : connection.prepareStatement(weapon ? WEAPON_INSERT_KEYS : PLAYER_INSERT_KEYS)) {
+
+                int count = 0;
+                for (int index : group.getValue()) {
+                    RowKey key = keys.get(index);
+                    Row row = rows.get(index);
+
+                    // MySQL: keys, then values. SQLite: values, then keys
+                    int parameter = mysql ? bindKey(statement, 1, key, weapon) : 1;
+                    for (int i = 0; i < 64; i++) {
+                        if ((columns & (1L << i)) == 0)
+                            continue;
+
+                        Class<?> type = weapon ? WeaponStat.VALUES[i].getClassType() : PlayerStat.VALUES[i].getClassType();
+                        bind(statement, parameter++, type, row.values()[i]);
+                    }
+
+                    if (insert != null) {
+                        bindKey(statement, parameter, key, weapon);
+                        bindKey(insert, 1, key, weapon);
+                        insert.addBatch();
+                    }
+
+                    statement.addBatch();
+                    if (++count % BATCH_SIZE == 0)
+                        executeBatch(insert, statement);
+                }
+
+                if (count % BATCH_SIZE != 0)
+                    executeBatch(insert, statement);
+            }
+        }
+    }
+
+    private static int bindKey(PreparedStatement statement, int parameter, RowKey key, boolean weapon) throws SQLException {
+        statement.setString(parameter++, key.uuid().toString());
+        if (weapon)
+            statement.setString(parameter++, key.weaponTitle());
+        return parameter;
+    }
+
+    private static void executeBatch(@Nullable PreparedStatement insert, PreparedStatement statement) throws SQLException {
+        // Rows have to exist before they can be updated
+        if (insert != null)
+            insert.executeBatch();
+        statement.executeBatch();
+    }
+
+    private static void bind(PreparedStatement statement, int parameter, Class<?> type, Object value) throws SQLException {
+        if (type == Integer.class) {
+            if (value == null)
+                statement.setNull(parameter, Types.INTEGER);
+            else
+                statement.setInt(parameter, (Integer) value);
+        } else if (type == Float.class) {
+            if (value == null)
+                statement.setNull(parameter, Types.FLOAT);
+            else
+                statement.setFloat(parameter, (Float) value);
+        } else {
+            // String, and Set (already joined)
+            if (value == null)
+                statement.setNull(parameter, Types.VARCHAR);
+            else
+                statement.setString(parameter, (String) value);
+        }
+    }
+
+    private String buildSql(boolean weapon, long columns) {
+        boolean mysql = database.getType() == DatabaseType.MYSQL;
+
+        StringBuilder names = new StringBuilder(weapon ? "UUID, WEAPON_TITLE" : "UUID");
+        StringBuilder values = new StringBuilder(weapon ? "?, ?" : "?");
+        StringBuilder updates = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            if ((columns & (1L << i)) == 0)
+                continue;
+
+            String name = weapon ? WeaponStat.VALUES[i].name() : PlayerStat.VALUES[i].name();
+            names.append(", ").append(name);
+            values.append(", ?");
+            if (updates.length() != 0)
+                updates.append(", ");
+            updates.append(name).append(" = ").append(mysql ? "VALUES(" + name + ")" : "?");
+        }
+
+        String table = weapon ? "weapon_stats" : "player_stats";
+        if (!mysql)
+            return "UPDATE " + table + " SET " + updates + " WHERE UUID = ?" + (weapon ? " AND WEAPON_TITLE = ?" : "");
+
+        return "INSERT INTO " + table + " (" + names + ") VALUES (" + values + ") ON DUPLICATE KEY UPDATE " + updates;
+    }
+
+    private void requeue(List<RowKey> keys, List<Row> rows) {
+        Set<UUID> droppedPlayers = new HashSet<>();
+        int dropped = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            if (pending.size() >= maxBacklog && !pending.containsKey(keys.get(i))) {
+                droppedPlayers.add(keys.get(i).uuid());
+                dropped++;
+                continue;
+            }
+
+            // Changes queued after the flush started are newer
+            pending.merge(keys.get(i), rows.get(i), (current, failed) -> failed.merge(current));
+        }
+
+        // These changes are lost for good, so always tell the admins
+        if (dropped != 0)
+            WeaponMechanics.debug.error("Stats backlog is full (" + maxBacklog + " rows), dropped " + dropped
+                    + " unsaved stat rows of " + droppedPlayers.size() + " players. Check the database connection.");
+    }
+
+    private static void rollback(@Nullable Connection connection) {
+        if (connection == null)
+            return;
+
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            WeaponMechanics.debug.log(LogLevel.ERROR, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Row snapshot(StatsData statsData, String weaponTitle, long changedStats) {
+        int length = weaponTitle == null ? PlayerStat.VALUES.length : WeaponStat.VALUES.length;
+        Object[] values = new Object[length];
+        for (int i = 0; i < length; i++) {
+            if ((changedStats & (1L << i)) == 0)
+                continue;
+
+            Object value = weaponTitle == null
+                    ? statsData.get(PlayerStat.VALUES[i])
+                    : statsData.get(weaponTitle, WeaponStat.VALUES[i]);
+
+            // Sets are comma separated in database
+            if (value instanceof Set<?> set)
+                value = set.isEmpty() ? null : String.join(",", (Set<String>) set);
+
+            values[i] = value;
+        }
+        return new Row(changedStats, values);
+    }
+
+    /**
+     * A row of the player_stats table (when weaponTitle is null), or of the
+     * weapon_stats table.
+     */
+    private record RowKey(UUID uuid, String weaponTitle) {
+    }
+
+    /**
+     * The changed columns of a row, and their values (indexed by stat
+     * ordinal).
+     */
+    private record Row(long columns, Object[] values) {
+
+        Row merge(Row newer) {
+            Object[] merged = values.clone();
+            for (int i = 0; i < merged.length; i++) {
+                if ((newer.columns & (1L << i)) != 0)
+                    merged[i] = newer.values[i];
+            }
+            return new Row(columns | newer.columns, merged);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package me.deecaad.weaponmechanics.weapon.stats;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns weapon titles to small integer ids, so the stats of each weapon
+ * can be stored in an array indexed by id instead of a map keyed by title.
+ *
+ * <p>Unlike the weapon definition ids, these ids are never reassigned (not
+ * even on reload), since stats outlive a reload and may belong to weapons
+ * which are no longer configured. Ids are shared by every player.
+ */
+public final class WeaponTitleIds {
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] titles = new String[0];
+
+    // Don't let anyone instantiate this class
+    private WeaponTitleIds() {
+    }
+
+    /**
+     * Returns the id of the given weapon title, assigning a new id when the
+     * title has none yet.
+     *
+     * @param weaponTitle the weapon title
+     * @return the id of the weapon title
+     */
+    public static int of(String weaponTitle) {
+        Integer id = IDS.get(weaponTitle);
+        return id != null ? id : intern(weaponTitle);
+    }
+
+    /**
+     * @param weaponTitle the weapon title
+     * @return the id of the weapon title, or -1 if it has no id yet
+     */
+    public static int find(String weaponTitle) {
+        Integer id = IDS.get(weaponTitle);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * @param id the id of the weapon title
+     * @return the weapon title
+     */
+    public static String title(int id) {
+        return titles[id];
+    }
+
+    /**
+     * @return the amount of weapon titles which have an id
+     */
+    public static int count() {
+        return titles.length;
+    }
+
+    private static synchronized int intern(String weaponTitle) {
+        Integer id = IDS.get(weaponTitle);
+        if (id != null)
+            return id;
+
+        // Publish the title before the id, so title(id) never fails
+        String[] copy = Arrays.copyOf(titles, titles.length + 1);
+        copy[copy.length - 1] = weaponTitle;
+        titles = copy;
+        IDS.put(weaponTitle, copy.length - 1);
+        return copy.length - 1;
+    }
+}
@@ -1,6 +1,5 @@
 package me.deecaad.weaponmechanics.wrappers;
 
-import me.deecaad.core.file.Configuration;
 import me.deecaad.weaponmechanics.WeaponMechanics;
 import me.deecaad.weaponmechanics.events.EntityToggleInMidairEvent;
 import me.deecaad.weaponmechanics.events.EntityToggleStandEvent;
@@ -22,11 +21,9 @@ import org.jetbrains.annotations.NotNull;
  */
 public class EntityWrapper {
 
-    private static final int MOVE_TASK_INTERVAL = 1;
-
     private final LivingEntity entity;
 
-    private int moveTask;
+    private MoveTask moveTask;
     private boolean standing;
     private boolean walking;
     private boolean inMidair;
@@ -37,24 +34,23 @@ public class EntityWrapper {
     public EntityWrapper(LivingEntity livingEntity) {
         this.entity = livingEntity;
 
-        Configuration config = WeaponMechanics.getBasicConfigurations();
-        if (!config.getBool("Disabled_Trigger_Checks.In_Midair")
-                || !config.getBool("Disabled_Trigger_Checks.Standing_And_Walking")
-                || !config.getBool("Disabled_Trigger_Checks.Jump")
-                || !config.getBool("Disabled_Trigger_Checks.Double_Jump")) {
-
-            this.moveTask = new MoveTask(this).runTaskTimer(WeaponMechanics.getPlugin(), 0, MOVE_TASK_INTERVAL).getTaskId();
-        }
+        MovementTracker movementTracker = WeaponMechanics.getMovementTracker();
+        if (movementTracker != null)
+            movementTracker.track(this);
     }
 
     public LivingEntity getEntity() {
         return this.entity;
     }
 
-    public int getMoveTaskId() {
+    MoveTask getMoveTask() {
         return this.moveTask;
     }
 
+    void setMoveTask(MoveTask moveTask) {
+        this.moveTask = moveTask;
+    }
+
     /**
      * Returns <code>true</code> when the entity is standing still. Returns
      * <code>false</code> when the entity is moving, swimming, or mid-air.
@@ -1,12 +1,15 @@
 package me.deecaad.weaponmechanics.wrappers;
 
 import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
 
 public class MessageHelper {
 
     private BossBar bossBar;
     private int bossBarTask;
     private int expTask;
+    private Component actionBar;
+    private long actionBarTime;
 
     public BossBar getBossBar() {
         return bossBar;
@@ -31,4 +34,17 @@ public class MessageHelper {
     public void setExpTask(int expTask) {
         this.expTask = expTask;
     }
-}
\ No newline at end of file
+
+    public Component getActionBar() {
+        return actionBar;
+    }
+
+    public long getActionBarTime() {
+        return actionBarTime;
+    }
+
+    public void setActionBar(Component actionBar, long actionBarTime) {
+        this.actionBar = actionBar;
+        this.actionBarTime = actionBarTime;
+    }
+}
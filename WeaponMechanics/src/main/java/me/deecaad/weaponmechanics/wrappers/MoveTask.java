@@ -3,7 +3,6 @@ package me.deecaad.weaponmechanics.wrappers;
 import me.deecaad.core.compatibility.CompatibilityAPI;
 import me.deecaad.core.compatibility.HitBox;
 import me.deecaad.core.compatibility.block.BlockCompatibility;
-import me.deecaad.weaponmechanics.WeaponMechanics;
 import me.deecaad.weaponmechanics.events.PlayerJumpEvent;
 import me.deecaad.weaponmechanics.weapon.weaponevents.WeaponStopShootingEvent;
 import org.bukkit.Bukkit;
@@ -17,9 +16,11 @@ import org.bukkit.block.data.Waterlogged;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.EquipmentSlot;
-import org.bukkit.scheduler.BukkitRunnable;
-
-public class MoveTask extends BukkitRunnable {
+/**
+ * The movement state of one tracked entity. Ticked by {@link MovementTracker},
+ * which ticks every tracked entity from a single task.
+ */
+class MoveTask {
 
     private final EntityWrapper entityWrapper;
     private Location from;
@@ -27,8 +28,14 @@ public class MoveTask extends BukkitRunnable {
     private int jumps;
     private int groundTicks;
 
-    public MoveTask(EntityWrapper entityWrapper) {
+    // Position in MovementTracker's array, and the tick offset used when
+    // sampling non-players every few ticks.
+    int index;
+    final int phase;
+
+    MoveTask(EntityWrapper entityWrapper, int phase) {
         this.entityWrapper = entityWrapper;
+        this.phase = phase;
         LivingEntity entity = entityWrapper.getEntity();
         this.from = entity.getLocation();
         if (entity instanceof Player) {
@@ -38,15 +45,22 @@ public class MoveTask extends BukkitRunnable {
         }
     }
 
-    @Override
-    public void run() {
+    EntityWrapper getEntityWrapper() {
+        return entityWrapper;
+    }
+
+    /**
+     * Checks the movement of the entity once.
+     *
+     * @param tracker The tracker holding the cached trigger checks.
+     * @return false if the entity should no longer be tracked.
+     */
+    boolean tick(MovementTracker tracker) {
         LivingEntity entity = entityWrapper.getEntity();
         if (entity == null || !entity.isValid() || entity.isDead()) { // Just an extra check in case something odd happened
 
-            // Only cancel task IF it isn't player, otherwise just don't do anything
-            if (!entityWrapper.isPlayer()) cancel();
-
-            return;
+            // Only stop tracking IF it isn't player, otherwise just don't do anything
+            return entityWrapper.isPlayer();
         }
 
         handleStopShooting(entityWrapper.getHandData(true));
@@ -57,12 +71,12 @@ public class MoveTask extends BukkitRunnable {
 
         this.from = to;
 
-        if (!WeaponMechanics.getBasicConfigurations().getBool("Disabled_Trigger_Checks.Swim")) {
+        if (tracker.swimCheck) {
             if (isSwimming(entity)) {
                 entityWrapper.setSwimming(true);
 
                 // -> Can't be walking, standing, in mid air at same time
-                return;
+                return true;
             } else {
                 entityWrapper.setSwimming(false);
             }
@@ -70,7 +84,7 @@ public class MoveTask extends BukkitRunnable {
 
         boolean inMidairCheck = isInMidair(entity);
 
-        if (!WeaponMechanics.getBasicConfigurations().getBool("Disabled_Trigger_Checks.Standing_And_Walking")) {
+        if (tracker.standingCheck) {
             if (isSameLocationNonRotation(from, to)) {
                 ++this.sameMatches;
             } else {
@@ -81,7 +95,7 @@ public class MoveTask extends BukkitRunnable {
 
                 // -> Can't be walking, swimming, in mid air at same time
                 // Swimming is already returned above if it was true
-                return;
+                return true;
             } else if (!inMidairCheck) {
 
                 // Only walking if not in mid air
@@ -96,16 +110,16 @@ public class MoveTask extends BukkitRunnable {
             ++groundTicks;
         }
 
-        if (!WeaponMechanics.getBasicConfigurations().getBool("Disabled_Trigger_Checks.In_Midair")) {
+        if (tracker.midairCheck) {
             entityWrapper.setInMidair(inMidairCheck);
         }
 
         if (!(entity instanceof Player player)) {
-            return;
+            return true;
         }
 
         if (this.jumps != -1) {
-            if (!WeaponMechanics.getBasicConfigurations().getBool("Disabled_Trigger_Checks.Jump")) {
+            if (tracker.jumpCheck) {
                 if (from.getY() < to.getY() && !player.getLocation().getBlock().isLiquid()) {
                     int currentJumps = player.getStatistic(Statistic.JUMP);
                     int jumpsLast = this.jumps;
@@ -120,7 +134,7 @@ public class MoveTask extends BukkitRunnable {
             }
         }
 
-        if (!WeaponMechanics.getBasicConfigurations().getBool("Disabled_Trigger_Checks.Double_Jump")
+        if (tracker.doubleJumpCheck
                 && (player.getGameMode() == GameMode.SURVIVAL || player.getGameMode() == GameMode.ADVENTURE)) {
             if (player.getFallDistance() > 3.0) {
                 // https://minecraft.gamepedia.com/Damage#Fall_damage
@@ -136,6 +150,7 @@ public class MoveTask extends BukkitRunnable {
                 player.setAllowFlight(true);
             }
         }
+        return true;
     }
 
     private boolean isSameLocationNonRotation(Location location1, Location location2) {
@@ -0,0 +1,140 @@
+package me.deecaad.weaponmechanics.wrappers;
+
+import me.deecaad.core.file.Configuration;
+import me.deecaad.weaponmechanics.WeaponMechanics;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Checks the movement (standing, walking, mid-air, swimming, jumping) of
+ * every {@link EntityWrapper} from a single task, instead of one scheduled
+ * task per entity. Tracked entities are stored in a dense array, and removed
+ * by swapping the last entity into their slot.
+ *
+ * <p>Players are checked every tick. Other entities (like mobs holding guns)
+ * are checked every <code>Non_Player_Movement_Check_Interval</code> ticks,
+ * spread out so they are not all checked on the same tick.
+ */
+public class MovementTracker extends BukkitRunnable {
+
+    private MoveTask[] tasks;
+    private int size;
+    private int nextPhase;
+    private int tick;
+
+    // Cached from config.yml in loadConfig()
+    private boolean enabled;
+    boolean swimCheck;
+    boolean standingCheck;
+    boolean midairCheck;
+    boolean jumpCheck;
+    boolean doubleJumpCheck;
+    private int nonPlayerInterval;
+
+    /**
+     * Initializes and registers this runnable. Entities are not checked until
+     * {@link #loadConfig(Configuration)} is called.
+     *
+     * <p>WeaponMechanics initializes one of these by default, use
+     * {@link WeaponMechanics#getMovementTracker()}.
+     *
+     * @param plugin The non-null plugin.
+     */
+    public MovementTracker(@NotNull Plugin plugin) {
+        this.tasks = new MoveTask[16];
+        this.nonPlayerInterval = 1;
+
+        runTaskTimer(plugin, 0, 1);
+    }
+
+    /**
+     * Caches the <code>Disabled_Trigger_Checks</code> flags, so they are not
+     * read from config every tick for every entity.
+     *
+     * @param config The non-null config.yml configuration.
+     */
+    public void loadConfig(@NotNull Configuration config) {
+        swimCheck = !config.getBool("Disabled_Trigger_Checks.Swim");
+        standingCheck = !config.getBool("Disabled_Trigger_Checks.Standing_And_Walking");
+        midairCheck = !config.getBool("Disabled_Trigger_Checks.In_Midair");
+        jumpCheck = !config.getBool("Disabled_Trigger_Checks.Jump");
+        doubleJumpCheck = !config.getBool("Disabled_Trigger_Checks.Double_Jump");
+        nonPlayerInterval = Math.max(1, config.getInt("Non_Player_Movement_Check_Interval", 1));
+
+        // Swimming alone is not enough to check movement
+        enabled = standingCheck || midairCheck || jumpCheck || doubleJumpCheck;
+    }
+
+    /**
+     * Starts checking the movement of the given entity.
+     *
+     * @param entityWrapper The non-null entity to track.
+     */
+    public void track(@NotNull EntityWrapper entityWrapper) {
+        if (entityWrapper.getMoveTask() != null)
+            return;
+
+        MoveTask task = new MoveTask(entityWrapper, nextPhase++);
+        if (size == tasks.length)
+            tasks = Arrays.copyOf(tasks, size * 2);
+
+        task.index = size;
+        tasks[size++] = task;
+        entityWrapper.setMoveTask(task);
+    }
+
+    /**
+     * Stops checking the movement of the given entity.
+     *
+     * @param entityWrapper The non-null entity to stop tracking.
+     */
+    public void untrack(@NotNull EntityWrapper entityWrapper) {
+        MoveTask task = entityWrapper.getMoveTask();
+        if (task == null)
+            return;
+
+        remove(task.index);
+        entityWrapper.setMoveTask(null);
+    }
+
+    private void remove(int index) {
+        MoveTask last = tasks[--size];
+        tasks[index] = last;
+        last.index = index;
+        tasks[size] = null;
+    }
+
+    /**
+     * @return the amount of tracked entities
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void run() {
+        tick++;
+        if (!enabled)
+            return;
+
+        // Iterate backwards, so removing (swapping the last task into this
+        // slot) doesn't skip any tasks
+        for (int i = size - 1; i >= 0; i--) {
+
+            // Events called by a task may untrack multiple entities
+            if (i >= size)
+                continue;
+
+            MoveTask task = tasks[i];
+            EntityWrapper entityWrapper = task.getEntityWrapper();
+            if (nonPlayerInterval > 1 && !entityWrapper.isPlayer() && (tick + task.phase) % nonPlayerInterval != 0)
+                continue;
+
+            if (!task.tick(this))
+                untrack(entityWrapper);
+        }
+    }
+}
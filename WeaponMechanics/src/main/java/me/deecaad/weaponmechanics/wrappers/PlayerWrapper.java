@@ -29,7 +29,7 @@ public class PlayerWrapper extends EntityWrapper {
         this.player = player;
         Configuration config = WeaponMechanics.getBasicConfigurations();
         if (config.getBool("Database.Enable", true)) {
-            statsData = new StatsData(player.getUniqueId());
+            statsData = new StatsData(player.getUniqueId(), config.getBool("Database.Atomic_Stats", true));
         }
     }
 
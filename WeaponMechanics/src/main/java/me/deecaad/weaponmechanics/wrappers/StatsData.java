@@ -1,22 +1,54 @@
 package me.deecaad.weaponmechanics.wrappers;
 
 import me.deecaad.weaponmechanics.weapon.stats.PlayerStat;
+import me.deecaad.weaponmechanics.weapon.stats.StatsRow;
 import me.deecaad.weaponmechanics.weapon.stats.WeaponStat;
+import me.deecaad.weaponmechanics.weapon.stats.WeaponTitleIds;
 
 import java.util.*;
 import java.util.function.BiFunction;
 
 import static org.bukkit.ChatColor.*;
 
+/**
+ * The stats of a player, and the stats of each weapon the player used. Stats
+ * are stored in {@link StatsRow}s indexed by stat ordinal, and weapons are
+ * indexed by {@link WeaponTitleIds}, so adding to a stat does not box or
+ * allocate map entries.
+ *
+ * <p>Stats are modified on the main thread. When created with
+ * <code>atomic</code>, stats may also be read from other threads (for example
+ * by placeholders and leaderboards).
+ */
 public class StatsData {
 
+    private static final StatsRow[] EMPTY_ROWS = new StatsRow[0];
+
     private final UUID uuid;
-    private Map<PlayerStat, Object> playerData;
-    private Map<String, Map<WeaponStat, Object>> weaponData;
-    private boolean isSync;
+    private final boolean atomic;
+    private volatile boolean isSync;
+    private StatsRow playerRow;
+
+    // Indexed by weapon id. Copied when a row is added, so readers on
+    // other threads always see fully built rows.
+    private volatile StatsRow[] weaponRows = EMPTY_ROWS;
+
+    // Stats changed since the last drainChanges(), 1 bit per stat ordinal
+    private long dirtyPlayerStats;
+    private long[] dirtyWeaponStats = new long[0]; // indexed by weapon id
+    private boolean dirtyWeapons;
 
     public StatsData(UUID uuid) {
+        this(uuid, true);
+    }
+
+    /**
+     * @param uuid the uuid of the player
+     * @param atomic true if stats may be read from other threads
+     */
+    public StatsData(UUID uuid, boolean atomic) {
         this.uuid = uuid;
+        this.atomic = atomic;
     }
 
     /**
@@ -35,8 +67,9 @@ public class StatsData {
      */
     public void add(PlayerStat stat, int data) {
         if (!isSync) return;
-        if (!stat.getClassType().isInstance(data)) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
-        playerData.compute(stat, (key, value) -> value == null ? data : (int) value + data);
+        if (stat.getClassType() != Integer.class) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
+        playerRow.addInt(stat.ordinal(), data);
+        dirtyPlayerStats |= 1L << stat.ordinal();
     }
 
     /**
@@ -48,8 +81,9 @@ public class StatsData {
      */
     public void add(PlayerStat stat, float data) {
         if (!isSync) return;
-        if (!stat.getClassType().isInstance(data)) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
-        playerData.compute(stat, (key, value) -> value == null ? data : (float) value + data);
+        if (stat.getClassType() != Float.class) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
+        playerRow.addFloat(stat.ordinal(), data);
+        dirtyPlayerStats |= 1L << stat.ordinal();
     }
 
     /**
@@ -62,7 +96,8 @@ public class StatsData {
     public void set(PlayerStat stat, String data) {
         if (!isSync) return;
         if (!stat.getClassType().isInstance(data)) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
-        playerData.put(stat, data);
+        playerRow.setObject(stat.ordinal(), data);
+        dirtyPlayerStats |= 1L << stat.ordinal();
     }
 
     /**
@@ -88,7 +123,32 @@ public class StatsData {
     public Object get(PlayerStat stat, Object defaultValue) {
         if (!isSync) return defaultValue;
         if (stat == PlayerStat.UUID) return uuid;
-        return playerData.getOrDefault(stat, defaultValue);
+        Object value = playerRow.get(stat.ordinal());
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Gets an integer player stat without boxing.
+     * When data isn't yet synced, 0 is always returned.
+     *
+     * @param stat the integer player stat
+     * @return the value of the stat
+     */
+    public int getInt(PlayerStat stat) {
+        if (stat.getClassType() != Integer.class) throw new IllegalArgumentException("Tried to get int from stat " + stat);
+        return isSync ? playerRow.getInt(stat.ordinal()) : 0;
+    }
+
+    /**
+     * Gets a float player stat without boxing.
+     * When data isn't yet synced, 0 is always returned.
+     *
+     * @param stat the float player stat
+     * @return the value of the stat
+     */
+    public float getFloat(PlayerStat stat) {
+        if (stat.getClassType() != Float.class) throw new IllegalArgumentException("Tried to get float from stat " + stat);
+        return isSync ? playerRow.getFloat(stat.ordinal()) : 0.0f;
     }
 
     /**
@@ -101,9 +161,10 @@ public class StatsData {
      */
     public void add(String weaponTitle, WeaponStat stat, int data) {
         if (!isSync) return;
-        if (!stat.getClassType().isInstance(data)) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
-        weaponData.putIfAbsent(weaponTitle, new HashMap<>());
-        weaponData.get(weaponTitle).compute(stat, (key, value) -> value == null ? data : (int) value + data);
+        if (stat.getClassType() != Integer.class) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
+        int id = WeaponTitleIds.of(weaponTitle);
+        getOrCreateRow(id).addInt(stat.ordinal(), data);
+        markDirty(id, stat);
     }
 
     /**
@@ -116,9 +177,27 @@ public class StatsData {
      */
     public void add(String weaponTitle, WeaponStat stat, float data) {
         if (!isSync) return;
-        if (!stat.getClassType().isInstance(data)) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
-        weaponData.putIfAbsent(weaponTitle, new HashMap<>());
-        weaponData.get(weaponTitle).compute(stat, (key, value) -> value == null ? data : (float) value + data);
+        if (stat.getClassType() != Float.class) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
+        int id = WeaponTitleIds.of(weaponTitle);
+        getOrCreateRow(id).addFloat(stat.ordinal(), data);
+        markDirty(id, stat);
+    }
+
+    /**
+     * Sets weapon's weapon stat to given data, if given data is larger.
+     * Doesn't do anything if this hasn't yet been synced with database.
+     * Unlike {@link #set(String, WeaponStat, BiFunction)}, this doesn't box.
+     *
+     * @param weaponTitle the weapon title
+     * @param stat the float stat
+     * @param data the new value
+     */
+    public void max(String weaponTitle, WeaponStat stat, float data) {
+        if (!isSync) return;
+        if (stat.getClassType() != Float.class) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
+        int id = WeaponTitleIds.of(weaponTitle);
+        getOrCreateRow(id).maxFloat(stat.ordinal(), data);
+        markDirty(id, stat);
     }
 
     /**
@@ -132,8 +211,10 @@ public class StatsData {
      */
     public void set(String weaponTitle, WeaponStat stat, BiFunction<WeaponStat, Object, Float> compute) {
         if (!isSync) return;
-        weaponData.putIfAbsent(weaponTitle, new HashMap<>());
-        weaponData.get(weaponTitle).compute(stat, compute);
+        int id = WeaponTitleIds.of(weaponTitle);
+        StatsRow row = getOrCreateRow(id);
+        row.set(stat.ordinal(), compute.apply(stat, row.get(stat.ordinal())));
+        markDirty(id, stat);
     }
 
     /**
@@ -147,8 +228,9 @@ public class StatsData {
     public void set(String weaponTitle, WeaponStat stat, String data) {
         if (!isSync) return;
         if (!stat.getClassType().isInstance(data)) throw new IllegalArgumentException("Tried to give invalid data for stat " + stat + " " + data);
-        weaponData.putIfAbsent(weaponTitle, new HashMap<>());
-        weaponData.get(weaponTitle).put(stat, data);
+        int id = WeaponTitleIds.of(weaponTitle);
+        getOrCreateRow(id).setObject(stat.ordinal(), data);
+        markDirty(id, stat);
     }
 
     /**
@@ -162,14 +244,15 @@ public class StatsData {
     public void addToSet(String weaponTitle, WeaponStat stat, String data) {
         if (!isSync) return;
         if (stat.getClassType() != Set.class) throw new IllegalArgumentException("Tried to add to set when stat wasn't set " + stat + " " + data);
-        weaponData.putIfAbsent(weaponTitle, new HashMap<>());
-        Map<WeaponStat, Object> dataMap = weaponData.get(weaponTitle);
-        Object mapData = dataMap.get(stat);
-        if (mapData == null) {
-            dataMap.put(stat, new HashSet<>(Collections.singleton(data)));
-            return;
-        }
-        ((Set<String>) mapData).add(data);
+        int id = WeaponTitleIds.of(weaponTitle);
+        StatsRow row = getOrCreateRow(id);
+        markDirty(id, stat);
+
+        // Sets are replaced instead of modified, since they may be read async
+        Set<String> dataSet = (Set<String>) row.getObject(stat.ordinal());
+        Set<String> copy = dataSet == null ? new HashSet<>() : new HashSet<>(dataSet);
+        copy.add(data);
+        row.setObject(stat.ordinal(), Collections.unmodifiableSet(copy));
     }
 
     /**
@@ -183,10 +266,74 @@ public class StatsData {
     public void removeFromSet(String weaponTitle, WeaponStat stat, String data) {
         if (!isSync) return;
         if (stat.getClassType() != Set.class) throw new IllegalArgumentException("Tried to remove from set when stat wasn't set " + stat + " " + data);
-        Map<WeaponStat, Object> dataMap = weaponData.get(weaponTitle);
-        if (dataMap == null || !dataMap.containsKey(stat)) return;
-        Set<String> dataSet = (Set<String>) dataMap.get(stat);
-        dataSet.remove(data);
+        int id = WeaponTitleIds.find(weaponTitle);
+        StatsRow row = getRow(id);
+        if (row == null) return;
+        Set<String> dataSet = (Set<String>) row.getObject(stat.ordinal());
+        if (dataSet == null || !dataSet.contains(data)) return;
+
+        Set<String> copy = new HashSet<>(dataSet);
+        copy.remove(data);
+        row.setObject(stat.ordinal(), copy.isEmpty() ? null : Collections.unmodifiableSet(copy));
+        markDirty(id, stat);
+    }
+
+    private StatsRow getRow(int id) {
+        StatsRow[] rows = weaponRows;
+        return id < 0 || id >= rows.length ? null : rows[id];
+    }
+
+    private StatsRow getOrCreateRow(int id) {
+        StatsRow[] rows = weaponRows;
+        if (id < rows.length && rows[id] != null)
+            return rows[id];
+
+        StatsRow row = newRow(StatsRow.Layout.WEAPON);
+        StatsRow[] copy = Arrays.copyOf(rows, Math.max(rows.length, id + 1));
+        copy[id] = row;
+        weaponRows = copy;
+        return row;
+    }
+
+    private StatsRow newRow(StatsRow.Layout layout) {
+        return atomic ? StatsRow.atomic(layout) : StatsRow.plain(layout);
+    }
+
+    private void markDirty(int id, WeaponStat stat) {
+        if (id >= dirtyWeaponStats.length)
+            dirtyWeaponStats = Arrays.copyOf(dirtyWeaponStats, Math.max(id + 1, dirtyWeaponStats.length * 2));
+        dirtyWeaponStats[id] |= 1L << stat.ordinal();
+        dirtyWeapons = true;
+    }
+
+    /**
+     * @return true if any stat changed since the last {@link #drainChanges(ChangeConsumer)}
+     */
+    public boolean hasChanges() {
+        return dirtyPlayerStats != 0 || dirtyWeapons;
+    }
+
+    /**
+     * Passes every row with changed stats to the given consumer, then forgets
+     * the changes. Each changed stat is 1 bit (<code>1L &lt;&lt; stat.ordinal()</code>)
+     * of the mask. Used to only save the stats which actually changed.
+     *
+     * @param consumer the consumer for each changed row
+     */
+    public void drainChanges(ChangeConsumer consumer) {
+        if (!isSync) return;
+
+        if (dirtyPlayerStats != 0) {
+            consumer.accept(null, dirtyPlayerStats);
+            dirtyPlayerStats = 0;
+        }
+        if (!dirtyWeapons) return;
+        for (int id = 0; id < dirtyWeaponStats.length; id++) {
+            if (dirtyWeaponStats[id] == 0) continue;
+            consumer.accept(WeaponTitleIds.title(id), dirtyWeaponStats[id]);
+            dirtyWeaponStats[id] = 0;
+        }
+        dirtyWeapons = false;
     }
 
     /**
@@ -194,7 +341,12 @@ public class StatsData {
      */
     public Set<String> getWeapons() {
         if (!isSync) return null;
-        return weaponData.keySet();
+        StatsRow[] rows = weaponRows;
+        Set<String> weapons = new HashSet<>();
+        for (int id = 0; id < rows.length; id++) {
+            if (rows[id] != null) weapons.add(WeaponTitleIds.title(id));
+        }
+        return weapons;
     }
 
     /**
@@ -224,10 +376,41 @@ public class StatsData {
         if (stat == WeaponStat.UUID) return uuid;
         if (stat == WeaponStat.WEAPON_TITLE) return weaponTitle;
 
-        Map<WeaponStat, Object> data = weaponData.get(weaponTitle);
-        if (data == null) return defaultValue;
+        StatsRow row = getRow(WeaponTitleIds.find(weaponTitle));
+        if (row == null) return defaultValue;
 
-        return data.getOrDefault(stat, defaultValue);
+        Object value = row.get(stat.ordinal());
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Gets an integer weapon stat without boxing.
+     * When data isn't yet synced, 0 is always returned.
+     *
+     * @param weaponTitle the weapon title
+     * @param stat the integer weapon stat
+     * @return the value of the stat
+     */
+    public int getInt(String weaponTitle, WeaponStat stat) {
+        if (stat.getClassType() != Integer.class) throw new IllegalArgumentException("Tried to get int from stat " + stat);
+        if (!isSync) return 0;
+        StatsRow row = getRow(WeaponTitleIds.find(weaponTitle));
+        return row == null ? 0 : row.getInt(stat.ordinal());
+    }
+
+    /**
+     * Gets a float weapon stat without boxing.
+     * When data isn't yet synced, 0 is always returned.
+     *
+     * @param weaponTitle the weapon title
+     * @param stat the float weapon stat
+     * @return the value of the stat
+     */
+    public float getFloat(String weaponTitle, WeaponStat stat) {
+        if (stat.getClassType() != Float.class) throw new IllegalArgumentException("Tried to get float from stat " + stat);
+        if (!isSync) return 0.0f;
+        StatsRow row = getRow(WeaponTitleIds.find(weaponTitle));
+        return row == null ? 0.0f : row.getFloat(stat.ordinal());
     }
 
     /**
@@ -242,36 +425,73 @@ public class StatsData {
         if (playerData == null) throw new IllegalArgumentException("Tried to set null value for player data");
         if (weaponData == null) throw new IllegalArgumentException("Tried to set null value for weapon data");
 
-        this.playerData = playerData;
-        this.weaponData = weaponData;
+        StatsRow playerRow = newRow(StatsRow.Layout.PLAYER);
+        playerData.forEach((stat, value) -> playerRow.set(stat.ordinal(), copyValue(value)));
+
+        StatsRow[] rows = EMPTY_ROWS;
+        for (Map.Entry<String, Map<WeaponStat, Object>> entry : weaponData.entrySet()) {
+            int id = WeaponTitleIds.of(entry.getKey());
+            if (id >= rows.length) rows = Arrays.copyOf(rows, id + 1);
+
+            StatsRow row = newRow(StatsRow.Layout.WEAPON);
+            entry.getValue().forEach((stat, value) -> row.set(stat.ordinal(), copyValue(value)));
+            rows[id] = row;
+        }
+
+        this.playerRow = playerRow;
+        this.weaponRows = rows;
         isSync = true;
     }
 
+    @SuppressWarnings("unchecked")
+    private static Object copyValue(Object value) {
+        return value instanceof Set<?> set ? Collections.unmodifiableSet(new HashSet<>((Set<String>) set)) : value;
+    }
+
     public List<String> getPlayerData() {
         if (!isSync) return null;
-        if (playerData.isEmpty()) return null;
         List<String> data = new ArrayList<>();
-        for (Map.Entry<PlayerStat, Object> entry : playerData.entrySet()) {
-            data.add("" + GOLD + entry.getKey() + ": " + GRAY + entry.getValue());
+        for (PlayerStat stat : PlayerStat.VALUES) {
+            if (stat == PlayerStat.UUID) continue;
+            Object value = playerRow.get(stat.ordinal());
+            if (value != null) data.add("" + GOLD + stat + ": " + GRAY + value);
         }
-        return data;
+        return data.isEmpty() ? null : data;
     }
 
     public List<String> getWeaponData(String weapon) {
         if (!isSync) return null;
-        Map<WeaponStat, Object> data = weaponData.get(weapon);
-        if (data == null || data.isEmpty()) return null;
+        StatsRow row = getRow(WeaponTitleIds.find(weapon));
+        if (row == null) return null;
         List<String> dataList = new ArrayList<>();
-        for (Map.Entry<WeaponStat, Object> entry : data.entrySet()) {
-            dataList.add("" + GOLD + entry.getKey() + ": " + GRAY + entry.getValue());
+        for (WeaponStat stat : WeaponStat.VALUES) {
+            if (stat == WeaponStat.UUID || stat == WeaponStat.WEAPON_TITLE) continue;
+            Object value = row.get(stat.ordinal());
+            if (value != null) dataList.add("" + GOLD + stat + ": " + GRAY + value);
         }
-        return dataList;
+        return dataList.isEmpty() ? null : dataList;
+    }
+
+    /**
+     * Receives the changed stats of a row, see {@link #drainChanges(ChangeConsumer)}.
+     */
+    @FunctionalInterface
+    public interface ChangeConsumer {
+
+        /**
+         * @param weaponTitle the weapon title, or null for the player stats
+         * @param changedStats the bit mask of changed stat ordinals
+         */
+        void accept(String weaponTitle, long changedStats);
     }
 
     @Override
     public String toString() {
+        Map<String, List<String>> weaponData = new HashMap<>();
+        Set<String> weapons = getWeapons();
+        if (weapons != null) weapons.forEach(weapon -> weaponData.put(weapon, getWeaponData(weapon)));
         return "StatsData{" +
-                "playerData=" + playerData +
+                "playerData=" + getPlayerData() +
                 ", weaponData=" + weaponData +
                 '}';
     }